@@ -0,0 +1,183 @@
+package com.u1mobis.dashboard_backend.config;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * STOMP 구독자 수천 명에게 프레임 1개를 보내는 비용 (송신 채널 스레드 1개 기준)
+ * - 세션은 AlertPrioritySessionDecorator 로 감싼 가짜 소켓 (정상 세션은 바로 전송)
+ * - stalled 개 세션은 송신 도중 멈춘 소켓 (보조 스레드가 전송 잠금을 잡고 대기)
+ *   → 멈춘 세션이 송신 스레드를 붙잡지 않는지, 버퍼가 찬 뒤 트윈 프레임만 버려지고 알림은 남는지 확인
+ * - 10번에 1번은 알림 프레임, 나머지는 트윈 변경분 프레임
+ * - 측정 중 세션이 닫히지 않도록 송신 시간 제한은 1시간, 버퍼/예비 공간은 application.properties 기본값
+ * - 종료 시 버린 프레임 수와 멈춘 세션이 풀린 뒤 실제로 받은 알림 수 출력
+ * ./gradlew jmh -Pjmh.includes=WebSocketFanOutBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WebSocketFanOutBenchmark {
+
+    private static final int SEND_TIME_LIMIT = (int) TimeUnit.HOURS.toMillis(1);
+    private static final int BUFFER_SIZE_LIMIT = 524288;
+    private static final int ALERT_HEADROOM = 131072;
+
+    @Param({"1000", "5000"})
+    public int clients;
+
+    @Param({"0", "100"})
+    public int stalled;
+
+    private final List<AlertPrioritySessionDecorator> sessions = new ArrayList<>();
+    private final List<FakeSocket> sockets = new ArrayList<>();
+    private final List<Thread> stalledSenders = new ArrayList<>();
+
+    private TextMessage twinFrame;
+    private TextMessage alertFrame;
+    private long droppedBefore;
+    private int sent;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        twinFrame = new TextMessage(frame("/topic/twin/u1mobis",
+                "{\"type\":\"delta\",\"seq\":1024,\"epoch\":\"3f2b\",\"changes\":[" +
+                "{\"op\":\"STATUS\",\"kind\":\"product\",\"id\":\"CAR_Line1_001\",\"status\":\"PROCESSING\"," +
+                "\"station\":\"DoorStation\",\"progress\":42,\"position\":{\"x\":12.5,\"y\":0.0,\"z\":4.25}}," +
+                "{\"op\":\"STATUS\",\"kind\":\"robot\",\"id\":\"ROBOT_L1_01\",\"action\":\"WORKING\",\"battery\":78}]}"));
+        alertFrame = new TextMessage(frame("/topic/alerts/u1mobis",
+                "{\"type\":\"danger\",\"alertType\":\"TEMPERATURE_HIGH\",\"message\":\"온도 임계값 초과\"," +
+                "\"value\":31.5,\"companyName\":\"u1mobis\",\"state\":\"RAISED\"}"));
+
+        CountDownLatch entered = new CountDownLatch(stalled);
+        for (int i = 0; i < clients; i++) {
+            FakeSocket socket = new FakeSocket("session-" + i, i < stalled, entered);
+            AlertPrioritySessionDecorator session = new AlertPrioritySessionDecorator(socket.proxy(),
+                    SEND_TIME_LIMIT, BUFFER_SIZE_LIMIT, ALERT_HEADROOM);
+            sockets.add(socket);
+            sessions.add(session);
+            if (socket.stalled) {
+                Thread sender = new Thread(() -> send(session, twinFrame), "stalled-" + i);
+                sender.setDaemon(true);
+                sender.start();
+                stalledSenders.add(sender);
+            }
+        }
+        entered.await();
+        droppedBefore = AlertPrioritySessionDecorator.getDroppedMessages();
+    }
+
+    @Benchmark
+    public int fanOut() {
+        TextMessage message = ++sent % 10 == 0 ? alertFrame : twinFrame;
+        for (AlertPrioritySessionDecorator session : sessions) {
+            send(session, message);
+        }
+        return sent;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        long deliveredAlerts = 0;
+        long stalledBuffer = 0;
+        for (int i = 0; i < stalled; i++) {
+            stalledBuffer += sessions.get(i).getBufferSize();
+        }
+        for (FakeSocket socket : sockets) {
+            socket.release.countDown();
+        }
+        for (Thread sender : stalledSenders) {
+            sender.join();
+        }
+        for (int i = 0; i < stalled; i++) {
+            deliveredAlerts += sockets.get(i).alerts;
+        }
+        System.out.printf("%n[WebSocketFanOutBenchmark] clients=%d stalled=%d frames=%d dropped=%d " +
+                        "stalledBufferBytes=%d alertsDeliveredToStalled=%d of %d%n",
+                clients, stalled, sent, AlertPrioritySessionDecorator.getDroppedMessages() - droppedBefore,
+                stalledBuffer, deliveredAlerts, stalled * (long) (sent / 10));
+    }
+
+    private static void send(AlertPrioritySessionDecorator session, TextMessage message) {
+        try {
+            session.sendMessage(message);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // StompEncoder 가 만드는 MESSAGE 프레임과 같은 형태
+    private static String frame(String destination, String body) {
+        return "MESSAGE\ndestination:" + destination + "\ncontent-type:application/json\nsubscription:sub-0\n" +
+                "message-id:bench-1\ncontent-length:" + body.length() + "\n\n" + body + "\0";
+    }
+
+    // 전송 바이트만 세는 소켓, stalled 면 첫 전송에서 release 될 때까지 대기
+    private static final class FakeSocket implements InvocationHandler {
+
+        private final String id;
+        private final boolean stalled;
+        private final CountDownLatch entered;
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final Map<String, Object> attributes = new HashMap<>();
+
+        private long bytes;
+        private long alerts;
+
+        FakeSocket(String id, boolean stalled, CountDownLatch entered) {
+            this.id = id;
+            this.stalled = stalled;
+            this.entered = entered;
+        }
+
+        WebSocketSession proxy() {
+            return (WebSocketSession) Proxy.newProxyInstance(WebSocketSession.class.getClassLoader(),
+                    new Class<?>[] {WebSocketSession.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "sendMessage" -> {
+                    if (stalled && bytes == 0) {
+                        entered.countDown();
+                        release.await();
+                    }
+                    TextMessage message = (TextMessage) args[0];
+                    bytes += message.getPayloadLength();
+                    if (AlertPrioritySessionDecorator.isAlert(message)) {
+                        alerts++;
+                    }
+                    yield null;
+                }
+                case "getId" -> id;
+                case "isOpen" -> true;
+                case "getAttributes" -> attributes;
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> "FakeSocket(" + id + ")";
+                default -> null;
+            };
+        }
+    }
+}
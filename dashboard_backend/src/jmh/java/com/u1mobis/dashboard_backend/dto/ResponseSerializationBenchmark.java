@@ -0,0 +1,188 @@
+package com.u1mobis.dashboard_backend.dto;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.u1mobis.dashboard_backend.config.WebConfig;
+import com.u1mobis.dashboard_backend.service.KPIStreamAggregator;
+
+/**
+ * 엔드포인트별 응답 생성 + 직렬화 비용 비교 (기존 Map 트리 vs 응답 레코드)
+ * - 요청 1회 = 응답 객체 조립 + 공용 ObjectMapper 직렬화
+ * - gc 프로파일러의 gc.alloc.rate.norm (B/op) 이 요청당 가비지 양
+ * ./gradlew jmh -Pjmh.includes=ResponseSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ResponseSerializationBenchmark {
+
+    private static final String[] WINDOWS = {"1m", "5m", "15m", "1h", "shift"};
+
+    private ObjectMapper mapper;
+    private String timestamp;
+
+    @Setup
+    public void setUp() {
+        mapper = new WebConfig().objectMapper();
+        timestamp = "2025-01-01T09:00:00";
+    }
+
+    // /kpi/realtime (윈도우 5개 포함)
+    @Benchmark
+    public byte[] kpiRealtimeMap() throws JsonProcessingException {
+        Map<String, Object> windows = new HashMap<>();
+        for (String window : WINDOWS) {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("window", window);
+            stats.put("samples", 120L);
+            stats.put("oee", 0.82);
+            stats.put("availability", 0.9);
+            stats.put("performance", 0.95);
+            stats.put("quality", 0.96);
+            stats.put("fty", 0.91);
+            stats.put("otd", 0.97);
+            stats.put("total_count", 240L);
+            stats.put("good_count", 230L);
+            stats.put("completed_count", 60L);
+            stats.put("completed_good_count", 58L);
+            stats.put("avg_cycle_time", 41.5);
+            stats.put("min_cycle_time", 35.0);
+            stats.put("max_cycle_time", 52.0);
+            stats.put("cycle_time_stddev", 3.2);
+            windows.put(window, stats);
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("oee", 82.0);
+        result.put("fty", 91.0);
+        result.put("otd", 97.0);
+        result.put("timestamp", timestamp);
+        result.put("companyName", "u1mobis");
+        result.put("lineId", 1L);
+        result.put("windows", windows);
+        return mapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public byte[] kpiRealtimeRecord() throws JsonProcessingException {
+        Map<String, KPIStreamAggregator.WindowStats> windows = new LinkedHashMap<>();
+        for (String window : WINDOWS) {
+            windows.put(window, new KPIStreamAggregator.WindowStats(window, 120, 0.82, 0.9, 0.95, 0.96, 0.91, 0.97,
+                    240, 230, 60, 58, 41.5, 35.0, 52.0, 3.2));
+        }
+        return mapper.writeValueAsBytes(new RealTimeKpiResponse(82.0, 91.0, 97.0, timestamp, "u1mobis", 1L,
+                windows, null, null, null));
+    }
+
+    // /api/unity/realtime-data (제품 3대, 스테이션 4개, 로봇 2대)
+    @Benchmark
+    public byte[] unityLegacyMap() throws JsonProcessingException {
+        Map<String, Object> products = new HashMap<>();
+        for (int i = 1; i <= 3; i++) {
+            Map<String, Object> position = new HashMap<>();
+            position.put("x", i * 10.0);
+            position.put("y", 0.0);
+            position.put("z", 5.0);
+            Map<String, Object> product = new HashMap<>();
+            product.put("productId", "P00" + i);
+            product.put("currentStation", "DoorStation");
+            product.put("status", "PROCESSING");
+            product.put("productColor", "RED");
+            product.put("lineId", 1L);
+            product.put("position", position);
+            products.put("Car_Line1_00" + i, product);
+        }
+        Map<String, Object> stations = new HashMap<>();
+        stations.put("DoorStation_Line1", stationMap("operating", 85.5));
+        stations.put("DoorStation_Line2", stationMap("idle", 92.0));
+        stations.put("WaterLeakTestStation_Line1", stationMap("idle", 90.0));
+        stations.put("WaterLeakTestStation_Line2", stationMap("operating", 88.5));
+        Map<String, Object> robots = new HashMap<>();
+        robots.put("Robot_FrontRight_Line2", robotMap("working", 75));
+        robots.put("Robot_RearRight_Line2", robotMap("idle", 82));
+        Map<String, Object> result = new HashMap<>();
+        result.put("products", products);
+        result.put("stations", stations);
+        result.put("robots", robots);
+        result.put("timestamp", System.currentTimeMillis());
+        result.put("companyName", "u1mobis");
+        return mapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public byte[] unityLegacyRecord() throws JsonProcessingException {
+        Map<String, UnityLegacyRealtimeResponse.Product> products = new LinkedHashMap<>();
+        for (int i = 1; i <= 3; i++) {
+            products.put("Car_Line1_00" + i, new UnityLegacyRealtimeResponse.Product("P00" + i, "DoorStation",
+                    "PROCESSING", "RED", 1L, new UnityLegacyRealtimeResponse.Position(i * 10.0, 0.0, 5.0)));
+        }
+        return mapper.writeValueAsBytes(UnityLegacyRealtimeResponse.of("u1mobis", products,
+                LegacyDefaults.STATIONS, LegacyDefaults.ROBOTS));
+    }
+
+    // /click/robot
+    @Benchmark
+    public byte[] clickRobotMap() throws JsonProcessingException {
+        Map<String, Object> result = new HashMap<>();
+        result.put("robot_id", "ROBOT_001");
+        result.put("robot_name", "도어 장착 로봇");
+        result.put("company_id", 1L);
+        result.put("company_name", "u1mobis");
+        result.put("motor_status", "정상");
+        result.put("led_status", "ON");
+        result.put("status", "작동중");
+        result.put("clickedObjectId", "ROBOT_001");
+        result.put("clickedObjectType", "robot");
+        return mapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public byte[] clickRobotRecord() throws JsonProcessingException {
+        ClickInfo info = new ClickInfo.Robot("ROBOT_001", "도어 장착 로봇", 1L, "u1mobis", "정상", "ON", "작동중",
+                null, null, null).clicked("robot", "ROBOT_001");
+        return mapper.writeValueAsBytes(info);
+    }
+
+    private static Map<String, Object> stationMap(String status, double efficiency) {
+        Map<String, Object> station = new HashMap<>();
+        station.put("status", status);
+        station.put("currentProduct", null);
+        station.put("efficiency", efficiency);
+        return station;
+    }
+
+    private static Map<String, Object> robotMap(String task, int battery) {
+        Map<String, Object> robot = new HashMap<>();
+        robot.put("status", "active");
+        robot.put("currentTask", task);
+        robot.put("batteryLevel", battery);
+        return robot;
+    }
+
+    // UnityLegacyController 의 기본 스테이션/로봇과 같은 값 (한 번만 생성)
+    private static final class LegacyDefaults {
+        static final Map<String, UnityLegacyRealtimeResponse.Station> STATIONS = new LinkedHashMap<>();
+        static final Map<String, UnityLegacyRealtimeResponse.Robot> ROBOTS = new LinkedHashMap<>();
+
+        static {
+            STATIONS.put("DoorStation_Line1", new UnityLegacyRealtimeResponse.Station("operating", null, 85.5));
+            STATIONS.put("DoorStation_Line2", new UnityLegacyRealtimeResponse.Station("idle", null, 92.0));
+            STATIONS.put("WaterLeakTestStation_Line1", new UnityLegacyRealtimeResponse.Station("idle", null, 90.0));
+            STATIONS.put("WaterLeakTestStation_Line2", new UnityLegacyRealtimeResponse.Station("operating", null, 88.5));
+            ROBOTS.put("Robot_FrontRight_Line2", new UnityLegacyRealtimeResponse.Robot("active", "working", 75));
+            ROBOTS.put("Robot_RearRight_Line2", new UnityLegacyRealtimeResponse.Robot("active", "idle", 82));
+        }
+    }
+}
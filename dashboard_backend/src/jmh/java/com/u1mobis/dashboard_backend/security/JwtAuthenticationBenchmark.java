@@ -0,0 +1,98 @@
+package com.u1mobis.dashboard_backend.security;
+
+import java.lang.reflect.Field;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import com.u1mobis.dashboard_backend.security.CustomUserDetailsService.CustomUserPrincipal;
+import com.u1mobis.dashboard_backend.util.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * 요청 1건당 JWT 인증 비용 (JwtAuthenticationFilter 의 토큰 처리 부분, DB 조회 제외)
+ * - legacyParse: 변경 전 방식 (요청마다 키 생성 + 토큰 파싱 3회, 이후 users 조회는 측정 안 함)
+ * - verifyMiss: 캐시 미스 (서명 검증 1회 + LRU 저장/제거), 캐시 한도의 2배 토큰을 돌려 사용
+ * - verifyHit / authenticateHit: 캐시 적중, principal/인증 객체 생성까지 포함
+ * ./gradlew jmh -Pjmh.includes=JwtAuthenticationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "u1mobis-dashboard-very-secure-secret-key-for-jwt-token-generation";
+    private static final int CACHE_MAX_SIZE = 1000;
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private String[] missTokens;
+    private int missIndex;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        jwtUtil = new JwtUtil();
+        set("secret", SECRET);
+        set("jwtExpiration", 86400);
+        set("refreshExpiration", 604800);
+        set("cacheMaxSize", CACHE_MAX_SIZE);
+        jwtUtil.init();
+
+        token = jwtUtil.generateToken("bench-user", 1L, 1L);
+        missTokens = new String[CACHE_MAX_SIZE * 2];
+        for (int i = 0; i < missTokens.length; i++) {
+            missTokens[i] = jwtUtil.generateToken("bench-user-" + i, (long) i, 1L);
+        }
+        jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public boolean legacyParse() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        String username = claims.getSubject();
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        String subject = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        boolean expired = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody()
+                .getExpiration().before(new Date());
+        return username.equals(subject) && !expired;
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyMiss() {
+        String next = missTokens[missIndex];
+        missIndex = (missIndex + 1) % missTokens.length;
+        return jwtUtil.verify(next);
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyHit() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public UsernamePasswordAuthenticationToken authenticateHit() {
+        CustomUserPrincipal principal = CustomUserPrincipal.fromToken(jwtUtil.verify(token));
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    private void set(String name, Object value) throws ReflectiveOperationException {
+        Field field = JwtUtil.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(jwtUtil, value);
+    }
+}
@@ -0,0 +1,131 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 환경 센서 포인트 1개를 line protocol 바이트로 만드는 비용
+ * - legacy: 변경 전 InfluxDB3Service.buildLineProtocol (String.replace 이스케이프 + String.join) + getBytes
+ * - encodeToBytes: InfluxBatchWriter.write 경로 (스레드별 버퍼에 기록 후 정확한 크기로 복사)
+ * - encodeReused: 호출자가 버퍼를 재사용하는 경로 (복사 없음)
+ * - gc 프로파일러의 gc.alloc.rate.norm (B/op) 으로 포인트당 할당량 비교
+ * ./gradlew jmh -Pjmh.includes=LineProtocolEncoderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LineProtocolEncoderBenchmark {
+
+    private LineProtocolEncoder encoder;
+    private LineProtocolEncoder.LineBuffer buffer;
+    private Map<String, String> tags;
+    private Map<String, Object> fields;
+    private Instant timestamp;
+
+    @Setup
+    public void setUp() {
+        encoder = new LineProtocolEncoder(10000);
+        buffer = new LineProtocolEncoder.LineBuffer(256);
+        tags = new LinkedHashMap<>();
+        tags.put("company", "u1mobis");
+        tags.put("line", "1");
+        tags.put("sensor", "ENV SENSOR,01");
+        fields = new LinkedHashMap<>();
+        fields.put("temperature", 24.37);
+        fields.put("humidity", 51.2);
+        fields.put("air_quality", 80);
+        fields.put("status", "NORMAL \"ok\"");
+        timestamp = Instant.parse("2025-01-01T09:00:00.123Z");
+    }
+
+    @Benchmark
+    public byte[] legacy() {
+        return buildLineProtocol("environment", tags, fields, timestamp).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] encodeToBytes() {
+        return encoder.encodeToBytes("environment", tags, fields, timestamp);
+    }
+
+    @Benchmark
+    public int encodeReused() {
+        buffer.reset();
+        encoder.encode(buffer, "environment", tags, fields, timestamp);
+        return buffer.size();
+    }
+
+    // 변경 전 InfluxDB3Service 구현 그대로
+    private static String buildLineProtocol(String measurement, Map<String, String> tags,
+                                            Map<String, Object> fields, Instant timestamp) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(escapeValue(measurement));
+        if (tags != null && !tags.isEmpty()) {
+            for (Map.Entry<String, String> tag : tags.entrySet()) {
+                sb.append(",")
+                  .append(escapeKey(tag.getKey()))
+                  .append("=")
+                  .append(escapeValue(tag.getValue()));
+            }
+        }
+        sb.append(" ");
+        if (fields != null && !fields.isEmpty()) {
+            List<String> fieldStrings = new ArrayList<>();
+            for (Map.Entry<String, Object> field : fields.entrySet()) {
+                fieldStrings.add(escapeKey(field.getKey()) + "=" + formatFieldValue(field.getValue()));
+            }
+            sb.append(String.join(",", fieldStrings));
+        }
+        if (timestamp != null) {
+            sb.append(" ").append(timestamp.toEpochMilli() * 1_000_000L);
+        }
+        return sb.toString();
+    }
+
+    private static String formatFieldValue(Object value) {
+        if (value == null) {
+            return "\"\"";
+        } else if (value instanceof String) {
+            return "\"" + escapeStringValue((String) value) + "\"";
+        } else if (value instanceof Boolean) {
+            return value.toString();
+        } else if (value instanceof Integer || value instanceof Long) {
+            return value + "i";
+        } else {
+            return String.valueOf(value);
+        }
+    }
+
+    private static String escapeKey(String key) {
+        if (key == null) return "";
+        return key.replace(" ", "\\ ")
+                 .replace(",", "\\,")
+                 .replace("=", "\\=");
+    }
+
+    private static String escapeValue(String value) {
+        if (value == null) return "";
+        return value.replace(" ", "\\ ")
+                   .replace(",", "\\,")
+                   .replace("=", "\\=");
+    }
+
+    private static String escapeStringValue(String value) {
+        if (value == null) return "";
+        return value.replace("\\", "\\\\")
+                   .replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,169 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.u1mobis.dashboard_backend.dto.ProcessingProduct;
+import com.u1mobis.dashboard_backend.entity.CurrentProduction;
+import com.u1mobis.dashboard_backend.repository.CurrentProductionRepository;
+import com.u1mobis.dashboard_backend.repository.CurrentProductionRepository.LineProductionSummary;
+import com.u1mobis.dashboard_backend.repository.ProductionCompletedRepository;
+
+/**
+ * 생산 현황 조회 1회 비용 (기존 개별 쿼리 6회 vs 집계 쿼리 + 프로젝션 2회)
+ * - 저장소는 쿼리마다 rttMicros 만큼 대기하는 프록시 (DB 왕복 지연만 흉내, 쿼리 실행 시간은 제외)
+ * - rttMicros=0 은 응답 조립 비용만, 그 외는 왕복 횟수 차이가 그대로 드러난다
+ * - 회사명 없는 경로 (스트리밍 집계 미사용), 합치기 유효 시간 0
+ * ./gradlew jmh -Pjmh.includes=ProductionStatusBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductionStatusBenchmark {
+
+    private static final Long LINE_ID = 1L;
+
+    @Param({"0", "500", "2000"})
+    public long rttMicros;
+
+    private ProductionService productionService;
+    private CurrentProductionRepository currentProductionRepository;
+    private ProductionCompletedRepository productionCompletedRepository;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<CurrentProduction> entities = new ArrayList<>();
+        List<ProcessingProduct> products = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            CurrentProduction production = CurrentProduction.builder()
+                    .productId(String.format("CAR_Line1_%03d", i)).productColor("RED")
+                    .startTime(start.plusMinutes(i)).dueDate(start.plusHours(8)).reworkCount(0)
+                    .currentStation("DoorStation").status("PROCESSING").createdAt(start).lineId(LINE_ID)
+                    .targetQuantity(1).build();
+            entities.add(production);
+            products.add(new ProcessingProduct(production.getProductId(), production.getProductColor(),
+                    production.getStartTime(), production.getDueDate(), production.getReworkCount(),
+                    production.getCurrentStation(), production.getStatus(), production.getCreatedAt(),
+                    production.getLineId(), production.getTargetQuantity()));
+        }
+        LineProductionSummary summary = new Summary(10L, 120L, 85L, 82L, 85L, 3527.5, 11L);
+
+        currentProductionRepository = repository(CurrentProductionRepository.class, name -> switch (name) {
+            case "findByStatusAndLineId" -> entities;
+            case "getTodayProductionTargetByLineId" -> 120;
+            case "getLineProductionSummary" -> summary;
+            case "findProcessingProductsByLineId" -> products;
+            default -> null;
+        });
+        productionCompletedRepository = repository(ProductionCompletedRepository.class, name -> switch (name) {
+            case "countTodayCompletedProductsByLineId" -> 85L;
+            case "countTodayGoodProductsByLineId" -> 82L;
+            case "countCompletedInLastHourByLineId" -> 11L;
+            case "getAverageCycleTimeTodayByLineId" -> 41.5;
+            default -> null;
+        });
+        productionService = new ProductionService(currentProductionRepository, productionCompletedRepository,
+                null, null, null, new RequestCoalescer(0), null);
+    }
+
+    // 변경 전: 생산 중 제품 엔티티 + 스칼라 쿼리 5회
+    @Benchmark
+    public Map<String, Object> separateQueries() {
+        List<CurrentProduction> processing = currentProductionRepository.findByStatusAndLineId("PROCESSING", LINE_ID);
+        LocalDateTime dayStart = LocalDateTime.now().toLocalDate().atStartOfDay();
+        Integer productionTarget = currentProductionRepository.getTodayProductionTargetByLineId(LINE_ID,
+                dayStart, dayStart.plusDays(1));
+        Long todayCompleted = productionCompletedRepository.countTodayCompletedProductsByLineId(LINE_ID);
+        Long todayGood = productionCompletedRepository.countTodayGoodProductsByLineId(LINE_ID);
+        Long lastHour = productionCompletedRepository.countCompletedInLastHourByLineId(
+                LocalDateTime.now().minusHours(1), LINE_ID);
+        Double avgCycleTime = productionCompletedRepository.getAverageCycleTimeTodayByLineId(LINE_ID);
+        return Map.of(
+                "processing_count", processing.size(),
+                "today_completed", todayCompleted,
+                "today_good", todayGood,
+                "production_target", productionTarget,
+                "hourly_rate", (double) lastHour,
+                "cycle_time", avgCycleTime,
+                "processing_products", processing);
+    }
+
+    // 변경 후: ProductionService.getCurrentProductionStatus (집계 1회 + 프로젝션 1회)
+    @Benchmark
+    public Map<String, Object> aggregateQuery() {
+        return productionService.getCurrentProductionStatus(null, LINE_ID);
+    }
+
+    // 메서드 이름으로 응답하고 호출마다 왕복 지연을 흉내 내는 저장소
+    @SuppressWarnings("unchecked")
+    private <T> T repository(Class<T> type, Function<String, Object> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName() + "(benchmark)";
+                    default -> {
+                        if (rttMicros > 0) {
+                            LockSupport.parkNanos(rttMicros * 1000);
+                        }
+                        yield answers.apply(method.getName());
+                    }
+                });
+    }
+
+    private record Summary(Long processingCount, Long productionTarget, Long todayCompleted, Long todayGood,
+                           Long cycleTimeCount, Double cycleTimeSum, Long lastHourCompleted)
+            implements LineProductionSummary {
+
+        @Override
+        public Long getProcessingCount() {
+            return processingCount;
+        }
+
+        @Override
+        public Long getProductionTarget() {
+            return productionTarget;
+        }
+
+        @Override
+        public Long getTodayCompleted() {
+            return todayCompleted;
+        }
+
+        @Override
+        public Long getTodayGood() {
+            return todayGood;
+        }
+
+        @Override
+        public Long getCycleTimeCount() {
+            return cycleTimeCount;
+        }
+
+        @Override
+        public Double getCycleTimeSum() {
+            return cycleTimeSum;
+        }
+
+        @Override
+        public Long getLastHourCompleted() {
+            return lastHourCompleted;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.u1mobis.dashboard_backend.entity.Company;
+import com.u1mobis.dashboard_backend.entity.EnvironmentSensor;
+import com.u1mobis.dashboard_backend.entity.ThresholdRule;
+import com.u1mobis.dashboard_backend.entity.ThresholdRule.Comparator;
+import com.u1mobis.dashboard_backend.entity.ThresholdRule.Metric;
+import com.u1mobis.dashboard_backend.entity.ThresholdRule.RuleWindow;
+import com.u1mobis.dashboard_backend.repository.ThresholdRuleRepository;
+
+/**
+ * 이벤트 1건당 규칙 평가 시간 (회사 1곳, 라인 1개에 규칙 N개)
+ * - normal: 모든 지표가 정상 범위 (대부분의 샘플)
+ * - violating: 절반 이상의 규칙이 발생 상태로 유지 (알림은 버스트 한도 0 으로 억제되어 DB/전송 없음)
+ * ./gradlew jmh -Pjmh.includes=ThresholdRuleEngineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ThresholdRuleEngineBenchmark {
+
+    private static final Metric[] KPI_METRICS = {
+            Metric.OEE, Metric.AVAILABILITY, Metric.PERFORMANCE, Metric.QUALITY, Metric.FTY, Metric.OTD};
+    private static final Metric[] ENVIRONMENT_METRICS = {Metric.TEMPERATURE, Metric.HUMIDITY, Metric.AIR_QUALITY};
+
+    @Param({"100", "500"})
+    public int ruleCount;
+
+    private ThresholdRuleEngine engine;
+    private Company company;
+    private EnvironmentSensor sensor;
+
+    @Setup
+    public void setUp() {
+        List<ThresholdRule> rules = new ArrayList<>(ruleCount);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ruleCount; i++) {
+            boolean kpi = i % 4 != 3;
+            Metric metric = kpi ? KPI_METRICS[i % KPI_METRICS.length] : ENVIRONMENT_METRICS[i % ENVIRONMENT_METRICS.length];
+            rules.add(ThresholdRule.builder()
+                    .ruleId((long) i + 1)
+                    .companyId(1L)
+                    .lineId(i % 2 == 0 ? null : 1L)
+                    .alertType(metric + "_" + i)
+                    .metric(metric)
+                    .comparator(kpi ? Comparator.LT : Comparator.GT)
+                    .threshold(kpi ? 50.0 + i % 40 : 20.0 + i % 300)
+                    .window(RuleWindow.SAMPLE)
+                    .severity("danger")
+                    .enabled(true)
+                    .updatedAt(now)
+                    .build());
+        }
+
+        // 규칙 조회만 응답하는 저장소, 알림 서비스/집계기는 이 경로에서 호출되지 않음
+        ThresholdRuleRepository repository = (ThresholdRuleRepository) Proxy.newProxyInstance(
+                ThresholdRuleRepository.class.getClassLoader(), new Class<?>[] {ThresholdRuleRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByEnabledTrue" -> rules;
+                    case "count" -> (long) rules.size();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "ThresholdRuleRepository(benchmark)";
+                    default -> null;
+                });
+        engine = new ThresholdRuleEngine(repository, new AlertStateEngine(), null, null, null);
+        engine.reload();
+
+        company = Company.builder().companyId(1L).companyName("bench").build();
+        sensor = EnvironmentSensor.builder().lineId(1L).temperature(25.0).humidity(50.0).airQuality(80).build();
+    }
+
+    @Benchmark
+    public void evaluateKpiNormal() {
+        engine.evaluateKpi(company, 1L, 99.0, 99.0, 99.0, 99.0, 99.0, 99.0);
+    }
+
+    @Benchmark
+    public void evaluateKpiViolating() {
+        engine.evaluateKpi(company, 1L, 60.0, 60.0, 60.0, 60.0, 60.0, 60.0);
+    }
+
+    @Benchmark
+    public void evaluateEnvironmentNormal() {
+        engine.evaluateEnvironment(company, sensor);
+    }
+}
@@ -0,0 +1,228 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.u1mobis.dashboard_backend.config.WebConfig;
+
+/**
+ * 트윈 전체 상태 인코딩 비교 (/unity/realtime-data JSON vs /unity/realtime-frame 바이너리 프레임)
+ * - 라인 수에 비례한 제품/스테이션/로봇/컨베이어 (라인당 제품 10, 스테이션 2, 로봇 4, 컨베이어 1)
+ * - JSON 은 TwinStateProjection 뷰와 같은 Map 구조, 프레임은 같은 값으로 FrameWriter 호출
+ * - 크기는 setUp 에서 한 번 출력 (jsonBytes / frameBytes)
+ * ./gradlew jmh -Pjmh.includes=TwinFrameBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TwinFrameBenchmark {
+
+    private static final String[] STATUSES = {"PROCESSING", "WAITING", "REWORK"};
+    private static final String[] COLORS = {"RED", "BLUE", "WHITE", "BLACK"};
+
+    @Param({"2", "20"})
+    public int lines;
+
+    private ObjectMapper mapper;
+    private TwinFrameEncoder encoder;
+    private Map<String, Object> view;
+
+    private Product[] products;
+    private Station[] stations;
+    private RobotState[] robots;
+    private Conveyor[] conveyors;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        mapper = new WebConfig().objectMapper();
+        encoder = new TwinFrameEncoder(4, 65536);
+
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        products = new Product[lines * 10];
+        for (int i = 0; i < products.length; i++) {
+            products[i] = new Product(String.format("CAR_Line%d_%03d", i / 10 + 1, i), (long) (i / 10 + 1),
+                    i % 2 == 0 ? "DoorStation" : "WaterLeakTestStation", STATUSES[i % STATUSES.length],
+                    COLORS[i % COLORS.length], COLORS[(i + 1) % COLORS.length], i * 7 % 100, i % 3,
+                    i * 1.5, 0.0, i % 10 * 2.25, start.plusMinutes(i), start.plusHours(8));
+        }
+        stations = new Station[lines * 2];
+        for (int i = 0; i < stations.length; i++) {
+            stations[i] = new Station((i % 2 == 0 ? "DoorStation_Line" : "WaterLeakTestStation_Line") + (i / 2 + 1),
+                    (long) (i / 2 + 1), products[i * 5].id, i % 3 == 0 ? "IDLE" : "OPERATING", "NORMAL",
+                    85.0 + i % 10);
+        }
+        robots = new RobotState[lines * 4];
+        for (int i = 0; i < robots.length; i++) {
+            robots[i] = new RobotState(String.format("ROBOT_L%d_%02d", i / 4 + 1, i % 4), (long) (i / 4 + 1),
+                    "작동중", i % 2 == 0 ? "WORKING" : "IDLE", 60 + i % 40, 120 + i, i * 0.5, 1.2, i % 7 * 0.75);
+        }
+        conveyors = new Conveyor[lines];
+        for (int i = 0; i < conveyors.length; i++) {
+            conveyors[i] = new Conveyor("CONVEYOR_Line" + (i + 1), (long) (i + 1), "START", 1.5);
+        }
+
+        view = buildView();
+        System.out.printf("%n[TwinFrameBenchmark] lines=%d jsonBytes=%d frameBytes=%d%n",
+                lines, mapper.writeValueAsBytes(view).length, frame().length);
+    }
+
+    // 캐시된 뷰 직렬화 (/unity/realtime-data 본문)
+    @Benchmark
+    public byte[] json() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(view);
+    }
+
+    // 뷰 생성 + 직렬화 (상태가 바뀐 뒤 첫 조회)
+    @Benchmark
+    public byte[] jsonWithView() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(buildView());
+    }
+
+    // 트윈 상태에서 바로 프레임 작성 (상태가 바뀐 뒤 첫 조회)
+    @Benchmark
+    public byte[] frame() {
+        try (TwinFrameEncoder.FrameWriter writer = encoder.begin(42)) {
+            writer.beginSection(products.length);
+            for (Product p : products) {
+                writer.product(p.id, p.lineId, p.station, p.status, p.color, p.doorColor, p.progress, p.rework,
+                        true, p.x, p.y, p.z);
+            }
+            writer.endSection();
+            writer.beginSection(stations.length);
+            for (Station s : stations) {
+                writer.station(s.id, s.lineId, s.currentProduct, s.status, s.equipmentStatus, s.efficiency);
+            }
+            writer.endSection();
+            writer.beginSection(robots.length);
+            for (RobotState r : robots) {
+                writer.robot(r.id, r.lineId, r.status, r.action, r.battery, true, true, r.productionCount,
+                        r.x, r.y, r.z);
+            }
+            writer.endSection();
+            writer.beginSection(conveyors.length);
+            for (Conveyor c : conveyors) {
+                writer.conveyor(c.id, c.lineId, c.command, c.speed, true, false, false);
+            }
+            writer.endSection();
+            return writer.finish();
+        }
+    }
+
+    // TwinStateProjection.getRealtimeView 와 같은 구조
+    private Map<String, Object> buildView() {
+        Map<String, Object> productMap = new LinkedHashMap<>();
+        for (Product p : products) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("productId", p.id);
+            map.put("currentStation", p.station);
+            map.put("status", p.status);
+            map.put("reworkCount", p.rework);
+            map.put("productColor", p.color);
+            map.put("lineId", p.lineId);
+            map.put("startTime", p.startTime);
+            map.put("dueDate", p.dueDate);
+            map.put("doorColor", p.doorColor);
+            map.put("workProgress", p.progress);
+            map.put("position", position(p.x, p.y, p.z));
+            map.put("estimatedCompletion", p.dueDate);
+            productMap.put(p.id, map);
+        }
+        Map<String, Object> stationMap = new LinkedHashMap<>();
+        for (Station s : stations) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("stationId", s.id);
+            map.put("stationName", s.id);
+            map.put("lineId", s.lineId);
+            map.put("status", s.status);
+            map.put("temperature", 24.5);
+            map.put("pressure", 1.0);
+            map.put("efficiency", s.efficiency);
+            map.put("equipmentStatus", s.equipmentStatus);
+            map.put("currentProduct", s.currentProduct);
+            map.put("cycleTime", 45);
+            stationMap.put(s.id, map);
+        }
+        Map<String, Object> robotMap = new LinkedHashMap<>();
+        for (RobotState r : robots) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("robotId", r.id);
+            map.put("robotName", r.id);
+            map.put("companyId", 1L);
+            map.put("lineId", r.lineId);
+            map.put("robotType", "ARM");
+            map.put("statusText", r.status);
+            map.put("motorStatus", 1);
+            map.put("ledStatus", 1);
+            map.put("cycleTime", 45);
+            map.put("productionCount", r.productionCount);
+            map.put("quality", 98.5);
+            map.put("temperature", 36.0);
+            map.put("powerConsumption", 1.2);
+            map.put("position", position(r.x, r.y, r.z));
+            map.put("batteryLevel", r.battery);
+            map.put("currentAction", r.action);
+            map.put("movementSpeed", 0.5);
+            map.put("isActive", true);
+            robotMap.put(r.id, map);
+        }
+        Map<String, Object> conveyorMap = new LinkedHashMap<>();
+        for (Conveyor c : conveyors) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("conveyorId", c.id);
+            map.put("conveyorName", c.id);
+            map.put("lineId", c.lineId);
+            map.put("command", c.command);
+            map.put("speed", c.speed);
+            map.put("direction", "FORWARD");
+            map.put("sensorDetected", true);
+            map.put("emergency", false);
+            map.put("maintenanceMode", false);
+            map.put("reason", null);
+            conveyorMap.put(c.id, map);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("products", productMap);
+        result.put("stations", stationMap);
+        result.put("robots", robotMap);
+        result.put("conveyors", conveyorMap);
+        result.put("version", 42L);
+        return result;
+    }
+
+    private static Map<String, Object> position(double x, double y, double z) {
+        Map<String, Object> position = new LinkedHashMap<>();
+        position.put("x", x);
+        position.put("y", y);
+        position.put("z", z);
+        return position;
+    }
+
+    private record Product(String id, Long lineId, String station, String status, String color, String doorColor,
+                           int progress, int rework, double x, double y, double z,
+                           LocalDateTime startTime, LocalDateTime dueDate) {
+    }
+
+    private record Station(String id, Long lineId, String currentProduct, String status, String equipmentStatus,
+                           double efficiency) {
+    }
+
+    private record RobotState(String id, Long lineId, String status, String action, int battery,
+                              int productionCount, double x, double y, double z) {
+    }
+
+    private record Conveyor(String id, Long lineId, String command, double speed) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.u1mobis.dashboard_backend.config;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import com.u1mobis.dashboard_backend.service.AlertService;
+
+/**
+ * 느린 클라이언트용 세션 데코레이터 (Spring ConcurrentWebSocketSessionDecorator, DROP 전략)
+ * - 송신이 밀려 버퍼가 한도에 닿으면 대시보드/트윈 프레임은 버림 (누락은 클라이언트가 seq 로 감지해 재동기화)
+ * - 알림 프레임(/topic/alerts/)은 버리지 않고 예비 공간(alertHeadroom)까지 버퍼에 쌓는다
+ *   예비 공간도 넘치면 DROP 전략대로 가장 오래된 프레임부터 버린다
+ * - 한 번의 송신이 제한 시간을 넘기면 세션 종료 (기본 동작과 동일)
+ */
+public class AlertPrioritySessionDecorator extends ConcurrentWebSocketSessionDecorator {
+
+    private static final String ALERT_DESTINATION = "\ndestination:" + AlertService.TOPIC_PREFIX;
+
+    private static final AtomicLong droppedMessages = new AtomicLong();
+    private static final AtomicLong closedSessions = new AtomicLong();
+
+    private final int sharedBufferSizeLimit;
+
+    public AlertPrioritySessionDecorator(WebSocketSession session, int sendTimeLimit, int bufferSizeLimit,
+                                         int alertHeadroom) {
+        super(session, sendTimeLimit, bufferSizeLimit + alertHeadroom, OverflowStrategy.DROP);
+        this.sharedBufferSizeLimit = bufferSizeLimit;
+    }
+
+    public static long getDroppedMessages() {
+        return droppedMessages.get();
+    }
+
+    public static long getClosedSessions() {
+        return closedSessions.get();
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        // 송신 중인데 버퍼가 찼으면 알림이 아닌 프레임은 버퍼에 넣지 않음 (시간 초과 검사는 상위 클래스가 수행)
+        if (getBufferSize() + message.getPayloadLength() > sharedBufferSizeLimit
+                && getTimeSinceSendStarted() <= getSendTimeLimit()
+                && !isAlert(message)) {
+            droppedMessages.incrementAndGet();
+            return;
+        }
+        try {
+            super.sendMessage(message);
+        } catch (SessionLimitExceededException e) {
+            closedSessions.incrementAndGet();
+            throw e;
+        }
+    }
+
+    // STOMP MESSAGE 프레임의 destination 헤더가 알림 토픽인지 (헤더 영역만 검사)
+    static boolean isAlert(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage text)) {
+            return false;
+        }
+        String payload = text.getPayload();
+        int headerEnd = payload.indexOf("\n\n");
+        return headerEnd >= 0 && payload.lastIndexOf(ALERT_DESTINATION, headerEnd) >= 0;
+    }
+}
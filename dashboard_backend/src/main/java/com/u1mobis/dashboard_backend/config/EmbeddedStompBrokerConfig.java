@@ -0,0 +1,46 @@
+package com.u1mobis.dashboard_backend.config;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 로컬 개발용 내장 STOMP 브로커 (Artemis, websocket.relay.embedded=true 일 때만)
+ * - websocket.broker.mode=relay 와 함께 쓰면 외부 브로커 없이 릴레이 경로를 그대로 시험할 수 있다
+ * - 같은 호스트에서 백엔드를 여러 개 띄우면 첫 번째 노드의 브로커를 나머지가 공유 (나머지는 embedded=false)
+ * - 메모리 전용 (영속화/보안 없음), 운영에서는 외부 브로커 사용
+ * - Artemis 는 developmentOnly 의존성이라 bootRun 에서만 사용 가능 (배포 jar 에는 없음)
+ */
+@Configuration
+@ConditionalOnProperty(name = "websocket.relay.embedded", havingValue = "true")
+@ConditionalOnClass(name = "org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ")
+@Slf4j
+public class EmbeddedStompBrokerConfig {
+
+    @Value("${websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public EmbeddedActiveMQ embeddedStompBroker() throws Exception {
+        ConfigurationImpl configuration = new ConfigurationImpl();
+        configuration.setPersistenceEnabled(false);
+        configuration.setSecurityEnabled(false);
+        // /topic/** 는 멀티캐스트 주소로 (구독자마다 복사본 전달)
+        configuration.addAcceptorConfiguration("stomp",
+                "tcp://" + relayHost + ":" + relayPort + "?protocols=STOMP;multicastPrefix=/topic/");
+
+        EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(configuration);
+        log.info("내장 STOMP 브로커(Artemis) 사용 - {}:{}", relayHost, relayPort);
+        return broker;
+    }
+}
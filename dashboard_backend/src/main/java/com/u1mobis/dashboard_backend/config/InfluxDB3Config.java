@@ -25,7 +25,7 @@ public class InfluxDB3Config {
     private String database;
     
     // API 엔드포인트 설정
-    @Value("${influxdb.api.sql.endpoint:/api/v3/query/sql}")
+    @Value("${influxdb.api.sql.endpoint:/api/v3/query_sql}")
     private String sqlEndpoint;
     
     @Value("${influxdb.api.write.endpoint:/api/v2/write}")
@@ -0,0 +1,12 @@
+package com.u1mobis.dashboard_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @Scheduled 작업 활성화 (파티션 관리 등 주기 작업)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
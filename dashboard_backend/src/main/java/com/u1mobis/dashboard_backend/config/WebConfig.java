@@ -6,6 +6,7 @@ import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 @Configuration
@@ -28,6 +29,8 @@ public class WebConfig implements WebMvcConfigurer {
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
+        // 응답 레코드 getter 호출을 리플렉션 대신 생성된 람다로 처리
+        mapper.registerModule(new BlackbirdModule());
         mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         return mapper;
     }
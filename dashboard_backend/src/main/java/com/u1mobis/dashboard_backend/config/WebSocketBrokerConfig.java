@@ -0,0 +1,43 @@
+package com.u1mobis.dashboard_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * STOMP 메시지 브로커 활성화 (@EnableWebSocketMessageBroker 대신 직접 확장)
+ * - STOMP 세션 데코레이터를 AlertPrioritySessionDecorator 로 바꾸기 위해 SubProtocolWebSocketHandler 만 재정의
+ * - 브로커/엔드포인트/채널/전송 한도 설정은 WebSocketConfig 에서 그대로 적용된다
+ */
+@Configuration(proxyBeanMethods = false)
+public class WebSocketBrokerConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    // true 면 느린 클라이언트의 대시보드/트윈 프레임을 버림, false 면 버퍼 초과 시 세션 종료 (Spring 기본 동작)
+    @Value("${websocket.slow-client.drop:true}")
+    private boolean dropSlowClientFrames;
+
+    // 알림 프레임 전용 예비 버퍼 (bytes)
+    @Value("${websocket.slow-client.alert-headroom:131072}")
+    private int alertHeadroom;
+
+    @Override
+    @Bean
+    public WebSocketHandler subProtocolWebSocketHandler(AbstractSubscribableChannel clientInboundChannel,
+                                                        AbstractSubscribableChannel clientOutboundChannel) {
+        if (!dropSlowClientFrames) {
+            return super.subProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel);
+        }
+        return new SubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel) {
+            @Override
+            protected WebSocketSession decorateSession(WebSocketSession session) {
+                return new AlertPrioritySessionDecorator(session, getSendTimeLimit(), getSendBufferSizeLimit(),
+                        alertHeadroom);
+            }
+        };
+    }
+}
@@ -1,19 +1,83 @@
 package com.u1mobis.dashboard_backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * STOMP 브로커 설정
+ * - simple: 앱 내부 브로커 (기본값), relay: 외부 STOMP 브로커(RabbitMQ, Artemis 등)로 중계해 여러 노드가 구독자 공유
+ *   (로컬 개발은 websocket.relay.embedded=true 로 내장 Artemis 사용, EmbeddedStompBrokerConfig)
+ * - 세션별 송신 버퍼/시간 제한, 느린 클라이언트는 알림을 제외한 프레임을 버림 (AlertPrioritySessionDecorator)
+ *   (대시보드/트윈 변경분은 seq 로 누락을 감지하고 재동기화하므로 최신 메시지만 전달되면 충분)
+ * - 수신/송신 채널은 각각 별도 스레드 풀 사용
+ * 브로커 활성화는 WebSocketBrokerConfig 에서 한다.
+ */
 @Configuration
-@EnableWebSocketMessageBroker
+@Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Value("${websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    // 세션별 송신 대기 버퍼 한도 (bytes) 및 한 번의 송신 허용 시간 (ms, 초과 시 세션 종료)
+    @Value("${websocket.transport.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${websocket.transport.send-time-limit-ms:10000}")
+    private int sendTimeLimit;
+
+    @Value("${websocket.transport.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${websocket.inbound.core-pool-size:4}")
+    private int inboundCorePoolSize;
+
+    @Value("${websocket.inbound.max-pool-size:8}")
+    private int inboundMaxPoolSize;
+
+    @Value("${websocket.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${websocket.outbound.max-pool-size:16}")
+    private int outboundMaxPoolSize;
+
+    @Value("${websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // 메시지 브로커 설정 - 클라이언트가 구독할 경로
-        config.enableSimpleBroker("/topic");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            log.info("STOMP 브로커 릴레이 사용 - {}:{}", relayHost, relayPort);
+            config.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode);
+        } else {
+            config.enableSimpleBroker("/topic");
+        }
         // 클라이언트가 메시지를 전송할 때 사용할 prefix
         config.setApplicationDestinationPrefixes("/app");
     }
@@ -25,4 +89,26 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*")  // CORS 설정
                 .withSockJS();  // SockJS fallback 옵션
     }
-}
\ No newline at end of file
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimit)
+                .setMessageSizeLimit(messageSizeLimit);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(inboundCorePoolSize)
+                .maxPoolSize(inboundMaxPoolSize);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+    }
+}
@@ -37,6 +37,20 @@ public class AlertController {
         log.info("사용자 {}가 회사 {} 알림 구독", userId, companyName);
     }
 
+    // 알림 억제 통계 (발생/해제/재알림/억제 건수 및 현재 발생 중인 알림)
+    @GetMapping("/{companyName}/alerts/stats")
+    public ResponseEntity<Map<String, Object>> getAlertStats(@PathVariable String companyName) {
+        try {
+            return ResponseEntity.ok(alertService.getAlertStats(companyName));
+        } catch (Exception e) {
+            log.error("알림 통계 조회 실패 - 회사: {}, 오류: {}", companyName, e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.internalServerError().body(errorResponse);
+        }
+    }
+
     // 회사별 알림 목록 조회
     @GetMapping("/{companyName}/alerts")
     public ResponseEntity<Map<String, Object>> getAlerts(@PathVariable String companyName) {
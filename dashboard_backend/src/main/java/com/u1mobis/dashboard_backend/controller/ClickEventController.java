@@ -1,5 +1,6 @@
 package com.u1mobis.dashboard_backend.controller;
 
+import com.u1mobis.dashboard_backend.dto.ClickInfo;
 import com.u1mobis.dashboard_backend.service.ClickEventService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -36,7 +37,7 @@ public class ClickEventController {
             String objectType = (String) clickData.get("objectType");
             String objectId = (String) clickData.get("objectId");
             
-            Map<String, Object> response = clickEventService.handleClick(objectType, objectId);
+            ClickInfo response = clickEventService.handleClick(objectType, objectId);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
@@ -47,7 +48,7 @@ public class ClickEventController {
     @GetMapping("/robot/{robotId}")
     public ResponseEntity<?> getRobotStatus(@PathVariable String robotId) {
         try {
-            Map<String, Object> robotStatus = clickEventService.getRobotStatusData(robotId);
+            ClickInfo.Robot robotStatus = clickEventService.getRobotStatusData(robotId);
             return ResponseEntity.ok(robotStatus);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Robot not found: " + robotId);
@@ -59,7 +60,7 @@ public class ClickEventController {
     @GetMapping("/station/{stationId}")
     public ResponseEntity<?> getStationInfo(@PathVariable String stationId) {
         try {
-            Map<String, Object> station = clickEventService.getStationData(stationId);
+            ClickInfo.Station station = clickEventService.getStationData(stationId);
             return ResponseEntity.ok(station);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Station not found: " + stationId);
@@ -70,7 +71,7 @@ public class ClickEventController {
     @GetMapping("/product/{productId}")
     public ResponseEntity<?> getProductInfo(@PathVariable String productId) {
         try {
-            Map<String, Object> product = clickEventService.getProductData(productId);
+            ClickInfo.Product product = clickEventService.getProductData(productId);
             return ResponseEntity.ok(product);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Product not found: " + productId);
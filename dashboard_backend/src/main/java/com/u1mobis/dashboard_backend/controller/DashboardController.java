@@ -1,20 +1,27 @@
 package com.u1mobis.dashboard_backend.controller;
 
-import java.util.HashMap;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import com.u1mobis.dashboard_backend.entity.KPIData;
-import com.u1mobis.dashboard_backend.service.EnvironmentService;
+import com.u1mobis.dashboard_backend.dto.KpiCalculationResult;
+import com.u1mobis.dashboard_backend.dto.RealTimeKpiResponse;
+import com.u1mobis.dashboard_backend.service.DashboardSnapshotService;
 import com.u1mobis.dashboard_backend.service.KPICalculationService;
-import com.u1mobis.dashboard_backend.service.ProductionService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,59 +32,94 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class DashboardController {
 
-    private final ProductionService productionService;
     private final KPICalculationService kpiCalculationService;
-    private final EnvironmentService environmentService;
+    private final DashboardSnapshotService dashboardSnapshotService;
 
-    // 대시보드 메인 데이터
+    // 대시보드 메인 데이터 (기본 라인 1)
     @GetMapping("/dashboard")
-    public ResponseEntity<Map<String, Object>> getDashboardData(@PathVariable String companyName) {
-        log.info("대시보드 데이터 요청 - 회사: {}", companyName);
-        Map<String, Object> dashboard = new HashMap<>();
-
-        // 생산 현황 (멀티테넌트 지원 - 기본 라인 1)
-        dashboard.put("production", productionService.getCurrentProductionStatus(companyName, 1L));
-
-        // KPI 데이터 (회사별 필터링)
-        dashboard.put("kpi", kpiCalculationService.getRealTimeKPIByCompany(companyName));
-
-        return ResponseEntity.ok(dashboard);
+    public ResponseEntity<byte[]> getDashboardData(@PathVariable String companyName, WebRequest webRequest) {
+        log.debug("대시보드 데이터 요청 - 회사: {}", companyName);
+        return dashboardSnapshotService.getSnapshot(companyName, 1L)
+                .map(snapshot -> snapshotResponse(snapshot, webRequest))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
     
     // 라인별 대시보드 데이터
     @GetMapping("/dashboard/line/{lineId}")
-    public ResponseEntity<Map<String, Object>> getDashboardDataByLine(@PathVariable String companyName, @PathVariable Long lineId) {
-        log.info("라인별 대시보드 데이터 요청 - 회사: {}, 라인: {}", companyName, lineId);
-        Map<String, Object> dashboard = new HashMap<>();
+    public ResponseEntity<byte[]> getDashboardDataByLine(@PathVariable String companyName, @PathVariable Long lineId,
+                                                         WebRequest webRequest) {
+        log.debug("라인별 대시보드 데이터 요청 - 회사: {}, 라인: {}", companyName, lineId);
+        return dashboardSnapshotService.getSnapshot(companyName, lineId)
+                .map(snapshot -> snapshotResponse(snapshot, webRequest))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-        // 생산 현황 (멀티테넌트 + 라인별)
-        dashboard.put("production", productionService.getCurrentProductionStatus(companyName, lineId));
+    // 전체 스냅샷 재동기화 (WebSocket 변경분 seq 가 끊겼을 때 사용, 응답 본문의 seq 부터 다시 적용)
+    @GetMapping("/dashboard/line/{lineId}/resync")
+    public ResponseEntity<byte[]> resyncDashboard(@PathVariable String companyName, @PathVariable Long lineId) {
+        log.info("대시보드 재동기화 요청 - 회사: {}, 라인: {}", companyName, lineId);
+        return dashboardSnapshotService.getSnapshot(companyName, lineId)
+                .map(snapshot -> ResponseEntity.ok()
+                        .eTag(snapshot.etag())
+                        .cacheControl(CacheControl.noStore())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(snapshot.body()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-        // KPI 데이터 (회사별)
-        dashboard.put("kpi", kpiCalculationService.getRealTimeKPIByCompany(companyName));
+    // 해당 회사의 스냅샷 캐시 통계 (라인별 버전/seq/구독 여부)
+    @GetMapping("/dashboard/stats")
+    public ResponseEntity<Map<String, Object>> getDashboardStats(@PathVariable String companyName) {
+        return ResponseEntity.ok(dashboardSnapshotService.getStats(companyName));
+    }
 
-        return ResponseEntity.ok(dashboard);
+    // 스냅샷 응답 (If-None-Match 가 현재 버전과 같으면 304, 아니면 직렬화된 바이트 그대로 전송)
+    private ResponseEntity<byte[]> snapshotResponse(DashboardSnapshotService.Snapshot snapshot, WebRequest webRequest) {
+        if (webRequest.checkNotModified(snapshot.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.body());
     }
 
     // 실시간 KPI 조회
     @GetMapping("/kpi/realtime")
-    public ResponseEntity<Map<String, Object>> getRealTimeKPI(@PathVariable String companyName) {
+    public ResponseEntity<RealTimeKpiResponse> getRealTimeKPI(@PathVariable String companyName) {
         log.info("실시간 KPI 요청 - 회사: {}", companyName);
         return ResponseEntity.ok(kpiCalculationService.getRealTimeKPIByCompany(companyName));
     }
 
+    // 라인별 스트리밍 KPI 조회 (1분/15분/1시간/교대/일 윈도우)
+    @GetMapping("/kpi/stream/line/{lineId}")
+    public ResponseEntity<RealTimeKpiResponse> getStreamKPI(@PathVariable String companyName, @PathVariable Long lineId) {
+        log.info("스트리밍 KPI 요청 - 회사: {}, 라인: {}", companyName, lineId);
+        return ResponseEntity.ok(kpiCalculationService.getStreamKPI(companyName, lineId));
+    }
+
+    // 시간별 KPI 트렌드 (차트용, 기본값: 오늘)
+    @GetMapping("/kpi/trends/hourly")
+    public ResponseEntity<List<Map<String, Object>>> getHourlyKPITrends(@PathVariable String companyName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        log.info("시간별 KPI 트렌드 요청 - 회사: {}, 날짜: {}", companyName, date);
+        return ResponseEntity.ok(kpiCalculationService.getHourlyKPITrends(companyName,
+                date != null ? date : LocalDate.now()));
+    }
+
     // 생산 현황 조회
     @GetMapping("/production/status")
     public ResponseEntity<Map<String, Object>> getProductionStatus(@PathVariable String companyName) {
         log.info("생산 현황 요청 - 회사: {}", companyName);
-        return ResponseEntity.ok(productionService.getCurrentProductionStatus(companyName, 1L));
+        return ResponseEntity.of(dashboardSnapshotService.getProductionStatus(companyName, 1L));
     }
     
     // 라인별 생산 현황 조회
     @GetMapping("/production/status/line/{lineId}")
     public ResponseEntity<Map<String, Object>> getProductionStatusByLine(@PathVariable String companyName, @PathVariable Long lineId) {
         log.info("라인별 생산 현황 요청 - 회사: {}, 라인: {}", companyName, lineId);
-        return ResponseEntity.ok(productionService.getCurrentProductionStatus(companyName, lineId));
+        return ResponseEntity.of(dashboardSnapshotService.getProductionStatus(companyName, lineId));
     }
 
     /**
@@ -98,16 +140,16 @@ public class DashboardController {
             Integer firstTimePassCount = convertToInteger(kpiData.get("first_time_pass_count"));
             Integer onTimeDeliveryCount = convertToInteger(kpiData.get("on_time_delivery_count"));
 
-            KPIData result = kpiCalculationService.processKPIData(
+            KpiCalculationResult result = kpiCalculationService.processKPIData(
                     companyName, 1L, plannedTime, downtime, targetCycleTime,
                     goodCount, totalCount, firstTimePassCount, onTimeDeliveryCount);
 
             return ResponseEntity.ok(Map.of(
                     "status", "success",
-                    "calculated_oee", result.getCalculatedOEE(),
-                    "calculated_fty", result.getCalculatedFTY(),
-                    "calculated_otd", result.getCalculatedOTD(),
-                    "timestamp", result.getTimestamp().toString()));
+                    "calculated_oee", result.oee(),
+                    "calculated_fty", result.fty(),
+                    "calculated_otd", result.otd(),
+                    "timestamp", result.timestamp().toString()));
 
         } catch (Exception e) {
             log.error("KPI 데이터 처리 실패: {}", e.getMessage());
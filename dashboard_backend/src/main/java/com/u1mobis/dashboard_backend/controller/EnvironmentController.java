@@ -1,13 +1,19 @@
 package com.u1mobis.dashboard_backend.controller;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.u1mobis.dashboard_backend.entity.EnvironmentSensor;
@@ -31,7 +37,7 @@ public class EnvironmentController {
     public ResponseEntity<Map<String, Object>> getCurrentEnvironment(@PathVariable String companyName) {
         log.info("환경 데이터 요청 - 회사: {}", companyName);
         try {
-            Map<String, Object> environmentData = environmentService.getCurrentEnvironment();
+            Map<String, Object> environmentData = environmentService.getCurrentEnvironment(companyName);
             return ResponseEntity.ok(environmentData);
 
         } catch (Exception e) {
@@ -42,6 +48,39 @@ public class EnvironmentController {
         }
     }
 
+    /**
+     * 시간별 환경 데이터 평균 (차트용, 기본값: 오늘)
+     */
+    @GetMapping("/trends/hourly")
+    public ResponseEntity<List<Map<String, Object>>> getHourlyTrends(@PathVariable String companyName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        log.info("시간별 환경 트렌드 요청 - 회사: {}, 날짜: {}", companyName, date);
+        return ResponseEntity.ok(environmentService.getHourlyEnvironmentTrends(companyName,
+                date != null ? date : LocalDate.now()));
+    }
+
+    /**
+     * 환경 이력 (차트용) - 온도/습도/공기질을 각각 최대 points 개로 LTTB 다운샘플
+     * points 는 차트 가로 픽셀 수 정도, end 가 없으면 현재까지
+     */
+    @GetMapping("/history")
+    public ResponseEntity<Map<String, Object>> getEnvironmentHistory(@PathVariable String companyName,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "800") int points) {
+        log.info("환경 이력 요청 - 회사: {}, 기간: {} ~ {}, 포인트: {}", companyName, start, end, points);
+        try {
+            return ResponseEntity.ok(environmentService.getEnvironmentHistory(companyName, start,
+                    end != null ? end : LocalDateTime.now(), points));
+
+        } catch (Exception e) {
+            log.error("환경 이력 조회 실패: {}", e.getMessage());
+            return ResponseEntity.status(500).body(Map.of(
+                    "status", "error",
+                    "message", e.getMessage()));
+        }
+    }
+
     /**
      * 환경 데이터 입력 (테스트용)
      */
@@ -55,14 +94,16 @@ public class EnvironmentController {
             Double humidity = convertToDouble(envData.get("humidity"));
             Integer airQuality = convertToInteger(envData.get("air_quality"));
 
-            EnvironmentSensor result = environmentService.saveEnvironmentData(temperature, humidity, airQuality);
+            // 압축으로 행 저장이 보류되어도 측정값은 알람/롤업/현재값에 반영됨 (stored=false)
+            Optional<EnvironmentSensor> saved = environmentService.saveEnvironmentData(temperature, humidity, airQuality);
 
             return ResponseEntity.ok(Map.of(
                     "status", "success",
-                    "temperature", result.getTemperature(),
-                    "humidity", result.getHumidity(),
-                    "air_quality", result.getAirQuality(),
-                    "timestamp", result.getTimestamp().toString()));
+                    "stored", saved.isPresent(),
+                    "temperature", temperature,
+                    "humidity", humidity,
+                    "air_quality", airQuality,
+                    "timestamp", saved.map(EnvironmentSensor::getTimestamp).orElseGet(LocalDateTime::now).toString()));
 
         } catch (Exception e) {
             log.error("환경 데이터 처리 실패: {}", e.getMessage());
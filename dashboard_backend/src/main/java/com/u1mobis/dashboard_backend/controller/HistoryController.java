@@ -0,0 +1,55 @@
+package com.u1mobis.dashboard_backend.controller;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.u1mobis.dashboard_backend.security.CustomUserDetailsService;
+import com.u1mobis.dashboard_backend.service.HistoryService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+@RequiredArgsConstructor
+public class HistoryController {
+
+    private final HistoryService historyService;
+
+    /**
+     * 통합 이력 (NDJSON, 버킷 한 개당 한 줄) - KPI/생산 완료(PostgreSQL)와 센서(InfluxDB)를 동시에 조회해 시간 버킷별로 맞춤
+     * 회사는 로그인 사용자 기준 (요청 파라미터로 받지 않음)
+     * bucket 은 ISO-8601 기간 (기본 PT5M), end 가 없으면 현재까지
+     */
+    @GetMapping(value = "/history", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public Flux<Map<String, Object>> getHistory(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end,
+            @RequestParam(defaultValue = "PT5M") Duration bucket,
+            @RequestParam(required = false) String stationId,
+            @RequestParam(required = false) Long lineId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        CustomUserDetailsService.CustomUserPrincipal userPrincipal = 
+            (CustomUserDetailsService.CustomUserPrincipal) authentication.getPrincipal();
+        if (userPrincipal.getCompanyId() == null) {
+            throw new AccessDeniedException("회사 정보가 없는 사용자입니다.");
+        }
+        return historyService.getHistory(userPrincipal.getCompanyId(), start, end != null ? end : Instant.now(),
+                bucket, stationId, lineId);
+    }
+}
@@ -1,18 +1,34 @@
 package com.u1mobis.dashboard_backend.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.u1mobis.dashboard_backend.dto.BulkIngestResult;
+import com.u1mobis.dashboard_backend.dto.SensorReading;
 import com.u1mobis.dashboard_backend.service.IoTDataService;
+import com.u1mobis.dashboard_backend.service.SensorDownsampler;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 
 @RestController
 @RequestMapping("/api")
@@ -49,4 +65,64 @@ public class IoTDataController {
             ));
         }
     }
+
+    /**
+     * Data Collector 일괄 수신 (NDJSON 한 줄에 한 레코드, 또는 JSON 배열)
+     * 본문을 읽는 대로 레코드 단위로 기록하므로 수만 건도 일정한 메모리로 처리한다.
+     * Content-Encoding: gzip 본문 지원, 레코드별 거부 사유는 응답 errors 에 담긴다.
+     */
+    @PostMapping(value = "/iot-data/bulk",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE, "application/jsonl"})
+    public ResponseEntity<BulkIngestResult> receiveIoTDataBulk(HttpServletRequest request) {
+        try {
+            InputStream body = request.getInputStream();
+            if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+                body = new GZIPInputStream(body, 8192);
+            }
+            BulkIngestResult result = iotDataService.ingestBulk(body);
+            // 형식 오류로 중단돼도 그 전 레코드는 이미 수락됐으므로 결과를 함께 돌려준다
+            return result.aborted() != null ? ResponseEntity.badRequest().body(result) : ResponseEntity.ok(result);
+        } catch (IOException e) {
+            // gzip 헤더가 틀리거나 잘린 경우 (본문 중간에서 끊긴 경우는 ingestBulk 결과의 aborted)
+            return ResponseEntity.badRequest()
+                    .body(new BulkIngestResult(0, 0, List.of(), false, "본문 읽기 실패: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 스테이션 센서 이력 (NDJSON 스트리밍, 한 줄에 한 행)
+     * 긴 시간 범위도 InfluxDB 응답을 읽는 대로 내려보내므로 서버에 전체 결과를 쌓지 않는다.
+     */
+    @GetMapping(value = "/iot-data/{stationId}/history", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<SensorReading> getSensorHistory(
+            @PathVariable String stationId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end) {
+        return iotDataService.getSensorHistory(stationId, start, end);
+    }
+
+    /**
+     * 스테이션 센서 시계열 (NDJSON) - 범위와 포인트 예산에 맞춰 원본/1분/1시간 집계 중 선택
+     * 선택된 해상도는 X-Resolution 헤더로 전달 (집계 행의 필드는 <필드>_min/_max/_mean/_count/_last)
+     */
+    @GetMapping(value = "/iot-data/{stationId}/series", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<SensorReading>> getSensorSeries(
+            @PathVariable String stationId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end,
+            @RequestParam(defaultValue = "1000") int maxPoints) {
+        Instant until = end != null ? end : Instant.now();
+        SensorDownsampler.Resolution resolution = iotDataService.chooseResolution(start, until, maxPoints);
+        return ResponseEntity.ok()
+                .header("X-Resolution", resolution.name())
+                .body(iotDataService.getSensorSeries(stationId, start, until, resolution));
+    }
+
+    /**
+     * InfluxDB 배치 기록 상태 (처리량, 배치 크기, 전송 지연, 버림/보관 포인트) 및 범위 캐시 적중률
+     */
+    @GetMapping("/iot-data/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(iotDataService.getStats());
+    }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.u1mobis.dashboard_backend.entity.Company;
 import com.u1mobis.dashboard_backend.entity.EnvironmentSensor;
 import com.u1mobis.dashboard_backend.repository.CompanyRepository;
 import com.u1mobis.dashboard_backend.service.AlertService;
+import com.u1mobis.dashboard_backend.service.ThresholdRuleEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +22,7 @@ import java.util.Optional;
 public class TestAlertController {
 
     private final AlertService alertService;
+    private final ThresholdRuleEngine thresholdRuleEngine;
     private final CompanyRepository companyRepository;
 
     @PostMapping("/alert/temperature/{companyName}")
@@ -41,7 +43,7 @@ public class TestAlertController {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        alertService.sendEnvironmentAlert(company, sensor);
+        thresholdRuleEngine.evaluateEnvironment(company, sensor);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -70,7 +72,7 @@ public class TestAlertController {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        alertService.sendEnvironmentAlert(company, sensor);
+        thresholdRuleEngine.evaluateEnvironment(company, sensor);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -99,7 +101,7 @@ public class TestAlertController {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        alertService.sendEnvironmentAlert(company, sensor);
+        thresholdRuleEngine.evaluateEnvironment(company, sensor);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -0,0 +1,96 @@
+package com.u1mobis.dashboard_backend.controller;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.u1mobis.dashboard_backend.entity.ThresholdRule;
+import com.u1mobis.dashboard_backend.service.ThresholdRuleEngine;
+import com.u1mobis.dashboard_backend.service.ThresholdRuleService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/{companyName}/threshold-rules")
+@RequiredArgsConstructor
+@Slf4j
+public class ThresholdRuleController {
+
+    private final ThresholdRuleService thresholdRuleService;
+
+    // 회사 임계값 규칙 목록
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getRules(@PathVariable String companyName) {
+        try {
+            List<ThresholdRule> rules = thresholdRuleService.getRules(companyName);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", rules);
+            response.put("count", rules.size());
+            response.put("usingDefaults", thresholdRuleService.usesDefaultRules(companyName));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return error("임계값 규칙 조회 실패", companyName, e);
+        }
+    }
+
+    // 기본 규칙 (등록된 규칙이 없는 회사에 적용)
+    @GetMapping("/defaults")
+    public ResponseEntity<Map<String, Object>> getDefaultRules(@PathVariable String companyName) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", ThresholdRuleEngine.DEFAULT_RULES);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createRule(@PathVariable String companyName,
+                                                          @RequestBody ThresholdRule rule) {
+        try {
+            return ResponseEntity.ok(Map.of("success", true, "data", thresholdRuleService.createRule(companyName, rule)));
+        } catch (Exception e) {
+            return error("임계값 규칙 등록 실패", companyName, e);
+        }
+    }
+
+    @PutMapping("/{ruleId}")
+    public ResponseEntity<Map<String, Object>> updateRule(@PathVariable String companyName,
+                                                          @PathVariable Long ruleId,
+                                                          @RequestBody ThresholdRule rule) {
+        try {
+            return ResponseEntity.ok(Map.of("success", true, "data", thresholdRuleService.updateRule(companyName, ruleId, rule)));
+        } catch (Exception e) {
+            return error("임계값 규칙 수정 실패", companyName, e);
+        }
+    }
+
+    @DeleteMapping("/{ruleId}")
+    public ResponseEntity<Map<String, Object>> deleteRule(@PathVariable String companyName,
+                                                          @PathVariable Long ruleId) {
+        try {
+            thresholdRuleService.deleteRule(companyName, ruleId);
+            return ResponseEntity.ok(Map.of("success", true, "message", "규칙이 삭제되었습니다."));
+        } catch (Exception e) {
+            return error("임계값 규칙 삭제 실패", companyName, e);
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> error(String action, String companyName, Exception e) {
+        log.error("{} - 회사: {}, 오류: {}", action, companyName, e.getMessage());
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", e.getMessage());
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+}
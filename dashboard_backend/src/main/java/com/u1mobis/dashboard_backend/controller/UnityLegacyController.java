@@ -1,7 +1,9 @@
 package com.u1mobis.dashboard_backend.controller;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -15,9 +17,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.u1mobis.dashboard_backend.dto.ProcessingProduct;
+import com.u1mobis.dashboard_backend.dto.UnityLegacyRealtimeResponse;
 import com.u1mobis.dashboard_backend.service.ProductionService;
 import com.u1mobis.dashboard_backend.service.ConveyorService;
-import com.u1mobis.dashboard_backend.entity.CurrentProduction;
 import com.u1mobis.dashboard_backend.entity.ProductionLine;
 import com.u1mobis.dashboard_backend.entity.Company;
 import com.u1mobis.dashboard_backend.repository.ProductDetailRepository;
@@ -44,6 +47,24 @@ public class UnityLegacyController {
     private final ProductionLineRepository productionLineRepository;
     private final CompanyRepository companyRepository;
     
+    // Legacy 실시간 데이터의 기본 스테이션/로봇 (요청마다 새로 만들지 않음)
+    private static final Map<String, UnityLegacyRealtimeResponse.Station> DEFAULT_STATIONS;
+    private static final Map<String, UnityLegacyRealtimeResponse.Robot> DEFAULT_ROBOTS;
+    
+    static {
+        Map<String, UnityLegacyRealtimeResponse.Station> stations = new LinkedHashMap<>();
+        stations.put("DoorStation_Line1", new UnityLegacyRealtimeResponse.Station("operating", null, 85.5));
+        stations.put("DoorStation_Line2", new UnityLegacyRealtimeResponse.Station("idle", null, 92.0));
+        stations.put("WaterLeakTestStation_Line1", new UnityLegacyRealtimeResponse.Station("idle", null, 90.0));
+        stations.put("WaterLeakTestStation_Line2", new UnityLegacyRealtimeResponse.Station("operating", null, 88.5));
+        DEFAULT_STATIONS = Collections.unmodifiableMap(stations);
+        
+        Map<String, UnityLegacyRealtimeResponse.Robot> robots = new LinkedHashMap<>();
+        robots.put("Robot_FrontRight_Line2", new UnityLegacyRealtimeResponse.Robot("active", "working", 75));
+        robots.put("Robot_RearRight_Line2", new UnityLegacyRealtimeResponse.Robot("active", "idle", 82));
+        DEFAULT_ROBOTS = Collections.unmodifiableMap(robots);
+    }
+    
     /**
      * Unity WebGL에서 호출하는 생산 주문 정보 (Legacy)
      */
@@ -137,21 +158,15 @@ public class UnityLegacyController {
      * Unity WebGL에서 호출하는 실시간 데이터 (Legacy) - 인증 없음
      */
     @GetMapping("/unity/realtime-data")
-    public ResponseEntity<Map<String, Object>> getRealtimeData(
+    public ResponseEntity<UnityLegacyRealtimeResponse> getRealtimeData(
             @RequestParam(value = "companyName", defaultValue = "u1mobis") String companyName) {
         try {
             log.info("Unity Legacy API 호출 - 실시간 데이터, 회사: {}", companyName);
             
-            Map<String, Object> unityData = new HashMap<>();
-
             // 1. 회사 정보 조회
             Company company = companyRepository.findByCompanyName(companyName)
                 .orElseThrow(() -> new RuntimeException("회사를 찾을 수 없습니다: " + companyName));
             
-            if (company == null) {
-                throw new RuntimeException("회사 조회 결과가 null입니다: " + companyName);
-            }
-            
             // 2. 해당 회사의 생산 라인 조회
             List<ProductionLine> companyLines = productionLineRepository.findByCompanyAndIsActiveTrue(company);
             if (companyLines == null) {
@@ -164,124 +179,67 @@ public class UnityLegacyController {
             
             // 3. 전체 생산 현황 데이터 조회
             Map<String, Object> productionStatus = productionService.getCurrentProductionStatus();
-            if (productionStatus == null) {
-                log.warn("생산 현황 데이터 조회 결과가 null입니다");
-                productionStatus = new HashMap<>();
-            }
             @SuppressWarnings("unchecked")
-            List<CurrentProduction> allProducts = (List<CurrentProduction>) productionStatus.get("processing_products");
+            List<ProcessingProduct> allProducts = productionStatus != null
+                ? (List<ProcessingProduct>) productionStatus.get("processing_products")
+                : null;
             
             // 4. 회사별 필터링 - 해당 회사의 라인에서만 생산되는 제품들
-            List<CurrentProduction> processingProducts = new ArrayList<>();
-            if (allProducts != null) {
-                processingProducts = allProducts.stream()
-                    .filter(product -> lineIds.contains(product.getLineId()))
-                    .toList();
-            }
+            List<ProcessingProduct> processingProducts = allProducts != null
+                ? allProducts.stream().filter(product -> lineIds.contains(product.lineId())).toList()
+                : List.of();
             
             log.info("전체 제품 수: {}, 회사별 필터링 후: {}, 회사: {}", 
                 allProducts != null ? allProducts.size() : 0, processingProducts.size(), companyName);
             
-            // Unity용 제품 위치 데이터 변환
-            Map<String, Object> products = new HashMap<>();
-            if (processingProducts != null) {
-                for (CurrentProduction product : processingProducts) {
-                    String unityCarId = "CAR_Line" + product.getLineId() + "_" + String.format("%03d", product.getProductId());
-                    
-                    Map<String, Object> productData = new HashMap<>();
-                    productData.put("productId", product.getProductId());
-                    productData.put("currentStation", product.getCurrentStation());
-                    productData.put("status", product.getStatus());
-                    productData.put("productColor", product.getProductColor() != null ? product.getProductColor() : "WHITE");
-                    productData.put("lineId", product.getLineId());
-                    
-                    // 기본 위치 설정 (실제로는 위치 계산 로직 필요)
-                    Map<String, Object> position = new HashMap<>();
-                    position.put("x", product.getLineId() == 1 ? 10.0 : -10.0);
-                    position.put("y", 0.0);
-                    position.put("z", 5.0);
-                    productData.put("position", position);
-                    
-                    products.put(unityCarId, productData);
-                }
+            // Unity용 제품 위치 데이터 변환 (기본 위치, 실제로는 위치 계산 로직 필요)
+            Map<String, UnityLegacyRealtimeResponse.Product> products = new LinkedHashMap<>();
+            for (ProcessingProduct product : processingProducts) {
+                products.put(toLegacyCarId(product), new UnityLegacyRealtimeResponse.Product(
+                    product.productId(),
+                    product.currentStation(),
+                    product.status(),
+                    product.productColor() != null ? product.productColor() : "WHITE",
+                    product.lineId(),
+                    new UnityLegacyRealtimeResponse.Position(
+                        Long.valueOf(1L).equals(product.lineId()) ? 10.0 : -10.0, 0.0, 5.0)));
             }
             
-            // 스테이션 데이터 (기본 데이터)
-            Map<String, Object> stations = new HashMap<>();
-            stations.put("DoorStation_Line1", Map.of(
-                "status", "operating",
-                "currentProduct", products.isEmpty() ? null : products.keySet().iterator().next(),
-                "efficiency", 85.5
-            ));
-            stations.put("DoorStation_Line2", Map.of(
-                "status", "idle", 
-                "currentProduct", null,
-                "efficiency", 92.0
-            ));
-            stations.put("WaterLeakTestStation_Line1", Map.of(
-                "status", "idle",
-                "currentProduct", null,
-                "efficiency", 90.0
-            ));
-            stations.put("WaterLeakTestStation_Line2", Map.of(
-                "status", "operating",
-                "currentProduct", null,
-                "efficiency", 88.5
-            ));
-            
-            // 로봇 데이터 (기본 데이터)
-            Map<String, Object> robots = new HashMap<>();
-            robots.put("Robot_FrontRight_Line2", Map.of(
-                "status", "active",
-                "currentTask", "working", 
-                "batteryLevel", 75
-            ));
-            robots.put("Robot_RearRight_Line2", Map.of(
-                "status", "active",
-                "currentTask", "idle",
-                "batteryLevel", 82
-            ));
-            
-            unityData.put("products", products);
-            unityData.put("stations", stations);
-            unityData.put("robots", robots);
-            unityData.put("timestamp", System.currentTimeMillis());
-            unityData.put("companyName", companyName);
+            // 스테이션 데이터 (기본 데이터, 첫 스테이션만 현재 제품 표시)
+            Map<String, UnityLegacyRealtimeResponse.Station> stations = new LinkedHashMap<>(DEFAULT_STATIONS);
+            stations.put("DoorStation_Line1", new UnityLegacyRealtimeResponse.Station(
+                "operating", products.isEmpty() ? null : products.keySet().iterator().next(), 85.5));
             
             log.info("Unity 실시간 데이터 전송 완료 - 제품: {}, 스테이션: {}, 로봇: {}", 
-                products.size(), stations.size(), robots.size());
+                products.size(), stations.size(), DEFAULT_ROBOTS.size());
             
-            return ResponseEntity.ok(unityData);
+            return ResponseEntity.ok(UnityLegacyRealtimeResponse.of(companyName, products, stations, DEFAULT_ROBOTS));
             
         } catch (RuntimeException e) {
             log.error("Unity 실시간 데이터 조회 실패 - 회사: {}, 에러: {}", companyName, e.getMessage());
             
             // 회사를 찾을 수 없는 경우 빈 데이터 반환
-            Map<String, Object> emptyData = new HashMap<>();
-            emptyData.put("products", new HashMap<>());
-            emptyData.put("stations", new HashMap<>());
-            emptyData.put("robots", new HashMap<>());
-            emptyData.put("timestamp", System.currentTimeMillis());
-            emptyData.put("companyName", companyName);
-            emptyData.put("error", "회사별 데이터 조회 실패: " + e.getMessage());
-            
-            return ResponseEntity.ok(emptyData);
+            return ResponseEntity.ok(UnityLegacyRealtimeResponse.failed(companyName,
+                "회사별 데이터 조회 실패: " + e.getMessage()));
         } catch (Exception e) {
             log.error("Unity 실시간 데이터 조회 실패 - 회사: {}, 에러: {}", companyName, e.getMessage(), e);
             
             // 기타 에러 시 빈 데이터 반환
-            Map<String, Object> emptyData = new HashMap<>();
-            emptyData.put("products", new HashMap<>());
-            emptyData.put("stations", new HashMap<>());
-            emptyData.put("robots", new HashMap<>());
-            emptyData.put("timestamp", System.currentTimeMillis());
-            emptyData.put("companyName", companyName);
-            emptyData.put("error", "데이터 조회 실패: " + e.getMessage());
-            
-            return ResponseEntity.ok(emptyData);
+            return ResponseEntity.ok(UnityLegacyRealtimeResponse.failed(companyName,
+                "데이터 조회 실패: " + e.getMessage()));
         }
     }
     
+    // "PROD_001" → "CAR_Line1_001" (숫자가 아닌 ID는 그대로 사용)
+    private static String toLegacyCarId(ProcessingProduct product) {
+        String productId = product.productId();
+        String digits = productId != null ? productId.replaceAll("\\D", "") : "";
+        String suffix = digits.isEmpty() || digits.length() > 9
+            ? String.valueOf(productId)
+            : String.format("%03d", Integer.parseInt(digits));
+        return "CAR_Line" + product.lineId() + "_" + suffix;
+    }
+    
     /**
      * Unity WebGL에서 호출하는 클릭 상호작용 기록 (Legacy) - 인증 없음
      */
@@ -1,9 +1,12 @@
 package com.u1mobis.dashboard_backend.controller;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,17 +14,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.u1mobis.dashboard_backend.entity.CurrentProduction;
+import com.u1mobis.dashboard_backend.dto.ProcessingProduct;
+import com.u1mobis.dashboard_backend.dto.RealTimeKpiResponse;
+import com.u1mobis.dashboard_backend.dto.UnityRealtimeResponse;
 import com.u1mobis.dashboard_backend.service.ProductionService;
 import com.u1mobis.dashboard_backend.service.KPICalculationService;
 import com.u1mobis.dashboard_backend.service.EnvironmentService;
 import com.u1mobis.dashboard_backend.service.ConveyorService;
-import com.u1mobis.dashboard_backend.repository.RobotRepository;
-import com.u1mobis.dashboard_backend.repository.ProductDetailRepository;
-import com.u1mobis.dashboard_backend.repository.StationStatusRepository;
-import com.u1mobis.dashboard_backend.repository.RobotPositionRepository;
+import com.u1mobis.dashboard_backend.service.TwinStateProjection;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,189 +40,118 @@ public class UnityTwinController {
     private final KPICalculationService kpiCalculationService;
     private final EnvironmentService environmentService;
     private final ConveyorService conveyorService;
-    private final RobotRepository robotRepository;
-    private final ProductDetailRepository productDetailRepository;
-    private final StationStatusRepository stationStatusRepository;
-    private final RobotPositionRepository robotPositionRepository;
+    private final TwinStateProjection twinStateProjection;
+
+    private static final Map<String, Object> DEFAULT_ROBOTS = Map.of("ROBOT_001", Map.of(
+        "status", "ACTIVE",
+        "currentTask", "DOOR_ASSEMBLY",
+        "batteryLevel", 87
+    ));
 
     /**
-     * Unity 트윈을 위한 전체 실시간 데이터
+     * Unity 트윈을 위한 전체 실시간 데이터 (트윈 상태 메모리에서 응답)
+     * @param lineId 지정 시 해당 라인만 반환
      */
     @GetMapping("/realtime-data")
-    public ResponseEntity<Map<String, Object>> getUnityRealtimeData(@PathVariable String companyName) {
-        Map<String, Object> unityData = new HashMap<>();
-
+    public ResponseEntity<UnityRealtimeResponse> getUnityRealtimeData(@PathVariable String companyName,
+                                                                      @RequestParam(required = false) Long lineId) {
         try {
-            // 생산 현황 데이터
-            Map<String, Object> productionStatus = productionService.getCurrentProductionStatus();
+            // 캐시된 뷰는 공유되므로 수정하지 않고 필요한 영역만 기본값으로 교체
+            Map<String, Object> view = twinStateProjection.getRealtimeView(companyName, lineId);
+
+            // 기본 스테이션이 없을 경우 대체값
             @SuppressWarnings("unchecked")
-            List<CurrentProduction> processingProducts = (List<CurrentProduction>) productionStatus.get("processing_products");
-            
-            // Unity용 제품 위치 데이터 변환 (ProductDetail 포함)
-            Map<String, Object> products = new HashMap<>();
-            for (CurrentProduction product : processingProducts) {
-                String unityCarId = convertToUnityCarId(product.getProductId());
-                
-                // ProductDetail에서 추가 정보 조회
-                var productDetail = productDetailRepository.findById(product.getProductId()).orElse(null);
-                
-                Map<String, Object> productData = new HashMap<>();
-                productData.put("productId", product.getProductId());
-                productData.put("currentStation", product.getCurrentStation());
-                productData.put("status", product.getStatus());
-                productData.put("reworkCount", product.getReworkCount() != null ? product.getReworkCount() : 0);
-                productData.put("productColor", product.getProductColor() != null ? product.getProductColor() : "WHITE");
-                productData.put("lineId", product.getLineId());
-                productData.put("startTime", product.getStartTime());
-                productData.put("dueDate", product.getDueDate());
-                
-                // ProductDetail 추가 정보
-                if (productDetail != null) {
-                    productData.put("doorColor", productDetail.getDoorColor());
-                    productData.put("workProgress", productDetail.getWorkProgress());
-                    productData.put("position", Map.of(
-                        "x", productDetail.getPositionX(),
-                        "y", productDetail.getPositionY(),
-                        "z", productDetail.getPositionZ()
-                    ));
-                    productData.put("estimatedCompletion", productDetail.getEstimatedCompletion());
-                } else {
-                    // 기본값 설정
-                    productData.put("doorColor", "BLACK");
-                    productData.put("workProgress", 50);
-                    productData.put("position", getProductPosition(product.getCurrentStation()));
-                }
-                
-                products.put(unityCarId, productData);
+            Map<String, Object> stations = (Map<String, Object>) view.get("stations");
+            if (stations.isEmpty()) {
+                stations = new LinkedHashMap<>();
+                stations.put("DoorStation", defaultStation(
+                        twinStateProjection.findProductAtStation(companyName, lineId, "DOOR"), 85.2));
+                stations.put("WaterLeakTestStation", defaultStation(
+                        twinStateProjection.findProductAtStation(companyName, lineId, "WATER"), 92.1));
             }
 
-            // 공정별 상태 데이터 (StationStatus 엔티티 활용)
-            Map<String, Object> stations = new HashMap<>();
-            try {
-                List<com.u1mobis.dashboard_backend.entity.StationStatus> stationStatuses = stationStatusRepository.findAll();
-                for (var station : stationStatuses) {
-                    stations.put(station.getStationId(), Map.of(
-                        "stationId", station.getStationId(),
-                        "stationName", station.getStationName(),
-                        "lineId", station.getLineId(),
-                        "status", station.getStatus(),
-                        "temperature", station.getTemperature(),
-                        "pressure", station.getPressure(),
-                        "efficiency", station.getEfficiency(),
-                        "equipmentStatus", station.getEquipmentStatus(),
-                        "currentProduct", station.getCurrentProduct() != null ? 
-                            convertToUnityCarId(station.getCurrentProduct()) : null,
-                        "cycleTime", station.getCycleTime()
-                    ));
-                }
-                
-                // 기본 스테이션이 없을 경우 대체값
-                if (stations.isEmpty()) {
-                    stations.put("DoorStation", Map.of(
-                        "status", "OPERATING",
-                        "currentProduct", getCurrentProductAtStation("DOOR"),
-                        "efficiency", 85.2
-                    ));
-                    stations.put("WaterLeakTestStation", Map.of(
-                        "status", "OPERATING", 
-                        "currentProduct", getCurrentProductAtStation("WATER_LEAK"),
-                        "efficiency", 92.1
-                    ));
-                }
-            } catch (Exception e) {
-                log.warn("스테이션 상태 조회 실패, 기본값 사용", e);
-                stations.put("DoorStation", Map.of("status", "OPERATING", "efficiency", 85.2));
-                stations.put("WaterLeakTestStation", Map.of("status", "OPERATING", "efficiency", 92.1));
+            // 기본 로봇이 없을 경우 대체값
+            @SuppressWarnings("unchecked")
+            Map<String, Object> robots = (Map<String, Object>) view.get("robots");
+            if (robots.isEmpty()) {
+                robots = DEFAULT_ROBOTS;
             }
 
-            // 실제 데이터베이스에서 로봇 상태 데이터 조회 (RobotPosition 포함)
-            Map<String, Object> robots = new HashMap<>();
-            try {
-                var allRobots = robotRepository.findAll();
-                for (var robot : allRobots) {
-                    // RobotPosition에서 추가 정보 조회
-                    var robotPosition = robotPositionRepository.findById(robot.getRobotId()).orElse(null);
-                    
-                    Map<String, Object> robotData = new HashMap<>();
-                    robotData.put("robotId", robot.getRobotId());
-                    robotData.put("robotName", robot.getRobotName());
-                    robotData.put("companyId", robot.getCompanyId());
-                    robotData.put("lineId", robot.getProductionLine() != null ? robot.getProductionLine().getLineId() : null);
-                    robotData.put("robotType", robot.getRobotType());
-                    robotData.put("statusText", robot.getStatusText());
-                    robotData.put("motorStatus", robot.getMotorStatus());
-                    robotData.put("ledStatus", robot.getLedStatus());
-                    robotData.put("cycleTime", robot.getCycleTime());
-                    robotData.put("productionCount", robot.getProductionCount());
-                    robotData.put("quality", robot.getQuality());
-                    robotData.put("temperature", robot.getTemperature());
-                    robotData.put("powerConsumption", robot.getPowerConsumption());
-                    
-                    // RobotPosition 추가 정보
-                    if (robotPosition != null) {
-                        robotData.put("position", Map.of(
-                            "x", robotPosition.getPositionX(),
-                            "y", robotPosition.getPositionY(),
-                            "z", robotPosition.getPositionZ()
-                        ));
-                        robotData.put("batteryLevel", robotPosition.getBatteryLevel());
-                        robotData.put("currentAction", robotPosition.getCurrentAction());
-                        robotData.put("movementSpeed", robotPosition.getMovementSpeed());
-                        robotData.put("isActive", robotPosition.getIsActive());
-                        
-                        if (robotPosition.getTargetX() != null) {
-                            robotData.put("target", Map.of(
-                                "x", robotPosition.getTargetX(),
-                                "y", robotPosition.getTargetY(),
-                                "z", robotPosition.getTargetZ()
-                            ));
-                        }
-                    } else {
-                        robotData.put("batteryLevel", 95);
-                        robotData.put("currentAction", "IDLE");
-                        robotData.put("position", Map.of("x", 0.0, "y", 0.0, "z", 0.0));
-                    }
-                    
-                    robots.put(robot.getRobotId(), robotData);
-                }
-                
-                // 기본 로봇이 없을 경우 대체값
-                if (robots.isEmpty()) {
-                    robots.put("ROBOT_001", Map.of(
-                        "status", "ACTIVE",
-                        "currentTask", "DOOR_ASSEMBLY",
-                        "batteryLevel", 87
-                    ));
-                }
-            } catch (Exception e) {
-                log.warn("로봇 데이터 조회 실패, 기본값 사용", e);
-                robots.put("ROBOT_001", Map.of(
-                    "status", "ACTIVE",
-                    "currentTask", "DOOR_ASSEMBLY",
-                    "batteryLevel", 87
-                ));
-            }
+            @SuppressWarnings("unchecked")
+            UnityRealtimeResponse response = UnityRealtimeResponse.of(
+                    (Map<String, Object>) view.get("products"), stations, robots,
+                    (Map<String, Object>) view.get("conveyors"), (Long) view.get("version"),
+                    (String) view.get("epoch"), kpiCalculationService.getRealTimeKPIByCompany(companyName));
+            return ResponseEntity.ok(response);
 
-            // KPI 데이터
-            Map<String, Object> kpiData = kpiCalculationService.getRealTimeKPI();
+        } catch (Exception e) {
+            log.error("Unity 실시간 데이터 조회 실패 - 회사: {}", companyName, e);
+            return ResponseEntity.status(500).body(
+                    UnityRealtimeResponse.failed("데이터 조회 실패", String.valueOf(e.getMessage())));
+        }
+    }
 
-            unityData.put("products", products);
-            unityData.put("stations", stations);
-            unityData.put("robots", robots);
-            unityData.put("kpi", kpiData);
-            unityData.put("timestamp", System.currentTimeMillis());
+    /**
+     * Unity 실시간 데이터 바이너리 프레임 (문자열 사전 + float32 위치 + byte 상태 코드)
+     */
+    @GetMapping("/realtime-frame")
+    public ResponseEntity<byte[]> getUnityRealtimeFrame(@PathVariable String companyName,
+                                                        @RequestParam(required = false) Long lineId) {
+        try {
+            return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .cacheControl(CacheControl.noCache())
+                .body(twinStateProjection.getRealtimeFrame(companyName, lineId));
+        } catch (Exception e) {
+            log.error("Unity 바이너리 프레임 조회 실패 - 회사: {}", companyName, e);
+            return ResponseEntity.status(500).build();
+        }
+    }
 
-            return ResponseEntity.ok(unityData);
+    /**
+     * 현재 트윈 상태 기준 JSON / 바이너리 프레임 크기 및 인코딩 시간 비교
+     */
+    @GetMapping("/frame-stats")
+    public ResponseEntity<Map<String, Object>> getFrameStats(@PathVariable String companyName,
+                                                             @RequestParam(required = false) Long lineId) {
+        try {
+            return ResponseEntity.ok(twinStateProjection.compareFrameEncoding(companyName, lineId));
+        } catch (Exception e) {
+            log.error("트윈 프레임 통계 조회 실패 - 회사: {}", companyName, e);
+            return ResponseEntity.status(500).body(Map.of(
+                "error", "프레임 통계 조회 실패",
+                "message", String.valueOf(e.getMessage())
+            ));
+        }
+    }
 
+    /**
+     * 트윈 변경분 조회 (WebSocket 재접속 또는 seq 누락 시)
+     * 버퍼 범위를 벗어나면 전체 상태(twin_keyframe)를 반환
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<Map<String, Object>> getTwinChanges(@PathVariable String companyName,
+                                                              @RequestParam(defaultValue = "-1") long since,
+                                                              @RequestParam(required = false) String epoch) {
+        try {
+            return ResponseEntity.ok(twinStateProjection.getChangesSince(companyName, since, epoch));
         } catch (Exception e) {
-            log.error("Unity 실시간 데이터 조회 실패", e);
+            log.error("트윈 변경분 조회 실패 - 회사: {}, since: {}", companyName, since, e);
             return ResponseEntity.status(500).body(Map.of(
-                "error", "데이터 조회 실패",
-                "message", e.getMessage()
+                "error", "변경분 조회 실패",
+                "message", String.valueOf(e.getMessage())
             ));
         }
     }
 
+    private Map<String, Object> defaultStation(String currentProduct, double efficiency) {
+        Map<String, Object> station = new LinkedHashMap<>();
+        station.put("status", "OPERATING");
+        station.put("currentProduct", currentProduct);
+        station.put("efficiency", efficiency);
+        return station;
+    }
+
     /**
      * 특정 제품의 현재 위치 조회
      */
@@ -263,12 +195,12 @@ public class UnityTwinController {
 
     // Unity 유틸리티 메서드들
     private String convertToUnityCarId(String productId) {
-        // "A01_PROD_001" -> "CAR_001" 형태로 변환
+        // "A01_PROD_001" -> "CAR_001" 형태로 변환, 시뮬레이터 ID("CAR_Line1_001")는 그대로 사용
         if (productId.contains("PROD_")) {
             String number = productId.substring(productId.lastIndexOf("_") + 1);
             return "CAR_" + number;
         }
-        return "CAR_001";
+        return productId.startsWith("CAR_") ? productId : "CAR_001";
     }
 
 
@@ -277,12 +209,12 @@ public class UnityTwinController {
             // 실제 데이터베이스에서 현재 해당 공정에서 작업 중인 제품 조회
             Map<String, Object> productionStatus = productionService.getCurrentProductionStatus();
             @SuppressWarnings("unchecked")
-            List<CurrentProduction> processingProducts = (List<CurrentProduction>) productionStatus.get("processing_products");
+            List<ProcessingProduct> processingProducts = (List<ProcessingProduct>) productionStatus.get("processing_products");
             
-            for (CurrentProduction product : processingProducts) {
-                String currentStation = product.getCurrentStation();
+            for (ProcessingProduct product : processingProducts) {
+                String currentStation = product.currentStation();
                 if (matchesStation(currentStation, stationCode)) {
-                    return convertToUnityCarId(product.getProductId());
+                    return convertToUnityCarId(product.productId());
                 }
             }
             return null;
@@ -322,14 +254,14 @@ public class UnityTwinController {
             Map<String, Object> statistics = new HashMap<>();
             
             // 기본 회사 또는 전체 통계 데이터 수집
-            Map<String, Object> kpiData = kpiCalculationService.getRealTimeKPI();
+            RealTimeKpiResponse kpiData = kpiCalculationService.getRealTimeKPI();
             Map<String, Object> productionStatus = productionService.getCurrentProductionStatus();
             
             // Unity에 필요한 형태로 데이터 구성
-            statistics.put("totalProduction", kpiData.get("totalProduction"));
-            statistics.put("currentEfficiency", kpiData.get("oee"));
-            statistics.put("qualityRate", kpiData.get("fty"));
-            statistics.put("onTimeDelivery", kpiData.get("otd"));
+            statistics.put("totalProduction", productionStatus.get("today_completed"));
+            statistics.put("currentEfficiency", kpiData.oee());
+            statistics.put("qualityRate", kpiData.fty());
+            statistics.put("onTimeDelivery", kpiData.otd());
             statistics.put("activeLines", 2); // 현재 활성 라인 수
             statistics.put("timestamp", System.currentTimeMillis());
             
@@ -0,0 +1,22 @@
+package com.u1mobis.dashboard_backend.dto;
+
+import java.util.List;
+
+/**
+ * IoT 일괄 수집 결과
+ * @param errorsTruncated 거부 건수가 errors 최대 개수를 넘어 일부만 담겼는지
+ * @param aborted         JSON 문법 오류로 중단된 경우 사유 (그 전 레코드는 이미 수락됨)
+ */
+public record BulkIngestResult(
+        int accepted,
+        int rejected,
+        List<RecordError> errors,
+        boolean errorsTruncated,
+        String aborted) {
+
+    /**
+     * @param index 본문 안에서 0부터 센 레코드 위치
+     */
+    public record RecordError(int index, String error) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.u1mobis.dashboard_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * Unity 클릭 상세 정보 응답 (/click/*)
+ * 필드는 snake_case 로 직렬화하고, 클릭 이벤트 응답에만 clickedObjectId/clickedObjectType 이 붙는다.
+ */
+public sealed interface ClickInfo
+        permits ClickInfo.Robot, ClickInfo.Station, ClickInfo.Product, ClickInfo.Unsupported {
+
+    // 클릭한 객체 정보를 붙인 복사본
+    ClickInfo clicked(String objectType, String objectId);
+
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    record Robot(
+            String robotId,
+            String robotName,
+            Long companyId,
+            String companyName,
+            String motorStatus,
+            String ledStatus,
+            String status,
+            String error,
+            @JsonProperty("clickedObjectId") String clickedObjectId,
+            @JsonProperty("clickedObjectType") String clickedObjectType) implements ClickInfo {
+
+        public static Robot notFound(String robotId, String error) {
+            return new Robot(robotId, null, null, null, null, null, null, error, null, null);
+        }
+
+        @Override
+        public Robot clicked(String objectType, String objectId) {
+            return new Robot(robotId, robotName, companyId, companyName, motorStatus, ledStatus, status, error,
+                    objectId, objectType);
+        }
+    }
+
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    record Station(
+            String stationId,
+            String stationName,
+            Long companyId,
+            Boolean isActive,
+            String status,
+            String currentProduction,
+            String productionCount,
+            String cycleTime,
+            String lastUpdate,
+            String processType,
+            String equipmentStatus,
+            String testStatus,
+            String note,
+            String error,
+            @JsonProperty("clickedObjectId") String clickedObjectId,
+            @JsonProperty("clickedObjectType") String clickedObjectType) implements ClickInfo {
+
+        @Override
+        public Station clicked(String objectType, String objectId) {
+            return new Station(stationId, stationName, companyId, isActive, status, currentProduction,
+                    productionCount, cycleTime, lastUpdate, processType, equipmentStatus, testStatus, note, error,
+                    objectId, objectType);
+        }
+    }
+
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    record Product(
+            String productId,
+            String stationCode,
+            String stationName,
+            String statusText,
+            Long companyId,
+            String xPosition,
+            String yPosition,
+            String zPosition,
+            String lastUpdate,
+            String currentStation,
+            String nextStation,
+            Integer progressPercent,
+            String note,
+            String error) implements ClickInfo {
+
+        @Override
+        public Product clicked(String objectType, String objectId) {
+            return this; // 제품은 클릭 이벤트 대상이 아님 (상세 조회 전용)
+        }
+    }
+
+    record Unsupported(
+            String error,
+            @JsonProperty("supported_types") String supportedTypes,
+            String clickedObjectId,
+            String clickedObjectType) implements ClickInfo {
+
+        @Override
+        public Unsupported clicked(String objectType, String objectId) {
+            return new Unsupported(error, supportedTypes, objectId, objectType);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.u1mobis.dashboard_backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * KPI 계산 결과 (비율은 0~1, DB 저장은 비동기이므로 저장된 엔티티 대신 계산값만 반환)
+ */
+public record KpiCalculationResult(
+        double oee,
+        double fty,
+        double otd,
+        LocalDateTime timestamp) {
+}
@@ -0,0 +1,20 @@
+package com.u1mobis.dashboard_backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 생산 중 제품 조회용 프로젝션 (생산 현황 응답의 processing_products)
+ * 엔티티로 적재하지 않아 영속성 컨텍스트 스냅샷이 생기지 않는다.
+ */
+public record ProcessingProduct(
+        String productId,
+        String productColor,
+        LocalDateTime startTime,
+        LocalDateTime dueDate,
+        Integer reworkCount,
+        String currentStation,
+        String status,
+        LocalDateTime createdAt,
+        Long lineId,
+        Integer targetQuantity) {
+}
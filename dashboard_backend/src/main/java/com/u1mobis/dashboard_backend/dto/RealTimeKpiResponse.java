@@ -0,0 +1,45 @@
+package com.u1mobis.dashboard_backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import com.u1mobis.dashboard_backend.service.KPIStreamAggregator;
+
+/**
+ * 실시간 KPI 응답 (/kpi/realtime, 대시보드 스냅샷, Unity 실시간 데이터 공통)
+ * null 필드는 직렬화하지 않으므로 상황별 응답 형식은 기존 Map 응답과 같다.
+ */
+public record RealTimeKpiResponse(
+        double oee,
+        double fty,
+        double otd,
+        String timestamp,
+        String companyName,
+        Long lineId,
+        Map<String, KPIStreamAggregator.WindowStats> windows,
+        Map<String, Boolean> warm,
+        String message,
+        String error) {
+
+    public static RealTimeKpiResponse of(double oee, double fty, double otd, String timestamp,
+                                         String companyName, Long lineId) {
+        return new RealTimeKpiResponse(oee, fty, otd, timestamp, companyName, lineId, null, null, null, null);
+    }
+
+    // 데이터 없음 안내 (KPI 값은 0)
+    public static RealTimeKpiResponse empty(String companyName, Long lineId, String message) {
+        return new RealTimeKpiResponse(0.0, 0.0, 0.0, LocalDateTime.now().toString(), companyName, lineId,
+                null, null, message, null);
+    }
+
+    // 조회 실패 (KPI 값은 0)
+    public static RealTimeKpiResponse failed(String companyName, String error) {
+        return new RealTimeKpiResponse(0.0, 0.0, 0.0, LocalDateTime.now().toString(), companyName, null,
+                null, null, null, error);
+    }
+
+    // 윈도우별 집계 준비 여부 추가 (/kpi/stream)
+    public RealTimeKpiResponse withWarm(Map<String, Boolean> warm) {
+        return new RealTimeKpiResponse(oee, fty, otd, timestamp, companyName, lineId, windows, warm, message, error);
+    }
+}
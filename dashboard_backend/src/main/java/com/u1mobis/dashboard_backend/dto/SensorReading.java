@@ -0,0 +1,16 @@
+package com.u1mobis.dashboard_backend.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * IoT 센서 측정값 한 행 (InfluxDB IOT-sensor 조회 결과)
+ * 태그는 개별 컴포넌트, 나머지 필드(sensor_*, production_*, quality_*)는 fields 에 응답 순서대로 담는다.
+ */
+public record SensorReading(
+        Instant time,
+        String stationId,
+        String processType,
+        String location,
+        Map<String, Object> fields) {
+}
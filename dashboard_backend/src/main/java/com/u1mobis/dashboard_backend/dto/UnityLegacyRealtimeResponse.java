@@ -0,0 +1,44 @@
+package com.u1mobis.dashboard_backend.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Unity WebGL Legacy 실시간 데이터 응답 (/api/unity/realtime-data)
+ */
+public record UnityLegacyRealtimeResponse(
+        Map<String, Product> products,
+        Map<String, Station> stations,
+        Map<String, Robot> robots,
+        long timestamp,
+        String companyName,
+        String error) {
+
+    public static UnityLegacyRealtimeResponse of(String companyName, Map<String, Product> products,
+                                                 Map<String, Station> stations, Map<String, Robot> robots) {
+        return new UnityLegacyRealtimeResponse(products, stations, robots, System.currentTimeMillis(),
+                companyName, null);
+    }
+
+    // 조회 실패 시 빈 데이터
+    public static UnityLegacyRealtimeResponse failed(String companyName, String error) {
+        return new UnityLegacyRealtimeResponse(Map.of(), Map.of(), Map.of(), System.currentTimeMillis(),
+                companyName, error);
+    }
+
+    public record Product(String productId, String currentStation, String status, String productColor,
+                          Long lineId, Position position) {
+    }
+
+    public record Position(double x, double y, double z) {
+    }
+
+    public record Station(String status,
+                          @JsonInclude(JsonInclude.Include.ALWAYS) String currentProduct,
+                          double efficiency) {
+    }
+
+    public record Robot(String status, String currentTask, int batteryLevel) {
+    }
+}
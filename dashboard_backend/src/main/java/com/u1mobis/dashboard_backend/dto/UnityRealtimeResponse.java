@@ -0,0 +1,31 @@
+package com.u1mobis.dashboard_backend.dto;
+
+import java.util.Map;
+
+/**
+ * Unity 트윈 실시간 데이터 응답 (/unity/realtime-data)
+ * products/stations/robots/conveyors 는 트윈 상태 메모리의 캐시된 뷰를 그대로 참조한다.
+ */
+public record UnityRealtimeResponse(
+        Map<String, Object> products,
+        Map<String, Object> stations,
+        Map<String, Object> robots,
+        Map<String, Object> conveyors,
+        Long version,
+        String epoch,
+        RealTimeKpiResponse kpi,
+        Long timestamp,
+        String error,
+        String message) {
+
+    public static UnityRealtimeResponse of(Map<String, Object> products, Map<String, Object> stations,
+                                           Map<String, Object> robots, Map<String, Object> conveyors,
+                                           long version, String epoch, RealTimeKpiResponse kpi) {
+        return new UnityRealtimeResponse(products, stations, robots, conveyors, version, epoch, kpi,
+                System.currentTimeMillis(), null, null);
+    }
+
+    public static UnityRealtimeResponse failed(String error, String message) {
+        return new UnityRealtimeResponse(null, null, null, null, null, null, null, null, error, message);
+    }
+}
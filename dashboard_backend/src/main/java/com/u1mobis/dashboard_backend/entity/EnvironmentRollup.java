@@ -0,0 +1,70 @@
+package com.u1mobis.dashboard_backend.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 환경 센서 롤업 (회사/라인/집계단위/버킷별 합계 및 최대값)
+ */
+@Entity
+@Table(name = "environment_rollup",
+       uniqueConstraints = @UniqueConstraint(name = "uk_environment_rollup_bucket",
+               columnNames = {"company_id", "line_id", "granularity", "bucket_start"}),
+       indexes = @Index(name = "idx_environment_rollup_lookup", columnList = "company_id, granularity, bucket_start"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnvironmentRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "company_id", nullable = false)
+    private Long companyId;
+
+    @Column(name = "line_id", nullable = false)        // 0 = 공장 전체
+    private Long lineId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "sample_count", nullable = false)
+    private Long sampleCount;
+
+    @Column(name = "temperature_sum", nullable = false)
+    private Double temperatureSum;
+
+    @Column(name = "humidity_sum", nullable = false)
+    private Double humiditySum;
+
+    @Column(name = "air_quality_sum", nullable = false)
+    private Long airQualitySum;
+
+    @Column(name = "temperature_max")
+    private Double temperatureMax;
+
+    @Column(name = "humidity_max")
+    private Double humidityMax;
+
+    @Column(name = "air_quality_max")
+    private Integer airQualityMax;
+}
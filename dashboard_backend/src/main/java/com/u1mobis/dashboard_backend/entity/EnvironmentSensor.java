@@ -39,6 +39,9 @@ public class EnvironmentSensor {
     @Column(name = "air_quality")
     private Integer airQuality;                // 공기질 지수
     
+    @Column(name = "company_id")
+    private Long companyId;                    // 회사 ID (NULL = 회사 구분 이전 데이터)
+    
     @Column(name = "line_id", nullable = true) // NULL = 공장 전체, 값 있음 = 특정 라인
     private Long lineId;
     
@@ -0,0 +1,80 @@
+package com.u1mobis.dashboard_backend.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * KPI 롤업 (회사/라인/집계단위/버킷별 누적값)
+ * - 모든 값은 덧셈 가능한 합계로 저장하고 평균은 조회 시 계산
+ */
+@Entity
+@Table(name = "kpi_rollup",
+       uniqueConstraints = @UniqueConstraint(name = "uk_kpi_rollup_bucket",
+               columnNames = {"company_id", "line_id", "granularity", "bucket_start"}),
+       indexes = @Index(name = "idx_kpi_rollup_lookup", columnList = "company_id, granularity, bucket_start"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KPIRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "company_id", nullable = false)
+    private Long companyId;
+
+    @Column(name = "line_id", nullable = false)        // 0 = 공장 전체
+    private Long lineId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;                 // 버킷 시작 시각
+
+    @Column(name = "sample_count", nullable = false)
+    private Long sampleCount;                          // 반영된 KPI 메시지 수
+
+    @Column(name = "oee_sum", nullable = false)
+    private Double oeeSum;                             // OEE 합계 (평균 = 합계 / 건수)
+
+    @Column(name = "fty_sum", nullable = false)
+    private Double ftySum;
+
+    @Column(name = "otd_sum", nullable = false)
+    private Double otdSum;
+
+    @Column(name = "planned_time", nullable = false)
+    private Long plannedTime;                          // 계획 운전 시간 합계 (분)
+
+    @Column(name = "downtime", nullable = false)
+    private Long downtime;                             // 설비 정지 시간 합계 (분)
+
+    @Column(name = "total_count", nullable = false)
+    private Long totalCount;
+
+    @Column(name = "good_count", nullable = false)
+    private Long goodCount;
+
+    @Column(name = "first_time_pass_count", nullable = false)
+    private Long firstTimePassCount;
+
+    @Column(name = "on_time_delivery_count", nullable = false)
+    private Long onTimeDeliveryCount;
+}
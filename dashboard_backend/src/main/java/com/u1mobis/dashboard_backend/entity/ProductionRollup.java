@@ -0,0 +1,72 @@
+package com.u1mobis.dashboard_backend.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 생산 완료 롤업 (회사/라인/집계단위/버킷별 누적 카운터)
+ */
+@Entity
+@Table(name = "production_rollup",
+       uniqueConstraints = @UniqueConstraint(name = "uk_production_rollup_bucket",
+               columnNames = {"company_id", "line_id", "granularity", "bucket_start"}),
+       indexes = @Index(name = "idx_production_rollup_line", columnList = "line_id, granularity, bucket_start"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductionRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "company_id", nullable = false)
+    private Long companyId;
+
+    @Column(name = "line_id", nullable = false)        // 0 = 공장 전체
+    private Long lineId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    private RollupGranularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "completed_count", nullable = false)
+    private Long completedCount;                       // 완료 수량
+
+    @Column(name = "good_count", nullable = false)
+    private Long goodCount;                            // 양품 수량 (PASS)
+
+    @Column(name = "on_time_count", nullable = false)
+    private Long onTimeCount;                          // 정시 납기 수량
+
+    @Column(name = "first_time_pass_count", nullable = false)
+    private Long firstTimePassCount;                   // 일발 통과 수량
+
+    @Column(name = "cycle_time_count", nullable = false)
+    private Long cycleTimeCount;                       // 사이클 타임이 있는 건수
+
+    @Column(name = "cycle_time_sum", nullable = false)
+    private Double cycleTimeSum;                       // 사이클 타임 합계 (초)
+
+    // 평균 사이클 타임 (데이터 없으면 null)
+    public Double getAverageCycleTime() {
+        return cycleTimeCount != null && cycleTimeCount > 0 ? cycleTimeSum / cycleTimeCount : null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.u1mobis.dashboard_backend.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 롤업 집계 단위 (분/시간/일)
+ */
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    // 버킷 폭 (ms, DAY 는 24시간 기준)
+    public long getStepMillis() {
+        return unit.getDuration().toMillis();
+    }
+
+    // 해당 시각이 속하는 버킷 시작 시각
+    public LocalDateTime bucketStart(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+}
@@ -0,0 +1,139 @@
+package com.u1mobis.dashboard_backend.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 회사/라인별 알림 임계값 규칙
+ * - lineId 가 null 이면 회사 전체 라인에 적용
+ * - clearThreshold 가 null 이면 기본 히스테리시스 폭으로 해제 기준 계산
+ */
+@Entity
+@Table(name = "threshold_rules",
+       indexes = @Index(name = "idx_threshold_rules_company", columnList = "company_id, line_id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThresholdRule {
+
+    // 평가 대상 지표 (KPI 값은 %, 환경 값은 원 단위)
+    public enum Metric {
+        OEE(true),
+        AVAILABILITY(true),
+        PERFORMANCE(true),
+        QUALITY(true),
+        FTY(true),
+        OTD(true),
+        TEMPERATURE(false),
+        HUMIDITY(false),
+        AIR_QUALITY(false);
+
+        private final boolean kpi;
+
+        Metric(boolean kpi) {
+            this.kpi = kpi;
+        }
+
+        public boolean isKpi() {
+            return kpi;
+        }
+    }
+
+    // 비교 연산자 (LT/LTE: 값이 기준보다 낮으면 발생, GT/GTE: 높으면 발생)
+    public enum Comparator {
+        LT,
+        LTE,
+        GT,
+        GTE
+    }
+
+    // 평가 윈도우 (SAMPLE: 수신한 값 그대로, 나머지는 KPI 스트리밍 집계 윈도우)
+    public enum RuleWindow {
+        SAMPLE,
+        MINUTE_1,
+        MINUTE_15,
+        HOUR_1,
+        SHIFT,
+        DAY
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rule_id")
+    private Long ruleId;
+
+    @Column(name = "company_id", nullable = false)
+    private Long companyId;
+
+    @Column(name = "line_id")                          // null = 회사 전체 라인
+    private Long lineId;
+
+    @Column(name = "alert_type", nullable = false)
+    private String alertType;                          // 알림 타입 (예: OEE_LOW)
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "metric", nullable = false, length = 20)
+    private Metric metric;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "comparator", nullable = false, length = 5)
+    private Comparator comparator;
+
+    @Column(name = "threshold", nullable = false)
+    private Double threshold;                          // 발생 기준
+
+    @Column(name = "clear_threshold")
+    private Double clearThreshold;                     // 해제 기준 (null = 기본 히스테리시스)
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rule_window", nullable = false, length = 10)
+    private RuleWindow window;
+
+    @Column(name = "severity", nullable = false)
+    private String severity;                           // danger, warning, info, success
+
+    @Column(name = "message")
+    private String message;                            // 알림 문구 (없으면 기본 문구)
+
+    @Column(name = "enabled", nullable = false)
+    private Boolean enabled;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+        if (enabled == null) {
+            enabled = true;
+        }
+        if (window == null) {
+            window = RuleWindow.SAMPLE;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -11,6 +11,7 @@ import com.u1mobis.dashboard_backend.service.ConveyorService;
 import com.u1mobis.dashboard_backend.service.EnvironmentService;
 import com.u1mobis.dashboard_backend.service.KPICalculationService;
 import com.u1mobis.dashboard_backend.service.ProductionService;
+import com.u1mobis.dashboard_backend.service.TwinStateProjection;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +25,7 @@ public class MQTTMessageProcessor {
     private final KPICalculationService kpiCalculationService;
     private final EnvironmentService environmentService;
     private final ConveyorService conveyorService;
+    private final TwinStateProjection twinStateProjection;
     
     // MQTT 메시지 처리 (가상의 메서드 - 실제로는 MQTT 라이브러리 사용)
     public void processMQTTMessage(String topic, String payload) {
@@ -124,8 +126,12 @@ public class MQTTMessageProcessor {
             else if (topic.contains("/product/moved")) {
                 log.info("제품 이동 처리 시작 - 회사: {}", companyName);
                 
-                // 제품 이동 데이터 처리 - 필요시 데이터베이스 업데이트
-                // 현재는 로깅으로만 처리하고, 향후 Unity 연동 시 활용
+                // 제품 이동은 트윈 상태에만 반영 (Unity 실시간 조회용)
+                twinStateProjection.moveProduct(companyName,
+                    data.get("product_id").asText(),
+                    data.get("to_station").asText(),
+                    data.has("position_x") ? data.get("position_x").asDouble() : null,
+                    data.has("position_y") ? data.get("position_y").asDouble() : null);
                 log.info("제품 이동 완료 - 제품: {}, {}에서 {}로", 
                     data.get("product_id").asText(), 
                     data.get("from_station").asText(), 
@@ -134,7 +140,12 @@ public class MQTTMessageProcessor {
             else if (topic.contains("/product/arrived/")) {
                 log.info("제품 구역 도착 처리 시작 - 회사: {}", companyName);
                 
-                // 제품 도착 데이터 처리
+                // 제품 도착 데이터 처리 (트윈 상태 반영)
+                twinStateProjection.moveProduct(companyName,
+                    data.get("product_id").asText(),
+                    data.get("area_type").asText().toUpperCase() + "_AREA",
+                    data.has("position_x") ? data.get("position_x").asDouble() : null,
+                    data.has("position_y") ? data.get("position_y").asDouble() : null);
                 log.info("제품 구역 도착 완료 - 제품: {}, 구역: {}", 
                     data.get("product_id").asText(), 
                     data.get("area_type").asText());
@@ -2,6 +2,7 @@ package com.u1mobis.dashboard_backend.repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -10,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.u1mobis.dashboard_backend.dto.ProcessingProduct;
 import com.u1mobis.dashboard_backend.entity.CurrentProduction;
 
 @Repository
@@ -37,9 +39,42 @@ public interface CurrentProductionRepository extends JpaRepository<CurrentProduc
     // 라인별 상태 조회 (멀티테넌트)
     List<CurrentProduction> findByStatusAndLineId(String status, Long lineId);
     
+    // 회사 라인 전체 상태 조회 (트윈 상태 적재용)
+    List<CurrentProduction> findByStatusAndLineIdIn(String status, List<Long> lineIds);
+    
     // 오늘 시작된 생산의 목표량 합계 (라인별)
-    @Query("SELECT COALESCE(SUM(cp.targetQuantity), 0) FROM CurrentProduction cp WHERE CAST(cp.startTime AS DATE) = CURRENT_DATE AND cp.lineId = :lineId")
-    Integer getTodayProductionTargetByLineId(@Param("lineId") Long lineId);
+    @Query("SELECT COALESCE(SUM(cp.targetQuantity), 0) FROM CurrentProduction cp WHERE cp.startTime >= :from AND cp.startTime < :to AND cp.lineId = :lineId")
+    Integer getTodayProductionTargetByLineId(@Param("lineId") Long lineId,
+                                             @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    // 생산 중 제품 프로젝션 (라인별, 시작 순)
+    @Query("SELECT new com.u1mobis.dashboard_backend.dto.ProcessingProduct(cp.productId, cp.productColor, cp.startTime, " +
+           "cp.dueDate, cp.reworkCount, cp.currentStation, cp.status, cp.createdAt, cp.lineId, cp.targetQuantity) " +
+           "FROM CurrentProduction cp WHERE cp.status = 'PROCESSING' AND cp.lineId = :lineId ORDER BY cp.startTime")
+    List<ProcessingProduct> findProcessingProductsByLineId(@Param("lineId") Long lineId);
+    
+    // 생산 현황 수치 한 번에 조회 (생산 중 수량, 오늘 목표량, 오늘 완료/양품/사이클 타임, 최근 1시간 완료)
+    // 타임스탬프 조건은 모두 범위 비교 (인덱스 사용 가능), 롤업은 DAY 버킷 1개 + MINUTE 버킷 60개만 읽는다
+    @Query(value = "SELECT p.processing_count AS \"processingCount\", p.production_target AS \"productionTarget\", " +
+           "r.today_completed AS \"todayCompleted\", r.today_good AS \"todayGood\", " +
+           "r.cycle_time_count AS \"cycleTimeCount\", r.cycle_time_sum AS \"cycleTimeSum\", " +
+           "r.last_hour_completed AS \"lastHourCompleted\" " +
+           "FROM (SELECT COUNT(*) FILTER (WHERE cp.status = 'PROCESSING') AS processing_count, " +
+           "      CAST(COALESCE(SUM(cp.target_quantity) FILTER (WHERE cp.start_time >= :dayStart AND cp.start_time < :dayEnd), 0) AS bigint) AS production_target " +
+           "      FROM current_production cp WHERE cp.line_id = :lineId) p " +
+           "CROSS JOIN (SELECT " +
+           "      CAST(COALESCE(SUM(pr.completed_count) FILTER (WHERE pr.granularity = 'DAY'), 0) AS bigint) AS today_completed, " +
+           "      CAST(COALESCE(SUM(pr.good_count) FILTER (WHERE pr.granularity = 'DAY'), 0) AS bigint) AS today_good, " +
+           "      CAST(COALESCE(SUM(pr.cycle_time_count) FILTER (WHERE pr.granularity = 'DAY'), 0) AS bigint) AS cycle_time_count, " +
+           "      COALESCE(SUM(pr.cycle_time_sum) FILTER (WHERE pr.granularity = 'DAY'), 0) AS cycle_time_sum, " +
+           "      CAST(COALESCE(SUM(pr.completed_count) FILTER (WHERE pr.granularity = 'MINUTE'), 0) AS bigint) AS last_hour_completed " +
+           "      FROM production_rollup pr WHERE pr.line_id = :rollupLineId " +
+           "      AND ((pr.granularity = 'DAY' AND pr.bucket_start = :dayStart) " +
+           "        OR (pr.granularity = 'MINUTE' AND pr.bucket_start >= :hourFrom AND pr.bucket_start < :hourTo))) r",
+           nativeQuery = true)
+    LineProductionSummary getLineProductionSummary(@Param("lineId") Long lineId, @Param("rollupLineId") Long rollupLineId,
+                                                   @Param("dayStart") LocalDateTime dayStart, @Param("dayEnd") LocalDateTime dayEnd,
+                                                   @Param("hourFrom") LocalDateTime hourFrom, @Param("hourTo") LocalDateTime hourTo);
     
     // 재작업 횟수 업데이트
     @Modifying
@@ -47,6 +82,10 @@ public interface CurrentProductionRepository extends JpaRepository<CurrentProduc
     @Query("UPDATE CurrentProduction cp SET cp.reworkCount = cp.reworkCount + 1 WHERE cp.productId = :productId")
     int incrementReworkCount(@Param("productId") String productId);
     
+    // 재작업 횟수 조회 (증가 직후 같은 트랜잭션에서 호출)
+    @Query("SELECT cp.reworkCount FROM CurrentProduction cp WHERE cp.productId = :productId")
+    Optional<Integer> findReworkCountByProductId(@Param("productId") String productId);
+    
     // 현재 스테이션 업데이트
     @Modifying
     @Transactional
@@ -58,4 +97,21 @@ public interface CurrentProductionRepository extends JpaRepository<CurrentProduc
     
     // 라인별 + 상태별 제품 개수 조회
     long countByLineIdAndStatus(Long lineId, String status);
+    
+    /**
+     * 라인 생산 현황 수치 (getLineProductionSummary 결과)
+     */
+    interface LineProductionSummary {
+        Long getProcessingCount();
+        Long getProductionTarget();
+        Long getTodayCompleted();
+        Long getTodayGood();
+        Long getCycleTimeCount();
+        Double getCycleTimeSum();
+        Long getLastHourCompleted();
+        
+        default Double getAverageCycleTime() {
+            return getCycleTimeCount() != null && getCycleTimeCount() > 0 ? getCycleTimeSum() / getCycleTimeCount() : null;
+        }
+    }
 }
\ No newline at end of file
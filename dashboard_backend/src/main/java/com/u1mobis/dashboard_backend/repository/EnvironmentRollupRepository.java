@@ -0,0 +1,64 @@
+package com.u1mobis.dashboard_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.u1mobis.dashboard_backend.entity.EnvironmentRollup;
+import com.u1mobis.dashboard_backend.entity.RollupGranularity;
+
+@Repository
+public interface EnvironmentRollupRepository extends JpaRepository<EnvironmentRollup, Long> {
+
+    // 버킷 누적 (합계는 더하고 최대값은 GREATEST로 갱신)
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO environment_rollup (company_id, line_id, granularity, bucket_start, sample_count, " +
+           "temperature_sum, humidity_sum, air_quality_sum, temperature_max, humidity_max, air_quality_max) " +
+           "VALUES (:companyId, :lineId, :granularity, :bucketStart, 1, :temperature, :humidity, :airQuality, " +
+           ":temperature, :humidity, :airQuality) " +
+           "ON CONFLICT (company_id, line_id, granularity, bucket_start) DO UPDATE SET " +
+           "sample_count = environment_rollup.sample_count + 1, " +
+           "temperature_sum = environment_rollup.temperature_sum + EXCLUDED.temperature_sum, " +
+           "humidity_sum = environment_rollup.humidity_sum + EXCLUDED.humidity_sum, " +
+           "air_quality_sum = environment_rollup.air_quality_sum + EXCLUDED.air_quality_sum, " +
+           "temperature_max = GREATEST(environment_rollup.temperature_max, EXCLUDED.temperature_max), " +
+           "humidity_max = GREATEST(environment_rollup.humidity_max, EXCLUDED.humidity_max), " +
+           "air_quality_max = GREATEST(environment_rollup.air_quality_max, EXCLUDED.air_quality_max)",
+           nativeQuery = true)
+    int upsert(@Param("companyId") Long companyId, @Param("lineId") Long lineId,
+               @Param("granularity") String granularity, @Param("bucketStart") LocalDateTime bucketStart,
+               @Param("temperature") double temperature, @Param("humidity") double humidity,
+               @Param("airQuality") int airQuality);
+
+    // 시간별 환경 데이터 평균 (getHourlyEnvironmentAverages와 동일한 컬럼 순서)
+    @Query("SELECT HOUR(r.bucketStart) as hour, " +
+           "SUM(r.temperatureSum) / SUM(r.sampleCount) as avgTemp, " +
+           "SUM(r.humiditySum) / SUM(r.sampleCount) as avgHumidity, " +
+           "SUM(r.airQualitySum) * 1.0 / SUM(r.sampleCount) as avgAirQuality " +
+           "FROM EnvironmentRollup r WHERE r.companyId = :companyId " +
+           "AND r.granularity = com.u1mobis.dashboard_backend.entity.RollupGranularity.HOUR " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<Object[]> getHourlyEnvironmentAverages(@Param("companyId") Long companyId,
+                                                @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // 회사 전체 버킷 평균 (버킷 시작, 온도, 습도, 공기질) - 라인별 행을 합쳐 시간순 스트리밍
+    @Query("SELECT r.bucketStart, " +
+           "SUM(r.temperatureSum) / SUM(r.sampleCount), " +
+           "SUM(r.humiditySum) / SUM(r.sampleCount), " +
+           "SUM(r.airQualitySum) * 1.0 / SUM(r.sampleCount) " +
+           "FROM EnvironmentRollup r WHERE r.companyId = :companyId AND r.granularity = :granularity " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    Stream<Object[]> streamCompanyAverages(@Param("companyId") Long companyId,
+                                           @Param("granularity") RollupGranularity granularity,
+                                           @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
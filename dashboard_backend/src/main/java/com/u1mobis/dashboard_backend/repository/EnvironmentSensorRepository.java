@@ -3,20 +3,38 @@ package com.u1mobis.dashboard_backend.repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.u1mobis.dashboard_backend.entity.EnvironmentSensor;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface EnvironmentSensorRepository extends JpaRepository<EnvironmentSensor, Long> {
     
     // 최신 환경 데이터 조회
     Optional<EnvironmentSensor> findTopByOrderByTimestampDesc();
     
+    // 회사별 최신 환경 데이터 조회
+    Optional<EnvironmentSensor> findTopByCompanyIdOrderByTimestampDesc(Long companyId);
+    
+    // 회사별 기간 측정값 (시각, 온도, 습도, 공기질) - 엔티티 없이 커서로 스트리밍, 트랜잭션 안에서 닫을 것
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT es.timestamp, es.temperature, es.humidity, es.airQuality FROM EnvironmentSensor es " +
+           "WHERE es.companyId = :companyId AND es.timestamp >= :from AND es.timestamp < :to ORDER BY es.timestamp")
+    Stream<Object[]> streamCompanyReadings(@Param("companyId") Long companyId,
+                                           @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
     // 특정 기간 환경 데이터 조회
     List<EnvironmentSensor> findByTimestampBetweenOrderByTimestampDesc(LocalDateTime startTime, LocalDateTime endTime);
     
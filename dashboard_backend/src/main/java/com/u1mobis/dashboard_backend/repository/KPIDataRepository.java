@@ -3,14 +3,20 @@ package com.u1mobis.dashboard_backend.repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.u1mobis.dashboard_backend.entity.KPIData;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface KPIDataRepository extends JpaRepository<KPIData, Long> {
     
@@ -26,6 +32,16 @@ public interface KPIDataRepository extends JpaRepository<KPIData, Long> {
     // 특정 기간 KPI 데이터 조회
     List<KPIData> findByTimestampBetweenOrderByTimestampDesc(LocalDateTime startTime, LocalDateTime endTime);
     
+    // 회사별(lineId 가 있으면 라인까지) 기간 KPI (시각, OEE, FTY, OTD) - 엔티티 없이 커서로 스트리밍, 트랜잭션 안에서 닫을 것
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT kd.timestamp, kd.calculatedOEE, kd.calculatedFTY, kd.calculatedOTD FROM KPIData kd " +
+           "WHERE kd.company.companyId = :companyId AND (:lineId IS NULL OR kd.lineId = :lineId) " +
+           "AND kd.timestamp >= :from AND kd.timestamp < :to")
+    Stream<Object[]> streamCompanyHistory(@Param("companyId") Long companyId, @Param("lineId") Long lineId,
+                                          @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
     // 오늘 최신 KPI 조회 (수정됨)
     @Query("SELECT kd FROM KPIData kd WHERE CAST(kd.timestamp AS DATE) = CURRENT_DATE ORDER BY kd.timestamp DESC LIMIT 1")
     Optional<KPIData> findLatestKPIToday();
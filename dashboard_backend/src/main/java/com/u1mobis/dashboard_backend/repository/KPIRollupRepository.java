@@ -0,0 +1,62 @@
+package com.u1mobis.dashboard_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.u1mobis.dashboard_backend.entity.KPIRollup;
+import com.u1mobis.dashboard_backend.entity.RollupGranularity;
+
+@Repository
+public interface KPIRollupRepository extends JpaRepository<KPIRollup, Long> {
+
+    // 버킷 누적 (없으면 생성, 있으면 합계에 더함)
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO kpi_rollup (company_id, line_id, granularity, bucket_start, sample_count, " +
+           "oee_sum, fty_sum, otd_sum, planned_time, downtime, total_count, good_count, " +
+           "first_time_pass_count, on_time_delivery_count) " +
+           "VALUES (:companyId, :lineId, :granularity, :bucketStart, 1, :oee, :fty, :otd, :plannedTime, :downtime, " +
+           ":totalCount, :goodCount, :firstTimePassCount, :onTimeDeliveryCount) " +
+           "ON CONFLICT (company_id, line_id, granularity, bucket_start) DO UPDATE SET " +
+           "sample_count = kpi_rollup.sample_count + 1, " +
+           "oee_sum = kpi_rollup.oee_sum + EXCLUDED.oee_sum, " +
+           "fty_sum = kpi_rollup.fty_sum + EXCLUDED.fty_sum, " +
+           "otd_sum = kpi_rollup.otd_sum + EXCLUDED.otd_sum, " +
+           "planned_time = kpi_rollup.planned_time + EXCLUDED.planned_time, " +
+           "downtime = kpi_rollup.downtime + EXCLUDED.downtime, " +
+           "total_count = kpi_rollup.total_count + EXCLUDED.total_count, " +
+           "good_count = kpi_rollup.good_count + EXCLUDED.good_count, " +
+           "first_time_pass_count = kpi_rollup.first_time_pass_count + EXCLUDED.first_time_pass_count, " +
+           "on_time_delivery_count = kpi_rollup.on_time_delivery_count + EXCLUDED.on_time_delivery_count",
+           nativeQuery = true)
+    int upsert(@Param("companyId") Long companyId, @Param("lineId") Long lineId,
+               @Param("granularity") String granularity, @Param("bucketStart") LocalDateTime bucketStart,
+               @Param("oee") double oee, @Param("fty") double fty, @Param("otd") double otd,
+               @Param("plannedTime") long plannedTime, @Param("downtime") long downtime,
+               @Param("totalCount") long totalCount, @Param("goodCount") long goodCount,
+               @Param("firstTimePassCount") long firstTimePassCount,
+               @Param("onTimeDeliveryCount") long onTimeDeliveryCount);
+
+    // 기간 내 버킷 조회 (라인별 트렌드)
+    List<KPIRollup> findByCompanyIdAndLineIdAndGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+            Long companyId, Long lineId, RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+
+    // 시간별 KPI 트렌드 (회사 전체 라인 합산, 차트용) - getHourlyKPITrends와 동일한 컬럼 순서
+    @Query("SELECT HOUR(r.bucketStart) as hour, " +
+           "SUM(r.oeeSum) / SUM(r.sampleCount) as avgOEE, " +
+           "SUM(r.ftySum) / SUM(r.sampleCount) as avgFTY, " +
+           "SUM(r.otdSum) / SUM(r.sampleCount) as avgOTD " +
+           "FROM KPIRollup r WHERE r.companyId = :companyId " +
+           "AND r.granularity = com.u1mobis.dashboard_backend.entity.RollupGranularity.HOUR " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<Object[]> getHourlyKPITrends(@Param("companyId") Long companyId,
+                                      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
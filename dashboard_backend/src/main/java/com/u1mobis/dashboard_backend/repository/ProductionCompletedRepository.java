@@ -3,14 +3,20 @@ package com.u1mobis.dashboard_backend.repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.u1mobis.dashboard_backend.entity.ProductionCompleted;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface ProductionCompletedRepository extends JpaRepository<ProductionCompleted, Long> {
     
@@ -55,6 +61,16 @@ public interface ProductionCompletedRepository extends JpaRepository<ProductionC
     
     // 다른 기본 메서드들
     List<ProductionCompleted> findByTimestampBetween(LocalDateTime startTime, LocalDateTime endTime);
+    
+    // 회사별(lineId 가 있으면 라인까지) 기간 생산 완료 (시각, 품질, 정시 여부, 일발 통과 여부, 사이클 타임) - 커서로 스트리밍
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT pc.timestamp, pc.quality, pc.isOnTime, pc.isFirstTimePass, pc.cycleTime FROM ProductionCompleted pc " +
+           "JOIN pc.productionLine pl WHERE pl.company.companyId = :companyId " +
+           "AND (:lineId IS NULL OR pc.lineId = :lineId) AND pc.timestamp >= :from AND pc.timestamp < :to")
+    Stream<Object[]> streamCompanyHistory(@Param("companyId") Long companyId, @Param("lineId") Long lineId,
+                                          @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
     List<ProductionCompleted> findByQuality(String quality);
     List<ProductionCompleted> findByIsOnTime(Boolean isOnTime);
     List<ProductionCompleted> findByIsFirstTimePass(Boolean isFirstTimePass);
@@ -0,0 +1,55 @@
+package com.u1mobis.dashboard_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.u1mobis.dashboard_backend.entity.ProductionRollup;
+import com.u1mobis.dashboard_backend.entity.RollupGranularity;
+
+@Repository
+public interface ProductionRollupRepository extends JpaRepository<ProductionRollup, Long> {
+
+    // 버킷 누적 (없으면 생성, 있으면 카운터에 더함)
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO production_rollup (company_id, line_id, granularity, bucket_start, completed_count, " +
+           "good_count, on_time_count, first_time_pass_count, cycle_time_count, cycle_time_sum) " +
+           "VALUES (:companyId, :lineId, :granularity, :bucketStart, 1, :goodCount, :onTimeCount, " +
+           ":firstTimePassCount, :cycleTimeCount, :cycleTimeSum) " +
+           "ON CONFLICT (company_id, line_id, granularity, bucket_start) DO UPDATE SET " +
+           "completed_count = production_rollup.completed_count + 1, " +
+           "good_count = production_rollup.good_count + EXCLUDED.good_count, " +
+           "on_time_count = production_rollup.on_time_count + EXCLUDED.on_time_count, " +
+           "first_time_pass_count = production_rollup.first_time_pass_count + EXCLUDED.first_time_pass_count, " +
+           "cycle_time_count = production_rollup.cycle_time_count + EXCLUDED.cycle_time_count, " +
+           "cycle_time_sum = production_rollup.cycle_time_sum + EXCLUDED.cycle_time_sum",
+           nativeQuery = true)
+    int upsert(@Param("companyId") Long companyId, @Param("lineId") Long lineId,
+               @Param("granularity") String granularity, @Param("bucketStart") LocalDateTime bucketStart,
+               @Param("goodCount") long goodCount, @Param("onTimeCount") long onTimeCount,
+               @Param("firstTimePassCount") long firstTimePassCount,
+               @Param("cycleTimeCount") long cycleTimeCount, @Param("cycleTimeSum") double cycleTimeSum);
+
+    // 특정 버킷 조회 (예: 오늘 DAY 버킷 = 오늘 누적 카운터)
+    Optional<ProductionRollup> findByLineIdAndGranularityAndBucketStart(
+            Long lineId, RollupGranularity granularity, LocalDateTime bucketStart);
+
+    // 기간 내 완료 수량 합계 (라인별, 예: 최근 1시간 = MINUTE 버킷 60개)
+    @Query("SELECT COALESCE(SUM(r.completedCount), 0) FROM ProductionRollup r " +
+           "WHERE r.lineId = :lineId AND r.granularity = :granularity " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to")
+    Long sumCompletedByLineId(@Param("lineId") Long lineId, @Param("granularity") RollupGranularity granularity,
+                              @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // 기간 내 버킷 조회 (라인별 트렌드)
+    List<ProductionRollup> findByLineIdAndGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+            Long lineId, RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+}
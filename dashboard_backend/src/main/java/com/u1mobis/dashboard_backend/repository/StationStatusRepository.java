@@ -25,6 +25,11 @@ public interface StationStatusRepository extends JpaRepository<StationStatus, St
     @Query("SELECT ss FROM StationStatus ss JOIN ss.productionLine pl WHERE pl.company.companyId = :companyId")
     List<StationStatus> findByCompanyId(@Param("companyId") Long companyId);
     
+    // 스테이션이 회사 소속 라인에 있는지
+    @Query("SELECT COUNT(ss) > 0 FROM StationStatus ss JOIN ss.productionLine pl " +
+           "WHERE ss.stationId = :stationId AND pl.company.companyId = :companyId")
+    boolean existsInCompany(@Param("stationId") String stationId, @Param("companyId") Long companyId);
+    
     // 가동 중인 스테이션들 조회
     @Query("SELECT ss FROM StationStatus ss WHERE ss.lineId = :lineId AND ss.status = 'OPERATING'")
     List<StationStatus> findOperatingStationsByLineId(@Param("lineId") Long lineId);
@@ -0,0 +1,27 @@
+package com.u1mobis.dashboard_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.u1mobis.dashboard_backend.entity.ThresholdRule;
+
+@Repository
+public interface ThresholdRuleRepository extends JpaRepository<ThresholdRule, Long> {
+
+    // 활성 규칙 전체 (규칙 컴파일용)
+    List<ThresholdRule> findByEnabledTrue();
+
+    // 회사별 규칙 목록
+    List<ThresholdRule> findByCompanyIdOrderByLineIdAscRuleIdAsc(Long companyId);
+
+    Optional<ThresholdRule> findByRuleIdAndCompanyId(Long ruleId, Long companyId);
+
+    // 변경 감지용 (마지막 수정 시각)
+    @Query("SELECT MAX(r.updatedAt) FROM ThresholdRule r")
+    LocalDateTime findLastUpdatedAt();
+}
@@ -2,6 +2,7 @@ package com.u1mobis.dashboard_backend.security;
 
 import com.u1mobis.dashboard_backend.entity.User;
 import com.u1mobis.dashboard_backend.repository.UserRepository;
+import com.u1mobis.dashboard_backend.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -10,7 +11,6 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -30,36 +30,55 @@ public class CustomUserDetailsService implements UserDetailsService {
         return new CustomUserPrincipal(user);
     }
     
-    // 커스텀 UserDetails 구현
+    // 커스텀 UserDetails 구현 (DB 조회 또는 검증된 JWT 클레임으로 생성)
     public static class CustomUserPrincipal implements UserDetails {
-        private final User user;
+        private static final List<GrantedAuthority> USER_AUTHORITIES =
+                List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        
+        private final Long userId;
+        private final String userName;
+        private final String password;
+        private final Long companyId;
+        private final List<GrantedAuthority> authorities;
         
         public CustomUserPrincipal(User user) {
-            this.user = user;
+            this.userId = user.getUserId();
+            this.userName = user.getUserName();
+            this.password = user.getPassword();
+            this.companyId = user.getCompanyId();
+            // 기본 사용자 권한 부여 (추후 관리자 권한 등을 여기서 설정 가능)
+            this.authorities = USER_AUTHORITIES;
+        }
+        
+        private CustomUserPrincipal(Long userId, String userName, Long companyId, List<GrantedAuthority> authorities) {
+            this.userId = userId;
+            this.password = null;
+            this.userName = userName;
+            this.companyId = companyId;
+            this.authorities = authorities;
+        }
+        
+        // 서명/만료가 검증된 액세스 토큰 클레임으로 생성 (DB 조회 없음, 비밀번호 없음)
+        public static CustomUserPrincipal fromToken(JwtUtil.VerifiedToken token) {
+            List<GrantedAuthority> authorities = token.roles() == null || token.roles().isEmpty()
+                    ? USER_AUTHORITIES
+                    : token.roles().stream().<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+            return new CustomUserPrincipal(token.userId(), token.username(), token.companyId(), authorities);
         }
         
         @Override
         public Collection<? extends GrantedAuthority> getAuthorities() {
-            List<GrantedAuthority> authorities = new ArrayList<>();
-            // 기본 사용자 권한 부여
-            authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
-            
-            // 추후 관리자 권한 등을 여기서 설정 가능
-            // if (user.isAdmin()) {
-            //     authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
-            // }
-            
             return authorities;
         }
         
         @Override
         public String getPassword() {
-            return user.getPassword();
+            return password;
         }
         
         @Override
         public String getUsername() {
-            return user.getUserName();
+            return userName;
         }
         
         @Override
@@ -82,17 +101,12 @@ public class CustomUserDetailsService implements UserDetailsService {
             return true;
         }
         
-        // User 엔티티에 직접 접근할 수 있는 메서드
-        public User getUser() {
-            return user;
-        }
-        
         public Long getUserId() {
-            return user.getUserId();
+            return userId;
         }
         
         public Long getCompanyId() {
-            return user.getCompanyId();
+            return companyId;
         }
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.u1mobis.dashboard_backend.security;
 
+import com.u1mobis.dashboard_backend.security.CustomUserDetailsService.CustomUserPrincipal;
 import com.u1mobis.dashboard_backend.util.JwtUtil;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -32,38 +34,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String requestTokenHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwtToken = null;
+        JwtUtil.VerifiedToken verified = null;
         
-        // JWT Token이 "Bearer " 형식인지 확인
+        // JWT Token이 "Bearer " 형식인지 확인 (서명/만료 검증, 검증된 토큰은 캐시에서 바로 반환)
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
+            String jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtUtil.getUsernameFromToken(jwtToken);
-            } catch (Exception e) {
-                log.warn("JWT Token에서 사용자명을 가져올 수 없습니다: {}", e.getMessage());
+                verified = jwtUtil.verify(jwtToken);
+                // 리프레시 토큰은 /api/user/refresh-token 에서만 사용 (API 인증에는 사용 불가)
+                if (verified.isRefreshToken()) {
+                    log.warn("리프레시 토큰으로 API 인증 시도 - 사용자: {}", verified.username());
+                    verified = null;
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                log.warn("JWT Token 검증 실패: {}", e.getMessage());
             }
         } else {
             log.debug("JWT Token이 Bearer로 시작하지 않습니다");
         }
         
-        // 토큰을 검증하고 SecurityContext에 인증 정보 설정
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // 검증된 클레임으로 SecurityContext에 인증 정보 설정
+        if (verified != null && verified.username() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
             
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // 액세스 토큰은 클레임만으로 principal 구성 (DB 조회 없음), 사용자 ID가 없는 이전 형식 토큰만 DB 조회
+            UserDetails userDetails = verified.userId() != null
+                    ? CustomUserPrincipal.fromToken(verified)
+                    : this.userDetailsService.loadUserByUsername(verified.username());
             
-            // 토큰이 유효한 경우 Spring Security에 인증 설정
-            if (jwtUtil.validateToken(jwtToken, userDetails.getUsername())) {
-                
-                UsernamePasswordAuthenticationToken authToken = 
-                    new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                        
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-                
-                log.debug("사용자 '{}' 인증 완료", username);
-            }
+            UsernamePasswordAuthenticationToken authToken = 
+                new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities());
+                    
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            
+            log.debug("사용자 '{}' 인증 완료", verified.username());
         }
         
         filterChain.doFilter(request, response);
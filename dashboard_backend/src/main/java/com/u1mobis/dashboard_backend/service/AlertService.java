@@ -2,9 +2,9 @@ package com.u1mobis.dashboard_backend.service;
 
 import com.u1mobis.dashboard_backend.entity.Alert;
 import com.u1mobis.dashboard_backend.entity.Company;
-import com.u1mobis.dashboard_backend.entity.EnvironmentSensor;
 import com.u1mobis.dashboard_backend.repository.AlertRepository;
 import com.u1mobis.dashboard_backend.repository.CompanyRepository;
+import com.u1mobis.dashboard_backend.service.AlertStateEngine.Decision;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -22,16 +22,33 @@ import java.util.Optional;
 @Slf4j
 public class AlertService {
 
+    public static final String TOPIC_PREFIX = "/topic/alerts/";
+
     private final SimpMessagingTemplate messagingTemplate;
     private final AlertRepository alertRepository;
     private final CompanyRepository companyRepository;
+    private final AlertStateEngine alertStateEngine;
+
+    // 알림 억제 통계 (회사별 활성 알림 포함)
+    public Map<String, Object> getAlertStats(String companyName) {
+        Long companyId = companyRepository.findByCompanyName(companyName)
+                .map(Company::getCompanyId)
+                .orElseThrow(() -> new RuntimeException("회사를 찾을 수 없습니다: " + companyName));
+        return alertStateEngine.getStats(companyId);
+    }
 
     public void sendThresholdAlert(Company company, String alertType, String message, Object value) {
+        publishThresholdAlert(company, null, alertType, message, "danger", value, null);
+    }
+
+    // 임계값 알림 저장 후 회사 토픽으로 전송 (상태 전이 시에만 호출)
+    public void publishThresholdAlert(Company company, Long lineId, String alertType, String message,
+                                      String type, Object value, Decision decision) {
         // 알림을 데이터베이스에 저장
         Alert alertEntity = Alert.builder()
                 .alertType(alertType)
                 .message(message)
-                .type("danger")
+                .type(type)
                 .value(value != null ? value.toString() : null)
                 .company(company)
                 .timestamp(LocalDateTime.now())
@@ -43,40 +60,27 @@ public class AlertService {
         // WebSocket으로 실시간 알림 전송
         Map<String, Object> alert = new HashMap<>();
         alert.put("id", alertEntity.getAlertId());
-        alert.put("type", "danger");
+        alert.put("type", type);
         alert.put("alertType", alertType);
         alert.put("message", message);
         alert.put("value", value);
         alert.put("timestamp", LocalDateTime.now().toString());
         alert.put("companyId", company.getCompanyId());
         alert.put("companyName", company.getCompanyName());
+        if (lineId != null) {
+            alert.put("lineId", lineId);
+        }
+        if (decision != null) {
+            alert.put("state", decision == Decision.CLEAR ? "CLEARED" : "RAISED");
+            alert.put("renotify", decision == Decision.RENOTIFY);
+        }
 
         // 해당 회사에만 알림 전송
-        String destination = "/topic/alerts/" + company.getCompanyName();
+        String destination = TOPIC_PREFIX + company.getCompanyName();
         messagingTemplate.convertAndSend(destination, alert);
         
-        log.warn("임계값 알림 전송 - 회사: {}, 타입: {}, 메시지: {}", 
-                company.getCompanyName(), alertType, message);
-    }
-
-    public void sendEnvironmentAlert(Company company, EnvironmentSensor sensor) {
-        if (sensor.getTemperature() > 35.0) {
-            sendThresholdAlert(company, "TEMPERATURE", 
-                    String.format("고온 경보: %.1f°C", sensor.getTemperature()),
-                    sensor.getTemperature());
-        }
-        
-        if (sensor.getHumidity() > 80.0) {
-            sendThresholdAlert(company, "HUMIDITY", 
-                    String.format("고습도 경보: %.1f%", sensor.getHumidity()),
-                    sensor.getHumidity());
-        }
-        
-        if (sensor.getAirQuality() > 300) {
-            sendThresholdAlert(company, "AIR_QUALITY", 
-                    String.format("공기질 경보: %d", sensor.getAirQuality()),
-                    sensor.getAirQuality());
-        }
+        log.warn("임계값 알림 전송 - 회사: {}, 라인: {}, 타입: {}, 메시지: {}", 
+                company.getCompanyName(), lineId, alertType, message);
     }
 
     public void sendProductionAlert(Company company, String productId, String alertType, String message) {
@@ -104,7 +108,7 @@ public class AlertService {
         alert.put("companyId", company.getCompanyId());
         alert.put("companyName", company.getCompanyName());
 
-        String destination = "/topic/alerts/" + company.getCompanyName();
+        String destination = TOPIC_PREFIX + company.getCompanyName();
         messagingTemplate.convertAndSend(destination, alert);
         
         log.warn("생산 알림 전송 - 회사: {}, 제품: {}, 타입: {}, 메시지: {}", 
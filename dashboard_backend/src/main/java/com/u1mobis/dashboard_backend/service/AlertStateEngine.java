@@ -0,0 +1,297 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 알림 상태 머신 (회사/라인/알림 타입별)
+ * - 발생(raise)과 해제(clear) 기준을 분리한 히스테리시스로 기준값 근처 깜빡임 방지
+ * - 발생 상태가 유지되는 동안은 최소 재알림 간격마다 한 번만 알림
+ * - 회사별 토큰 버킷으로 짧은 시간에 몰리는 알림 억제
+ * 상태 전이만 알림 대상이 되며, 나머지 샘플은 메모리에서만 평가하고 억제 카운트로 남긴다.
+ */
+@Service
+public class AlertStateEngine {
+
+    // 기준 방향 (BELOW: 값이 기준 미만이면 발생, ABOVE: 기준 초과면 발생)
+    public enum Direction {
+        BELOW,
+        ABOVE
+    }
+
+    // 평가 결과
+    public enum Decision {
+        NONE,       // 정상 유지
+        RAISE,      // 새로 발생
+        RENOTIFY,   // 발생 유지 중 재알림
+        CLEAR,      // 해제
+        SUPPRESSED  // 알림 대상이지만 억제됨
+    }
+
+    /**
+     * 알림 규칙
+     * @param ruleId         규칙 ID (상태 구분용, 기본 규칙은 음수)
+     * @param raiseThreshold 발생 기준
+     * @param clearThreshold 해제 기준 (BELOW면 raise 이상, ABOVE면 raise 이하여야 히스테리시스가 생김)
+     * @param inclusive      기준값과 같을 때도 발생으로 볼지 여부
+     */
+    public record AlertRule(long ruleId, String alertType, Direction direction, double raiseThreshold,
+                            double clearThreshold, boolean inclusive) {
+
+        boolean isRaised(double value) {
+            if (direction == Direction.BELOW) {
+                return inclusive ? value <= raiseThreshold : value < raiseThreshold;
+            }
+            return inclusive ? value >= raiseThreshold : value > raiseThreshold;
+        }
+
+        boolean isCleared(double value) {
+            return direction == Direction.BELOW ? value >= clearThreshold : value <= clearThreshold;
+        }
+    }
+
+    // 최소 재알림 간격 (발생 상태가 유지될 때)
+    @Value("${alert.renotify-interval-ms:600000}")
+    private long renotifyIntervalMillis;
+
+    // 회사별 버스트 허용량 및 분당 충전량
+    @Value("${alert.burst.capacity:10}")
+    private int burstCapacity;
+
+    @Value("${alert.burst.refill-per-minute:20}")
+    private int burstRefillPerMinute;
+
+    // Key: "companyId_lineId_alertType_ruleId"
+    private final Map<String, AlertState> states = new ConcurrentHashMap<>();
+    // Key: companyId
+    private final Map<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+    // Key: companyId (회사별 통계만 보여주도록 카운터도 회사별)
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 샘플 평가 후 알림 여부 결정
+     */
+    public Decision evaluate(Long companyId, Long lineId, AlertRule rule, double value) {
+        return evaluate(stateFor(companyId, lineId, rule), rule, value);
+    }
+
+    /**
+     * 규칙 상태 조회 (없으면 생성) - 컴파일된 규칙이 미리 잡아두고 재사용
+     */
+    public AlertState stateFor(Long companyId, Long lineId, AlertRule rule) {
+        return states.computeIfAbsent(companyId + "_" + lineId + "_" + rule.alertType() + "_" + rule.ruleId(),
+                k -> new AlertState(companyId, lineId, rule.alertType(), rule.ruleId(), counters(companyId)));
+    }
+
+    /**
+     * 미리 조회한 상태로 샘플 평가 (맵 조회 없음)
+     */
+    public Decision evaluate(AlertState state, AlertRule rule, double value) {
+        Counters counter = state.counters;
+        counter.evaluated.incrementAndGet();
+        long now = System.currentTimeMillis();
+        Long companyId = state.companyId;
+
+        synchronized (state) {
+            state.lastValue = value;
+            state.lastEvaluatedAt = now;
+
+            if (!state.raised) {
+                if (!rule.isRaised(value)) {
+                    return Decision.NONE;
+                }
+                state.raised = true;
+                state.raisedAt = now;
+                state.suppressedSinceNotify = 0;
+                return tryNotify(state, companyId, now, Decision.RAISE);
+            }
+
+            if (rule.isCleared(value)) {
+                state.raised = false;
+                if (!state.notified) {
+                    // 발생 알림이 억제된 채로 해제되면 해제 알림도 보내지 않음
+                    counter.duplicateSuppressed.incrementAndGet();
+                    return Decision.SUPPRESSED;
+                }
+                state.notified = false;
+                return tryNotify(state, companyId, now, Decision.CLEAR);
+            }
+
+            // 발생 유지 중: 아직 알리지 못했으면 재시도, 알렸으면 재알림 간격 확인
+            if (!state.notified) {
+                return tryNotify(state, companyId, now, Decision.RAISE);
+            }
+            if (now - state.lastNotifiedAt >= renotifyIntervalMillis) {
+                return tryNotify(state, companyId, now, Decision.RENOTIFY);
+            }
+            state.suppressedSinceNotify++;
+            counter.duplicateSuppressed.incrementAndGet();
+            return Decision.SUPPRESSED;
+        }
+    }
+
+    // 버스트 한도 확인 후 알림 확정
+    private Decision tryNotify(AlertState state, Long companyId, long now, Decision decision) {
+        // 해제 알림은 이미 알린 발생 상태를 정리하는 것이므로 버스트 한도와 무관하게 보냄
+        if (decision != Decision.CLEAR && !bucket(companyId).tryAcquire(now)) {
+            state.suppressedSinceNotify++;
+            state.counters.burstSuppressed.incrementAndGet();
+            return Decision.SUPPRESSED;
+        }
+        state.notified = decision != Decision.CLEAR;
+        state.lastNotifiedAt = now;
+        state.suppressedSinceNotify = 0;
+        switch (decision) {
+            case RAISE -> state.counters.raised.incrementAndGet();
+            case RENOTIFY -> state.counters.renotified.incrementAndGet();
+            case CLEAR -> state.counters.cleared.incrementAndGet();
+            default -> { }
+        }
+        return decision;
+    }
+
+    /**
+     * 더 이상 적용되지 않는 규칙의 상태 정리 (삭제/수정된 규칙, 회사 규칙으로 대체된 기본 규칙)
+     * @return 알림이 나간 채 발생 중이던 상태 (호출 측에서 해제 알림 전송)
+     */
+    public List<AlertState> releaseStates(Predicate<AlertState> stale) {
+        List<AlertState> cleared = new ArrayList<>();
+        states.values().removeIf(state -> {
+            if (!stale.test(state)) {
+                return false;
+            }
+            synchronized (state) {
+                if (state.raised && state.notified) {
+                    state.counters.cleared.incrementAndGet();
+                    cleared.add(state);
+                }
+                state.raised = false;
+                state.notified = false;
+            }
+            return true;
+        });
+        return cleared;
+    }
+
+    private Counters counters(Long companyId) {
+        return counters.computeIfAbsent(companyId, k -> new Counters());
+    }
+
+    private TokenBucket bucket(Long companyId) {
+        return buckets.computeIfAbsent(companyId, k -> new TokenBucket(burstCapacity, burstRefillPerMinute));
+    }
+
+    // 회사별 억제 통계 및 현재 발생 중인 알림
+    public Map<String, Object> getStats(Long companyId) {
+        Counters counter = companyId != null ? counters.get(companyId) : null;
+        if (counter == null) {
+            counter = new Counters();
+        }
+        long emitted = counter.raised.get() + counter.renotified.get() + counter.cleared.get();
+        long suppressed = counter.duplicateSuppressed.get() + counter.burstSuppressed.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("evaluated", counter.evaluated.get());
+        stats.put("emitted", emitted);
+        stats.put("raised", counter.raised.get());
+        stats.put("renotified", counter.renotified.get());
+        stats.put("cleared", counter.cleared.get());
+        stats.put("suppressed_duplicate", counter.duplicateSuppressed.get());
+        stats.put("suppressed_burst", counter.burstSuppressed.get());
+        // 억제된 샘플 1건 = DB insert 1건 + WebSocket 메시지 1건 절감
+        stats.put("saved_db_writes", suppressed);
+        stats.put("saved_websocket_messages", suppressed);
+        stats.put("suppression_ratio", emitted + suppressed > 0 ? suppressed / (double) (emitted + suppressed) : 0.0);
+
+        List<Map<String, Object>> active = new ArrayList<>();
+        for (AlertState state : states.values()) {
+            if (!Objects.equals(state.companyId, companyId)) {
+                continue;
+            }
+            synchronized (state) {
+                if (!state.raised) {
+                    continue;
+                }
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("lineId", state.lineId);
+                item.put("alertType", state.alertType);
+                item.put("ruleId", state.ruleId);
+                item.put("lastValue", state.lastValue);
+                item.put("raisedAt", state.raisedAt);
+                item.put("lastNotifiedAt", state.lastNotifiedAt);
+                item.put("suppressedSinceNotify", state.suppressedSinceNotify);
+                active.add(item);
+            }
+        }
+        stats.put("active", active);
+        return stats;
+    }
+
+    // 규칙별 상태
+    public static final class AlertState {
+        final Long companyId;
+        final Long lineId;
+        final String alertType;
+        final long ruleId;
+        final Counters counters;
+        boolean raised;
+        boolean notified;
+        long raisedAt;
+        long lastNotifiedAt;
+        long lastEvaluatedAt;
+        long suppressedSinceNotify;
+        double lastValue;
+
+        AlertState(Long companyId, Long lineId, String alertType, long ruleId, Counters counters) {
+            this.companyId = companyId;
+            this.lineId = lineId;
+            this.alertType = alertType;
+            this.ruleId = ruleId;
+            this.counters = counters;
+        }
+    }
+
+    // 회사별 평가/알림/억제 카운터
+    private static final class Counters {
+        final AtomicLong evaluated = new AtomicLong();
+        final AtomicLong raised = new AtomicLong();
+        final AtomicLong renotified = new AtomicLong();
+        final AtomicLong cleared = new AtomicLong();
+        final AtomicLong duplicateSuppressed = new AtomicLong();
+        final AtomicLong burstSuppressed = new AtomicLong();
+    }
+
+    // 회사별 토큰 버킷
+    private static final class TokenBucket {
+        private final int capacity;
+        private final double refillPerMillis;
+        private double tokens;
+        private long lastRefillAt;
+
+        TokenBucket(int capacity, int refillPerMinute) {
+            this.capacity = capacity;
+            this.refillPerMillis = refillPerMinute / 60_000.0;
+            this.tokens = capacity;
+            this.lastRefillAt = System.currentTimeMillis();
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillAt) * refillPerMillis);
+            lastRefillAt = now;
+            if (tokens < 1.0) {
+                return false;
+            }
+            tokens -= 1.0;
+            return true;
+        }
+    }
+}
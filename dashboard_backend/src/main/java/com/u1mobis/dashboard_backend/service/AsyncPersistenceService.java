@@ -0,0 +1,89 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 수집 경로와 분리된 비동기 DB 저장 실행기
+ * - 실시간 집계는 메모리에서 먼저 반영하고, DB 저장은 이 실행기로 넘긴다
+ * - 큐가 가득 차면 호출 스레드에서 직접 실행하여 자연스럽게 속도를 늦춘다
+ */
+@Service
+@Slf4j
+public class AsyncPersistenceService {
+
+    @Value("${persistence.async.threads:2}")
+    private int threads;
+
+    @Value("${persistence.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    @PostConstruct
+    public void initialize() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "async-persist-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        log.info("비동기 저장 실행기 초기화 - 스레드: {}, 큐 용량: {}", threads, queueCapacity);
+    }
+
+    // 저장 작업 제출 (실패는 로그와 카운터로만 남김)
+    public void submit(String description, Runnable task) {
+        submittedCount.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                failedCount.incrementAndGet();
+                log.error("비동기 저장 실패 - {}: {}", description, e.getMessage());
+            }
+        });
+    }
+
+    // 실행기 상태 조회
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("submitted", submittedCount.get());
+        stats.put("failed", failedCount.get());
+        stats.put("completed", executor.getCompletedTaskCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("active", executor.getActiveCount());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("비동기 저장 작업이 시간 내에 끝나지 않음 - 남은 작업: {}", executor.getQueue().size());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -18,6 +18,7 @@ import lombok.extern.slf4j.Slf4j;
 public class ConveyorService {
 
     private final ConveyorStatusRepository conveyorStatusRepository;
+    private final TwinStateProjection twinStateProjection;
 
     // 컨베이어 상태 저장 (MQTT에서 호출)
     public ConveyorStatus saveConveyorStatus(String companyName, Long lineId, String command, String reason) {
@@ -31,6 +32,9 @@ public class ConveyorService {
                 .build();
 
         ConveyorStatus saved = conveyorStatusRepository.save(status);
+        if (lineId != null) {
+            twinStateProjection.updateConveyorCommand(companyName, lineId, command, reason);
+        }
         log.info("컨베이어 상태 저장 완료");
         return saved;
     }
@@ -0,0 +1,131 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.u1mobis.dashboard_backend.config.AlertPrioritySessionDecorator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 대시보드 변경분 푸시 (/topic/dashboard/{companyName}/{lineId})
+ * - 스냅샷이 바뀔 때 바뀐 필드만 seq 와 함께 전송
+ * - 클라이언트는 seq 가 연속되지 않으면 resync 엔드포인트로 전체 스냅샷을 다시 받는다
+ * - 구독 중인 회사/라인은 스냅샷을 유지하도록 구독 수를 관리
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardPushService {
+
+    public static final String TOPIC_PREFIX = "/topic/dashboard/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Key: sessionId → (subscriptionId → "companyName_lineId")
+    private final Map<String, Map<String, String>> sessionSubscriptions = new ConcurrentHashMap<>();
+    // Key: "companyName_lineId"
+    private final Map<String, AtomicInteger> subscriberCounts = new ConcurrentHashMap<>();
+
+    private final AtomicLong publishedCount = new AtomicLong();
+
+    /**
+     * 변경분 전송 (직렬화는 한 번만 하고 모든 구독자에게 같은 문자열 전송)
+     */
+    public void publishDelta(String companyName, Long lineId, long seq, long version, ObjectNode changes) {
+        ObjectNode message = objectMapper.createObjectNode();
+        message.put("type", "dashboard_delta");
+        message.put("companyName", companyName);
+        message.put("lineId", lineId);
+        message.put("seq", seq);
+        message.put("version", version);
+        message.set("changes", changes);
+        try {
+            messagingTemplate.convertAndSend(TOPIC_PREFIX + companyName + "/" + lineId,
+                    objectMapper.writeValueAsString(message));
+            publishedCount.incrementAndGet();
+        } catch (Exception e) {
+            log.error("대시보드 변경분 전송 실패 - 회사: {}, 라인: {}, 오류: {}", companyName, lineId, e.getMessage());
+        }
+    }
+
+    public boolean hasSubscribers(String companyName, Long lineId) {
+        AtomicInteger count = subscriberCounts.get(companyName + "_" + lineId);
+        return count != null && count.get() > 0;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String key = toKey(accessor.getDestination());
+        if (key == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        sessionSubscriptions.computeIfAbsent(accessor.getSessionId(), k -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), key);
+        subscriberCounts.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = sessionSubscriptions.get(accessor.getSessionId());
+        if (subscriptions != null && accessor.getSubscriptionId() != null) {
+            release(subscriptions.remove(accessor.getSubscriptionId()));
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessionSubscriptions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "subscribedLines", subscriberCounts.size(),
+                "sessions", sessionSubscriptions.size(),
+                "publishedDeltas", publishedCount.get(),
+                "droppedSlowClientMessages", AlertPrioritySessionDecorator.getDroppedMessages(),
+                "closedSlowSessions", AlertPrioritySessionDecorator.getClosedSessions());
+    }
+
+    private void release(String key) {
+        if (key == null) {
+            return;
+        }
+        AtomicInteger count = subscriberCounts.get(key);
+        if (count != null && count.decrementAndGet() <= 0) {
+            subscriberCounts.remove(key, count);
+        }
+    }
+
+    // "/topic/dashboard/{companyName}/{lineId}" → "companyName_lineId"
+    private String toKey(String destination) {
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX)) {
+            return null;
+        }
+        String rest = destination.substring(TOPIC_PREFIX.length());
+        int slash = rest.lastIndexOf('/');
+        if (slash <= 0 || slash == rest.length() - 1) {
+            return null;
+        }
+        return rest.substring(0, slash) + "_" + rest.substring(slash + 1);
+    }
+}
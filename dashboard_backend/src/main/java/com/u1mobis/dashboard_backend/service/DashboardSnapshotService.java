@@ -0,0 +1,344 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.u1mobis.dashboard_backend.repository.CompanyRepository;
+import com.u1mobis.dashboard_backend.repository.ProductionLineRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 대시보드 스냅샷 캐시 (회사/라인별)
+ * - 생산/KPI/환경 이벤트가 들어올 때 바뀐 영역만 다시 계산해 스냅샷 교체 (write-through)
+ * - 스냅샷마다 단조 증가 버전과 직렬화된 JSON 바이트를 보관 → 폴링 요청은 ETag 비교 또는 바이트 복사만 수행
+ * - 내용이 바뀌면 라인별 seq 를 올리고 바뀐 필드만 WebSocket 으로 푸시 (DashboardPushService)
+ * - 조회 또는 구독 중인 회사/라인만 유지하며, 한동안 조회/구독이 없으면 제거
+ * - 등록된 회사의 자기 라인만 스냅샷을 만들고, 보관 개수는 상한을 둠 (인증 없는 경로에서 임의 키로 늘어나지 않도록)
+ * - 이벤트 반영은 해당 회사 스냅샷만 전용 실행기에서 재계산 (발행 스레드(MQTT 등)를 막지 않음)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardSnapshotService {
+
+    // 재시작 후 같은 버전 번호가 다른 내용을 가리키지 않도록 ETag에 기동 시각 포함
+    private static final String BOOT_ID = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ProductionService productionService;
+    private final KPICalculationService kpiCalculationService;
+    private final EnvironmentService environmentService;
+    private final DashboardPushService dashboardPushService;
+    private final ObjectMapper objectMapper;
+    private final CompanyRepository companyRepository;
+    private final ProductionLineRepository productionLineRepository;
+
+    // 이벤트 누락 대비 최대 보관 시간 (초과 시 조회 시점에 전체 재계산)
+    @Value("${dashboard.snapshot.max-age-ms:60000}")
+    private long maxAgeMillis;
+
+    // 이 시간 동안 조회가 없으면 스냅샷 제거
+    @Value("${dashboard.snapshot.idle-evict-ms:600000}")
+    private long idleEvictMillis;
+
+    // 보관할 최대 스냅샷 수 (넘으면 구독자 없는 가장 오래 조회 안 된 스냅샷부터 제거)
+    @Value("${dashboard.snapshot.max-entries:1000}")
+    private int maxEntries;
+
+    // 이벤트 반영 재계산 스레드 수
+    @Value("${dashboard.snapshot.rebuild-threads:2}")
+    private int rebuildThreads;
+
+    private final AtomicLong versionCounter = new AtomicLong();
+
+    // Key: "companyName_lineId"
+    private final Map<String, LineEntry> entries = new ConcurrentHashMap<>();
+
+    private Executor rebuildExecutor;
+
+    @PostConstruct
+    public void initialize() {
+        // 스냅샷마다 대기 작업은 최대 1개라 큐 길이는 스냅샷 수를 넘지 않음
+        AtomicInteger threadIndex = new AtomicInteger();
+        rebuildExecutor = new ThreadPoolExecutor(rebuildThreads, rebuildThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-rebuild-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (rebuildExecutor instanceof ThreadPoolExecutor executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 대시보드 스냅샷 조회 (없거나 오래됐으면 생성)
+     * 등록되지 않은 회사이거나 그 회사의 라인이 아니면 빈 값
+     */
+    public Optional<Snapshot> getSnapshot(String companyName, Long lineId) {
+        String key = key(companyName, lineId);
+        LineEntry entry = entries.get(key);
+        if (entry == null) {
+            // 처음 보는 키만 DB로 확인 (이후 조회는 맵에서 바로)
+            if (!isCompanyLine(companyName, lineId)) {
+                log.debug("대시보드 스냅샷 요청 거부 (등록되지 않은 회사/라인) - 회사: {}, 라인: {}", companyName, lineId);
+                return Optional.empty();
+            }
+            makeRoom();
+            entry = entries.computeIfAbsent(key, k -> new LineEntry(companyName, lineId));
+        }
+        entry.lastReadAt = System.currentTimeMillis();
+        Snapshot snapshot = entry.snapshot;
+        if (snapshot == null || entry.lastReadAt - snapshot.builtAt() > maxAgeMillis) {
+            snapshot = entry.rebuild(null);
+        }
+        return Optional.of(snapshot);
+    }
+
+    // 생산 현황 영역만 조회 (/production/status)
+    @SuppressWarnings("unchecked")
+    public Optional<Map<String, Object>> getProductionStatus(String companyName, Long lineId) {
+        return getSnapshot(companyName, lineId).map(snapshot -> (Map<String, Object>) snapshot.data().get("production"));
+    }
+
+    /**
+     * 데이터 변경 이벤트 반영 (트랜잭션 커밋 후, 트랜잭션이 없으면 즉시)
+     * 조회 중인 스냅샷 중 해당 회사(라인)만 바뀐 영역을 표시하고, 재계산은 실행기에서 수행한다.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDashboardUpdate(DashboardUpdateEvent event) {
+        for (LineEntry entry : entries.values()) {
+            if (event.companyName() != null && !event.companyName().equals(entry.companyName)) {
+                continue;
+            }
+            // 생산 현황은 라인별, KPI/환경은 회사 단위
+            if (event.section() == DashboardUpdateEvent.Section.PRODUCTION
+                    && event.lineId() != null && !event.lineId().equals(entry.lineId)) {
+                continue;
+            }
+            if (entry.snapshot == null) {
+                continue; // 아직 최초 생성 전 (조회 시 전체 생성)
+            }
+            entry.markDirty(event.section());
+        }
+    }
+
+    // 조회가 끊긴 스냅샷 정리
+    @Scheduled(fixedDelayString = "${dashboard.snapshot.idle-evict-ms:600000}")
+    public void evictIdleSnapshots() {
+        long cutoff = System.currentTimeMillis() - idleEvictMillis;
+        entries.values().removeIf(entry -> entry.lastReadAt < cutoff
+                && !dashboardPushService.hasSubscribers(entry.companyName, entry.lineId));
+    }
+
+    // 회사별 스냅샷 통계 (다른 회사 정보는 포함하지 않음)
+    public Map<String, Object> getStats(String companyName) {
+        List<Map<String, Object>> lines = new ArrayList<>();
+        for (LineEntry entry : entries.values()) {
+            Snapshot snapshot = entry.snapshot;
+            if (!entry.companyName.equals(companyName) || snapshot == null) {
+                continue;
+            }
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("lineId", entry.lineId);
+            line.put("version", snapshot.version());
+            line.put("seq", snapshot.seq());
+            line.put("builtAt", snapshot.builtAt());
+            line.put("subscribed", dashboardPushService.hasSubscribers(entry.companyName, entry.lineId));
+            lines.add(line);
+        }
+        lines.sort(Comparator.comparing(line -> (Long) line.get("lineId")));
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("snapshots", lines.size());
+        stats.put("lines", lines);
+        return stats;
+    }
+
+    private static String key(String companyName, Long lineId) {
+        return companyName + "_" + lineId;
+    }
+
+    // 등록된 회사이고 라인이 그 회사 소속인지
+    private boolean isCompanyLine(String companyName, Long lineId) {
+        return companyRepository.findByCompanyName(companyName)
+                .flatMap(company -> productionLineRepository.findById(lineId)
+                        .filter(line -> company.getCompanyId().equals(line.getCompanyId())))
+                .isPresent();
+    }
+
+    // 상한에 닿으면 구독자 없는 스냅샷 중 가장 오래 조회 안 된 것 제거
+    private void makeRoom() {
+        while (entries.size() >= maxEntries) {
+            Optional<LineEntry> oldest = entries.values().stream()
+                    .filter(entry -> !dashboardPushService.hasSubscribers(entry.companyName, entry.lineId))
+                    .min(Comparator.comparingLong(entry -> entry.lastReadAt));
+            if (oldest.isEmpty()) {
+                return; // 모두 구독 중이면 등록된 라인 수만큼만 늘어남
+            }
+            entries.remove(key(oldest.get().companyName, oldest.get().lineId), oldest.get());
+        }
+    }
+
+    // 영역별로 바뀐 필드만 추출 (없어진 필드는 null)
+    private static ObjectNode diff(ObjectNode previous, ObjectNode current) {
+        ObjectNode changes = current.objectNode();
+        for (Iterator<Map.Entry<String, JsonNode>> it = current.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> section = it.next();
+            JsonNode before = previous.get(section.getKey());
+            if (section.getValue().equals(before)) {
+                continue;
+            }
+            if (!(before instanceof ObjectNode) || !(section.getValue() instanceof ObjectNode)) {
+                changes.set(section.getKey(), section.getValue());
+                continue;
+            }
+            ObjectNode sectionChanges = current.objectNode();
+            section.getValue().fields().forEachRemaining(field -> {
+                if (!field.getValue().equals(before.get(field.getKey()))) {
+                    sectionChanges.set(field.getKey(), field.getValue());
+                }
+            });
+            before.fieldNames().forEachRemaining(name -> {
+                if (!section.getValue().has(name)) {
+                    sectionChanges.putNull(name);
+                }
+            });
+            changes.set(section.getKey(), sectionChanges);
+        }
+        return changes;
+    }
+
+    /**
+     * 불변 스냅샷
+     * @param version 단조 증가 버전 (전체 스냅샷 공통 카운터)
+     * @param seq     라인별 변경 순번 (푸시 메시지와 같은 값, 응답 본문에도 포함)
+     * @param body    직렬화된 JSON (응답에 그대로 사용)
+     */
+    public record Snapshot(long version, long seq, String etag, byte[] body, Map<String, Object> data,
+                           ObjectNode tree, long builtAt) {
+
+        Snapshot touch(long now) {
+            return new Snapshot(version, seq, etag, body, data, tree, now);
+        }
+    }
+
+    // 회사/라인별 스냅샷 보관 및 재계산 (같은 라인의 재계산은 순차 처리)
+    private final class LineEntry {
+        final String companyName;
+        final Long lineId;
+        volatile Snapshot snapshot;
+        volatile long lastReadAt = System.currentTimeMillis();
+        // 재계산 대기 중인 영역 (대기 작업은 항상 1개 이하)
+        private final Set<DashboardUpdateEvent.Section> dirtySections = EnumSet.noneOf(DashboardUpdateEvent.Section.class);
+        private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+        LineEntry(String companyName, Long lineId) {
+            this.companyName = companyName;
+            this.lineId = lineId;
+        }
+
+        // 바뀐 영역 표시 후 대기 작업이 없을 때만 재계산 예약 (연속 이벤트는 한 번으로 합쳐짐)
+        void markDirty(DashboardUpdateEvent.Section section) {
+            synchronized (dirtySections) {
+                dirtySections.add(section);
+            }
+            if (rebuildQueued.compareAndSet(false, true)) {
+                rebuildExecutor.execute(this::rebuildDirty);
+            }
+        }
+
+        private void rebuildDirty() {
+            rebuildQueued.set(false);
+            Set<DashboardUpdateEvent.Section> sections;
+            synchronized (dirtySections) {
+                sections = EnumSet.copyOf(dirtySections);
+                dirtySections.clear();
+            }
+            if (sections.isEmpty()) {
+                return; // 앞선 작업이 이미 반영
+            }
+            try {
+                rebuild(sections);
+            } catch (Exception e) {
+                log.error("대시보드 스냅샷 갱신 실패 - 회사: {}, 라인: {}, 오류: {}",
+                        companyName, lineId, e.getMessage());
+            }
+        }
+
+        // sections == null 이면 전체 재계산
+        synchronized Snapshot rebuild(Set<DashboardUpdateEvent.Section> sections) {
+            Map<String, Object> data = snapshot != null && sections != null
+                    ? new LinkedHashMap<>(snapshot.data())
+                    : new LinkedHashMap<>();
+            if (sections == null || sections.contains(DashboardUpdateEvent.Section.PRODUCTION)) {
+                data.put("production", productionService.getCurrentProductionStatus(companyName, lineId));
+            }
+            if (sections == null || sections.contains(DashboardUpdateEvent.Section.KPI)) {
+                data.put("kpi", kpiCalculationService.getRealTimeKPIByCompany(companyName));
+            }
+            if (sections == null || sections.contains(DashboardUpdateEvent.Section.ENVIRONMENT)) {
+                data.put("environment", environmentService.getCurrentEnvironment(companyName));
+            }
+
+            long now = System.currentTimeMillis();
+            ObjectNode tree = objectMapper.valueToTree(data);
+            Snapshot previous = snapshot;
+            ObjectNode changes = null;
+            if (previous != null) {
+                changes = diff(previous.tree(), tree);
+                if (changes.isEmpty()) {
+                    // 내용이 같으면 버전/ETag 유지 (폴링 클라이언트는 계속 304)
+                    snapshot = previous.touch(now);
+                    return snapshot;
+                }
+            }
+
+            long version = versionCounter.incrementAndGet();
+            long seq = previous != null ? previous.seq() + 1 : 1;
+            ObjectNode body = tree.deepCopy();
+            body.put("seq", seq);
+            try {
+                snapshot = new Snapshot(version, seq, "\"" + BOOT_ID + "-" + version + "\"",
+                        objectMapper.writeValueAsBytes(body), data, tree, now);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("대시보드 스냅샷 직렬화 실패: " + e.getMessage());
+            }
+            if (changes != null) {
+                dashboardPushService.publishDelta(companyName, lineId, seq, version, changes);
+            }
+            return snapshot;
+        }
+    }
+}
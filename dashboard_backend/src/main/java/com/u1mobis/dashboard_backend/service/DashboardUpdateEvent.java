@@ -0,0 +1,16 @@
+package com.u1mobis.dashboard_backend.service;
+
+/**
+ * 대시보드 데이터 변경 이벤트 (생산/KPI/환경 데이터 저장 후 발행)
+ * @param companyName 회사명 (null = 전체 회사)
+ * @param lineId      라인 ID (null = 회사 전체 라인)
+ * @param section     변경된 영역
+ */
+public record DashboardUpdateEvent(String companyName, Long lineId, Section section) {
+
+    public enum Section {
+        PRODUCTION,
+        KPI,
+        ENVIRONMENT
+    }
+}
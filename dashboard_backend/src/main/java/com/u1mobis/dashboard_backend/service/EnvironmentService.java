@@ -1,20 +1,35 @@
 package com.u1mobis.dashboard_backend.service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.u1mobis.dashboard_backend.entity.Company;
 import com.u1mobis.dashboard_backend.entity.EnvironmentSensor;
+import com.u1mobis.dashboard_backend.entity.RollupGranularity;
 import com.u1mobis.dashboard_backend.repository.CompanyRepository;
+import com.u1mobis.dashboard_backend.repository.EnvironmentRollupRepository;
 import com.u1mobis.dashboard_backend.repository.EnvironmentSensorRepository;
 import com.u1mobis.dashboard_backend.security.CustomUserDetailsService;
 
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -24,13 +39,60 @@ import lombok.extern.slf4j.Slf4j;
 public class EnvironmentService {
 
     private final EnvironmentSensorRepository environmentSensorRepository;
+    private final EnvironmentRollupRepository environmentRollupRepository;
     private final CompanyRepository companyRepository;
-    private final AlertService alertService;
+    private final ThresholdRuleEngine thresholdRuleEngine;
+    private final RollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RequestCoalescer requestCoalescer;
+    private final SeriesCompressor seriesCompressor;
 
-    // 환경 데이터 저장 (MQTT에서 호출) - 회사별
-    public EnvironmentSensor saveEnvironmentData(Long companyId, Double temperature, Double humidity, Integer airQuality) {
+    // 압축 시리즈 계열 (키: <계열>:<회사 ID>)
+    private static final String TEMPERATURE_SERIES = "env-temperature";
+    private static final String HUMIDITY_SERIES = "env-humidity";
+    private static final String AIR_QUALITY_SERIES = "env-air_quality";
+
+    @Value("${compression.environment.temperature-tolerance:0.1}")
+    private double temperatureTolerance;
+
+    @Value("${compression.environment.humidity-tolerance:0.5}")
+    private double humidityTolerance;
+
+    @Value("${compression.environment.air-quality-tolerance:2}")
+    private double airQualityTolerance;
+
+    @Value("${compression.idle-grace-ms:5000}")
+    private long idleGraceMillis;
+
+    // 환경 이력 시리즈당 최대 점 수
+    @Value("${environment.history.max-points:5000}")
+    private int historyMaxPoints;
+
+    // Key: 회사 ID, Value: 압축으로 아직 저장하지 않은 마지막 측정 행
+    private final Map<Long, EnvironmentSensor> heldRows = new ConcurrentHashMap<>();
+
+    // Key: 회사 ID, Value: 마지막 측정값 (저장 보류 중이어도 현재값 조회에 사용)
+    private final Map<Long, EnvironmentSensor> latestSamples = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initialize() {
+        seriesCompressor.setTolerance(TEMPERATURE_SERIES, temperatureTolerance);
+        seriesCompressor.setTolerance(HUMIDITY_SERIES, humidityTolerance);
+        seriesCompressor.setTolerance(AIR_QUALITY_SERIES, airQualityTolerance);
+    }
+
+    // 환경 데이터 저장 - 회사 ID만 있으면 대시보드 이벤트용 회사명을 조회
+    public Optional<EnvironmentSensor> saveEnvironmentData(Long companyId, Double temperature, Double humidity, Integer airQuality) {
+        String companyName = companyRepository.findById(companyId).map(Company::getCompanyName).orElse(null);
+        return saveEnvironmentData(companyId, companyName, temperature, humidity, airQuality);
+    }
+
+    // 환경 데이터 저장 (MQTT에서 호출) - 회사별, 압축으로 저장을 보류하면 빈 값 (보류 행은 다음 측정이나 flushHeldRows 때 저장)
+    private Optional<EnvironmentSensor> saveEnvironmentData(Long companyId, String companyName, Double temperature,
+                                                            Double humidity, Integer airQuality) {
         EnvironmentSensor sensor = EnvironmentSensor.builder()
                 .timestamp(LocalDateTime.now())
+                .companyId(companyId)
                 .temperature(temperature)
                 .humidity(humidity)
                 .airQuality(airQuality)
@@ -39,19 +101,75 @@ public class EnvironmentService {
         // 알람 체크 - 회사별
         checkEnvironmentAlarms(companyId, sensor);
 
-        return environmentSensorRepository.save(sensor);
+        // 알람/롤업/대시보드는 모든 측정값 기준, DB 행은 압축 단계를 통과한 것만 저장
+        latestSamples.put(companyId, sensor);
+        Optional<EnvironmentSensor> saved = persist(companyId, sensor);
+        rollupService.recordEnvironment(companyId, sensor.getLineId(), sensor.getTimestamp(),
+                temperature, humidity, airQuality);
+        // 해당 회사의 환경 영역만 갱신
+        eventPublisher.publishEvent(new DashboardUpdateEvent(companyName, null, DashboardUpdateEvent.Section.ENVIRONMENT));
+        return saved;
     }
 
     // 환경 데이터 저장 (기존 호환성용) - 현재 로그인된 사용자의 회사 사용
-    public EnvironmentSensor saveEnvironmentData(Double temperature, Double humidity, Integer airQuality) {
+    public Optional<EnvironmentSensor> saveEnvironmentData(Double temperature, Double humidity, Integer airQuality) {
         Long companyId = getCurrentUserCompanyId();
         return saveEnvironmentData(companyId, temperature, humidity, airQuality);
     }
 
     // 환경 데이터 저장 (MQTT용) - 회사명으로 조회
-    public EnvironmentSensor saveEnvironmentData(String companyName, Double temperature, Double humidity, Integer airQuality) {
+    public Optional<EnvironmentSensor> saveEnvironmentData(String companyName, Double temperature, Double humidity, Integer airQuality) {
         Long companyId = getCompanyIdByName(companyName);
-        return saveEnvironmentData(companyId, temperature, humidity, airQuality);
+        return saveEnvironmentData(companyId, companyName, temperature, humidity, airQuality);
+    }
+
+    // 창이 끝났는데 다음 측정이 오지 않은 회사의 마지막 행 저장
+    @Scheduled(fixedDelayString = "${compression.flush-interval-ms:10000}")
+    public void flushHeldRows() {
+        long now = System.currentTimeMillis();
+        for (String family : List.of(TEMPERATURE_SERIES, HUMIDITY_SERIES, AIR_QUALITY_SERIES)) {
+            seriesCompressor.flushIdle(family, now, idleGraceMillis, (series, sample) -> {
+                Long companyId = Long.valueOf(series.substring(family.length() + 1));
+                EnvironmentSensor held = heldRows.remove(companyId);
+                if (held != null) {
+                    environmentSensorRepository.save(held);
+                }
+            });
+        }
+    }
+
+    // 세 측정값 중 하나라도 저장 판정이면 행을 저장 (직전 행은 보류해 둔 것을 저장), 보류하면 빈 값
+    private Optional<EnvironmentSensor> persist(Long companyId, EnvironmentSensor sensor) {
+        if (!seriesCompressor.isEnabled()) {
+            return Optional.of(environmentSensorRepository.save(sensor));
+        }
+        long time = sensor.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        boolean keepPrevious = false;
+        boolean keepCurrent = false;
+        SeriesCompressor.Decision[] decisions = {
+                offer(TEMPERATURE_SERIES, companyId, time, sensor.getTemperature()),
+                offer(HUMIDITY_SERIES, companyId, time, sensor.getHumidity()),
+                offer(AIR_QUALITY_SERIES, companyId, time, sensor.getAirQuality())};
+        for (SeriesCompressor.Decision decision : decisions) {
+            if (decision != null) {
+                keepPrevious |= decision.previous() != null;
+                keepCurrent |= decision.keepCurrent();
+            }
+        }
+        EnvironmentSensor held = keepPrevious ? heldRows.remove(companyId) : null;
+        if (held != null) {
+            environmentSensorRepository.save(held);
+        }
+        if (keepCurrent) {
+            heldRows.remove(companyId);
+            return Optional.of(environmentSensorRepository.save(sensor));
+        }
+        heldRows.put(companyId, sensor);
+        return Optional.empty();
+    }
+
+    private SeriesCompressor.Decision offer(String family, Long companyId, long time, Number value) {
+        return value != null ? seriesCompressor.offer(family + ":" + companyId, time, value.doubleValue(), value) : null;
     }
 
     // 현재 로그인된 사용자의 회사 ID 가져오기
@@ -74,7 +192,7 @@ public class EnvironmentService {
         Optional<Company> companyOpt = companyRepository.findById(companyId);
         if (companyOpt.isPresent()) {
             Company company = companyOpt.get();
-            alertService.sendEnvironmentAlert(company, sensor);
+            thresholdRuleEngine.evaluateEnvironment(company, sensor);
         } else {
             // 회사를 찾을 수 없는 경우도 로그 출력
             if (sensor.getTemperature() > 35.0) {
@@ -105,9 +223,20 @@ public class EnvironmentService {
         checkEnvironmentAlarms(1L, sensor); // 기본 회사 ID
     }
 
-    // 최신 환경 데이터 조회
-    public Map<String, Object> getCurrentEnvironment() {
-        Optional<EnvironmentSensor> latest = environmentSensorRepository.findTopByOrderByTimestampDesc();
+    // 회사별 최신 환경 데이터 조회
+    public Map<String, Object> getCurrentEnvironment(String companyName) {
+        return requestCoalescer.load(RequestCoalescer.key(DashboardUpdateEvent.Section.ENVIRONMENT, companyName),
+                () -> loadCurrentEnvironment(companyName));
+    }
+
+    private Map<String, Object> loadCurrentEnvironment(String companyName) {
+        Long companyId = getCompanyIdByName(companyName);
+        Optional<EnvironmentSensor> latest = environmentSensorRepository.findTopByCompanyIdOrderByTimestampDesc(companyId);
+        // 압축으로 저장이 보류된 최신 측정값이 더 새로우면 그 값 사용
+        EnvironmentSensor sample = latestSamples.get(companyId);
+        if (sample != null && (latest.isEmpty() || sample.getTimestamp().isAfter(latest.get().getTimestamp()))) {
+            latest = Optional.of(sample);
+        }
 
         if (latest.isPresent()) {
             EnvironmentSensor env = latest.get();
@@ -122,6 +251,82 @@ public class EnvironmentService {
         return Map.of("status", "NO_DATA");
     }
 
+    // 시간별 환경 데이터 평균 (롤업 테이블 기준)
+    public List<Map<String, Object>> getHourlyEnvironmentTrends(String companyName, LocalDate date) {
+        return rollupService.getHourlyEnvironmentAverages(companyName, date);
+    }
+
+    /**
+     * 회사별 환경 이력 (온도/습도/공기질을 각각 LTTB 로 최대 points 개까지 줄인 [epoch ms, 값] 배열)
+     * 목표 간격(기간 / points)이 1분 이상이면 그 간격 이하인 가장 거친 롤업을, 아니면 원본 행을 커서로 읽는다.
+     * 행은 읽는 대로 샘플러에 넣고 버리므로 응답 크기와 메모리는 기간이 아니라 points 에 비례한다.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getEnvironmentHistory(String companyName, LocalDateTime from, LocalDateTime to, int points) {
+        if (!to.isAfter(from)) {
+            throw new RuntimeException("조회 기간이 올바르지 않습니다: " + from + " ~ " + to);
+        }
+        Long companyId = getCompanyIdByName(companyName);
+        int target = Math.max(3, Math.min(points, historyMaxPoints));
+        long start = toMillis(from);
+        long end = toMillis(to);
+        RollupGranularity granularity = chooseGranularity((end - start) / target);
+
+        LttbSampler temperature = new LttbSampler(start, end, target);
+        LttbSampler humidity = new LttbSampler(start, end, target);
+        LttbSampler airQuality = new LttbSampler(start, end, target);
+        long rows = 0;
+        // 롤업은 버킷 시작 시각 기준이므로 from 이 걸친 버킷도 포함
+        try (Stream<Object[]> stream = granularity == null
+                ? environmentSensorRepository.streamCompanyReadings(companyId, from, to)
+                : environmentRollupRepository.streamCompanyAverages(companyId, granularity,
+                        granularity.bucketStart(from), to)) {
+            Iterator<Object[]> it = stream.iterator();
+            while (it.hasNext()) {
+                Object[] row = it.next();
+                long time = toMillis((LocalDateTime) row[0]);
+                temperature.add(time, (Number) row[1]);
+                humidity.add(time, (Number) row[2]);
+                airQuality.add(time, (Number) row[3]);
+                rows++;
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("companyName", companyName);
+        result.put("from", from.toString());
+        result.put("to", to.toString());
+        result.put("resolution", granularity != null ? granularity.name() : "RAW");
+        result.put("sourceRows", rows);
+        result.put("temperature", toSeries(temperature.finish()));
+        result.put("humidity", toSeries(humidity.finish()));
+        result.put("air_quality", toSeries(airQuality.finish()));
+        return result;
+    }
+
+    // 목표 간격 이하인 롤업 중 가장 거친 것 (1분보다 촘촘해야 하면 null = 원본)
+    private static RollupGranularity chooseGranularity(long targetStepMillis) {
+        RollupGranularity chosen = null;
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            if (granularity.getStepMillis() <= targetStepMillis) {
+                chosen = granularity;
+            }
+        }
+        return chosen;
+    }
+
+    private static List<double[]> toSeries(List<LttbSampler.Point> points) {
+        List<double[]> series = new ArrayList<>(points.size());
+        for (LttbSampler.Point point : points) {
+            series.add(new double[] {point.time(), Math.round(point.value() * 100) / 100.0});
+        }
+        return series;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
     private String getEnvironmentStatus(EnvironmentSensor env) {
         if (env.getTemperature() > 35 || env.getHumidity() > 80 || env.getAirQuality() > 300) {
             return "WARNING";
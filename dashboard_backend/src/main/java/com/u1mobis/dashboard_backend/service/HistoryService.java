@@ -0,0 +1,318 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.u1mobis.dashboard_backend.dto.SensorReading;
+import com.u1mobis.dashboard_backend.repository.KPIDataRepository;
+import com.u1mobis.dashboard_backend.repository.ProductionCompletedRepository;
+import com.u1mobis.dashboard_backend.repository.StationStatusRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 통합 이력 조회 (PostgreSQL KPI/생산 완료 + InfluxDB 센서)
+ * - 모든 조회는 요청한 사용자의 회사로 한정 (회사/라인 조건은 쿼리에, 스테이션은 회사 소속인지 확인)
+ * - 세 조회를 동시에 시작해 Mono.zip 으로 모으므로 응답 시간은 가장 느린 소스 기준
+ * - JDBC 조회는 전용 bounded elastic 스케줄러에서 읽기 전용 트랜잭션으로 커서를 열어 실행 (요청 스레드를 막지 않음)
+ * - 행은 엔티티 없이 받는 대로 버킷 누적값에 더하고 버리므로 긴 범위도 버킷 수만큼의 메모리만 사용
+ * 결과는 공통 시간 버킷(시작 시각 기준) 한 행씩 요청받는 만큼 만들어 내보낸다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HistoryService {
+
+    private final KPIDataRepository kpiDataRepository;
+    private final ProductionCompletedRepository productionCompletedRepository;
+    private final StationStatusRepository stationStatusRepository;
+    private final IoTDataService iotDataService;
+    private final PlatformTransactionManager transactionManager;
+
+    // JDBC 조회 동시 실행 수 (커넥션 풀보다 작게)
+    @Value("${history.jdbc.threads:4}")
+    private int jdbcThreads;
+
+    // 한 요청의 최대 버킷 수 (넘으면 버킷 폭을 넓힘)
+    @Value("${history.max-buckets:2000}")
+    private int maxBuckets;
+
+    private Scheduler jdbcScheduler;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void initialize() {
+        jdbcScheduler = Schedulers.newBoundedElastic(jdbcThreads, 1000, "history-jdbc");
+        // 스트리밍 쿼리는 커서를 닫을 때까지 트랜잭션이 열려 있어야 함
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jdbcScheduler.dispose();
+    }
+
+    /**
+     * 회사의 [start, end) 를 bucket 폭으로 나눠 KPI/생산/센서 값을 버킷별로 맞춘 행 스트림
+     * stationId 가 없으면 센서, lineId 가 있으면 해당 라인의 KPI/생산만 (다른 회사 스테이션이면 AccessDeniedException)
+     */
+    public Flux<Map<String, Object>> getHistory(Long companyId, Instant start, Instant end, Duration bucket,
+                                                String stationId, Long lineId) {
+        long from = start.toEpochMilli();
+        long to = end.toEpochMilli();
+        if (to <= from) {
+            return Flux.empty();
+        }
+        long bucketMillis = Math.max(bucket.toMillis(), 1000L);
+        bucketMillis = Math.max(bucketMillis, ceilDiv(to - from, maxBuckets));
+        long step = bucketMillis;
+
+        LocalDateTime startTime = LocalDateTime.ofInstant(start, ZoneId.systemDefault());
+        LocalDateTime endTime = LocalDateTime.ofInstant(end, ZoneId.systemDefault());
+
+        Mono<Map<Long, KpiBucket>> kpi = Mono
+                .fromCallable(() -> readOnlyTransaction.execute(status ->
+                        kpiBuckets(companyId, lineId, startTime, endTime, from, step)))
+                .subscribeOn(jdbcScheduler);
+        Mono<Map<Long, ProductionBucket>> production = Mono
+                .fromCallable(() -> readOnlyTransaction.execute(status ->
+                        productionBuckets(companyId, lineId, startTime, endTime, from, step)))
+                .subscribeOn(jdbcScheduler);
+        Mono<Map<Long, Map<String, double[]>>> sensors = stationId == null
+                ? Mono.just(Map.of())
+                : Mono.fromCallable(() -> stationStatusRepository.existsInCompany(stationId, companyId))
+                        .subscribeOn(jdbcScheduler)
+                        .flatMap(owned -> owned
+                                ? sensorBuckets(stationId, start, end, from, step)
+                                : Mono.<Map<Long, Map<String, double[]>>>error(new AccessDeniedException("다른 회사의 스테이션입니다: " + stationId)));
+
+        return Mono.zip(kpi, production, sensors)
+                .flatMapMany(sources -> rows(from, to, step, sources.getT1(), sources.getT2(), sources.getT3()));
+    }
+
+    // 회사/라인 조건을 건 커서로 KPI 를 읽으며 버킷별 누적 (읽기 전용 트랜잭션 안에서 호출)
+    private Map<Long, KpiBucket> kpiBuckets(Long companyId, Long lineId, LocalDateTime startTime,
+                                            LocalDateTime endTime, long from, long step) {
+        Map<Long, KpiBucket> buckets = new HashMap<>();
+        try (Stream<Object[]> stream = kpiDataRepository.streamCompanyHistory(companyId, lineId, startTime, endTime)) {
+            Iterator<Object[]> it = stream.iterator();
+            while (it.hasNext()) {
+                Object[] row = it.next();
+                buckets.computeIfAbsent(bucketOf(toMillis((LocalDateTime) row[0]), from, step), k -> new KpiBucket())
+                        .add((Double) row[1], (Double) row[2], (Double) row[3]);
+            }
+        }
+        return buckets;
+    }
+
+    // 회사/라인 조건을 건 커서로 생산 완료를 읽으며 버킷별 누적 (읽기 전용 트랜잭션 안에서 호출)
+    private Map<Long, ProductionBucket> productionBuckets(Long companyId, Long lineId, LocalDateTime startTime,
+                                                          LocalDateTime endTime, long from, long step) {
+        Map<Long, ProductionBucket> buckets = new HashMap<>();
+        try (Stream<Object[]> stream = productionCompletedRepository.streamCompanyHistory(companyId, lineId,
+                startTime, endTime)) {
+            Iterator<Object[]> it = stream.iterator();
+            while (it.hasNext()) {
+                Object[] row = it.next();
+                buckets.computeIfAbsent(bucketOf(toMillis((LocalDateTime) row[0]), from, step),
+                        k -> new ProductionBucket()).add((String) row[1], (Boolean) row[2], (Boolean) row[3],
+                        (Double) row[4]);
+            }
+        }
+        return buckets;
+    }
+
+    // 버킷 폭에 맞는 해상도로 센서 시계열을 읽으며 버킷별 (합, 가중치) 누적
+    private Mono<Map<Long, Map<String, double[]>>> sensorBuckets(String stationId, Instant start, Instant end,
+                                                                 long from, long step) {
+        int budget = (int) Math.max(1, ceilDiv(end.toEpochMilli() - from, step));
+        SensorDownsampler.Resolution resolution = iotDataService.chooseResolution(start, end, budget);
+        boolean aggregated = resolution != SensorDownsampler.Resolution.RAW;
+        return iotDataService.getSensorSeries(stationId, start, end, resolution)
+                .<Map<Long, Map<String, double[]>>>reduceWith(HashMap::new, (buckets, reading) -> {
+                    if (reading.time() != null) {
+                        long key = bucketOf(reading.time().toEpochMilli(), from, step);
+                        addSensorValues(buckets.computeIfAbsent(key, k -> new HashMap<>()), reading, aggregated);
+                    }
+                    return buckets;
+                })
+                .onErrorResume(error -> {
+                    log.warn("통합 이력 센서 조회 실패 - {}: {}", stationId, error.getMessage());
+                    return Mono.just(Map.of());
+                });
+    }
+
+    // 원본은 값마다 가중치 1, 집계 행은 <필드>_mean 을 <필드>_count 로 가중
+    private static void addSensorValues(Map<String, double[]> bucket, SensorReading reading, boolean aggregated) {
+        reading.fields().forEach((name, value) -> {
+            if (!(value instanceof Number number)) {
+                return;
+            }
+            if (!aggregated) {
+                add(bucket, name, number.doubleValue(), 1);
+                return;
+            }
+            if (name.endsWith("_mean")) {
+                String field = name.substring(0, name.length() - "_mean".length());
+                Object count = reading.fields().get(field + "_count");
+                double weight = count instanceof Number n ? n.doubleValue() : 1;
+                add(bucket, field, number.doubleValue() * weight, weight);
+            }
+        });
+    }
+
+    private static void add(Map<String, double[]> bucket, String field, double sum, double weight) {
+        if (!Double.isFinite(sum)) {
+            return;
+        }
+        double[] acc = bucket.computeIfAbsent(field, f -> new double[2]);
+        acc[0] += sum;
+        acc[1] += weight;
+    }
+
+    // 버킷 행을 요청받는 만큼만 만들어 내보냄
+    private static Flux<Map<String, Object>> rows(long from, long to, long step, Map<Long, KpiBucket> kpiBuckets,
+                                                  Map<Long, ProductionBucket> productionBuckets,
+                                                  Map<Long, Map<String, double[]>> sensors) {
+        return Flux.generate(() -> from, (bucketStart, sink) -> {
+            if (bucketStart >= to) {
+                sink.complete();
+                return bucketStart;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("time", Instant.ofEpochMilli(bucketStart));
+            KpiBucket kpi = kpiBuckets.get(bucketStart);
+            if (kpi != null) {
+                row.put("kpi", kpi.toMap());
+            }
+            ProductionBucket production = productionBuckets.get(bucketStart);
+            if (production != null) {
+                row.put("production", production.toMap());
+            }
+            Map<String, double[]> sensor = sensors.get(bucketStart);
+            if (sensor != null && !sensor.isEmpty()) {
+                Map<String, Object> means = new TreeMap<>();
+                sensor.forEach((field, acc) -> means.put(field, round(acc[0] / acc[1])));
+                row.put("sensors", means);
+            }
+            sink.next(row);
+            return bucketStart + step;
+        });
+    }
+
+    // from 기준 버킷 시작 시각 (ms)
+    private static long bucketOf(long time, long from, long step) {
+        return from + Math.floorDiv(time - from, step) * step;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static Double average(double sum, int count) {
+        return count > 0 ? round(sum / count) : null;
+    }
+
+    private static final class KpiBucket {
+
+        double oee;
+        double fty;
+        double otd;
+        int oeeCount;
+        int ftyCount;
+        int otdCount;
+        int samples;
+
+        void add(Double calculatedOEE, Double calculatedFTY, Double calculatedOTD) {
+            samples++;
+            if (calculatedOEE != null) {
+                oee += calculatedOEE;
+                oeeCount++;
+            }
+            if (calculatedFTY != null) {
+                fty += calculatedFTY;
+                ftyCount++;
+            }
+            if (calculatedOTD != null) {
+                otd += calculatedOTD;
+                otdCount++;
+            }
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("oee", average(oee, oeeCount));
+            map.put("fty", average(fty, ftyCount));
+            map.put("otd", average(otd, otdCount));
+            map.put("samples", samples);
+            return map;
+        }
+    }
+
+    private static final class ProductionBucket {
+
+        int completed;
+        int good;
+        int onTime;
+        int firstTimePass;
+        double cycleTime;
+        int cycleTimeCount;
+
+        void add(String quality, Boolean isOnTime, Boolean isFirstTimePass, Double productCycleTime) {
+            completed++;
+            if ("PASS".equals(quality)) {
+                good++;
+            }
+            if (Boolean.TRUE.equals(isOnTime)) {
+                onTime++;
+            }
+            if (Boolean.TRUE.equals(isFirstTimePass)) {
+                firstTimePass++;
+            }
+            if (productCycleTime != null) {
+                cycleTime += productCycleTime;
+                cycleTimeCount++;
+            }
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("completed", completed);
+            map.put("good", good);
+            map.put("onTime", onTime);
+            map.put("firstTimePass", firstTimePass);
+            map.put("avgCycleTime", average(cycleTime, cycleTimeCount));
+            return map;
+        }
+    }
+}
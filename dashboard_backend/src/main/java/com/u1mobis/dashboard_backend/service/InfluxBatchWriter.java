@@ -0,0 +1,548 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.u1mobis.dashboard_backend.config.InfluxDB3Config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.util.retry.Retry;
+
+/**
+ * InfluxDB line protocol 배치 기록기
+ * - write 는 락 없는 큐에 넣고 바로 반환, 전용 스레드가 포인트 수/바이트/시간 중 먼저 닿는 조건으로 묶어 전송
+ * - 본문은 gzip 압축 (influxdb.compression.enabled), 5xx/타임아웃/연결 실패는 지수 백오프로 재시도
+ * - 큐가 가득 차거나 재시도가 모두 실패하면 디스크(spill 파일)에 보관했다가 전송이 성공하면 다시 보냄
+ * 4xx 는 데이터 자체 오류이므로 재시도/보관 없이 버린다.
+ */
+@Service
+@Slf4j
+public class InfluxBatchWriter {
+
+    private static final String SPILL_FILE = "pending.lp";
+    private static final String SENSOR_LINE_PREFIX = InfluxDB3Service.SENSOR_MEASUREMENT + ",";
+    private static final String STATION_TAG = "station_id";
+
+    private final InfluxDB3Service influxDB3Service;
+    private final InfluxDB3Config config;
+    private final LineProtocolEncoder lineProtocolEncoder;
+    private final InfluxRangeCache influxRangeCache;
+
+    // 배치 한 번의 최대 본문 크기 (압축 전 bytes)
+    @Value("${influxdb.batch.max-bytes:1048576}")
+    private int maxBatchBytes;
+
+    // 전송 대기 포인트 최대 개수 (초과분은 디스크로)
+    @Value("${influxdb.batch.queue-capacity:100000}")
+    private int queueCapacity;
+
+    // 첫 재시도 대기 시간 (ms, 시도마다 두 배)
+    @Value("${influxdb.batch.retry-backoff-ms:500}")
+    private long retryBackoffMillis;
+
+    @Value("${influxdb.batch.spill-dir:${java.io.tmpdir}/influx-spill}")
+    private String spillDir;
+
+    // 디스크 보관 최대 크기 (bytes, 초과분은 버림)
+    @Value("${influxdb.batch.spill-max-bytes:268435456}")
+    private long spillMaxBytes;
+
+    // 인코딩이 끝난 한 줄씩 (줄바꿈 없이 UTF-8)
+    private final Queue<byte[]> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedPoints = new AtomicInteger();
+    private final AtomicLong queuedBytes = new AtomicLong();
+
+    private final Object spillLock = new Object();
+    private Path spillPath;
+
+    // 배치 본문 조립용 버퍼 (flusher 스레드 전용)
+    private final LineProtocolEncoder.LineBuffer batchBuffer = new LineProtocolEncoder.LineBuffer(64 * 1024);
+    private final ByteArrayOutputStream gzipBuffer = new ByteArrayOutputStream(16 * 1024);
+
+    private volatile Thread flusher;
+    private volatile boolean running;
+
+    private final AtomicLong writtenPoints = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong flushNanos = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong droppedPoints = new AtomicLong();
+    private final AtomicLong spilledPoints = new AtomicLong();
+    private final AtomicLong replayedPoints = new AtomicLong();
+    private volatile long lastFlushMillis;
+    private volatile double pointsPerSecond;
+
+    // 마지막 전송 성공 여부 (실패 후 다음 성공까지 false)
+    private volatile boolean healthy = true;
+
+    // 보관 한도 초과/보관 실패로 버린 센서 포인트의 스테이션별 시각 범위 [from, to] (ms, back-fill 용), lostLock 으로 보호
+    private final Object lostLock = new Object();
+    private Map<String, long[]> lostRanges = new HashMap<>();
+
+    public InfluxBatchWriter(InfluxDB3Service influxDB3Service, InfluxDB3Config config,
+                             LineProtocolEncoder lineProtocolEncoder, InfluxRangeCache influxRangeCache) {
+        this.influxDB3Service = influxDB3Service;
+        this.config = config;
+        this.lineProtocolEncoder = lineProtocolEncoder;
+        this.influxRangeCache = influxRangeCache;
+    }
+
+    @PostConstruct
+    public void start() {
+        spillPath = Paths.get(spillDir, SPILL_FILE);
+        if (!config.isBatchEnabled()) {
+            log.info("InfluxDB 배치 기록 비활성화 - 포인트마다 바로 전송");
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "influx-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("InfluxDB 배치 기록기 시작 - 배치: {} points / {} bytes / {} ms, 큐 용량: {}, gzip: {}",
+                config.getBatchSize(), maxBatchBytes, config.getBatchFlushInterval(), queueCapacity, isGzip());
+    }
+
+    /**
+     * 포인트 한 개 기록 요청 (호출 스레드에서 인코딩, 전송은 백그라운드)
+     */
+    public void write(String measurement, Map<String, String> tags, Map<String, ?> fields, Instant timestamp) {
+        byte[] line = lineProtocolEncoder.encodeToBytes(measurement, tags, fields, timestamp);
+        if (line == null) {
+            droppedPoints.incrementAndGet();
+            log.debug("기록할 필드가 없는 포인트 버림 - {}", measurement);
+            return;
+        }
+        write(line);
+    }
+
+    /**
+     * 인코딩된 line protocol 한 줄 기록 요청 (줄바꿈 없이 UTF-8)
+     */
+    public void write(byte[] line) {
+        if (line == null || line.length == 0) {
+            return;
+        }
+        if (!running) {
+            // 배치 비활성: 단건 전송, 실패는 버린 포인트로 집계
+            influxDB3Service.writeLineProtocol(new String(line, StandardCharsets.UTF_8))
+                .subscribe(ok -> { }, error -> droppedPoints.incrementAndGet());
+            return;
+        }
+        if (queuedPoints.incrementAndGet() > queueCapacity) {
+            queuedPoints.decrementAndGet();
+            spill(List.of(line));
+            return;
+        }
+        queue.offer(line);
+        long bytes = queuedBytes.addAndGet(line.length + 1);
+        if (queuedPoints.get() >= config.getBatchSize() || bytes >= maxBatchBytes) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    /**
+     * InfluxDB 전송이 정상인지 (마지막 배치 전송 결과 기준)
+     */
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * 버려진 센서 포인트의 스테이션별 시각 범위 [from, to] (ms) 를 꺼내고 비움
+     * 전송이 정상으로 돌아온 뒤에만 반환하며, 없으면 빈 Map
+     */
+    public Map<String, long[]> takeLostRanges() {
+        synchronized (lostLock) {
+            if (!healthy || lostRanges.isEmpty()) {
+                return Map.of();
+            }
+            Map<String, long[]> ranges = lostRanges;
+            lostRanges = new HashMap<>();
+            return ranges;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long batchCount = batches.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", running);
+        stats.put("healthy", healthy);
+        stats.put("queuedPoints", queuedPoints.get());
+        stats.put("queuedBytes", queuedBytes.get());
+        stats.put("writtenPoints", writtenPoints.get());
+        stats.put("pointsPerSecond", Math.round(pointsPerSecond * 10) / 10.0);
+        stats.put("batches", batchCount);
+        stats.put("avgBatchSize", batchCount > 0 ? writtenPoints.get() / batchCount : 0);
+        stats.put("avgFlushMillis", batchCount > 0 ? flushNanos.get() / batchCount / 1_000_000 : 0);
+        stats.put("lastFlushMillis", lastFlushMillis);
+        stats.put("retries", retries.get());
+        stats.put("failedBatches", failedBatches.get());
+        stats.put("droppedPoints", droppedPoints.get());
+        stats.put("spilledPoints", spilledPoints.get());
+        stats.put("replayedPoints", replayedPoints.get());
+        stats.put("spillBytes", spillSize());
+        stats.put("tagCacheEntries", lineProtocolEncoder.getTagCacheEntries());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(config.getWriteTimeout() + 5000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 종료 시점에 남은 포인트는 다음 기동 때 다시 보내도록 디스크에 보관
+        List<byte[]> remaining = new ArrayList<>();
+        byte[] line;
+        while ((line = queue.poll()) != null) {
+            remaining.add(line);
+        }
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+            log.info("InfluxDB 미전송 포인트 디스크 보관 - {} points", remaining.size());
+        }
+    }
+
+    private void runFlusher() {
+        long intervalNanos = Math.max(config.getBatchFlushInterval(), 1) * 1_000_000L;
+        long rateWindowStart = System.nanoTime();
+        long rateWindowPoints = 0;
+        while (running) {
+            if (queuedPoints.get() < config.getBatchSize() && queuedBytes.get() < maxBatchBytes) {
+                LockSupport.parkNanos(this, intervalNanos);
+            }
+            try {
+                boolean healthy = true;
+                while (queuedPoints.get() > 0 && healthy) {
+                    healthy = flushBatch();
+                    if (queuedPoints.get() < config.getBatchSize() && queuedBytes.get() < maxBatchBytes) {
+                        break; // 덜 찬 배치는 다음 주기까지 더 모은다
+                    }
+                }
+                if (healthy && queuedPoints.get() == 0) {
+                    replaySpill();
+                }
+            } catch (Exception e) {
+                log.error("InfluxDB 배치 기록 중 오류: {}", e.getMessage());
+            }
+
+            long now = System.nanoTime();
+            if (now - rateWindowStart >= 1_000_000_000L) {
+                long written = writtenPoints.get();
+                pointsPerSecond = (written - rateWindowPoints) * 1e9 / (now - rateWindowStart);
+                rateWindowStart = now;
+                rateWindowPoints = written;
+            }
+        }
+        // 종료 직전 한 번 더 비우기
+        while (queuedPoints.get() > 0 && flushBatch()) {
+            // 실패하면 남은 포인트는 shutdown 에서 디스크로
+        }
+    }
+
+    // 큐에서 배치 하나를 꺼내 전송 (실패한 배치는 디스크로), 성공 여부 반환
+    private boolean flushBatch() {
+        List<byte[]> batch = new ArrayList<>(Math.min(config.getBatchSize(), queuedPoints.get()));
+        long bytes = 0;
+        byte[] line;
+        while (batch.size() < config.getBatchSize() && bytes < maxBatchBytes && (line = queue.poll()) != null) {
+            batch.add(line);
+            bytes += line.length + 1;
+        }
+        if (batch.isEmpty()) {
+            return true;
+        }
+        queuedPoints.addAndGet(-batch.size());
+        queuedBytes.addAndGet(-bytes);
+
+        healthy = send(batch);
+        if (!healthy) {
+            spill(batch);
+        }
+        return healthy;
+    }
+
+    /**
+     * 배치 전송 (재시도 포함), 재시도해도 안 되는 실패면 false
+     * 4xx 는 데이터 오류로 보고 버린 뒤 true (다시 보내도 같은 결과)
+     */
+    private boolean send(List<byte[]> batch) {
+        long started = System.nanoTime();
+        try {
+            byte[] body = encode(batch);
+            influxDB3Service.writeBatchBody(body, isGzip())
+                    .retryWhen(Retry.backoff(config.getBatchMaxRetries(), Duration.ofMillis(retryBackoffMillis))
+                            .filter(InfluxBatchWriter::isRetryable)
+                            .doBeforeRetry(signal -> retries.incrementAndGet()))
+                    .block();
+            long elapsed = System.nanoTime() - started;
+            writtenPoints.addAndGet(batch.size());
+            batches.incrementAndGet();
+            flushNanos.addAndGet(elapsed);
+            lastFlushMillis = elapsed / 1_000_000;
+            log.debug("InfluxDB 배치 전송 완료 - {} points, {} ms", batch.size(), lastFlushMillis);
+            return true;
+        } catch (WebClientResponseException e) {
+            if (e.getStatusCode().is4xxClientError()) {
+                droppedPoints.addAndGet(batch.size());
+                log.error("InfluxDB 배치 거부 - {} points 버림, 상태: {}, 응답: {}",
+                        batch.size(), e.getStatusCode(), e.getResponseBodyAsString());
+                return true;
+            }
+            failedBatches.incrementAndGet();
+            log.warn("InfluxDB 배치 전송 실패 - {} points, 상태: {}", batch.size(), e.getStatusCode());
+            return false;
+        } catch (Exception e) {
+            failedBatches.incrementAndGet();
+            log.warn("InfluxDB 배치 전송 실패 - {} points, 오류: {}", batch.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return error instanceof TimeoutException || error instanceof WebClientRequestException;
+    }
+
+    // 줄들을 재사용 버퍼에 이어 붙이고 (gzip 이면 압축해서) 전송 본문 생성
+    private byte[] encode(List<byte[]> batch) {
+        batchBuffer.reset();
+        for (byte[] line : batch) {
+            if (batchBuffer.size() > 0) {
+                batchBuffer.write((byte) '\n');
+            }
+            batchBuffer.write(line);
+        }
+        if (!isGzip()) {
+            return batchBuffer.toByteArray();
+        }
+        gzipBuffer.reset();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipBuffer, 8192)) {
+            gzip.write(batchBuffer.array(), 0, batchBuffer.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return gzipBuffer.toByteArray();
+    }
+
+    private boolean isGzip() {
+        return config.isCompressionEnabled() && "gzip".equalsIgnoreCase(config.getCompressionType());
+    }
+
+    // 디스크에 이어 쓰기 (보관 한도를 넘으면 버림), 실제로 보관한 줄 수 반환
+    private int spill(List<byte[]> lines) {
+        synchronized (spillLock) {
+            try {
+                long size = spillSize();
+                if (size >= spillMaxBytes) {
+                    droppedPoints.addAndGet(lines.size());
+                    recordLost(lines);
+                    log.warn("InfluxDB 디스크 보관 한도 초과 - {} points 버림", lines.size());
+                    return 0;
+                }
+                Files.createDirectories(spillPath.getParent());
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(spillPath,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+                    for (byte[] line : lines) {
+                        out.write(line);
+                        out.write('\n');
+                    }
+                }
+                spilledPoints.addAndGet(lines.size());
+                return lines.size();
+            } catch (IOException e) {
+                droppedPoints.addAndGet(lines.size());
+                recordLost(lines);
+                log.error("InfluxDB 디스크 보관 실패 - {} points 버림: {}", lines.size(), e.getMessage());
+                return 0;
+            }
+        }
+    }
+
+    // 전송이 정상일 때 보관 파일을 배치 단위로 다시 보냄 (실패 시 남은 줄은 다시 보관)
+    private void replaySpill() throws IOException {
+        Path replayPath;
+        synchronized (spillLock) {
+            if (!Files.exists(spillPath) || Files.size(spillPath) == 0) {
+                return;
+            }
+            replayPath = spillPath.resolveSibling("replay-" + System.currentTimeMillis() + ".lp");
+            Files.move(spillPath, replayPath, StandardCopyOption.ATOMIC_MOVE);
+        }
+        log.info("InfluxDB 디스크 보관분 재전송 시작 - {}", replayPath.getFileName());
+
+        try (BufferedReader reader = Files.newBufferedReader(replayPath, StandardCharsets.UTF_8)) {
+            List<byte[]> batch = new ArrayList<>(config.getBatchSize());
+            long bytes = 0;
+            boolean healthy = true;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                if (text.isEmpty()) {
+                    continue;
+                }
+                byte[] line = text.getBytes(StandardCharsets.UTF_8);
+                batch.add(line);
+                bytes += line.length + 1;
+                if (batch.size() >= config.getBatchSize() || bytes >= maxBatchBytes) {
+                    healthy = replayBatch(batch, healthy);
+                    batch = new ArrayList<>(config.getBatchSize());
+                    bytes = 0;
+                }
+            }
+            if (!batch.isEmpty()) {
+                replayBatch(batch, healthy);
+            }
+        }
+        Files.deleteIfExists(replayPath);
+    }
+
+    // 앞 배치가 실패했으면 보내지 않고 바로 다시 보관
+    private boolean replayBatch(List<byte[]> batch, boolean healthy) {
+        if (healthy && running && send(batch)) {
+            replayedPoints.addAndGet(batch.size());
+            invalidateRangeCache(batch);
+            return true;
+        }
+        this.healthy = false;
+        // 이미 보관되어 있던 포인트라 다시 보관한 만큼만 되돌림 (한도 초과로 버린 줄은 droppedPoints 로)
+        spilledPoints.addAndGet(-spill(batch));
+        return false;
+    }
+
+    // 늦게 들어간 센서 포인트가 속한 닫힌 범위 캐시 버킷 무효화
+    private void invalidateRangeCache(List<byte[]> lines) {
+        for (byte[] line : lines) {
+            long nanos = timestampNanos(line);
+            if (nanos < 0) {
+                continue;
+            }
+            String stationId = sensorStationId(line);
+            if (stationId != null) {
+                influxRangeCache.onPointWritten(stationId, Instant.ofEpochSecond(0, nanos));
+            }
+        }
+    }
+
+    // 버린 센서 줄의 스테이션별 구간 확장 (시각 없는 줄은 서버 수신 시각이라, 다른 measurement 는 로컬 원본이 없어 제외)
+    private void recordLost(List<byte[]> lines) {
+        Map<String, long[]> ranges = new HashMap<>();
+        for (byte[] line : lines) {
+            long nanos = timestampNanos(line);
+            String stationId = nanos < 0 ? null : sensorStationId(line);
+            if (stationId == null) {
+                continue;
+            }
+            long millis = nanos / 1_000_000L;
+            ranges.merge(stationId, new long[] {millis, millis}, InfluxBatchWriter::widen);
+        }
+        if (ranges.isEmpty()) {
+            return;
+        }
+        synchronized (lostLock) {
+            ranges.forEach((stationId, range) -> lostRanges.merge(stationId, range, InfluxBatchWriter::widen));
+        }
+    }
+
+    private static long[] widen(long[] range, long[] other) {
+        range[0] = Math.min(range[0], other[0]);
+        range[1] = Math.max(range[1], other[1]);
+        return range;
+    }
+
+    // 줄 끝의 나노초 시각, 없으면 -1
+    static long timestampNanos(byte[] line) {
+        int i = line.length - 1;
+        while (i >= 0 && line[i] >= '0' && line[i] <= '9') {
+            i--;
+        }
+        int digits = line.length - 1 - i;
+        if (i < 0 || line[i] != ' ' || digits == 0 || digits > 19) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(new String(line, i + 1, digits, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // 센서 측정값 줄의 station_id 태그 값 (이스케이프 해제), 다른 측정값이거나 태그가 없으면 null
+    static String sensorStationId(byte[] line) {
+        String text = new String(line, StandardCharsets.UTF_8);
+        if (!text.startsWith(SENSOR_LINE_PREFIX)) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder();
+        StringBuilder value = new StringBuilder();
+        StringBuilder current = key;
+        for (int i = SENSOR_LINE_PREFIX.length(); i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                current.append(text.charAt(++i));
+            } else if (c == '=' && current == key) {
+                current = value;
+            } else if (c == ',' || c == ' ') {
+                if (STATION_TAG.contentEquals(key)) {
+                    return value.toString();
+                }
+                if (c == ' ') {
+                    return null; // 태그 구간 끝
+                }
+                key.setLength(0);
+                value.setLength(0);
+                current = key;
+            } else {
+                current.append(c);
+            }
+        }
+        return null;
+    }
+
+    private long spillSize() {
+        try {
+            return spillPath != null && Files.exists(spillPath) ? Files.size(spillPath) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -1,18 +1,26 @@
 package com.u1mobis.dashboard_backend.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.u1mobis.dashboard_backend.config.InfluxDB3Config;
+import com.u1mobis.dashboard_backend.dto.SensorReading;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 
 @Service
@@ -20,48 +28,75 @@ public class InfluxDB3Service {
     
     private static final Logger logger = LoggerFactory.getLogger(InfluxDB3Service.class);
     
+    // IoT 센서 데이터 measurement (IoTDataService 가 기록)
+    public static final String SENSOR_MEASUREMENT = "IOT-sensor";
+    
     private final WebClient sqlClient;
     private final WebClient writeClient;
     private final InfluxDB3Config config;
     private final ObjectMapper objectMapper;
+    private final LineProtocolEncoder lineProtocolEncoder;
     
     @Autowired
     public InfluxDB3Service(WebClient influxDb3SqlClient, 
                            WebClient influxDb3WriteClient,
-                           InfluxDB3Config config) {
+                           InfluxDB3Config config,
+                           LineProtocolEncoder lineProtocolEncoder) {
         this.sqlClient = influxDb3SqlClient;
         this.writeClient = influxDb3WriteClient;
         this.config = config;
+        this.lineProtocolEncoder = lineProtocolEncoder;
         this.objectMapper = new ObjectMapper();
         logger.info("InfluxDB3Service 초기화 완료 - URL: {}, Database: {}", 
                    config.getUrl(), config.getDatabase());
     }
     
     /**
-     * InfluxDB 3.x SQL API를 사용한 데이터 조회
+     * InfluxDB 3.x SQL API를 사용한 데이터 조회 (전체 결과를 리스트로 모음, 작은 조회용)
+     * 조회 실패는 빈 결과로 바꾸지 않고 에러로 전달한다 (장애와 "데이터 없음" 구분).
      */
     public Mono<List<Map<String, Object>>> queryBySql(String sql) {
-        Map<String, Object> requestBody = Map.of(
-            "query", sql,
-            "format", "json"
-        );
-        
-        logger.debug("InfluxDB SQL 쿼리 실행: {}", sql);
+        return query(InfluxSqlQuery.raw(sql))
+            .collectList()
+            .doOnSuccess(result -> logger.debug("SQL 쿼리 성공: {} rows", result.size()));
+    }
+    
+    /**
+     * 조회 결과를 행 단위 Map 으로 스트리밍
+     */
+    public Flux<Map<String, Object>> query(InfluxSqlQuery query) {
+        return stream(query, InfluxDB3Service::readRow);
+    }
+    
+    /**
+     * 조회 결과 스트리밍 (JSONL 응답을 한 줄씩 읽어 바로 변환, 구독자 요청만큼만 읽음)
+     * 응답 전체를 메모리에 올리지 않으므로 긴 시간 범위도 일정한 메모리로 전달된다.
+     */
+    public <T> Flux<T> stream(InfluxSqlQuery query, RowReader<T> reader) {
+        logger.debug("InfluxDB SQL 쿼리 실행: {}", query);
         
         return sqlClient.post()
             .uri(config.getSqlApiUrl())
-            .bodyValue(requestBody)
+            .accept(MediaType.ALL)
+            .bodyValue(query.toRequestBody(config.getDatabase(), "jsonl"))
             .retrieve()
-            .bodyToMono(String.class)  // bodyToString() 대신 bodyToMono(String.class) 사용
-            .timeout(Duration.ofMillis(config.getQueryTimeout()))
-            .map(this::parseJsonResponse)
-            .doOnSuccess(result -> logger.debug("SQL 쿼리 성공: {} rows", result.size()))
-            .doOnError(error -> logger.error("SQL 쿼리 실행 실패 [{}]: {}", sql, error.getMessage()))
-            .onErrorReturn(Collections.emptyList());
+            .bodyToFlux(String.class)  // StringDecoder 가 줄 단위로 나눠 전달
+            .timeout(Duration.ofMillis(config.getQueryTimeout()))  // 다음 행까지의 최대 대기
+            .filter(line -> !line.isBlank())
+            .map(line -> parseRow(line, reader))
+            .doOnError(error -> logger.error("SQL 쿼리 실행 실패 [{}]: {}", query, error.getMessage()));
+    }
+    
+    /**
+     * JSONL 한 행 변환기 (파서는 행 객체의 START_OBJECT 위치)
+     */
+    @FunctionalInterface
+    public interface RowReader<T> {
+        T read(JsonParser parser) throws IOException;
     }
     
     /**
-     * Line Protocol을 사용한 단일 데이터 입력
+     * Line Protocol을 사용한 단일 데이터 입력 (실패 시 에러 전달)
      */
     public Mono<Boolean> writeLineProtocol(String lineProtocol) {
         return writeClient.post()
@@ -72,8 +107,7 @@ public class InfluxDB3Service {
             .timeout(Duration.ofMillis(config.getWriteTimeout()))
             .map(response -> true)
             .doOnSuccess(result -> logger.debug("데이터 입력 성공: {}", lineProtocol))
-            .doOnError(error -> logger.error("데이터 입력 실패: {}", error.getMessage()))
-            .onErrorReturn(false);
+            .doOnError(error -> logger.error("데이터 입력 실패: {}", error.getMessage()));
     }
     
     /**
@@ -86,59 +120,90 @@ public class InfluxDB3Service {
     }
     
     /**
-     * 배치 데이터 입력
+     * 배치 데이터 입력 (실패 시 에러 전달)
      */
     public Mono<Boolean> writeBatchData(List<String> lineProtocols) {
         if (lineProtocols.isEmpty()) {
             return Mono.just(true);
         }
         
-        String batchData = String.join("\n", lineProtocols);
+        // 큰 문자열로 합치지 않고 바이트 버퍼에 바로 이어 붙임
+        LineProtocolEncoder.LineBuffer body = new LineProtocolEncoder.LineBuffer(lineProtocols.size() * 128);
+        for (String line : lineProtocols) {
+            if (body.size() > 0) {
+                body.write((byte) '\n');
+            }
+            body.write(line.getBytes(StandardCharsets.UTF_8));
+        }
         
         return writeClient.post()
             .uri(config.getWriteApiUrl())
-            .bodyValue(batchData)
+            .bodyValue(body.toByteArray())
             .retrieve()
-            .bodyToMono(String.class)  // bodyToString() 대신 bodyToMono(String.class) 사용
+            .toBodilessEntity()
             .timeout(Duration.ofMillis(config.getWriteTimeout() * 2))
             .map(response -> true)
             .doOnSuccess(result -> logger.debug("배치 데이터 입력 성공: {} lines", lineProtocols.size()))
-            .doOnError(error -> logger.error("배치 데이터 입력 실패: {}", error.getMessage()))
-            .onErrorReturn(false);
+            .doOnError(error -> logger.error("배치 데이터 입력 실패: {}", error.getMessage()));
     }
     
     /**
-     * 최근 센서 데이터 조회
+     * 배치 본문 입력 (InfluxBatchWriter 용)
+     * 실패를 false 로 바꾸지 않고 그대로 전달해 호출 측에서 재시도 여부를 판단한다.
      */
-    public Mono<List<Map<String, Object>>> getRecentSensorData(String stationId, int limit) {
-        String sql = String.format("""
-            SELECT time, station_id, temperature, humidity, pressure, status
-            FROM %s 
-            WHERE station_id = '%s'
-            ORDER BY time DESC 
-            LIMIT %d
-            """, config.getDatabase(), stationId, limit);
+    public Mono<Void> writeBatchBody(byte[] body, boolean gzip) {
+        return writeClient.post()
+            .uri(config.getWriteApiUrl())
+            .headers(headers -> {
+                if (gzip) {
+                    headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                }
+            })
+            .bodyValue(body)
+            .retrieve()
+            .toBodilessEntity()
+            .timeout(Duration.ofMillis(config.getWriteTimeout()))
+            .then();
+    }
+    
+    /**
+     * 최근 센서 데이터 조회 (최신순)
+     */
+    public Flux<SensorReading> getRecentSensorData(String stationId, int limit) {
+        InfluxSqlQuery query = InfluxSqlQuery.select("*")
+            .from(SENSOR_MEASUREMENT)
+            .whereEquals("station_id", stationId)
+            .orderBy("time", false)
+            .limit(Math.min(limit, config.getQueryMaxRows()))
+            .build();
         
-        return queryBySql(sql);
+        return stream(query, InfluxDB3Service::readSensorReading);
+    }
+    
+    /**
+     * 시간 범위별 센서 데이터 조회 (시간순, [startTime, endTime))
+     */
+    public Flux<SensorReading> getSensorDataByTimeRange(String stationId, 
+                                                       Instant startTime, 
+                                                       Instant endTime) {
+        return getSensorDataByTimeRange(SENSOR_MEASUREMENT, stationId, startTime, endTime);
     }
     
     /**
-     * 시간 범위별 센서 데이터 조회
+     * 지정 measurement 의 시간 범위별 센서 데이터 조회 (다운샘플 measurement 포함)
      */
-    public Mono<List<Map<String, Object>>> getSensorDataByTimeRange(String stationId, 
-                                                                   Instant startTime, 
-                                                                   Instant endTime) {
-        String sql = String.format("""
-            SELECT time, station_id, temperature, humidity, pressure, status
-            FROM %s 
-            WHERE station_id = '%s' 
-                AND time >= '%s' 
-                AND time <= '%s'
-            ORDER BY time ASC
-            """, config.getDatabase(), stationId, 
-            formatTimestamp(startTime), formatTimestamp(endTime));
+    public Flux<SensorReading> getSensorDataByTimeRange(String measurement,
+                                                       String stationId, 
+                                                       Instant startTime, 
+                                                       Instant endTime) {
+        InfluxSqlQuery query = InfluxSqlQuery.select("*")
+            .from(measurement)
+            .whereEquals("station_id", stationId)
+            .timeRange(startTime, endTime)
+            .orderBy("time", true)
+            .build();
         
-        return queryBySql(sql);
+        return stream(query, InfluxDB3Service::readSensorReading);
     }
     
     /**
@@ -150,7 +215,7 @@ public class InfluxDB3Service {
     }
     
     /**
-     * InfluxDB 3.x 연결 상태 확인
+     * InfluxDB 3.x 연결 상태 확인 (연결 실패는 false 가 아니라 원인 에러로 전달)
      */
     public Mono<Boolean> checkConnection() {
         return sqlClient.get()
@@ -166,8 +231,7 @@ public class InfluxDB3Service {
                        response.length() > 0; // 응답이 있으면 연결됨
             })
             .doOnSuccess(result -> logger.info("InfluxDB 3.x 연결 상태: {}", result ? "정상" : "실패"))
-            .doOnError(error -> logger.error("InfluxDB 3.x 연결 확인 실패: {}", error.getMessage()))
-            .onErrorReturn(false);
+            .doOnError(error -> logger.error("InfluxDB 3.x 연결 확인 실패: {}", error.getMessage()));
     }
     
     /**
@@ -186,128 +250,79 @@ public class InfluxDB3Service {
     }
     
     /**
-     * Line Protocol 문자열 생성
+     * Line Protocol 문자열 생성 (LineProtocolEncoder 사용)
      */
-    private String buildLineProtocol(String measurement, Map<String, String> tags, 
+    public String buildLineProtocol(String measurement, Map<String, String> tags, 
                                    Map<String, Object> fields, Instant timestamp) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(escapeValue(measurement));
-        
-        // 태그 추가
-        if (tags != null && !tags.isEmpty()) {
-            for (Map.Entry<String, String> tag : tags.entrySet()) {
-                sb.append(",")
-                  .append(escapeKey(tag.getKey()))
-                  .append("=")
-                  .append(escapeValue(tag.getValue()));
-            }
-        }
-        
-        sb.append(" ");
-        
-        // 필드 추가
-        if (fields != null && !fields.isEmpty()) {
-            List<String> fieldStrings = new ArrayList<>();
-            for (Map.Entry<String, Object> field : fields.entrySet()) {
-                String key = escapeKey(field.getKey());
-                String value = formatFieldValue(field.getValue());
-                fieldStrings.add(key + "=" + value);
-            }
-            sb.append(String.join(",", fieldStrings));
-        }
-        
-        // 타임스탬프 추가
-        if (timestamp != null) {
-            sb.append(" ").append(timestamp.toEpochMilli() * 1_000_000L); // 나노초 변환
-        }
-        
-        return sb.toString();
+        return lineProtocolEncoder.encodeToString(measurement, tags, fields, timestamp);
     }
     
-    /**
-     * 필드 값 포맷팅
-     */
-    private String formatFieldValue(Object value) {
-        if (value == null) {
-            return "\"\"";
-        } else if (value instanceof String) {
-            return "\"" + escapeStringValue((String) value) + "\"";
-        } else if (value instanceof Boolean) {
-            return value.toString();
-        } else if (value instanceof Integer || value instanceof Long) {
-            return value + "i"; // 정수 타입 명시
-        } else {
-            return String.valueOf(value); // float/double
+    private <T> T parseRow(String line, RowReader<T> reader) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new RuntimeException("InfluxDB 응답 행 형식 오류: " + line);
+            }
+            return reader.read(parser);
+        } catch (IOException e) {
+            throw new RuntimeException("InfluxDB 응답 행 파싱 실패: " + e.getMessage(), e);
         }
     }
     
-    /**
-     * 키 이스케이프 처리
-     */
-    private String escapeKey(String key) {
-        if (key == null) return "";
-        return key.replace(" ", "\\ ")
-                 .replace(",", "\\,")
-                 .replace("=", "\\=");
-    }
-    
-    /**
-     * 값 이스케이프 처리
-     */
-    private String escapeValue(String value) {
-        if (value == null) return "";
-        return value.replace(" ", "\\ ")
-                   .replace(",", "\\,")
-                   .replace("=", "\\=");
+    // 행 → Map (컬럼 순서 유지)
+    private static Map<String, Object> readRow(JsonParser parser) throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String column = parser.getCurrentName();
+            parser.nextToken();
+            row.put(column, readScalar(parser));
+        }
+        return row;
     }
     
-    /**
-     * 문자열 값 이스케이프 처리
-     */
-    private String escapeStringValue(String value) {
-        if (value == null) return "";
-        return value.replace("\\", "\\\\")
-                   .replace("\"", "\\\"");
+    // 행 → SensorReading (태그는 컴포넌트로, 나머지 컬럼은 fields 로)
+    private static SensorReading readSensorReading(JsonParser parser) throws IOException {
+        Instant time = null;
+        String stationId = null;
+        String processType = null;
+        String location = null;
+        Map<String, Object> fields = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String column = parser.getCurrentName();
+            parser.nextToken();
+            switch (column) {
+                case "time" -> time = parseTime(parser.getValueAsString());
+                case "station_id" -> stationId = parser.getValueAsString();
+                case "process_type" -> processType = parser.getValueAsString();
+                case "location" -> location = parser.getValueAsString();
+                default -> fields.put(column, readScalar(parser));
+            }
+        }
+        return new SensorReading(time, stationId, processType, location, fields);
     }
     
-    /**
-     * 타임스탬프 포맷팅
-     */
-    private String formatTimestamp(Instant timestamp) {
-        return timestamp.toString();
+    private static Object readScalar(JsonParser parser) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NUMBER_INT -> parser.getLongValue();
+            case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case START_OBJECT, START_ARRAY -> {
+                parser.skipChildren();
+                yield null;
+            }
+            default -> null;
+        };
     }
     
-    /**
-     * JSON 응답 파싱
-     */
-    private List<Map<String, Object>> parseJsonResponse(String jsonResponse) {
-        try {
-            if (jsonResponse == null || jsonResponse.trim().isEmpty()) {
-                return Collections.emptyList();
-            }
-            
-            JsonNode rootNode = objectMapper.readTree(jsonResponse);
-            List<Map<String, Object>> result = new ArrayList<>();
-            
-            if (rootNode.isArray()) {
-                // 배열 형태의 응답
-                for (JsonNode node : rootNode) {
-                    Map<String, Object> row = objectMapper.convertValue(node, Map.class);
-                    result.add(row);
-                }
-            } else if (rootNode.isObject()) {
-                // 단일 객체 응답
-                Map<String, Object> row = objectMapper.convertValue(rootNode, Map.class);
-                result.add(row);
-            }
-            
-            logger.debug("JSON 파싱 완료: {} rows", result.size());
-            return result;
-            
-        } catch (Exception e) {
-            logger.error("JSON 응답 파싱 중 오류 발생: {}", e.getMessage());
-            logger.debug("파싱 실패한 JSON: {}", jsonResponse);
-            return Collections.emptyList();
+    // InfluxDB 3 는 UTC 시각을 오프셋 없이 반환 (2025-01-01T00:00:00.123456789)
+    private static Instant parseTime(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        if (value.endsWith("Z")) {
+            return Instant.parse(value);
         }
+        return LocalDateTime.parse(value).toInstant(ZoneOffset.UTC);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,241 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.u1mobis.dashboard_backend.dto.SensorReading;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * InfluxDB 센서 범위 조회 캐시 (정렬된 시간 버킷 단위)
+ * - 조회 범위를 bucket-ms 단위 버킷으로 나눠, 닫힌 버킷은 캐시에서 꺼내고 없으면 연속 구간을 한 번에 조회해 채운다
+ * - 아직 데이터가 들어올 수 있는 버킷(끝 + close-delay 이전)은 캐시하지 않고 매번 InfluxDB 에서 스트리밍
+ * - 닫힌 버킷 시각의 포인트가 늦게 들어오면 해당 버킷을 버리고 late-write-hold 동안 열린 버킷으로 취급
+ * 캐시 크기는 보관 행 수로 제한하며 가장 오래 쓰지 않은 버킷부터 제거한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InfluxRangeCache {
+
+    private final InfluxDB3Service influxDB3Service;
+
+    @Value("${influxdb.range-cache.bucket-ms:60000}")
+    private long bucketMillis;
+
+    // 버킷 끝 이후 이 시간이 지나야 닫힌 것으로 봄 (배치 기록 지연 고려)
+    @Value("${influxdb.range-cache.close-delay-ms:10000}")
+    private long closeDelayMillis;
+
+    @Value("${influxdb.range-cache.max-rows:500000}")
+    private long maxRows;
+
+    // 늦은 기록 후 버킷을 캐시하지 않는 시간 (배치 전송이 끝날 때까지)
+    @Value("${influxdb.range-cache.late-write-hold-ms:30000}")
+    private long lateWriteHoldMillis;
+
+    // 빠진 닫힌 버킷을 한 번에 조회하는 최대 개수
+    @Value("${influxdb.range-cache.max-buckets-per-query:60}")
+    private int maxBucketsPerQuery;
+
+    // 접근 순서 LRU, this 로 보호
+    private final LinkedHashMap<BucketKey, List<SensorReading>> buckets = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedRows;
+
+    // Key: 늦은 기록이 있었던 버킷, Value: 다시 캐시해도 되는 시각 (ms)
+    private final Map<BucketKey, Long> reopened = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong liveFetches = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong lateWrites = new AtomicLong();
+
+    /**
+     * 스테이션 센서 데이터 [start, end) 조회 (시간순)
+     */
+    public Flux<SensorReading> getSensorRange(String stationId, Instant start, Instant end) {
+        long from = start.toEpochMilli();
+        long to = end.toEpochMilli();
+        if (to <= from) {
+            return Flux.empty();
+        }
+        return Flux.defer(() -> Flux.fromIterable(plan(stationId, from, to, System.currentTimeMillis()))
+                .concatMap(segment -> segment)
+                .filter(reading -> reading.time() != null
+                        && reading.time().toEpochMilli() >= from && reading.time().toEpochMilli() < to));
+    }
+
+    /**
+     * 포인트 기록 알림 (닫힌 버킷 시각이면 캐시에서 버리고 잠시 열린 버킷으로 취급)
+     */
+    public void onPointWritten(String stationId, Instant timestamp) {
+        if (stationId == null || timestamp == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long bucketStart = align(timestamp.toEpochMilli());
+        if (bucketStart + bucketMillis + closeDelayMillis > now) {
+            return; // 아직 열린 버킷
+        }
+        BucketKey key = new BucketKey(stationId, bucketStart);
+        reopened.put(key, now + lateWriteHoldMillis);
+        synchronized (this) {
+            List<SensorReading> removed = buckets.remove(key);
+            if (removed != null) {
+                cachedRows -= removed.size();
+            }
+        }
+        lateWrites.incrementAndGet();
+        log.debug("늦은 기록으로 범위 캐시 버킷 무효화 - {}, {}", stationId, Instant.ofEpochMilli(bucketStart));
+    }
+
+    // 만료된 재개방 표시 정리
+    @Scheduled(fixedDelayString = "${influxdb.range-cache.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        reopened.values().removeIf(until -> until <= now);
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("bucketMs", bucketMillis);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.get());
+        stats.put("hitRate", lookups > 0 ? Math.round(hitCount * 1000.0 / lookups) / 1000.0 : 0.0);
+        stats.put("liveFetches", liveFetches.get());
+        stats.put("evictions", evictions.get());
+        stats.put("lateWrites", lateWrites.get());
+        synchronized (this) {
+            stats.put("buckets", buckets.size());
+            stats.put("cachedRows", cachedRows);
+        }
+        return stats;
+    }
+
+    /**
+     * 조회 범위를 구간으로 나눔: 캐시된 버킷 / 빠진 닫힌 버킷 연속 구간 / 열린 구간
+     */
+    private List<Flux<SensorReading>> plan(String stationId, long from, long to, long now) {
+        List<Flux<SensorReading>> segments = new ArrayList<>();
+        long missingStart = -1;
+        int missingCount = 0;
+        for (long bucketStart = align(from); bucketStart < to; bucketStart += bucketMillis) {
+            BucketKey key = new BucketKey(stationId, bucketStart);
+            if (!isClosed(key, now)) {
+                // 열린 버킷부터 끝까지는 캐시 없이 그대로 스트리밍 (늦은 기록으로 다시 열린 버킷 포함)
+                if (missingCount > 0) {
+                    segments.add(fetchClosed(stationId, missingStart, missingCount));
+                    missingCount = 0;
+                }
+                liveFetches.incrementAndGet();
+                segments.add(influxDB3Service.getSensorDataByTimeRange(stationId,
+                        Instant.ofEpochMilli(Math.max(bucketStart, from)), Instant.ofEpochMilli(to)));
+                return segments;
+            }
+            List<SensorReading> cached;
+            synchronized (this) {
+                cached = buckets.get(key);
+            }
+            if (cached != null) {
+                hits.incrementAndGet();
+                if (missingCount > 0) {
+                    segments.add(fetchClosed(stationId, missingStart, missingCount));
+                    missingCount = 0;
+                }
+                segments.add(Flux.fromIterable(cached));
+                continue;
+            }
+            misses.incrementAndGet();
+            if (missingCount == 0) {
+                missingStart = bucketStart;
+            }
+            if (++missingCount >= maxBucketsPerQuery) {
+                segments.add(fetchClosed(stationId, missingStart, missingCount));
+                missingCount = 0;
+            }
+        }
+        if (missingCount > 0) {
+            segments.add(fetchClosed(stationId, missingStart, missingCount));
+        }
+        return segments;
+    }
+
+    // 닫힌 버킷 연속 구간을 한 번에 조회해 버킷별로 나눠 캐시 (빈 버킷도 빈 목록으로 캐시)
+    private Flux<SensorReading> fetchClosed(String stationId, long start, int count) {
+        long end = start + count * bucketMillis;
+        return influxDB3Service.getSensorDataByTimeRange(stationId, Instant.ofEpochMilli(start), Instant.ofEpochMilli(end))
+                .collectList()
+                .doOnNext(rows -> store(stationId, start, count, rows))
+                .flatMapIterable(rows -> rows);
+    }
+
+    private void store(String stationId, long start, int count, List<SensorReading> rows) {
+        List<List<SensorReading>> split = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            split.add(new ArrayList<>());
+        }
+        for (SensorReading row : rows) {
+            if (row.time() == null) {
+                continue;
+            }
+            int index = (int) ((row.time().toEpochMilli() - start) / bucketMillis);
+            if (index >= 0 && index < count) {
+                split.get(index).add(row);
+            }
+        }
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            for (int i = 0; i < count; i++) {
+                BucketKey key = new BucketKey(stationId, start + i * bucketMillis);
+                if (!isClosed(key, now)) {
+                    continue; // 조회 중에 늦은 기록이 들어온 버킷
+                }
+                List<SensorReading> bucket = List.copyOf(split.get(i));
+                List<SensorReading> previous = buckets.put(key, bucket);
+                cachedRows += bucket.size() - (previous != null ? previous.size() : 0);
+            }
+            evictOverflow();
+        }
+    }
+
+    // 보관 행 수가 한도를 넘으면 오래 쓰지 않은 버킷부터 제거 (this 잡은 상태에서 호출)
+    private void evictOverflow() {
+        Iterator<Map.Entry<BucketKey, List<SensorReading>>> it = buckets.entrySet().iterator();
+        while (cachedRows > maxRows && it.hasNext()) {
+            cachedRows -= it.next().getValue().size();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private boolean isClosed(BucketKey key, long now) {
+        if (key.bucketStart() + bucketMillis + closeDelayMillis > now) {
+            return false;
+        }
+        Long until = reopened.get(key);
+        return until == null || until <= now;
+    }
+
+    private long align(long epochMillis) {
+        return Math.floorDiv(epochMillis, bucketMillis) * bucketMillis;
+    }
+
+    private record BucketKey(String stationId, long bucketStart) {
+    }
+}
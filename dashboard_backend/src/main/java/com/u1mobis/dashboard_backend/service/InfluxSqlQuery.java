@@ -0,0 +1,160 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * InfluxDB 3 SQL 조회문
+ * - 값은 SQL 문자열에 넣지 않고 $p1, $p2 ... 자리표시자와 params 로만 전달
+ * - 테이블/컬럼 이름은 큰따옴표로 감싸 이스케이프 (IOT-sensor 처럼 특수문자가 있는 이름 포함)
+ */
+public final class InfluxSqlQuery {
+
+    private static final Set<String> OPERATORS = Set.of("=", "!=", "<", "<=", ">", ">=");
+
+    private final String sql;
+    private final Map<String, Object> params;
+
+    private InfluxSqlQuery(String sql, Map<String, Object> params) {
+        this.sql = sql;
+        this.params = Collections.unmodifiableMap(params);
+    }
+
+    /**
+     * 값이 없는 고정 조회문 (SHOW TABLES 등)
+     */
+    public static InfluxSqlQuery raw(String sql) {
+        return new InfluxSqlQuery(sql, new LinkedHashMap<>());
+    }
+
+    /**
+     * 조회 컬럼 지정으로 시작 (없으면 *)
+     */
+    public static Builder select(String... columns) {
+        return new Builder(columns);
+    }
+
+    public String sql() {
+        return sql;
+    }
+
+    public Map<String, Object> params() {
+        return params;
+    }
+
+    /**
+     * SQL API 요청 본문
+     */
+    public Map<String, Object> toRequestBody(String database, String format) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("db", database);
+        body.put("q", sql);
+        body.put("format", format);
+        if (!params.isEmpty()) {
+            body.put("params", params);
+        }
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return params.isEmpty() ? sql : sql + " " + params;
+    }
+
+    static String quoteIdentifier(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("InfluxDB 식별자가 비어 있습니다");
+        }
+        return "\"" + name.replace("\"", "\"\"") + "\"";
+    }
+
+    public static final class Builder {
+
+        private final List<String> columns = new ArrayList<>();
+        private final List<String> conditions = new ArrayList<>();
+        private final Map<String, Object> params = new LinkedHashMap<>();
+        private String table;
+        private String orderBy;
+        private Integer limit;
+
+        private Builder(String... columns) {
+            for (String column : columns) {
+                this.columns.add("*".equals(column) ? column : quoteIdentifier(column));
+            }
+        }
+
+        public Builder from(String table) {
+            this.table = quoteIdentifier(table);
+            return this;
+        }
+
+        /**
+         * 컬럼 비교 조건 (AND 로 연결), 값이 null 이면 조건 생략
+         */
+        public Builder where(String column, String operator, Object value) {
+            if (!OPERATORS.contains(operator)) {
+                throw new IllegalArgumentException("지원하지 않는 비교 연산자: " + operator);
+            }
+            if (value == null) {
+                return this;
+            }
+            String placeholder = bind(value instanceof Instant instant ? instant.toString() : value);
+            String operand = value instanceof Instant ? "CAST(" + placeholder + " AS TIMESTAMP)" : placeholder;
+            conditions.add(quoteIdentifier(column) + " " + operator + " " + operand);
+            return this;
+        }
+
+        public Builder whereEquals(String column, Object value) {
+            return where(column, "=", value);
+        }
+
+        // time >= start AND time < end (null 이면 해당 경계 생략)
+        public Builder timeRange(Instant start, Instant end) {
+            where("time", ">=", start);
+            return where("time", "<", end);
+        }
+
+        public Builder orderBy(String column, boolean ascending) {
+            this.orderBy = quoteIdentifier(column) + (ascending ? " ASC" : " DESC");
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            if (limit <= 0) {
+                throw new IllegalArgumentException("limit 은 1 이상이어야 합니다: " + limit);
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public InfluxSqlQuery build() {
+            if (table == null) {
+                throw new IllegalStateException("조회할 테이블이 지정되지 않았습니다");
+            }
+            StringBuilder sql = new StringBuilder("SELECT ")
+                    .append(columns.isEmpty() ? "*" : String.join(", ", columns))
+                    .append(" FROM ").append(table);
+            if (!conditions.isEmpty()) {
+                sql.append(" WHERE ").append(String.join(" AND ", conditions));
+            }
+            if (orderBy != null) {
+                sql.append(" ORDER BY ").append(orderBy);
+            }
+            if (limit != null) {
+                sql.append(" LIMIT ").append(limit); // 정수만 허용하므로 그대로 기록
+            }
+            return new InfluxSqlQuery(sql.toString(), new LinkedHashMap<>(params));
+        }
+
+        private String bind(Object value) {
+            String name = "p" + (params.size() + 1);
+            params.put(name, value);
+            return "$" + name;
+        }
+    }
+}
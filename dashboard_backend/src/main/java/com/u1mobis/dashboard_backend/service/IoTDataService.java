@@ -1,20 +1,77 @@
 package com.u1mobis.dashboard_backend.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.u1mobis.dashboard_backend.dto.BulkIngestResult;
+import com.u1mobis.dashboard_backend.dto.SensorReading;
+
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class IoTDataService {
     
-    private final InfluxDB3Service influxDB3Service;
+    // 압축 시리즈 계열 (키: iot:<스테이션>|<필드>)
+    private static final String IOT_SERIES = "iot";
+    
+    private static final List<String> FIELD_SECTIONS = List.of("sensors", "production", "quality");
+    private static final Map<String, String> FIELD_PREFIXES = Map.of(
+        "sensors", "sensor_",
+        "production", "production_",
+        "quality", "quality_");
+    
+    private final InfluxBatchWriter influxBatchWriter;
+    private final InfluxRangeCache influxRangeCache;
+    private final SensorDownsampler sensorDownsampler;
+    private final RecentSeriesStore recentSeriesStore;
+    private final SeriesCompressor seriesCompressor;
+    private final ObjectMapper objectMapper;
+    
+    // 일괄 수집 응답에 담을 레코드 오류 최대 개수
+    @Value("${iot.bulk.max-errors:100}")
+    private int bulkMaxErrors;
+    
+    // IoT 필드 압축 허용 오차, 창이 끝난 보류 값 기록 전 대기 (ms)
+    @Value("${compression.iot.tolerance:0.1}")
+    private double iotTolerance;
+    
+    @Value("${compression.idle-grace-ms:5000}")
+    private long idleGraceMillis;
+    
+    // Key: 스테이션 ID, Value: 마지막 태그 (보류 값 기록용, 압축 상태가 남은 스테이션만 유지)
+    private final Map<String, Map<String, String>> lastTags = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void initialize() {
+        seriesCompressor.setTolerance(IOT_SERIES, iotTolerance);
+    }
     
     public void processIoTData(Map<String, Object> iotData) {
         try {
@@ -83,22 +140,11 @@ public class IoTDataService {
             }
             
             // 타임스탬프 파싱
-            java.time.Instant instant;
-            if (timestamp != null) {
-                try {
-                    LocalDateTime dateTime = LocalDateTime.parse(timestamp.replace("Z", ""));
-                    instant = dateTime.atZone(java.time.ZoneId.systemDefault()).toInstant();
-                } catch (Exception e) {
-                    instant = java.time.Instant.now();
-                }
-            } else {
-                instant = java.time.Instant.now();
-            }
+            Instant instant = parseTimestamp(timestamp);
             
-            // InfluxDB에 쓰기
-            influxDB3Service.writeData("IOT-sensor", tags, fields, instant);
+            writePoint(stationId, tags, fields, instant);
             
-            log.debug("InfluxDB 저장 완료 - Station: {}", stationId);
+            log.debug("InfluxDB 저장 요청 완료 - Station: {}", stationId);
             
         } catch (Exception e) {
             log.error("InfluxDB 저장 중 오류 발생", e);
@@ -106,6 +152,227 @@ public class IoTDataService {
         }
     }
     
+    /**
+     * NDJSON 또는 JSON 배열 본문 일괄 수집 (레코드 단위로 읽어 바로 배치 기록기에 넣음)
+     * 본문 전체를 메모리에 올리지 않으며, 레코드 오류는 건너뛰고 위치와 사유를 돌려준다.
+     * JSON 문법 오류나 본문 읽기 실패(잘린 gzip 등)는 이후 레코드를 읽을 수 없으므로 그 지점에서 중단한다.
+     */
+    public BulkIngestResult ingestBulk(InputStream body) {
+        int accepted = 0;
+        int rejected = 0;
+        List<BulkIngestResult.RecordError> errors = new ArrayList<>();
+        String aborted = null;
+        int index = 0;
+        
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                String error;
+                if (token == JsonToken.START_OBJECT) {
+                    error = ingestRecord(objectMapper.readTree(parser));
+                } else {
+                    parser.skipChildren();
+                    error = "JSON 객체가 아닙니다: " + token;
+                }
+                if (error == null) {
+                    accepted++;
+                } else {
+                    rejected++;
+                    if (errors.size() < bulkMaxErrors) {
+                        errors.add(new BulkIngestResult.RecordError(index, error));
+                    }
+                }
+                index++;
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            aborted = "JSON 형식 오류 (레코드 " + index + "): " + e.getOriginalMessage();
+        } catch (IOException e) {
+            aborted = "본문 읽기 실패 (레코드 " + index + "): " + e.getMessage();
+        }
+        
+        log.info("IoT 일괄 수집 - 수락: {}, 거부: {}{}", accepted, rejected, aborted != null ? ", 중단: " + aborted : "");
+        return new BulkIngestResult(accepted, rejected, errors, rejected > errors.size(), aborted);
+    }
+    
+    /**
+     * 스테이션 센서 이력 조회 (닫힌 시간 버킷은 캐시, 최근 구간만 InfluxDB 에서 스트리밍)
+     * end 가 없으면 현재까지, InfluxDB 장애 시 로컬 저장소의 최근 구간으로 응답
+     */
+    public Flux<SensorReading> getSensorHistory(String stationId, Instant start, Instant end) {
+        Instant until = end != null ? end : Instant.now();
+        return recentSeriesStore.withFallback(influxRangeCache.getSensorRange(stationId, start, until),
+            stationId, start, until);
+    }
+    
+    /**
+     * 포인트 예산에 맞는 해상도로 센서 시계열 조회 (원본 / 1분 / 1시간 집계)
+     * 원본 해상도만 로컬 저장소 대체 경로 사용 (집계는 로컬에 없음)
+     */
+    public Flux<SensorReading> getSensorSeries(String stationId, Instant start, Instant end,
+                                               SensorDownsampler.Resolution resolution) {
+        Flux<SensorReading> series = sensorDownsampler.getSeries(stationId, start, end, resolution);
+        if (resolution == SensorDownsampler.Resolution.RAW) {
+            return recentSeriesStore.withFallback(series, stationId, start, end);
+        }
+        return series;
+    }
+    
+    public SensorDownsampler.Resolution chooseResolution(Instant start, Instant end, int maxPoints) {
+        return sensorDownsampler.chooseResolution(start, end, maxPoints);
+    }
+    
+    // InfluxDB 배치 기록 / 범위 캐시 / 다운샘플 / 로컬 저장소 / 압축 상태 조회
+    public Map<String, Object> getStats() {
+        return Map.of(
+            "writer", influxBatchWriter.getStats(),
+            "rangeCache", influxRangeCache.getStats(),
+            "downsample", sensorDownsampler.getStats(),
+            "localStore", recentSeriesStore.getStats(),
+            "compression", seriesCompressor.getStats());
+    }
+    
+    // 창이 끝났는데 다음 값이 오지 않은 필드의 마지막 값 기록, 압축 상태가 모두 지워진 스테이션의 태그 정리
+    @Scheduled(fixedDelayString = "${compression.flush-interval-ms:10000}")
+    public void flushIdleSeries() {
+        seriesCompressor.flushIdle(IOT_SERIES, System.currentTimeMillis(), idleGraceMillis, (series, sample) -> {
+            int separator = series.indexOf('|');
+            String stationId = stationOf(series);
+            Instant instant = Instant.ofEpochMilli(sample.time());
+            Map<String, String> tags = lastTags.getOrDefault(stationId, Map.of("station_id", stationId));
+            influxBatchWriter.write(InfluxDB3Service.SENSOR_MEASUREMENT, tags,
+                Map.of(series.substring(separator + 1), sample.original()), instant);
+            influxRangeCache.onPointWritten(stationId, instant);
+        });
+        Set<String> active = new HashSet<>();
+        seriesCompressor.forEachSeries(IOT_SERIES, series -> active.add(stationOf(series)));
+        lastTags.keySet().retainAll(active);
+    }
+    
+    // 압축 시리즈 키(iot:<스테이션>|<필드>)의 스테이션
+    private static String stationOf(String series) {
+        return series.substring(IOT_SERIES.length() + 1, series.indexOf('|'));
+    }
+
+    // 일괄 수집 레코드 한 건 기록 (오류 사유 반환, 정상이면 null)
+    private String ingestRecord(JsonNode record) {
+        String stationId = record.path("stationId").asText(null);
+        if (stationId == null || stationId.isBlank()) {
+            return "stationId 가 없습니다";
+        }
+        // 시각이 없을 때만 수집 시각, 형식이 틀리면 레코드 거부
+        Instant instant;
+        JsonNode timestamp = record.path("timestamp");
+        if (timestamp.isMissingNode() || timestamp.isNull()) {
+            instant = Instant.now();
+        } else if (timestamp.isIntegralNumber()) {
+            instant = Instant.ofEpochMilli(timestamp.asLong());
+        } else if (timestamp.isTextual()) {
+            try {
+                instant = parseTimestamp(timestamp.textValue());
+            } catch (DateTimeParseException e) {
+                return "timestamp 형식 오류: " + timestamp.textValue();
+            }
+        } else {
+            return "timestamp 형식 오류: " + timestamp;
+        }
+        
+        Map<String, String> tags = new HashMap<>();
+        tags.put("station_id", stationId);
+        if (record.hasNonNull("processType")) {
+            tags.put("process_type", record.get("processType").asText());
+        }
+        if (record.hasNonNull("location")) {
+            tags.put("location", record.get("location").asText());
+        }
+        
+        Map<String, Object> fields = new HashMap<>();
+        for (String section : FIELD_SECTIONS) {
+            JsonNode values = record.path(section);
+            if (values.isMissingNode() || values.isNull()) {
+                continue;
+            }
+            if (!values.isObject()) {
+                return section + " 는 객체여야 합니다";
+            }
+            String prefix = FIELD_PREFIXES.get(section);
+            values.fields().forEachRemaining(entry -> {
+                JsonNode value = entry.getValue();
+                if (value.isNumber()) {
+                    fields.put(prefix + entry.getKey(), value.numberValue());
+                } else if (value.isBoolean()) {
+                    fields.put(prefix + entry.getKey(), value.booleanValue());
+                } else if (value.isTextual()) {
+                    fields.put(prefix + entry.getKey(), value.textValue());
+                }
+            });
+        }
+        if (fields.isEmpty()) {
+            fields.put("value", 1.0);
+        }
+        
+        writePoint(stationId, tags, fields, instant);
+        return null;
+    }
+    
+    // InfluxDB 배치 기록기에 넣기 (전송은 백그라운드에서 묶어서) + 로컬 저장소/범위 캐시/다운샘플 반영
+    // 로컬 저장소와 다운샘플은 원본 전체, InfluxDB 에는 압축 단계를 통과한 값만 기록
+    private void writePoint(String stationId, Map<String, String> tags, Map<String, Object> fields, Instant instant) {
+        recentSeriesStore.append(stationId, tags, fields, instant);
+        sensorDownsampler.accept(stationId, fields, instant);
+        if (!seriesCompressor.isEnabled()) {
+            influxBatchWriter.write(InfluxDB3Service.SENSOR_MEASUREMENT, tags, fields, instant);
+            influxRangeCache.onPointWritten(stationId, instant);
+            return;
+        }
+        long time = instant.toEpochMilli();
+        Map<String, Object> current = new HashMap<>();
+        Map<Long, Map<String, Object>> previous = new TreeMap<>();
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            Object value = field.getValue();
+            if (!(value instanceof Number) && !(value instanceof Boolean)) {
+                current.put(field.getKey(), value); // 문자열은 압축하지 않음
+                continue;
+            }
+            double numeric = value instanceof Boolean bool ? (bool ? 1.0 : 0.0) : ((Number) value).doubleValue();
+            SeriesCompressor.Decision decision = seriesCompressor.offer(
+                IOT_SERIES + ":" + stationId + "|" + field.getKey(), time, numeric, value);
+            if (decision.previous() != null) {
+                previous.computeIfAbsent(decision.previous().time(), t -> new HashMap<>())
+                    .put(field.getKey(), decision.previous().original());
+            }
+            if (decision.keepCurrent()) {
+                current.put(field.getKey(), value);
+            }
+        }
+        // 압축 상태를 만든 뒤 태그 기록 (flushIdleSeries 정리와 겹쳐도 다음 기록에서 다시 채워짐)
+        lastTags.put(stationId, tags);
+        // 보류했던 직전 값은 원래 시각으로 기록 (닫힌 캐시 버킷이면 무효화)
+        previous.forEach((previousTime, previousFields) -> {
+            Instant previousInstant = Instant.ofEpochMilli(previousTime);
+            influxBatchWriter.write(InfluxDB3Service.SENSOR_MEASUREMENT, tags, previousFields, previousInstant);
+            influxRangeCache.onPointWritten(stationId, previousInstant);
+        });
+        if (!current.isEmpty()) {
+            influxBatchWriter.write(InfluxDB3Service.SENSOR_MEASUREMENT, tags, current, instant);
+            influxRangeCache.onPointWritten(stationId, instant);
+        }
+    }
+    
+    // 수집기 시각 파싱 (오프셋 없이 로컬 시각으로 해석, 없으면 현재 시각)
+    // 형식이 틀리면 DateTimeParseException (수집 시각으로 바꿔 저장하지 않음)
+    private Instant parseTimestamp(String timestamp) {
+        if (timestamp == null) {
+            return Instant.now();
+        }
+        LocalDateTime dateTime = LocalDateTime.parse(timestamp.replace("Z", ""));
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+    
     /**
      * 안전한 String 타입 변환
      */
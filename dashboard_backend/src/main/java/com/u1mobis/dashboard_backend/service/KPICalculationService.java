@@ -1,18 +1,24 @@
 package com.u1mobis.dashboard_backend.service;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import com.u1mobis.dashboard_backend.dto.KpiCalculationResult;
+import com.u1mobis.dashboard_backend.dto.RealTimeKpiResponse;
 import com.u1mobis.dashboard_backend.entity.Company;
 import com.u1mobis.dashboard_backend.entity.KPIData;
 import com.u1mobis.dashboard_backend.repository.CompanyRepository;
 import com.u1mobis.dashboard_backend.repository.CurrentProductionRepository;
 import com.u1mobis.dashboard_backend.repository.KPIDataRepository;
 import com.u1mobis.dashboard_backend.repository.ProductionCompletedRepository;
-import com.u1mobis.dashboard_backend.service.AlertService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,86 +32,73 @@ public class KPICalculationService {
     private final ProductionCompletedRepository productionCompletedRepository;
     private final CurrentProductionRepository currentProductionRepository;
     private final CompanyRepository companyRepository;
-    private final AlertService alertService;
+    private final ThresholdRuleEngine thresholdRuleEngine;
+    private final KPIStreamAggregator kpiStreamAggregator;
+    private final AsyncPersistenceService asyncPersistenceService;
+    private final RollupService rollupService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RequestCoalescer requestCoalescer;
     
     // 전체 실시간 KPI 조회 (이전 버전 유지)
-    public Map<String, Object> getRealTimeKPI() {
+    public RealTimeKpiResponse getRealTimeKPI() {
+        return requestCoalescer.load(RequestCoalescer.key(DashboardUpdateEvent.Section.KPI), this::loadRealTimeKPI);
+    }
+    
+    private RealTimeKpiResponse loadRealTimeKPI() {
         try {
+            // 스트리밍 집계값 우선 사용
+            Optional<KPIStreamAggregator.LineSnapshot> snapshot = kpiStreamAggregator.getLatestSnapshotByCompany(null);
+            if (snapshot.isPresent()) {
+                return toRealTimeResponse(snapshot.get());
+            }
+            
             Optional<KPIData> latestKPI = kpiDataRepository.findTopByOrderByTimestampDesc();
             
             if (latestKPI.isPresent()) {
-                KPIData kpi = latestKPI.get();
-                return Map.of(
-                    "oee", kpi.getCalculatedOEE() != null ? kpi.getCalculatedOEE() * 100 : 0.0,
-                    "fty", kpi.getCalculatedFTY() != null ? kpi.getCalculatedFTY() * 100 : 0.0,
-                    "otd", kpi.getCalculatedOTD() != null ? kpi.getCalculatedOTD() * 100 : 0.0,
-                    "timestamp", kpi.getTimestamp() != null ? kpi.getTimestamp().toString() : LocalDateTime.now().toString()
-                );
+                return toRealTimeResponse(latestKPI.get(), null, null);
             }
             
             // 데이터가 없을 때 기본값 반환
-            return Map.of(
-                "oee", 0.0,
-                "fty", 0.0,
-                "otd", 0.0,
-                "timestamp", LocalDateTime.now().toString(),
-                "message", "아직 KPI 데이터가 없습니다. 먼저 데이터를 입력해주세요."
-            );
+            return RealTimeKpiResponse.empty(null, null, "아직 KPI 데이터가 없습니다. 먼저 데이터를 입력해주세요.");
             
         } catch (Exception e) {
             log.error("KPI 조회 실패: {}", e.getMessage());
-            return Map.of(
-                "oee", 0.0,
-                "fty", 0.0,
-                "otd", 0.0,
-                "timestamp", LocalDateTime.now().toString(),
-                "error", "KPI 조회 중 오류 발생"
-            );
+            return RealTimeKpiResponse.failed(null, "KPI 조회 중 오류 발생");
         }
     }
     
-    // 회사별 실시간 KPI 조회 (새로 추가)
-    public Map<String, Object> getRealTimeKPIByCompany(String companyName) {
+    // 회사별 실시간 KPI 조회 (동시에 들어온 같은 회사 조회는 한 번만 계산)
+    public RealTimeKpiResponse getRealTimeKPIByCompany(String companyName) {
+        return requestCoalescer.load(RequestCoalescer.key(DashboardUpdateEvent.Section.KPI, companyName),
+                () -> loadRealTimeKPIByCompany(companyName));
+    }
+    
+    private RealTimeKpiResponse loadRealTimeKPIByCompany(String companyName) {
         try {
+            // 스트리밍 집계값 우선 사용 (재시작 직후에는 DB 최신값으로 대체)
+            Optional<KPIStreamAggregator.LineSnapshot> snapshot = kpiStreamAggregator.getLatestSnapshotByCompany(companyName);
+            if (snapshot.isPresent()) {
+                return toRealTimeResponse(snapshot.get());
+            }
+            
             Optional<KPIData> latestKPI = kpiDataRepository.findTopByCompany_CompanyNameOrderByTimestampDesc(companyName);
             
             if (latestKPI.isPresent()) {
                 KPIData kpi = latestKPI.get();
-                return Map.of(
-                    "oee", kpi.getCalculatedOEE() != null ? kpi.getCalculatedOEE() * 100 : 0.0,
-                    "fty", kpi.getCalculatedFTY() != null ? kpi.getCalculatedFTY() * 100 : 0.0,
-                    "otd", kpi.getCalculatedOTD() != null ? kpi.getCalculatedOTD() * 100 : 0.0,
-                    "timestamp", kpi.getTimestamp() != null ? kpi.getTimestamp().toString() : LocalDateTime.now().toString(),
-                    "companyName", companyName,
-                    "lineId", kpi.getLineId()
-                );
+                return toRealTimeResponse(kpi, companyName, kpi.getLineId());
             }
             
             // 데이터가 없을 때 기본값 반환
-            return Map.of(
-                "oee", 0.0,
-                "fty", 0.0,
-                "otd", 0.0,
-                "timestamp", LocalDateTime.now().toString(),
-                "companyName", companyName,
-                "message", companyName + " 회사의 KPI 데이터가 없습니다."
-            );
+            return RealTimeKpiResponse.empty(companyName, null, companyName + " 회사의 KPI 데이터가 없습니다.");
             
         } catch (Exception e) {
             log.error("{} 회사 KPI 조회 실패: {}", companyName, e.getMessage());
-            return Map.of(
-                "oee", 0.0,
-                "fty", 0.0,
-                "otd", 0.0,
-                "timestamp", LocalDateTime.now().toString(),
-                "companyName", companyName,
-                "error", "KPI 조회 중 오류 발생"
-            );
+            return RealTimeKpiResponse.failed(companyName, "KPI 조회 중 오류 발생");
         }
     }
     
-    // KPI 데이터 처리 및 계산
-    public KPIData processKPIData(String companyName, Long lineId, Integer plannedTime, Integer downtime, Double targetCycleTime, 
+    // KPI 데이터 처리 및 계산 (DB 저장은 비동기, 계산값만 반환)
+    public KpiCalculationResult processKPIData(String companyName, Long lineId, Integer plannedTime, Integer downtime, Double targetCycleTime, 
                                   Integer goodCount, Integer totalCount, Integer firstTimePassCount, 
                                   Integer onTimeDeliveryCount) {
         
@@ -167,16 +160,23 @@ public class KPICalculationService {
             .lineId(lineId)
             .build();
             
-        KPIData saved = kpiDataRepository.save(kpiData);
+        // 메모리 집계 먼저 반영 후 DB 저장은 비동기로 처리
+        kpiStreamAggregator.recordOperations(companyName, lineId, plannedTime, downtime, targetCycleTime,
+                goodCount, totalCount, firstTimePassCount, onTimeDeliveryCount,
+                kpiData.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        asyncPersistenceService.submit("KPI 데이터 저장 - " + companyName + "/" + lineId,
+                () -> kpiDataRepository.save(kpiData));
+        rollupService.recordKpi(company.getCompanyId(), lineId, kpiData);
         log.info("KPI 계산 완료 - OEE: {}%, FTY: {}%, OTD: {}%", 
                 Math.round(oee * 100) / 100.0, 
                 Math.round(fty * 100) / 100.0, 
                 Math.round(otd * 100) / 100.0);
         
         // KPI 임계값 체크 및 알림 전송
-        checkKPIThresholds(company, saved);
+        checkKPIThresholds(company, lineId, availability, performance, quality, oee, fty, otd);
+        eventPublisher.publishEvent(new DashboardUpdateEvent(companyName, lineId, DashboardUpdateEvent.Section.KPI));
                 
-        return saved;
+        return new KpiCalculationResult(oee, fty, otd, kpiData.getTimestamp());
         
         } catch (Exception e) {
             log.error("KPI 데이터 처리 중 오류 발생 - 회사: {}, 오류: {}", companyName, e.getMessage());
@@ -185,6 +185,54 @@ public class KPICalculationService {
         }
     }
     
+    // 라인 스트리밍 집계 조회 (윈도우별 OEE/FTY/OTD 및 사이클 타임 통계)
+    public RealTimeKpiResponse getStreamKPI(String companyName, Long lineId) {
+        return requestCoalescer.load(RequestCoalescer.key(DashboardUpdateEvent.Section.KPI, companyName, "stream", lineId),
+                () -> loadStreamKPI(companyName, lineId));
+    }
+    
+    private RealTimeKpiResponse loadStreamKPI(String companyName, Long lineId) {
+        Optional<KPIStreamAggregator.LineSnapshot> snapshot = kpiStreamAggregator.getLineSnapshot(companyName, lineId);
+        if (snapshot.isEmpty()) {
+            return RealTimeKpiResponse.empty(companyName, lineId,
+                companyName + " 회사 " + lineId + "번 라인의 스트리밍 KPI 데이터가 없습니다.");
+        }
+        return toRealTimeResponse(snapshot.get()).withWarm(Map.of(
+            "1m", kpiStreamAggregator.isWarm(companyName, lineId, KPIStreamAggregator.Window.MINUTE_1),
+            "15m", kpiStreamAggregator.isWarm(companyName, lineId, KPIStreamAggregator.Window.MINUTE_15),
+            "1h", kpiStreamAggregator.isWarm(companyName, lineId, KPIStreamAggregator.Window.HOUR_1),
+            "shift", kpiStreamAggregator.isWarm(companyName, lineId, KPIStreamAggregator.Window.SHIFT),
+            "day", kpiStreamAggregator.isWarm(companyName, lineId, KPIStreamAggregator.Window.DAY)
+        ));
+    }
+    
+    // 시간별 KPI 트렌드 (롤업 테이블 기준)
+    public List<Map<String, Object>> getHourlyKPITrends(String companyName, LocalDate date) {
+        return rollupService.getHourlyKPITrends(companyName, date);
+    }
+    
+    // 스트리밍 스냅샷을 실시간 KPI 응답으로 변환 (최신 샘플 값 + 윈도우별 값)
+    private RealTimeKpiResponse toRealTimeResponse(KPIStreamAggregator.LineSnapshot snapshot) {
+        KPIStreamAggregator.WindowStats latest = snapshot.latest();
+        return new RealTimeKpiResponse(
+                latest != null ? latest.oee() : 0.0,
+                latest != null ? latest.fty() : 0.0,
+                latest != null ? latest.otd() : 0.0,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(snapshot.latestTimestampMillis()),
+                        ZoneId.systemDefault()).toString(),
+                snapshot.companyName(), snapshot.lineId(), snapshot.windowsByLabel(), null, null, null);
+    }
+    
+    // DB 최신 KPI 를 실시간 KPI 응답으로 변환 (스트리밍 집계값이 없을 때)
+    private RealTimeKpiResponse toRealTimeResponse(KPIData kpi, String companyName, Long lineId) {
+        return RealTimeKpiResponse.of(
+                kpi.getCalculatedOEE() != null ? kpi.getCalculatedOEE() * 100 : 0.0,
+                kpi.getCalculatedFTY() != null ? kpi.getCalculatedFTY() * 100 : 0.0,
+                kpi.getCalculatedOTD() != null ? kpi.getCalculatedOTD() * 100 : 0.0,
+                kpi.getTimestamp() != null ? kpi.getTimestamp().toString() : LocalDateTime.now().toString(),
+                companyName, lineId);
+    }
+    
     // 회사명으로 Company 엔티티 조회
     private Company getCompanyByName(String companyName) {
         Optional<Company> company = companyRepository.findByCompanyName(companyName);
@@ -196,41 +244,12 @@ public class KPICalculationService {
         }
     }
     
-    // KPI 임계값 체크 및 알림 전송
-    private void checkKPIThresholds(Company company, KPIData kpiData) {
+    // KPI 임계값 체크 및 알림 전송 (회사/라인 규칙 평가, 상태가 바뀐 경우에만 알림)
+    private void checkKPIThresholds(Company company, Long lineId, double availability, double performance,
+                                    double quality, double oee, double fty, double otd) {
         try {
-            double oee = kpiData.getCalculatedOEE() != null ? kpiData.getCalculatedOEE() : 0.0;
-            double fty = kpiData.getCalculatedFTY() != null ? kpiData.getCalculatedFTY() : 0.0;
-            double otd = kpiData.getCalculatedOTD() != null ? kpiData.getCalculatedOTD() : 0.0;
-            
-            // OEE 임계값 체크 (70% 미만)
-            if (oee < 0.70) {
-                alertService.sendThresholdAlert(company, "OEE_LOW", 
-                    String.format("OEE 성능 저하: %.1f%% (기준: 70%%)", oee * 100), 
-                    oee * 100);
-            }
-            
-            // FTY 임계값 체크 (85% 미만)
-            if (fty < 0.85) {
-                alertService.sendThresholdAlert(company, "FTY_LOW", 
-                    String.format("FTY 품질 저하: %.1f%% (기준: 85%%)", fty * 100), 
-                    fty * 100);
-            }
-            
-            // OTD 임계값 체크 (90% 미만)
-            if (otd < 0.90) {
-                alertService.sendThresholdAlert(company, "OTD_LOW", 
-                    String.format("OTD 납기 지연: %.1f%% (기준: 90%%)", otd * 100), 
-                    otd * 100);
-            }
-            
-            // 매우 높은 성능 알림 (OEE 95% 이상)
-            if (oee >= 0.95) {
-                alertService.sendThresholdAlert(company, "OEE_EXCELLENT", 
-                    String.format("우수 OEE 성능: %.1f%% - 축하합니다!", oee * 100), 
-                    oee * 100);
-            }
-            
+            thresholdRuleEngine.evaluateKpi(company, lineId, oee * 100, availability * 100, performance * 100,
+                    quality * 100, fty * 100, otd * 100);
         } catch (Exception e) {
             log.error("KPI 임계값 체크 중 오류 - 회사: {}, 오류: {}", company.getCompanyName(), e.getMessage());
         }
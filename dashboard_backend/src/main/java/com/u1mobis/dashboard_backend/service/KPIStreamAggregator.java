@@ -0,0 +1,577 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 회사/라인별 KPI 스트리밍 집계기
+ * - operations 메시지와 생산 완료 이벤트를 받아 메모리에서 윈도우별 누적값을 유지
+ * - 슬라이딩 윈도우(1분, 15분, 1시간)와 텀블링 윈도우(교대, 일)를 제공
+ * - 조회 시 DB를 거치지 않고 누적값으로 바로 OEE/FTY/OTD를 계산
+ */
+@Service
+@Slf4j
+public class KPIStreamAggregator {
+
+    // 집계 윈도우 종류
+    public enum Window {
+        MINUTE_1("1m"),
+        MINUTE_15("15m"),
+        HOUR_1("1h"),
+        SHIFT("shift"),
+        DAY("day");
+
+        private final String label;
+
+        Window(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    // 교대 시작 시각 (기본: 06시, 14시, 22시)
+    @Value("${kpi.stream.shift-start-hours:6,14,22}")
+    private int[] shiftStartHours = {6, 14, 22};
+
+    private final ZoneId zoneId = ZoneId.systemDefault();
+
+    // Key: "companyName_lineId"
+    private final Map<String, LineState> lineStates = new ConcurrentHashMap<>();
+
+    // ==================== 입력 ====================
+
+    /**
+     * operations 메시지 반영 (메시지 1건 = 보고 구간 1개로 보고 누적)
+     */
+    public void recordOperations(String companyName, Long lineId, int plannedTime, int downtime,
+                                 double targetCycleTime, int goodCount, int totalCount,
+                                 int firstTimePassCount, int onTimeDeliveryCount, long timestampMillis) {
+        KpiAccumulator sample = new KpiAccumulator();
+        sample.operationSamples = 1;
+        sample.plannedMinutes = plannedTime;
+        sample.downtimeMinutes = downtime;
+        sample.idealRunSeconds = targetCycleTime * totalCount;
+        sample.totalCount = totalCount;
+        sample.goodCount = goodCount;
+        sample.firstTimePassCount = firstTimePassCount;
+        sample.onTimeDeliveryCount = onTimeDeliveryCount;
+
+        LineState state = getOrCreateState(companyName, lineId);
+        synchronized (state) {
+            state.add(timestampMillis, sample);
+            state.latestSample = sample;
+            state.latestSampleMillis = timestampMillis;
+        }
+    }
+
+    /**
+     * 생산 완료 이벤트 반영
+     */
+    public void recordCompletion(String companyName, Long lineId, Double cycleTime, String quality,
+                                 boolean onTime, boolean firstTimePass, long timestampMillis) {
+        KpiAccumulator sample = new KpiAccumulator();
+        sample.completedCount = 1;
+        sample.completedGoodCount = "PASS".equals(quality) ? 1 : 0;
+        sample.completedOnTimeCount = onTime ? 1 : 0;
+        sample.completedFirstPassCount = firstTimePass ? 1 : 0;
+        if (cycleTime != null) {
+            sample.cycleSamples = 1;
+            sample.cycleTimeSum = cycleTime;
+            sample.cycleTimeSumSq = cycleTime * cycleTime;
+            sample.cycleTimeMin = cycleTime;
+            sample.cycleTimeMax = cycleTime;
+        }
+
+        LineState state = getOrCreateState(companyName, lineId);
+        synchronized (state) {
+            state.add(timestampMillis, sample);
+        }
+    }
+
+    /**
+     * 생산 완료 반영 (트랜잭션 커밋 후, 롤백된 완료는 집계하지 않음)
+     * 대시보드 캐시 무효화보다 먼저 실행되도록 가장 높은 우선순위로 둔다.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onProductionCompleted(ProductionCompletedEvent event) {
+        recordCompletion(event.companyName(), event.lineId(), event.cycleTime(), event.quality(),
+                event.onTime(), event.firstTimePass(), event.timestamp().atZone(zoneId).toInstant().toEpochMilli());
+    }
+
+    /**
+     * 재시작 직후 텀블링 윈도우의 생산 완료 카운터를 DB 값으로 채움
+     * (DB에는 시작 이후 이벤트도 이미 저장되어 있으므로 누적이 아니라 교체)
+     * 롤업에는 제곱합이 없으므로 이 윈도우의 사이클 타임 표준편차는 다음 윈도우까지 알 수 없음(null)으로 둔다.
+     */
+    public void seedCompletions(String companyName, Long lineId, Window window,
+                                long completedCount, long goodCount, Double avgCycleTime) {
+        if (window != Window.SHIFT && window != Window.DAY) {
+            throw new IllegalArgumentException("텀블링 윈도우만 초기화할 수 있습니다: " + window);
+        }
+        LineState state = getOrCreateState(companyName, lineId);
+        synchronized (state) {
+            TumblingWindow tumbling = state.tumbling(window);
+            tumbling.roll(System.currentTimeMillis());
+            KpiAccumulator acc = tumbling.accumulator;
+            acc.completedCount = completedCount;
+            acc.completedGoodCount = goodCount;
+            if (avgCycleTime != null && completedCount > 0) {
+                acc.cycleSamples = completedCount;
+                acc.cycleTimeSum = avgCycleTime * completedCount;
+                acc.cycleVarianceUnknown = true;
+            }
+            tumbling.seeded = true;
+        }
+    }
+
+    // ==================== 조회 ====================
+
+    /**
+     * 특정 윈도우 통계 (데이터가 없으면 empty)
+     */
+    public Optional<WindowStats> getWindow(String companyName, Long lineId, Window window) {
+        LineState state = lineStates.get(key(companyName, lineId));
+        if (state == null) {
+            return Optional.empty();
+        }
+        synchronized (state) {
+            return Optional.of(state.stats(window, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * 윈도우가 재시작 이후 온전히 채워졌는지 여부
+     * (슬라이딩: 윈도우 길이 이상 가동, 텀블링: 윈도우 시작 전부터 가동 또는 DB 초기화 완료)
+     */
+    public boolean isWarm(String companyName, Long lineId, Window window) {
+        LineState state = lineStates.get(key(companyName, lineId));
+        if (state == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (state) {
+            SlidingWindow sliding = state.sliding.get(window);
+            if (sliding != null) {
+                return now - state.createdAtMillis >= sliding.lengthMillis();
+            }
+            TumblingWindow tumbling = state.tumbling(window);
+            tumbling.roll(now);
+            return tumbling.seeded || state.createdAtMillis <= tumbling.startMillis;
+        }
+    }
+
+    /**
+     * 라인의 전체 윈도우 스냅샷
+     */
+    public Optional<LineSnapshot> getLineSnapshot(String companyName, Long lineId) {
+        LineState state = lineStates.get(key(companyName, lineId));
+        return state == null ? Optional.empty() : Optional.of(snapshot(state));
+    }
+
+    /**
+     * 회사 내에서 가장 최근에 operations 데이터가 들어온 라인의 스냅샷
+     */
+    public Optional<LineSnapshot> getLatestSnapshotByCompany(String companyName) {
+        LineState latest = null;
+        for (LineState state : lineStates.values()) {
+            if (companyName != null && !companyName.equals(state.companyName)) {
+                continue;
+            }
+            if (state.latestSample != null
+                    && (latest == null || state.latestSampleMillis > latest.latestSampleMillis)) {
+                latest = state;
+            }
+        }
+        return latest == null ? Optional.empty() : Optional.of(snapshot(latest));
+    }
+
+    private LineSnapshot snapshot(LineState state) {
+        long now = System.currentTimeMillis();
+        synchronized (state) {
+            Map<Window, WindowStats> windows = new EnumMap<>(Window.class);
+            for (Window window : Window.values()) {
+                windows.put(window, state.stats(window, now));
+            }
+            WindowStats latest = state.latestSample != null
+                    ? WindowStats.of("latest", state.latestSample, null) : null;
+            return new LineSnapshot(state.companyName, state.lineId, latest,
+                    state.latestSampleMillis, windows);
+        }
+    }
+
+    private LineState getOrCreateState(String companyName, Long lineId) {
+        return lineStates.computeIfAbsent(key(companyName, lineId),
+                k -> new LineState(companyName, lineId, System.currentTimeMillis()));
+    }
+
+    private String key(String companyName, Long lineId) {
+        return companyName + "_" + lineId;
+    }
+
+    // 교대 시작 시각 계산
+    private long shiftStart(long millis) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zoneId);
+        int[] hours = Arrays.stream(shiftStartHours).sorted().toArray();
+        LocalDateTime start = null;
+        for (int hour : hours) {
+            LocalDateTime candidate = time.toLocalDate().atTime(hour, 0);
+            if (!candidate.isAfter(time)) {
+                start = candidate;
+            }
+        }
+        if (start == null) {
+            // 첫 교대 이전이면 전날 마지막 교대
+            start = time.toLocalDate().minusDays(1).atTime(hours[hours.length - 1], 0);
+        }
+        return start.atZone(zoneId).toInstant().toEpochMilli();
+    }
+
+    private long shiftEnd(long startMillis) {
+        LocalDateTime start = LocalDateTime.ofInstant(Instant.ofEpochMilli(startMillis), zoneId);
+        int[] hours = Arrays.stream(shiftStartHours).sorted().toArray();
+        for (int hour : hours) {
+            if (hour > start.getHour()) {
+                return start.toLocalDate().atTime(hour, 0).atZone(zoneId).toInstant().toEpochMilli();
+            }
+        }
+        return start.toLocalDate().plusDays(1).atTime(hours[0], 0).atZone(zoneId).toInstant().toEpochMilli();
+    }
+
+    private long dayStart(long millis) {
+        LocalDate date = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zoneId).toLocalDate();
+        return date.atStartOfDay(zoneId).toInstant().toEpochMilli();
+    }
+
+    private long dayEnd(long startMillis) {
+        LocalDate date = LocalDateTime.ofInstant(Instant.ofEpochMilli(startMillis), zoneId).toLocalDate();
+        return date.plusDays(1).atStartOfDay(zoneId).toInstant().toEpochMilli();
+    }
+
+    // ==================== 내부 상태 ====================
+
+    // 라인별 윈도우 묶음
+    private final class LineState {
+        final String companyName;
+        final Long lineId;
+        final long createdAtMillis;
+        final Map<Window, SlidingWindow> sliding = new EnumMap<>(Window.class);
+        final TumblingWindow shift;
+        final TumblingWindow day;
+        KpiAccumulator latestSample;
+        long latestSampleMillis;
+
+        LineState(String companyName, Long lineId, long now) {
+            this.companyName = companyName;
+            this.lineId = lineId;
+            this.createdAtMillis = now;
+            sliding.put(Window.MINUTE_1, new SlidingWindow(5_000L, 12));
+            sliding.put(Window.MINUTE_15, new SlidingWindow(60_000L, 15));
+            sliding.put(Window.HOUR_1, new SlidingWindow(60_000L, 60));
+            shift = new TumblingWindow(true);
+            day = new TumblingWindow(false);
+        }
+
+        TumblingWindow tumbling(Window window) {
+            return window == Window.SHIFT ? shift : day;
+        }
+
+        void add(long timestampMillis, KpiAccumulator sample) {
+            for (SlidingWindow window : sliding.values()) {
+                window.add(timestampMillis, sample);
+            }
+            shift.add(timestampMillis, sample);
+            day.add(timestampMillis, sample);
+        }
+
+        WindowStats stats(Window window, long now) {
+            SlidingWindow slidingWindow = sliding.get(window);
+            if (slidingWindow != null) {
+                slidingWindow.advance(now);
+                return WindowStats.of(window.getLabel(), slidingWindow.total, slidingWindow.cycleTimeRange());
+            }
+            TumblingWindow tumbling = tumbling(window);
+            tumbling.roll(now);
+            return WindowStats.of(window.getLabel(), tumbling.accumulator, null);
+        }
+    }
+
+    // 고정 길이 버킷 링으로 구현한 슬라이딩 윈도우 (합계는 누적값으로 유지)
+    private static final class SlidingWindow {
+        private final long bucketMillis;
+        private final KpiAccumulator[] buckets;
+        private final long[] bucketIds;
+        private final KpiAccumulator total = new KpiAccumulator();
+        private long headId = -1;
+
+        SlidingWindow(long bucketMillis, int bucketCount) {
+            this.bucketMillis = bucketMillis;
+            this.buckets = new KpiAccumulator[bucketCount];
+            this.bucketIds = new long[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                buckets[i] = new KpiAccumulator();
+                bucketIds[i] = -1;
+            }
+        }
+
+        long lengthMillis() {
+            return bucketMillis * buckets.length;
+        }
+
+        // 현재 시각까지 만료된 버킷을 합계에서 제거
+        void advance(long now) {
+            long currentId = now / bucketMillis;
+            if (headId >= 0 && currentId <= headId) {
+                return;
+            }
+            if (headId < 0 || currentId - headId >= buckets.length) {
+                for (int i = 0; i < buckets.length; i++) {
+                    buckets[i].reset();
+                    bucketIds[i] = -1;
+                }
+                total.reset();
+            } else {
+                for (long id = headId + 1; id <= currentId; id++) {
+                    int slot = (int) (id % buckets.length);
+                    if (bucketIds[slot] >= 0) {
+                        total.subtract(buckets[slot]);
+                        buckets[slot].reset();
+                        bucketIds[slot] = -1;
+                    }
+                }
+            }
+            headId = currentId;
+        }
+
+        void add(long timestampMillis, KpiAccumulator sample) {
+            advance(timestampMillis);
+            long id = timestampMillis / bucketMillis;
+            if (id <= headId - buckets.length) {
+                return; // 윈도우 밖의 늦은 데이터
+            }
+            int slot = (int) (id % buckets.length);
+            bucketIds[slot] = id;
+            buckets[slot].add(sample);
+            total.add(sample);
+        }
+
+        // 최소/최대는 뺄셈이 불가능하므로 유효 버킷을 훑어서 계산 (버킷 수 상한 60)
+        double[] cycleTimeRange() {
+            double min = Double.NaN;
+            double max = Double.NaN;
+            for (int i = 0; i < buckets.length; i++) {
+                KpiAccumulator bucket = buckets[i];
+                if (bucketIds[i] < 0 || bucket.cycleSamples == 0) {
+                    continue;
+                }
+                min = Double.isNaN(min) ? bucket.cycleTimeMin : Math.min(min, bucket.cycleTimeMin);
+                max = Double.isNaN(max) ? bucket.cycleTimeMax : Math.max(max, bucket.cycleTimeMax);
+            }
+            return new double[] {min, max};
+        }
+    }
+
+    // 교대/일 단위 텀블링 윈도우
+    private final class TumblingWindow {
+        private final boolean shiftWindow;
+        private final KpiAccumulator accumulator = new KpiAccumulator();
+        private long startMillis = -1;
+        private long endMillis = -1;
+        private boolean seeded;
+
+        TumblingWindow(boolean shiftWindow) {
+            this.shiftWindow = shiftWindow;
+        }
+
+        void roll(long now) {
+            if (startMillis >= 0 && now < endMillis) {
+                return;
+            }
+            startMillis = shiftWindow ? shiftStart(now) : dayStart(now);
+            endMillis = shiftWindow ? shiftEnd(startMillis) : dayEnd(startMillis);
+            accumulator.reset();
+            seeded = false;
+        }
+
+        void add(long timestampMillis, KpiAccumulator sample) {
+            roll(Math.max(timestampMillis, startMillis));
+            if (timestampMillis < startMillis) {
+                return; // 이전 윈도우에 속하는 늦은 데이터
+            }
+            accumulator.add(sample);
+        }
+    }
+
+    // 윈도우 누적값 (모두 덧셈/뺄셈 가능한 값)
+    static final class KpiAccumulator {
+        long operationSamples;
+        double plannedMinutes;
+        double downtimeMinutes;
+        double idealRunSeconds;
+        long totalCount;
+        long goodCount;
+        long firstTimePassCount;
+        long onTimeDeliveryCount;
+
+        long completedCount;
+        long completedGoodCount;
+        long completedOnTimeCount;
+        long completedFirstPassCount;
+        long cycleSamples;
+        double cycleTimeSum;
+        double cycleTimeSumSq;
+        double cycleTimeMin = Double.NaN;
+        double cycleTimeMax = Double.NaN;
+        boolean cycleVarianceUnknown;   // 제곱합 없이 초기화된 누적값 포함 여부
+
+        void add(KpiAccumulator other) {
+            operationSamples += other.operationSamples;
+            plannedMinutes += other.plannedMinutes;
+            downtimeMinutes += other.downtimeMinutes;
+            idealRunSeconds += other.idealRunSeconds;
+            totalCount += other.totalCount;
+            goodCount += other.goodCount;
+            firstTimePassCount += other.firstTimePassCount;
+            onTimeDeliveryCount += other.onTimeDeliveryCount;
+            completedCount += other.completedCount;
+            completedGoodCount += other.completedGoodCount;
+            completedOnTimeCount += other.completedOnTimeCount;
+            completedFirstPassCount += other.completedFirstPassCount;
+            cycleSamples += other.cycleSamples;
+            cycleTimeSum += other.cycleTimeSum;
+            cycleTimeSumSq += other.cycleTimeSumSq;
+            cycleVarianceUnknown |= other.cycleVarianceUnknown;
+            if (other.cycleSamples > 0) {
+                cycleTimeMin = Double.isNaN(cycleTimeMin) ? other.cycleTimeMin : Math.min(cycleTimeMin, other.cycleTimeMin);
+                cycleTimeMax = Double.isNaN(cycleTimeMax) ? other.cycleTimeMax : Math.max(cycleTimeMax, other.cycleTimeMax);
+            }
+        }
+
+        void subtract(KpiAccumulator other) {
+            operationSamples -= other.operationSamples;
+            plannedMinutes -= other.plannedMinutes;
+            downtimeMinutes -= other.downtimeMinutes;
+            idealRunSeconds -= other.idealRunSeconds;
+            totalCount -= other.totalCount;
+            goodCount -= other.goodCount;
+            firstTimePassCount -= other.firstTimePassCount;
+            onTimeDeliveryCount -= other.onTimeDeliveryCount;
+            completedCount -= other.completedCount;
+            completedGoodCount -= other.completedGoodCount;
+            completedOnTimeCount -= other.completedOnTimeCount;
+            completedFirstPassCount -= other.completedFirstPassCount;
+            cycleSamples -= other.cycleSamples;
+            cycleTimeSum -= other.cycleTimeSum;
+            cycleTimeSumSq -= other.cycleTimeSumSq;
+            if (operationSamples == 0 && completedCount == 0 && cycleSamples == 0) {
+                reset(); // 부동소수 오차 누적 방지
+            }
+        }
+
+        void reset() {
+            operationSamples = 0;
+            plannedMinutes = 0;
+            downtimeMinutes = 0;
+            idealRunSeconds = 0;
+            totalCount = 0;
+            goodCount = 0;
+            firstTimePassCount = 0;
+            onTimeDeliveryCount = 0;
+            completedCount = 0;
+            completedGoodCount = 0;
+            completedOnTimeCount = 0;
+            completedFirstPassCount = 0;
+            cycleSamples = 0;
+            cycleTimeSum = 0;
+            cycleTimeSumSq = 0;
+            cycleTimeMin = Double.NaN;
+            cycleTimeMax = Double.NaN;
+            cycleVarianceUnknown = false;
+        }
+    }
+
+    // ==================== 조회 결과 ====================
+
+    /**
+     * 윈도우 통계 (비율 값은 % 단위, 기존 REST 응답과 동일)
+     */
+    public record WindowStats(
+            String window,
+            long samples,
+            double oee,
+            double availability,
+            double performance,
+            double quality,
+            double fty,
+            double otd,
+            @JsonProperty("total_count") long totalCount,
+            @JsonProperty("good_count") long goodCount,
+            @JsonProperty("completed_count") long completedCount,
+            @JsonProperty("completed_good_count") long completedGoodCount,
+            @JsonProperty("avg_cycle_time") double avgCycleTime,
+            @JsonProperty("min_cycle_time") @JsonInclude(JsonInclude.Include.ALWAYS) Double minCycleTime,
+            @JsonProperty("max_cycle_time") @JsonInclude(JsonInclude.Include.ALWAYS) Double maxCycleTime,
+            @JsonProperty("cycle_time_stddev") @JsonInclude(JsonInclude.Include.ALWAYS) Double cycleTimeStdDev) {
+
+        static WindowStats of(String window, KpiAccumulator acc, double[] cycleRange) {
+            double runMinutes = acc.plannedMinutes - acc.downtimeMinutes;
+            double availability = acc.plannedMinutes > 0 ? runMinutes / acc.plannedMinutes : 0.0;
+            double performance = runMinutes > 0 ? Math.min(acc.idealRunSeconds / (runMinutes * 60.0), 1.0) : 0.0;
+            double quality = acc.totalCount > 0 ? acc.goodCount / (double) acc.totalCount : 0.0;
+            double fty = acc.totalCount > 0 ? acc.firstTimePassCount / (double) acc.totalCount : 0.0;
+            double otd = acc.totalCount > 0 ? acc.onTimeDeliveryCount / (double) acc.totalCount : 0.0;
+
+            double avgCycle = acc.cycleSamples > 0 ? acc.cycleTimeSum / acc.cycleSamples : 0.0;
+            double variance = acc.cycleSamples > 0 ? acc.cycleTimeSumSq / acc.cycleSamples - avgCycle * avgCycle : 0.0;
+            double min = cycleRange != null ? cycleRange[0] : acc.cycleTimeMin;
+            double max = cycleRange != null ? cycleRange[1] : acc.cycleTimeMax;
+
+            return new WindowStats(window, acc.operationSamples,
+                    availability * performance * quality * 100, availability * 100, performance * 100,
+                    quality * 100, fty * 100, otd * 100,
+                    acc.totalCount, acc.goodCount, acc.completedCount, acc.completedGoodCount,
+                    avgCycle, Double.isNaN(min) ? null : min, Double.isNaN(max) ? null : max,
+                    acc.cycleVarianceUnknown ? null : Math.sqrt(Math.max(variance, 0.0)));
+        }
+    }
+
+    /**
+     * 라인 스냅샷 (최신 샘플 + 윈도우별 통계)
+     */
+    public record LineSnapshot(
+            String companyName,
+            Long lineId,
+            WindowStats latest,
+            long latestTimestampMillis,
+            Map<Window, WindowStats> windows) {
+
+        // 윈도우 라벨 → 통계 (응답 직렬화용)
+        public Map<String, WindowStats> windowsByLabel() {
+            Map<String, WindowStats> map = new LinkedHashMap<>();
+            windows.forEach((window, stats) -> map.put(window.getLabel(), stats));
+            return map;
+        }
+    }
+}
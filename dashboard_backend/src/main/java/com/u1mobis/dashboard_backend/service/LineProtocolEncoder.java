@@ -0,0 +1,342 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * InfluxDB line protocol 인코더 (재사용 바이트 버퍼에 바로 UTF-8 로 기록)
+ * - 태그 집합은 키 순서로 정렬·이스케이프한 바이트를 캐시해 같은 태그 조합은 복사만 한다
+ * - 필드 타입: 정수(Integer/Long/Short/Byte) → 123i, 실수 → 1.5, Boolean → true/false, 그 외 → "문자열"
+ * - null 필드, NaN/Infinity 는 건너뜀 (Influx 가 받지 않음), 값이 없는 태그도 건너뜀
+ * - 줄바꿈은 line protocol 에서 쓸 수 없으므로 공백으로 바꾼다
+ * 이스케이프: measurement 는 쉼표/공백, 태그 키·값/필드 키는 쉼표/등호/공백, 문자열 필드는 큰따옴표/역슬래시
+ */
+@Component
+public class LineProtocolEncoder {
+
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LONG_MIN = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private static final int MEASUREMENT = 0;
+    private static final int KEY = 1;
+    private static final int STRING_FIELD = 2;
+
+    private final int tagCacheSize;
+
+    // Key: 태그 맵 (불변 복사본), Value: ",k1=v1,k2=v2" 이스케이프 완료 바이트
+    private final Map<Map<String, String>, byte[]> tagSets = new ConcurrentHashMap<>();
+
+    // 스레드별 재사용 버퍼 (encodeToBytes/encodeToString 용)
+    private final ThreadLocal<LineBuffer> buffers = ThreadLocal.withInitial(() -> new LineBuffer(256));
+
+    public LineProtocolEncoder(@Value("${influxdb.encoder.tag-cache-size:10000}") int tagCacheSize) {
+        this.tagCacheSize = tagCacheSize;
+    }
+
+    /**
+     * 한 줄 기록 (줄바꿈 없이), 기록할 필드가 하나도 없으면 버퍼를 되돌리고 false
+     */
+    public boolean encode(LineBuffer out, String measurement, Map<String, String> tags,
+                          Map<String, ?> fields, Instant timestamp) {
+        int start = out.size;
+        writeEscaped(out, measurement, MEASUREMENT);
+        if (tags != null && !tags.isEmpty()) {
+            out.write(tagSet(tags));
+        }
+
+        boolean first = true;
+        if (fields != null) {
+            for (Map.Entry<String, ?> field : fields.entrySet()) {
+                Object value = field.getValue();
+                if (!isWritable(value)) {
+                    continue;
+                }
+                out.write(first ? (byte) ' ' : (byte) ',');
+                first = false;
+                writeEscaped(out, field.getKey(), KEY);
+                out.write((byte) '=');
+                writeFieldValue(out, value);
+            }
+        }
+        if (first) {
+            out.size = start;
+            return false;
+        }
+
+        if (timestamp != null) {
+            out.write((byte) ' ');
+            writeLong(out, timestamp.getEpochSecond() * 1_000_000_000L + timestamp.getNano());
+        }
+        return true;
+    }
+
+    /**
+     * 한 줄을 정확한 크기의 바이트 배열로 (기록할 필드가 없으면 null)
+     */
+    public byte[] encodeToBytes(String measurement, Map<String, String> tags, Map<String, ?> fields,
+                                Instant timestamp) {
+        LineBuffer buffer = buffers.get();
+        buffer.reset();
+        return encode(buffer, measurement, tags, fields, timestamp) ? buffer.toByteArray() : null;
+    }
+
+    public String encodeToString(String measurement, Map<String, String> tags, Map<String, ?> fields,
+                                 Instant timestamp) {
+        LineBuffer buffer = buffers.get();
+        buffer.reset();
+        return encode(buffer, measurement, tags, fields, timestamp)
+                ? new String(buffer.array(), 0, buffer.size(), StandardCharsets.UTF_8)
+                : "";
+    }
+
+    public int getTagCacheEntries() {
+        return tagSets.size();
+    }
+
+    // 정렬·이스케이프된 태그 집합 (캐시가 가득 차면 비우고 다시 채움)
+    private byte[] tagSet(Map<String, String> tags) {
+        byte[] cached = tagSets.get(tags);
+        if (cached != null) {
+            return cached;
+        }
+        LineBuffer buffer = new LineBuffer(64);
+        // Map.copyOf 는 null 을 받지 않으므로 null 키/값이 있으면 캐시하지 않음
+        boolean cacheable = true;
+        List<String> keys = new ArrayList<>(tags.size());
+        for (String key : tags.keySet()) {
+            if (key == null) {
+                cacheable = false;
+            } else if (!key.isEmpty()) {
+                keys.add(key);
+            }
+        }
+        Collections.sort(keys);
+        for (String key : keys) {
+            String value = tags.get(key);
+            if (value == null) {
+                cacheable = false;
+                continue;
+            }
+            if (value.isEmpty()) {
+                continue;
+            }
+            buffer.write((byte) ',');
+            writeEscaped(buffer, key, KEY);
+            buffer.write((byte) '=');
+            writeEscaped(buffer, value, KEY);
+        }
+        byte[] encoded = buffer.toByteArray();
+        if (!cacheable) {
+            return encoded;
+        }
+        if (tagSets.size() >= tagCacheSize) {
+            tagSets.clear();
+        }
+        tagSets.put(Map.copyOf(tags), encoded);
+        return encoded;
+    }
+
+    private static boolean isWritable(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Double d) {
+            return Double.isFinite(d);
+        }
+        if (value instanceof Float f) {
+            return Float.isFinite(f);
+        }
+        return true;
+    }
+
+    private static void writeFieldValue(LineBuffer out, Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            writeLong(out, ((Number) value).longValue());
+            out.write((byte) 'i');
+        } else if (value instanceof Double d) {
+            writeDouble(out, d);
+        } else if (value instanceof Float f) {
+            if (isSmallIntegral(f)) {
+                writeDouble(out, f);
+            } else {
+                writeAscii(out, out.text().append(f.floatValue()));
+            }
+        } else if (value instanceof Boolean b) {
+            out.write(b ? TRUE : FALSE);
+        } else if (value instanceof BigDecimal decimal) {
+            writeAscii(out, decimal.toPlainString());
+        } else if (value instanceof Number number) {
+            writeDouble(out, number.doubleValue());
+        } else {
+            out.write((byte) '"');
+            writeEscaped(out, value.toString(), STRING_FIELD);
+            out.write((byte) '"');
+        }
+    }
+
+    // 정수 값 실수는 바로 "12.0", 나머지는 재사용 StringBuilder 로 Double.toString 과 같은 표기 (String 할당 없음)
+    private static void writeDouble(LineBuffer out, double value) {
+        if (isSmallIntegral(value)) {
+            writeLong(out, (long) value);
+            out.write((byte) '.');
+            out.write((byte) '0');
+        } else {
+            writeAscii(out, out.text().append(value));
+        }
+    }
+
+    // Double.toString 이 지수 표기 없이 "N.0" 으로 쓰는 범위 (-0.0 제외)
+    private static boolean isSmallIntegral(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e7 && !(value == 0 && 1 / value < 0);
+    }
+
+    private static void writeLong(LineBuffer out, long value) {
+        if (value == Long.MIN_VALUE) {
+            out.write(LONG_MIN);
+            return;
+        }
+        if (value < 0) {
+            out.write((byte) '-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        out.ensure(digits);
+        int end = out.size + digits;
+        for (int i = end - 1; i >= out.size; i--) {
+            out.bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        out.size = end;
+    }
+
+    private static void writeAscii(LineBuffer out, CharSequence value) {
+        out.ensure(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            out.bytes[out.size++] = (byte) value.charAt(i);
+        }
+    }
+
+    // 문자열을 이스케이프하며 UTF-8 로 기록
+    private static void writeEscaped(LineBuffer out, String value, int kind) {
+        if (value == null) {
+            return;
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == '\n' || c == '\r') {
+                    if (kind == STRING_FIELD) {
+                        out.write((byte) ' ');
+                    } else {
+                        out.write((byte) '\\');
+                        out.write((byte) ' ');
+                    }
+                    continue;
+                }
+                boolean escape = switch (kind) {
+                    case MEASUREMENT -> c == ',' || c == ' ';
+                    case KEY -> c == ',' || c == '=' || c == ' ';
+                    default -> c == '"' || c == '\\';
+                };
+                if (escape) {
+                    out.write((byte) '\\');
+                }
+                out.write((byte) c);
+            } else if (c < 0x800) {
+                out.ensure(2);
+                out.bytes[out.size++] = (byte) (0xC0 | (c >> 6));
+                out.bytes[out.size++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.ensure(4);
+                out.bytes[out.size++] = (byte) (0xF0 | (codePoint >> 18));
+                out.bytes[out.size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                out.bytes[out.size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                out.bytes[out.size++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out.write((byte) '?'); // 짝이 없는 서로게이트 (String.getBytes 와 동일)
+            } else {
+                out.ensure(3);
+                out.bytes[out.size++] = (byte) (0xE0 | (c >> 12));
+                out.bytes[out.size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out.bytes[out.size++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * 커지기만 하는 재사용 바이트 버퍼 (한 스레드에서만 사용)
+     */
+    public static final class LineBuffer {
+
+        private byte[] bytes;
+        private int size;
+        private StringBuilder text;
+
+        public LineBuffer(int initialCapacity) {
+            this.bytes = new byte[Math.max(initialCapacity, 16)];
+        }
+
+        public void reset() {
+            size = 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // 내부 배열 (0 ~ size 까지만 유효)
+        public byte[] array() {
+            return bytes;
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        public void write(byte b) {
+            ensure(1);
+            bytes[size++] = b;
+        }
+
+        public void write(byte[] src) {
+            write(src, 0, src.length);
+        }
+
+        public void write(byte[] src, int offset, int length) {
+            ensure(length);
+            System.arraycopy(src, offset, bytes, size, length);
+            size += length;
+        }
+
+        // 숫자 표기용 임시 StringBuilder (비워서 반환)
+        private StringBuilder text() {
+            if (text == null) {
+                text = new StringBuilder(32);
+            }
+            text.setLength(0);
+            return text;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 스트리밍 LTTB (Largest-Triangle-Three-Buckets) 다운샘플러
+ * - [from, to) 를 시간 기준 (목표 점 수 - 2) 개 버킷으로 나누고, 버킷마다 직전 선택점과 다음 버킷 평균으로 만든
+ *   삼각형 넓이가 가장 큰 점 하나를 선택 (첫 점과 마지막 점은 항상 포함)
+ * - 점은 시간순으로 add, 현재/다음 버킷의 점만 들고 있으므로 메모리는 원본 길이가 아니라 버킷 하나의 밀도에 비례
+ * 원본 점이 목표보다 적으면 모든 점이 그대로 남는다.
+ */
+final class LttbSampler {
+
+    private final long from;
+    private final double bucketWidth;
+    private final int buckets;
+
+    private final List<Point> selected = new ArrayList<>();
+    private Point anchor;    // 마지막으로 선택한 점
+    private Point tail;      // 마지막 점 후보 (다음 점이 오면 버킷에 넣음)
+
+    private List<Point> current;
+    private int currentIndex;
+    private List<Point> next;
+    private int nextIndex;
+
+    private long received;
+
+    LttbSampler(long from, long to, int targetPoints) {
+        this.from = from;
+        this.buckets = Math.max(1, targetPoints - 2);
+        this.bucketWidth = Math.max(1.0, (double) (to - from) / buckets);
+    }
+
+    /**
+     * 값 하나 추가 (null/NaN 은 무시)
+     */
+    void add(long time, Number value) {
+        if (value == null || !Double.isFinite(value.doubleValue())) {
+            return;
+        }
+        received++;
+        Point point = new Point(time, value.doubleValue());
+        if (anchor == null) {
+            anchor = point;
+            selected.add(point);
+            return;
+        }
+        if (tail != null) {
+            place(tail);
+        }
+        tail = point;
+    }
+
+    /**
+     * 남은 버킷을 정리하고 선택된 점 반환 (한 번만 호출)
+     */
+    List<Point> finish() {
+        if (tail != null) {
+            if (current != null && next != null) {
+                select(current, average(next));
+                select(next, tail);
+            } else if (current != null) {
+                select(current, tail);
+            }
+            selected.add(tail);
+            tail = null;
+        }
+        current = null;
+        next = null;
+        return selected;
+    }
+
+    long getReceived() {
+        return received;
+    }
+
+    // 첫 점과 마지막 점 사이의 점을 버킷에 배치, 다음다음 버킷이 시작되면 현재 버킷을 확정
+    private void place(Point point) {
+        int index = bucketOf(point.time());
+        if (current == null) {
+            current = new ArrayList<>();
+            current.add(point);
+            currentIndex = index;
+        } else if (next == null && index == currentIndex) {
+            current.add(point);
+        } else if (next == null) {
+            next = new ArrayList<>();
+            next.add(point);
+            nextIndex = index;
+        } else if (index == nextIndex) {
+            next.add(point);
+        } else {
+            select(current, average(next));
+            current = next;
+            currentIndex = nextIndex;
+            next = new ArrayList<>();
+            next.add(point);
+            nextIndex = index;
+        }
+    }
+
+    // 직전 선택점 a, 다음 버킷 대표점 c 와 이루는 삼각형이 가장 큰 점 선택
+    private void select(List<Point> bucket, Point c) {
+        Point a = anchor;
+        Point best = bucket.get(0);
+        double bestArea = -1;
+        for (Point b : bucket) {
+            double area = Math.abs((a.time() - c.time()) * (b.value() - a.value())
+                    - (a.time() - b.time()) * (c.value() - a.value()));
+            if (area > bestArea) {
+                bestArea = area;
+                best = b;
+            }
+        }
+        selected.add(best);
+        anchor = best;
+    }
+
+    private static Point average(List<Point> bucket) {
+        double time = 0;
+        double value = 0;
+        for (Point point : bucket) {
+            time += point.time();
+            value += point.value();
+        }
+        return new Point(Math.round(time / bucket.size()), value / bucket.size());
+    }
+
+    private int bucketOf(long time) {
+        double index = (time - from) / bucketWidth;
+        return (int) Math.max(0, Math.min(buckets - 1, index));
+    }
+
+    record Point(long time, double value) {
+    }
+}
@@ -42,6 +42,7 @@ public class ManufacturingSimulatorService {
     private final ProductionLineRepository productionLineRepository;
     private final CompanyRepository companyRepository;
     private final CurrentProductionRepository currentProductionRepository;
+    private final TwinStateProjection twinStateProjection;
     
     // 회사별 + 라인별 시뮬레이션 상태 관리
     // Key: "companyId_lineId"
@@ -93,6 +94,7 @@ public class ManufacturingSimulatorService {
         public int productionCount = 0;
         public LocalDateTime startTime;
         public String companyCode;  // MQTT 토픽용 회사 코드
+        public String companyName;  // 트윈 상태 갱신용 회사명
 
         public String[] availableColors = {"RED", "BLUE", "WHITE", "BLACK", "SILVER"};
         public String[] availableDoorColors = {"BLACK", "WHITE", "BROWN", "GRAY"};
@@ -165,6 +167,7 @@ public class ManufacturingSimulatorService {
         state.isRunning = true;
         state.startTime = LocalDateTime.now();
         state.companyCode = getCompanyCodeById(companyId);  // 회사 코드 설정
+        state.companyName = getCompanyName(companyId);
         activeSimulations.put(simulationKey, state);
         
         log.info("시뮬레이션 상태 생성 완료 - 회사 코드: {}, activeSimulations 크기: {}", 
@@ -172,7 +175,7 @@ public class ManufacturingSimulatorService {
         
         try {
             // 초기 데이터 설정
-            initializeLineData(companyId, lineId);
+            initializeLineData(companyId, lineId, state.companyName);
             log.info("초기 데이터 설정 완료 - 회사: {}, 라인: {}", companyId, lineId);
             
             // 주기적 시뮬레이션 작업들 스케줄링
@@ -191,16 +194,16 @@ public class ManufacturingSimulatorService {
     /**
      * 라인 초기 데이터 설정
      */
-    private void initializeLineData(Long companyId, Long lineId) {
+    private void initializeLineData(Long companyId, Long lineId, String companyName) {
         try {
             // 1. 스테이션 상태 초기화
-            initializeStationStatus(lineId);
+            initializeStationStatus(companyName, lineId);
             
             // 2. 로봇 위치 초기화
-            initializeRobotPositions(lineId);
+            initializeRobotPositions(companyName, lineId);
             
             // 3. 컨베이어 제어 초기화
-            initializeConveyorControl(lineId);
+            initializeConveyorControl(companyName, lineId);
             
             // 4. 생산 계획 초기화
             initializeProductionPlan(lineId);
@@ -216,7 +219,7 @@ public class ManufacturingSimulatorService {
     /**
      * 스테이션 상태 초기화
      */
-    private void initializeStationStatus(Long lineId) {
+    private void initializeStationStatus(String companyName, Long lineId) {
         // DoorStation 초기화
         StationStatus doorStation = StationStatus.builder()
             .stationId("DoorStation_L" + lineId)
@@ -229,7 +232,7 @@ public class ManufacturingSimulatorService {
             .equipmentStatus("NORMAL")
             .cycleTime(120)
             .build();
-        stationStatusRepository.save(doorStation);
+        twinStateProjection.upsertStation(companyName, stationStatusRepository.save(doorStation));
         
         // WaterLeakTestStation 초기화
         StationStatus waterLeakStation = StationStatus.builder()
@@ -243,13 +246,13 @@ public class ManufacturingSimulatorService {
             .equipmentStatus("NORMAL")
             .cycleTime(180)
             .build();
-        stationStatusRepository.save(waterLeakStation);
+        twinStateProjection.upsertStation(companyName, stationStatusRepository.save(waterLeakStation));
     }
     
     /**
      * 로봇 위치 초기화
      */
-    private void initializeRobotPositions(Long lineId) {
+    private void initializeRobotPositions(String companyName, Long lineId) {
         Random random = new Random();
         
         // 라인별 로봇 2개씩 배치 (문 조립용, 누수 테스트용)
@@ -268,7 +271,7 @@ public class ManufacturingSimulatorService {
             .isActive(true)
             .lastActionTime(LocalDateTime.now())
             .build();
-        robotPositionRepository.save(doorRobot);
+        twinStateProjection.updateRobotPosition(companyName, robotPositionRepository.save(doorRobot));
         
         // WaterLeak 테스트 로봇
         RobotPosition waterLeakRobot = RobotPosition.builder()
@@ -283,13 +286,13 @@ public class ManufacturingSimulatorService {
             .isActive(true)
             .lastActionTime(LocalDateTime.now())
             .build();
-        robotPositionRepository.save(waterLeakRobot);
+        twinStateProjection.updateRobotPosition(companyName, robotPositionRepository.save(waterLeakRobot));
     }
     
     /**
      * 컨베이어 제어 초기화
      */
-    private void initializeConveyorControl(Long lineId) {
+    private void initializeConveyorControl(String companyName, Long lineId) {
         Random random = new Random();
         
         ConveyorControl conveyor = ConveyorControl.builder()
@@ -306,7 +309,7 @@ public class ManufacturingSimulatorService {
             .totalRuntime(0L)
             .lastCommandTime(LocalDateTime.now())
             .build();
-        conveyorControlRepository.save(conveyor);
+        twinStateProjection.upsertConveyor(companyName, conveyorControlRepository.save(conveyor));
     }
     
     /**
@@ -377,7 +380,7 @@ public class ManufacturingSimulatorService {
             state.products.put(productId, productState);
             
             // CurrentProduction 생성 (기존 서비스 활용)
-            String companyName = getCompanyName(companyId);
+            String companyName = state.companyName != null ? state.companyName : getCompanyName(companyId);
             if (companyName != null) {
                 CurrentProduction production = CurrentProduction.builder()
                     .productId(productId)
@@ -404,6 +407,7 @@ public class ManufacturingSimulatorService {
                     .lineId(lineId)
                     .build();
                 productDetailRepository.save(detail);
+                twinStateProjection.upsertProduct(companyName, production, detail);
                 
                 // MQTT로 생산 시작 발송
                 if (state.companyCode != null) {
@@ -451,7 +455,7 @@ public class ManufacturingSimulatorService {
      */
     private void updateEnvironmentData(SimulationState state) {
         try {
-            String companyName = getCompanyName(state.companyId);
+            String companyName = state.companyName;
             if (companyName != null && state.companyCode != null) {
                 double temperature = 20.0 + state.random.nextDouble() * 10;  // 20-30도
                 double humidity = 40.0 + state.random.nextDouble() * 20;     // 40-60%
@@ -589,6 +593,8 @@ public class ManufacturingSimulatorService {
             double lineOffset = product.lineId * 200;
             product.positionX = 200.0;
             product.positionY = lineOffset + 50.0;
+            twinStateProjection.moveProduct(state.companyName, product.productId, "ROBOT_AREA",
+                product.positionX, product.positionY);
             
             // MQTT로 도착 알림
             if (state.companyCode != null) {
@@ -671,6 +677,7 @@ public class ManufacturingSimulatorService {
                 product.status = ProductionStatus.ROBOT_COMPLETED;
                 product.stateStartTime = LocalDateTime.now();
                 product.workProgress = 75; // 75% 완료
+                twinStateProjection.updateProductProgress(state.companyName, product.productId, product.workProgress);
                 
                 // 완료된 로봇 ID 배열 생성
                 String[] completedRobots = product.robotWorkCompleted.keySet().toArray(new String[0]);
@@ -702,6 +709,8 @@ public class ManufacturingSimulatorService {
             double lineOffset = product.lineId * 200;
             product.positionX = 400.0;
             product.positionY = lineOffset + 50.0;
+            twinStateProjection.moveProduct(state.companyName, product.productId, "INSPECTION_AREA",
+                product.positionX, product.positionY);
             
             // MQTT로 도착 알림
             if (state.companyCode != null) {
@@ -766,7 +775,7 @@ public class ManufacturingSimulatorService {
             }
             
             // 기존 서비스를 통한 생산 완료 처리
-            String companyName = getCompanyName(state.companyId);
+            String companyName = state.companyName;
             if (companyName != null) {
                 double cycleTime = java.time.Duration.between(
                     LocalDateTime.now().minusSeconds(30), LocalDateTime.now()).getSeconds();
@@ -806,7 +815,7 @@ public class ManufacturingSimulatorService {
                     robot.setPosition(newX, newY, robot.getPositionZ());
                 }
                 
-                robotPositionRepository.save(robot);
+                twinStateProjection.updateRobotPosition(state.companyName, robotPositionRepository.save(robot));
             }
             
         } catch (Exception e) {
@@ -831,7 +840,7 @@ public class ManufacturingSimulatorService {
                 // 센서 상태 랜덤 변경
                 conveyor.updateSensorStatus(state.random.nextDouble() < 0.4);  // 40% 확률로 감지
                 
-                conveyorControlRepository.save(conveyor);
+                twinStateProjection.upsertConveyor(state.companyName, conveyorControlRepository.save(conveyor));
             }
             
         } catch (Exception e) {
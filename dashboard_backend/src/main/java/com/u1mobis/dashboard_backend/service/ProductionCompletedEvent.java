@@ -0,0 +1,15 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * 생산 완료 이벤트 (completeProduction 커밋 후 스트리밍 집계/롤업에 반영)
+ * @param companyName 회사명
+ * @param lineId      라인 ID
+ * @param timestamp   완료 시각
+ * @param cycleTime   사이클 타임 (초, 없으면 null)
+ * @param quality     품질 결과 (PASS/FAIL)
+ */
+public record ProductionCompletedEvent(String companyName, Long lineId, LocalDateTime timestamp, Double cycleTime,
+                                       String quality, boolean onTime, boolean firstTimePass) {
+}
@@ -5,13 +5,18 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.u1mobis.dashboard_backend.dto.ProcessingProduct;
 import com.u1mobis.dashboard_backend.entity.CurrentProduction;
 import com.u1mobis.dashboard_backend.entity.ProductionCompleted;
 import com.u1mobis.dashboard_backend.entity.QualityRecord;
+import com.u1mobis.dashboard_backend.entity.RollupGranularity;
 import com.u1mobis.dashboard_backend.repository.CurrentProductionRepository;
+import com.u1mobis.dashboard_backend.repository.CurrentProductionRepository.LineProductionSummary;
 import com.u1mobis.dashboard_backend.repository.ProductionCompletedRepository;
 import com.u1mobis.dashboard_backend.repository.QualityRecordRepository;
 
@@ -27,6 +32,10 @@ public class ProductionService {
     private final CurrentProductionRepository currentProductionRepository;
     private final ProductionCompletedRepository productionCompletedRepository;
     private final QualityRecordRepository qualityRecordRepository;
+    private final KPIStreamAggregator kpiStreamAggregator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RequestCoalescer requestCoalescer;
+    private final TwinStateProjection twinStateProjection;
     
     // 새 제품 생산 시작
     public CurrentProduction startProduction(String productId, LocalDateTime dueDate) {
@@ -59,6 +68,8 @@ public class ProductionService {
         // 2. 불량 시 재작업 처리
         if ("FAIL".equals(result)) {
             currentProductionRepository.incrementReworkCount(productId);
+            currentProductionRepository.findReworkCountByProductId(productId)
+                    .ifPresent(reworkCount -> twinStateProjection.updateRework(productId, reworkCount));
             log.info("재작업 카운트 증가: 제품 ID = {}, 로봇 ID = {}, 불량사유 = {}", 
                     productId, robotId, defectReason);
         }
@@ -80,6 +91,8 @@ public class ProductionService {
             .build();
             
         CurrentProduction saved = currentProductionRepository.save(production);
+        twinStateProjection.upsertProduct(companyName, saved, null);
+        eventPublisher.publishEvent(new DashboardUpdateEvent(companyName, lineId, DashboardUpdateEvent.Section.PRODUCTION));
         log.info("생산 시작 저장 완료 - 제품: {}", productId);
         return saved;
     }
@@ -105,6 +118,7 @@ public class ProductionService {
             .dueDate(dueDate)
             .isOnTime(isOnTime)
             .isFirstTimePass(isFirstTimePass)
+            .lineId(lineId)
             .build();
             
         productionCompletedRepository.save(completed);
@@ -112,6 +126,12 @@ public class ProductionService {
         // 3. 현재 생산 상태 업데이트
         current.setStatus("COMPLETED");
         currentProductionRepository.save(current);
+        twinStateProjection.removeProduct(companyName, productId);
+        
+        // 스트리밍 집계(일/교대/시간 윈도우)와 롤업은 커밋 후 반영 (대시보드 갱신 이벤트보다 먼저 발행)
+        eventPublisher.publishEvent(new ProductionCompletedEvent(companyName, lineId, completed.getTimestamp(),
+                cycleTime, quality, isOnTime, isFirstTimePass));
+        eventPublisher.publishEvent(new DashboardUpdateEvent(companyName, lineId, DashboardUpdateEvent.Section.PRODUCTION));
         
         log.info("생산 완료: 제품 ID = {}, 품질 = {}, 정시납기 = {}, 일발통과 = {}", 
                 productId, quality, isOnTime, isFirstTimePass);
@@ -120,39 +140,72 @@ public class ProductionService {
     }
     
     // 현재 생산 현황 조회 (멀티테넌트 지원)
+    // 합쳐진 조회를 기다리는 요청이 DB 커넥션을 잡고 있지 않도록 트랜잭션 없이 실행 (조회마다 개별 커넥션)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> getCurrentProductionStatus(String companyName, Long lineId) {
-        List<CurrentProduction> processing = currentProductionRepository.findByStatusAndLineId("PROCESSING", lineId);
-        Long todayCompleted = productionCompletedRepository.countTodayCompletedProductsByLineId(lineId);
-        Long todayGood = productionCompletedRepository.countTodayGoodProductsByLineId(lineId);
-        
-        // 생산 목표 계산 (오늘 시작된 생산들의 목표량 합계)
-        Integer productionTarget = currentProductionRepository.getTodayProductionTargetByLineId(lineId);
+        // 동시에 들어온 같은 회사/라인 조회는 한 번만 계산
+        return requestCoalescer.load(RequestCoalescer.key(DashboardUpdateEvent.Section.PRODUCTION, companyName, lineId),
+                () -> loadCurrentProductionStatus(companyName, lineId));
+    }
+    
+    private Map<String, Object> loadCurrentProductionStatus(String companyName, Long lineId) {
+        // 수치는 집계 쿼리 1회, 생산 중 제품은 프로젝션 1회로 조회
+        LineProductionSummary summary = getLineProductionSummary(lineId);
+        List<ProcessingProduct> processing = currentProductionRepository.findProcessingProductsByLineId(lineId);
         
-        // 시간당 생산율 계산
-        Double hourlyRate = calculateHourlyProductionRate(lineId);
+        long todayCompleted;
+        long todayGood;
+        Double avgCycleTime;
+        double hourlyRate;
         
-        // 평균 사이클 타임 계산
-        Double avgCycleTime = productionCompletedRepository.getAverageCycleTimeTodayByLineId(lineId);
+        if (companyName != null) {
+            // 오늘 누적값은 스트리밍 집계의 일 윈도우 사용 (재시작 후 최초 1회만 롤업 값으로 초기화)
+            if (!kpiStreamAggregator.isWarm(companyName, lineId, KPIStreamAggregator.Window.DAY)) {
+                kpiStreamAggregator.seedCompletions(companyName, lineId, KPIStreamAggregator.Window.DAY,
+                        summary.getTodayCompleted(), summary.getTodayGood(), summary.getAverageCycleTime());
+            }
+            KPIStreamAggregator.WindowStats day = kpiStreamAggregator
+                    .getWindow(companyName, lineId, KPIStreamAggregator.Window.DAY).orElseThrow();
+            todayCompleted = day.completedCount();
+            todayGood = day.completedGoodCount();
+            avgCycleTime = day.avgCycleTime();
+            
+            // 최근 1시간 생산량은 1시간 윈도우가 채워진 뒤부터 메모리 값 사용
+            hourlyRate = kpiStreamAggregator.isWarm(companyName, lineId, KPIStreamAggregator.Window.HOUR_1)
+                    ? (double) kpiStreamAggregator.getWindow(companyName, lineId, KPIStreamAggregator.Window.HOUR_1)
+                            .orElseThrow().completedCount()
+                    : summary.getLastHourCompleted();
+        } else {
+            // 오늘 누적값은 롤업 테이블의 DAY 버킷, 최근 1시간은 MINUTE 버킷 합계 (원본 테이블 스캔 없음)
+            todayCompleted = summary.getTodayCompleted();
+            todayGood = summary.getTodayGood();
+            avgCycleTime = summary.getAverageCycleTime();
+            hourlyRate = summary.getLastHourCompleted();
+        }
         
         return Map.of(
-            "processing_count", processing.size(),
+            "processing_count", summary.getProcessingCount(),
             "today_completed", todayCompleted,
             "today_good", todayGood,
-            "production_target", productionTarget != null ? productionTarget : 0,
-            "hourly_rate", hourlyRate != null ? hourlyRate : 0.0,
+            "production_target", summary.getProductionTarget().intValue(),
+            "hourly_rate", hourlyRate,
             "cycle_time", avgCycleTime != null ? avgCycleTime : 0.0,
             "processing_products", processing
         );
     }
     
-    // 시간당 생산율 계산
-    private Double calculateHourlyProductionRate(Long lineId) {
-        LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
-        Long completedInLastHour = productionCompletedRepository.countCompletedInLastHourByLineId(oneHourAgo, lineId);
-        return completedInLastHour != null ? completedInLastHour.doubleValue() : 0.0;
+    // 생산 현황 수치 조회 (오늘 = 자정부터, 최근 1시간 = 현재 분 포함 MINUTE 버킷 60개)
+    private LineProductionSummary getLineProductionSummary(Long lineId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime dayStart = now.toLocalDate().atStartOfDay();
+        return currentProductionRepository.getLineProductionSummary(lineId,
+                lineId != null ? lineId : RollupService.FACTORY_WIDE_LINE_ID,
+                dayStart, dayStart.plusDays(1),
+                RollupGranularity.MINUTE.bucketStart(now).minusMinutes(59), now.plusMinutes(1));
     }
     
     // 기존 메서드 유지 (하위 호환성)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> getCurrentProductionStatus() {
         return getCurrentProductionStatus(null, 1L); // 기본값
     }
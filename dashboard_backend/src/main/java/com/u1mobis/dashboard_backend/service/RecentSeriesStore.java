@@ -0,0 +1,680 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.u1mobis.dashboard_backend.dto.SensorReading;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * 최근 구간 센서 시계열 로컬 저장소 (InfluxDB 장애 대비)
+ * - 스테이션·필드별 숫자 값을 Gorilla 방식(시각 delta-of-delta, 값 XOR)으로 압축해 블록에 기록
+ * - 블록은 기동 시 한 번 잡는 off-heap 영역(local-store.max-bytes)을 고정 크기로 나눠 쓰고,
+ *   보관 시간이 지난 블록과 영역이 가득 찼을 때 가장 오래된 블록부터 반납
+ * - InfluxDB 조회가 실패하거나 전송이 밀려 있으면 이 저장소의 원본 행으로 응답
+ * - 디스크 보관 한도를 넘어 버려진 구간은 InfluxDB 전송이 정상으로 돌아오면 해당 스테이션만 여기서 다시 기록
+ * - 스테이션/필드 이름은 수집기가 정하므로 개수 한도를 두고, 넘치면 가장 오래 기록이 없던 것을 비움
+ * 문자열 필드는 저장하지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecentSeriesStore {
+
+    // 포인트 한 개의 최대 인코딩 길이 (시각 4+64 bit, 값 2+5+6+64 bit) 여유 포함
+    private static final int MAX_POINT_BITS = 160;
+    private static final int MIN_BLOCK_BYTES = 64;
+
+    private final InfluxBatchWriter influxBatchWriter;
+    private final InfluxRangeCache influxRangeCache;
+
+    @Value("${local-store.enabled:true}")
+    private boolean enabled;
+
+    // off-heap 영역 전체 크기 (bytes)
+    @Value("${local-store.max-bytes:67108864}")
+    private int maxBytes;
+
+    @Value("${local-store.block-bytes:4096}")
+    private int blockBytes;
+
+    @Value("${local-store.retention-hours:6}")
+    private long retentionHours;
+
+    // 스테이션 수 / 스테이션당 필드 수 한도 (힙에 남는 메타데이터 상한)
+    @Value("${local-store.max-stations:1000}")
+    private int maxStations;
+
+    @Value("${local-store.max-fields-per-station:64}")
+    private int maxFieldsPerStation;
+
+    // 한도에 닿았을 때 이 시간 이상 기록이 없던 스테이션/필드만 비우고 새로 받음 (ms), 없으면 새 이름은 버림
+    @Value("${local-store.series-idle-ms:600000}")
+    private long seriesIdleMillis;
+
+    // 블록 내용과 아래 구조 전체를 보호 (기록/정리는 write, 조회는 read)
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private ByteBuffer arena;
+    private int[] freeBlocks;
+    private int freeCount;
+
+    // Key: 스테이션 ID
+    private final Map<String, StationSeries> stations = new HashMap<>();
+
+    private final AtomicLong appendedPoints = new AtomicLong();
+    private final AtomicLong skippedValues = new AtomicLong();
+    private final AtomicLong droppedValues = new AtomicLong();
+    private final AtomicLong evictedBlocks = new AtomicLong();
+    private final AtomicLong expiredBlocks = new AtomicLong();
+    private final AtomicLong localQueries = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong backfilledPoints = new AtomicLong();
+    private final AtomicLong evictedSeries = new AtomicLong();
+    private final AtomicLong rejectedSeries = new AtomicLong();
+
+    @PostConstruct
+    public void initialize() {
+        if (!enabled) {
+            log.info("로컬 시계열 저장소 비활성화");
+            return;
+        }
+        blockBytes &= ~7; // 블록 초기화를 long 단위로
+        int blocks = blockBytes >= MIN_BLOCK_BYTES ? maxBytes / blockBytes : 0;
+        if (blocks < 1) {
+            throw new IllegalStateException("local-store 설정 오류: block-bytes=" + blockBytes + ", max-bytes=" + maxBytes);
+        }
+        arena = ByteBuffer.allocateDirect(blocks * blockBytes);
+        freeBlocks = new int[blocks];
+        for (int i = 0; i < blocks; i++) {
+            freeBlocks[i] = blocks - 1 - i;
+        }
+        freeCount = blocks;
+        log.info("로컬 시계열 저장소 시작 - {} blocks x {} bytes, 보관 {}시간", blocks, blockBytes, retentionHours);
+    }
+
+    /**
+     * 기록된 포인트의 숫자/불리언 필드 저장
+     */
+    public void append(String stationId, Map<String, String> tags, Map<String, ?> fields, Instant timestamp) {
+        if (arena == null || stationId == null || fields == null || timestamp == null) {
+            return;
+        }
+        long time = timestamp.toEpochMilli();
+        long now = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            StationSeries station = stations.get(stationId);
+            if (station == null) {
+                if (stations.size() >= maxStations && !evictIdleStation(now)) {
+                    rejectedSeries.incrementAndGet();
+                    return;
+                }
+                station = new StationSeries();
+                stations.put(stationId, station);
+            }
+            station.lastAppend = now;
+            if (tags != null) {
+                station.updateTags(tags.get("process_type"), tags.get("location"));
+            }
+            for (Map.Entry<String, ?> field : fields.entrySet()) {
+                FieldKind kind = FieldKind.of(field.getValue());
+                if (kind == null || field.getKey() == null) {
+                    skippedValues.incrementAndGet();
+                    continue;
+                }
+                FieldSeries series = station.fields.get(field.getKey());
+                if (series == null) {
+                    if (station.fields.size() >= maxFieldsPerStation && !evictIdleField(station, now)) {
+                        rejectedSeries.incrementAndGet();
+                        continue;
+                    }
+                    series = new FieldSeries(kind);
+                    station.fields.put(field.getKey(), series);
+                }
+                series.lastAppend = now;
+                // 정수로 시작한 필드에 실수가 오면 실수로 넓힘 (블록에는 double 로 있으므로 다시 인코딩할 필요 없음)
+                series.kind = series.kind.widen(kind);
+                if (!append(series, time, FieldKind.toDouble(field.getValue()))) {
+                    droppedValues.incrementAndGet();
+                }
+            }
+            appendedPoints.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 스테이션 센서 데이터 [start, end) 조회 (시간순, 같은 시각의 필드는 한 행으로)
+     */
+    public Flux<SensorReading> getSensorRange(String stationId, Instant start, Instant end) {
+        return Flux.defer(() -> {
+            localQueries.incrementAndGet();
+            return Flux.fromIterable(readRows(stationId, start.toEpochMilli(), end.toEpochMilli()));
+        });
+    }
+
+    /**
+     * InfluxDB 조회에 로컬 저장소 대체 경로를 붙임
+     * - 전송이 실패 중이고 로컬에 start 부터 남아 있으면 로컬에서 바로 응답 (InfluxDB 는 최근 값이 빠져 있음)
+     * - 조회 중 오류가 나면 마지막으로 받은 행 이후를 로컬에서 이어서 응답
+     */
+    public Flux<SensorReading> withFallback(Flux<SensorReading> primary, String stationId, Instant start, Instant end) {
+        if (arena == null) {
+            return primary;
+        }
+        return Flux.defer(() -> {
+            if (!influxBatchWriter.isHealthy() && covers(stationId, start.toEpochMilli())) {
+                return getSensorRange(stationId, start, end);
+            }
+            AtomicReference<Instant> last = new AtomicReference<>();
+            return primary
+                    .doOnNext(reading -> last.set(reading.time()))
+                    .onErrorResume(error -> {
+                        fallbacks.incrementAndGet();
+                        Instant resumeFrom = last.get() != null ? Instant.ofEpochMilli(last.get().toEpochMilli() + 1) : start;
+                        log.warn("InfluxDB 조회 실패, 로컬 저장소로 응답 - {} {} ~ {}: {}",
+                                stationId, resumeFrom, end, error.getMessage());
+                        return resumeFrom.isBefore(end) ? getSensorRange(stationId, resumeFrom, end) : Flux.empty();
+                    });
+        });
+    }
+
+    // 버려진 구간을 InfluxDB 가 돌아온 뒤 로컬 값으로 다시 기록 (포인트를 잃은 스테이션의 해당 구간만)
+    @Scheduled(fixedDelayString = "${local-store.backfill-interval-ms:10000}")
+    public void backfill() {
+        if (arena == null) {
+            return;
+        }
+        Map<String, long[]> lost = influxBatchWriter.takeLostRanges();
+        if (lost.isEmpty()) {
+            return;
+        }
+        long written = 0;
+        for (Map.Entry<String, long[]> entry : lost.entrySet()) {
+            String stationId = entry.getKey();
+            long[] range = entry.getValue();
+            long stationWritten = 0;
+            for (SensorReading row : readRows(stationId, range[0], range[1] + 1)) {
+                Map<String, String> tags = new HashMap<>();
+                tags.put("station_id", stationId);
+                if (row.processType() != null) {
+                    tags.put("process_type", row.processType());
+                }
+                if (row.location() != null) {
+                    tags.put("location", row.location());
+                }
+                influxBatchWriter.write(InfluxDB3Service.SENSOR_MEASUREMENT, tags, row.fields(), row.time());
+                influxRangeCache.onPointWritten(stationId, row.time());
+                stationWritten++;
+            }
+            written += stationWritten;
+            log.info("InfluxDB 누락 구간 재기록 - {} {} ~ {}, {} points", stationId,
+                    Instant.ofEpochMilli(range[0]), Instant.ofEpochMilli(range[1]), stationWritten);
+        }
+        backfilledPoints.addAndGet(written);
+    }
+
+    // 보관 시간이 지난 블록 반납
+    @Scheduled(fixedDelayString = "${local-store.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        if (arena == null) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - retentionHours * 3_600_000L;
+        lock.writeLock().lock();
+        try {
+            Iterator<StationSeries> stationIt = stations.values().iterator();
+            while (stationIt.hasNext()) {
+                Iterator<FieldSeries> fieldIt = stationIt.next().fields.values().iterator();
+                while (fieldIt.hasNext()) {
+                    FieldSeries series = fieldIt.next();
+                    while (!series.sealed.isEmpty() && series.sealed.peekFirst().maxTime < cutoff) {
+                        release(series.sealed.pollFirst());
+                        expiredBlocks.incrementAndGet();
+                    }
+                    if (series.open != null && series.open.maxTime < cutoff) {
+                        release(series.open);
+                        series.open = null;
+                        expiredBlocks.incrementAndGet();
+                    }
+                    if (series.sealed.isEmpty() && series.open == null) {
+                        fieldIt.remove();
+                    }
+                }
+            }
+            stations.values().removeIf(station -> station.fields.isEmpty());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", arena != null);
+        stats.put("appendedPoints", appendedPoints.get());
+        stats.put("skippedValues", skippedValues.get());
+        stats.put("droppedValues", droppedValues.get());
+        stats.put("evictedBlocks", evictedBlocks.get());
+        stats.put("expiredBlocks", expiredBlocks.get());
+        stats.put("localQueries", localQueries.get());
+        stats.put("fallbacks", fallbacks.get());
+        stats.put("backfilledPoints", backfilledPoints.get());
+        stats.put("evictedSeries", evictedSeries.get());
+        stats.put("rejectedSeries", rejectedSeries.get());
+        if (arena != null) {
+            lock.readLock().lock();
+            try {
+                int totalBlocks = freeBlocks.length;
+                long bits = 0;
+                long values = 0;
+                int series = 0;
+                for (StationSeries station : stations.values()) {
+                    for (FieldSeries field : station.fields.values()) {
+                        series++;
+                        for (Block block : field.blocks()) {
+                            bits += block.bitLength;
+                            values += block.count;
+                        }
+                    }
+                }
+                stats.put("stations", stations.size());
+                stats.put("series", series);
+                stats.put("usedBlocks", totalBlocks - freeCount);
+                stats.put("totalBlocks", totalBlocks);
+                stats.put("storedValues", values);
+                stats.put("bytesPerValue", values > 0 ? Math.round(bits / 8.0 / values * 100) / 100.0 : 0.0);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return stats;
+    }
+
+    // 가장 오래 기록이 없던 스테이션이 유휴 시간을 넘겼으면 블록과 함께 비움 (write lock 잡은 상태)
+    private boolean evictIdleStation(long now) {
+        Map.Entry<String, StationSeries> idlest = null;
+        for (Map.Entry<String, StationSeries> entry : stations.entrySet()) {
+            if (idlest == null || entry.getValue().lastAppend < idlest.getValue().lastAppend) {
+                idlest = entry;
+            }
+        }
+        if (idlest == null || now - idlest.getValue().lastAppend < seriesIdleMillis) {
+            return false;
+        }
+        for (FieldSeries series : idlest.getValue().fields.values()) {
+            releaseAll(series);
+        }
+        stations.remove(idlest.getKey());
+        log.info("로컬 저장소 스테이션 한도 도달 - 유휴 스테이션 비움: {}", idlest.getKey());
+        return true;
+    }
+
+    // 스테이션 안에서 가장 오래 기록이 없던 필드가 유휴 시간을 넘겼으면 비움 (write lock 잡은 상태)
+    private boolean evictIdleField(StationSeries station, long now) {
+        Map.Entry<String, FieldSeries> idlest = null;
+        for (Map.Entry<String, FieldSeries> entry : station.fields.entrySet()) {
+            if (idlest == null || entry.getValue().lastAppend < idlest.getValue().lastAppend) {
+                idlest = entry;
+            }
+        }
+        if (idlest == null || now - idlest.getValue().lastAppend < seriesIdleMillis) {
+            return false;
+        }
+        releaseAll(idlest.getValue());
+        station.fields.remove(idlest.getKey());
+        return true;
+    }
+
+    private void releaseAll(FieldSeries series) {
+        for (Block block : series.blocks()) {
+            release(block);
+        }
+        series.sealed.clear();
+        series.open = null;
+        evictedSeries.incrementAndGet();
+    }
+
+    // 모든 필드에 from 이전부터 값이 남아 있는지 (가장 늦게 시작하는 필드 기준)
+    private boolean covers(String stationId, long from) {
+        lock.readLock().lock();
+        try {
+            StationSeries station = stations.get(stationId);
+            if (station == null || station.fields.isEmpty()) {
+                return false;
+            }
+            for (FieldSeries series : station.fields.values()) {
+                Block first = series.sealed.isEmpty() ? series.open : series.sealed.peekFirst();
+                if (first == null || first.minTime > from) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<SensorReading> readRows(String stationId, long from, long to) {
+        TreeMap<Long, Map<String, Object>> rows = new TreeMap<>();
+        String processType;
+        String location;
+        lock.readLock().lock();
+        try {
+            StationSeries station = stations.get(stationId);
+            if (station == null || to <= from) {
+                return List.of();
+            }
+            processType = station.processType;
+            location = station.location;
+            station.fields.forEach((name, series) -> {
+                for (Block block : series.blocks()) {
+                    if (block.maxTime < from || block.minTime >= to) {
+                        continue;
+                    }
+                    block.forEach(arena, (time, value) -> {
+                        if (time >= from && time < to) {
+                            rows.computeIfAbsent(time, t -> new TreeMap<>()).put(name, series.kind.toValue(value));
+                        }
+                    });
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<SensorReading> result = new ArrayList<>(rows.size());
+        rows.forEach((time, fields) ->
+                result.add(new SensorReading(Instant.ofEpochMilli(time), stationId, processType, location, fields)));
+        return result;
+    }
+
+    // 열린 블록이 차면 봉인하고 새 블록 할당 (write lock 잡은 상태)
+    private boolean append(FieldSeries series, long time, double value) {
+        Block block = series.open;
+        if (block == null || block.bitLength + MAX_POINT_BITS > blockBytes * 8L) {
+            if (block != null) {
+                series.sealed.addLast(block);
+                series.open = null;
+            }
+            int offset = allocateBlock();
+            if (offset < 0) {
+                return false;
+            }
+            block = new Block(offset);
+            series.open = block;
+        }
+        block.append(arena, time, value);
+        return true;
+    }
+
+    // 빈 블록이 없으면 끝 시각이 가장 오래된 봉인 블록을 반납하고 재사용
+    private int allocateBlock() {
+        if (freeCount == 0) {
+            FieldSeries oldest = null;
+            for (StationSeries station : stations.values()) {
+                for (FieldSeries series : station.fields.values()) {
+                    Block head = series.sealed.peekFirst();
+                    if (head != null && (oldest == null || head.maxTime < oldest.sealed.peekFirst().maxTime)) {
+                        oldest = series;
+                    }
+                }
+            }
+            if (oldest == null) {
+                return -1; // 모든 블록이 열린 블록 (필드 수 > 블록 수)
+            }
+            release(oldest.sealed.pollFirst());
+            evictedBlocks.incrementAndGet();
+        }
+        int offset = freeBlocks[--freeCount] * blockBytes;
+        for (int i = 0; i < blockBytes; i += 8) {
+            arena.putLong(offset + i, 0L);
+        }
+        return offset;
+    }
+
+    private void release(Block block) {
+        freeBlocks[freeCount++] = block.offset / blockBytes;
+    }
+
+    /**
+     * 필드 값 종류 (블록에는 모두 double 로 저장, 조회 시 원래 타입으로 복원)
+     */
+    private enum FieldKind {
+        FLOAT, INTEGER, BOOLEAN;
+
+        static FieldKind of(Object value) {
+            if (value instanceof Boolean) {
+                return BOOLEAN;
+            }
+            if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+                return INTEGER;
+            }
+            if (value instanceof Number number && Double.isFinite(number.doubleValue())) {
+                return FLOAT;
+            }
+            return null;
+        }
+
+        // 다른 종류가 섞이면 값을 잃지 않도록 FLOAT
+        FieldKind widen(FieldKind other) {
+            return this == other ? this : FLOAT;
+        }
+
+        static double toDouble(Object value) {
+            return value instanceof Boolean bool ? (bool ? 1.0 : 0.0) : ((Number) value).doubleValue();
+        }
+
+        Object toValue(double value) {
+            return switch (this) {
+                case FLOAT -> value;
+                case INTEGER -> (long) value;
+                case BOOLEAN -> value != 0.0;
+            };
+        }
+    }
+
+    private static final class StationSeries {
+
+        final Map<String, FieldSeries> fields = new HashMap<>();
+        String processType;
+        String location;
+        long lastAppend;
+
+        void updateTags(String processType, String location) {
+            if (processType != null) {
+                this.processType = processType;
+            }
+            if (location != null) {
+                this.location = location;
+            }
+        }
+    }
+
+    private static final class FieldSeries {
+
+        // 조회 시 복원할 타입, 섞인 값이 들어오면 넓어짐 (write lock 안에서만 변경)
+        FieldKind kind;
+        final ArrayDeque<Block> sealed = new ArrayDeque<>();
+        Block open;
+        long lastAppend;
+
+        FieldSeries(FieldKind kind) {
+            this.kind = kind;
+        }
+
+        List<Block> blocks() {
+            List<Block> blocks = new ArrayList<>(sealed);
+            if (open != null) {
+                blocks.add(open);
+            }
+            return blocks;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PointConsumer {
+        void accept(long time, double value);
+    }
+
+    /**
+     * 압축 블록 하나 (arena 의 offset 부터 비트 단위로 기록, 블록마다 첫 포인트는 원본 그대로)
+     * 시각: delta-of-delta 가 0 이면 '0', 크기에 따라 '10'+7 / '110'+9 / '1110'+12 / '1111'+64 bit
+     * 값: 이전 값과 XOR 이 0 이면 '0', 유효 비트가 이전 구간 안이면 '10'+유효 비트,
+     *     아니면 '11'+선행 0 개수(5 bit)+유효 비트 길이(6 bit)+유효 비트
+     */
+    private static final class Block {
+
+        final int offset;
+        long bitLength;
+        int count;
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+
+        private long prevTime;
+        private long prevDelta;
+        private long prevBits;
+        private int prevLeading = -1;
+        private int prevTrailing;
+
+        Block(int offset) {
+            this.offset = offset;
+        }
+
+        void append(ByteBuffer arena, long time, double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            if (count == 0) {
+                write(arena, time, 64);
+                write(arena, bits, 64);
+            } else {
+                long delta = time - prevTime;
+                long dod = delta - prevDelta;
+                if (dod == 0) {
+                    write(arena, 0b0, 1);
+                } else if (dod >= -63 && dod <= 64) {
+                    write(arena, 0b10, 2);
+                    write(arena, dod + 63, 7);
+                } else if (dod >= -255 && dod <= 256) {
+                    write(arena, 0b110, 3);
+                    write(arena, dod + 255, 9);
+                } else if (dod >= -2047 && dod <= 2048) {
+                    write(arena, 0b1110, 4);
+                    write(arena, dod + 2047, 12);
+                } else {
+                    write(arena, 0b1111, 4);
+                    write(arena, dod, 64);
+                }
+                prevDelta = delta;
+
+                long xor = bits ^ prevBits;
+                if (xor == 0) {
+                    write(arena, 0b0, 1);
+                } else {
+                    int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                    int trailing = Long.numberOfTrailingZeros(xor);
+                    if (prevLeading >= 0 && leading >= prevLeading && trailing >= prevTrailing) {
+                        write(arena, 0b10, 2);
+                        write(arena, xor >>> prevTrailing, 64 - prevLeading - prevTrailing);
+                    } else {
+                        int significant = 64 - leading - trailing;
+                        write(arena, 0b11, 2);
+                        write(arena, leading, 5);
+                        write(arena, significant - 1, 6);
+                        write(arena, xor >>> trailing, significant);
+                        prevLeading = leading;
+                        prevTrailing = trailing;
+                    }
+                }
+            }
+            prevTime = time;
+            prevBits = bits;
+            count++;
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+        }
+
+        void forEach(ByteBuffer arena, PointConsumer consumer) {
+            if (count == 0) {
+                return;
+            }
+            long[] position = {0};
+            long time = read(arena, position, 64);
+            long bits = read(arena, position, 64);
+            consumer.accept(time, Double.longBitsToDouble(bits));
+            long delta = 0;
+            int leading = 0;
+            int trailing = 0;
+            for (int i = 1; i < count; i++) {
+                long dod;
+                if (read(arena, position, 1) == 0) {
+                    dod = 0;
+                } else if (read(arena, position, 1) == 0) {
+                    dod = read(arena, position, 7) - 63;
+                } else if (read(arena, position, 1) == 0) {
+                    dod = read(arena, position, 9) - 255;
+                } else if (read(arena, position, 1) == 0) {
+                    dod = read(arena, position, 12) - 2047;
+                } else {
+                    dod = read(arena, position, 64);
+                }
+                delta += dod;
+                time += delta;
+
+                if (read(arena, position, 1) == 1) {
+                    if (read(arena, position, 1) == 1) {
+                        leading = (int) read(arena, position, 5);
+                        int significant = (int) read(arena, position, 6) + 1;
+                        trailing = 64 - leading - significant;
+                    }
+                    bits ^= read(arena, position, 64 - leading - trailing) << trailing;
+                }
+                consumer.accept(time, Double.longBitsToDouble(bits));
+            }
+        }
+
+        // 상위 비트부터 기록 (블록은 할당 시 0 으로 초기화됨)
+        private void write(ByteBuffer arena, long value, int bits) {
+            while (bits > 0) {
+                int index = offset + (int) (bitLength >>> 3);
+                int free = 8 - (int) (bitLength & 7);
+                int take = Math.min(free, bits);
+                int chunk = (int) ((value >>> (bits - take)) & ((1 << take) - 1));
+                arena.put(index, (byte) (arena.get(index) | (chunk << (free - take))));
+                bits -= take;
+                bitLength += take;
+            }
+        }
+
+        private long read(ByteBuffer arena, long[] position, int bits) {
+            long value = 0;
+            while (bits > 0) {
+                int index = offset + (int) (position[0] >>> 3);
+                int available = 8 - (int) (position[0] & 7);
+                int take = Math.min(available, bits);
+                int chunk = ((arena.get(index) & 0xFF) >>> (available - take)) & ((1 << take) - 1);
+                value = (value << take) | chunk;
+                bits -= take;
+                position[0] += take;
+            }
+            return value;
+        }
+    }
+}
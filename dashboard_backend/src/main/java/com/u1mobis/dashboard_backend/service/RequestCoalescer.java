@@ -0,0 +1,144 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 동일 조회 요청 합치기 (single-flight)
+ * - 같은 키(영역 + 회사/라인)의 조회가 동시에 들어오면 한 번만 계산하고 결과를 함께 받는다
+ * - 계산이 끝난 결과는 짧은 유효 시간 동안 재사용 (0이면 진행 중인 계산만 공유)
+ * - 대시보드 변경 이벤트가 오면 해당 영역 결과를 버려 다음 조회가 새로 계산하도록 한다
+ * 결과는 여러 요청이 공유하므로 불변 객체(Map.of, record)만 넘겨야 한다.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final long freshnessMillis;
+
+    // Key: "SECTION:companyName:lineId..."
+    private final Map<String, Flight<?>> flights = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong computations = new AtomicLong();
+    private final AtomicLong joinedInFlight = new AtomicLong();
+    private final AtomicLong freshHits = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public RequestCoalescer(@Value("${coalesce.freshness-ms:500}") long freshnessMillis) {
+        this.freshnessMillis = Math.max(freshnessMillis, 0);
+    }
+
+    public static String key(DashboardUpdateEvent.Section section, Object... parts) {
+        StringBuilder key = new StringBuilder(section.name());
+        for (Object part : parts) {
+            key.append(':').append(part);
+        }
+        return key.toString();
+    }
+
+    /**
+     * 조회 실행 (같은 키의 계산이 진행 중이거나 유효 시간 안이면 그 결과 반환)
+     * 계산 중 예외가 나면 기다리던 요청 모두 같은 예외를 받고 결과는 남기지 않는다.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String key, Supplier<T> loader) {
+        requests.incrementAndGet();
+        while (true) {
+            Flight<?> existing = flights.get(key);
+            if (existing != null) {
+                if (!existing.future.isDone()) {
+                    joinedInFlight.incrementAndGet();
+                    return (T) join(existing);
+                }
+                if (System.currentTimeMillis() - existing.completedAt <= freshnessMillis) {
+                    freshHits.incrementAndGet();
+                    return (T) join(existing);
+                }
+                flights.remove(key, existing);
+            }
+
+            Flight<T> flight = new Flight<>();
+            if (flights.putIfAbsent(key, flight) != null) {
+                continue; // 다른 요청이 먼저 등록 → 그 계산에 합류
+            }
+            computations.incrementAndGet();
+            try {
+                T value = loader.get();
+                flight.completedAt = System.currentTimeMillis();
+                flight.future.complete(value);
+                if (freshnessMillis == 0) {
+                    flights.remove(key, flight);
+                }
+                return value;
+            } catch (RuntimeException e) {
+                flights.remove(key, flight);
+                flight.future.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 데이터 변경 시 해당 영역 결과 폐기 (스냅샷 재계산보다 먼저 실행)
+     * 회사가 지정되면 그 회사 키와 회사 구분 없는 키만, 없으면 영역 전체
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onDashboardUpdate(DashboardUpdateEvent event) {
+        String section = event.section().name();
+        String company = event.companyName() != null ? key(event.section(), event.companyName()) : section;
+        flights.keySet().removeIf(key -> key.equals(section) || key.startsWith(section + ":null")
+                || key.equals(company) || key.startsWith(company + ":"));
+        invalidations.incrementAndGet();
+    }
+
+    // 유효 시간이 지난 결과 정리
+    @Scheduled(fixedDelayString = "${coalesce.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - freshnessMillis;
+        flights.values().removeIf(flight -> flight.future.isDone() && flight.completedAt < cutoff);
+    }
+
+    public Map<String, Object> getStats() {
+        long total = requests.get();
+        long shared = joinedInFlight.get() + freshHits.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", total);
+        stats.put("computations", computations.get());
+        stats.put("joinedInFlight", joinedInFlight.get());
+        stats.put("freshHits", freshHits.get());
+        stats.put("coalescingRatio", total > 0 ? Math.round(shared * 1000.0 / total) / 1000.0 : 0.0);
+        stats.put("invalidations", invalidations.get());
+        stats.put("entries", flights.size());
+        stats.put("freshnessMs", freshnessMillis);
+        return stats;
+    }
+
+    private static Object join(Flight<?> flight) {
+        try {
+            return flight.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Flight<T> {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        volatile long completedAt;
+    }
+}
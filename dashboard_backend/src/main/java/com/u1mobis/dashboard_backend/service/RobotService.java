@@ -29,6 +29,7 @@ public class RobotService {
     
     private final RobotRepository robotRepository;
     private final CompanyRepository companyRepository; // CompanyRepository 추가
+    private final TwinStateProjection twinStateProjection;
     
     // 생산 사이클 관리용
     private final Map<String, ScheduledFuture<?>> productionSchedulers = new ConcurrentHashMap<>();
@@ -75,6 +76,7 @@ public class RobotService {
             robot.setMotorStatus("작동중".equals(mqttData.getStatusText()) ? 1 : 0);
             
             robotRepository.save(robot);
+            twinStateProjection.updateRobot(robot);
             
             // 생산 사이클 관리
             manageProductionCycle(robot);
@@ -128,6 +130,7 @@ public class RobotService {
                     int currentCount = robot.getProductionCount() != null ? robot.getProductionCount() : 0;
                     robot.setProductionCount(currentCount + 1);
                     robotRepository.save(robot);
+                    twinStateProjection.updateRobot(robot);
                     
                     log.info("로봇 {} 생산량 증가: {} → {}", robotId, currentCount, currentCount + 1);
                 }
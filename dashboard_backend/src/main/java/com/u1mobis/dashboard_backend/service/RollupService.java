@@ -0,0 +1,195 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.u1mobis.dashboard_backend.entity.Company;
+import com.u1mobis.dashboard_backend.entity.KPIData;
+import com.u1mobis.dashboard_backend.entity.ProductionRollup;
+import com.u1mobis.dashboard_backend.entity.RollupGranularity;
+import com.u1mobis.dashboard_backend.repository.CompanyRepository;
+import com.u1mobis.dashboard_backend.repository.EnvironmentRollupRepository;
+import com.u1mobis.dashboard_backend.repository.KPIRollupRepository;
+import com.u1mobis.dashboard_backend.repository.ProductionRollupRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 분/시간/일 롤업 테이블 관리
+ * - 이벤트가 들어올 때마다 버킷 누적값을 upsert로 갱신 (원본 테이블 전체 스캔 없이 조회)
+ * - 쓰기는 비동기 저장 실행기에서 처리하므로 조회는 기록보다 실행기 큐 대기만큼 늦을 수 있다
+ * - 배포 이전 기록은 V3 마이그레이션이 원본 테이블에서 채움
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RollupService {
+
+    // 라인 구분이 없는 데이터(공장 전체)의 line_id
+    public static final long FACTORY_WIDE_LINE_ID = 0L;
+
+    private static final RollupGranularity[] GRANULARITIES = RollupGranularity.values();
+
+    private final KPIRollupRepository kpiRollupRepository;
+    private final ProductionRollupRepository productionRollupRepository;
+    private final EnvironmentRollupRepository environmentRollupRepository;
+    private final CompanyRepository companyRepository;
+    private final AsyncPersistenceService asyncPersistenceService;
+
+    // 회사명 → 회사 ID 캐시 (생산 완료 이벤트는 회사명만 가지고 있음)
+    private final Map<String, Long> companyIdCache = new ConcurrentHashMap<>();
+
+    // ==================== 롤업 갱신 ====================
+
+    // KPI 롤업 반영
+    public void recordKpi(Long companyId, Long lineId, KPIData kpi) {
+        if (companyId == null || kpi.getTimestamp() == null) {
+            return;
+        }
+        long line = lineIdOrFactory(lineId);
+        asyncPersistenceService.submit("KPI 롤업 - " + companyId + "/" + line, () -> {
+            for (RollupGranularity granularity : GRANULARITIES) {
+                kpiRollupRepository.upsert(companyId, line, granularity.name(), granularity.bucketStart(kpi.getTimestamp()),
+                        nullToZero(kpi.getCalculatedOEE()), nullToZero(kpi.getCalculatedFTY()), nullToZero(kpi.getCalculatedOTD()),
+                        nullToZero(kpi.getPlannedTime()), nullToZero(kpi.getDowntime()),
+                        nullToZero(kpi.getTotalCount()), nullToZero(kpi.getGoodCount()),
+                        nullToZero(kpi.getFirstTimePassCount()), nullToZero(kpi.getOnTimeDeliveryCount()));
+            }
+        });
+    }
+
+    // 생산 완료 롤업 반영 (completeProduction 커밋 후)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductionCompleted(ProductionCompletedEvent event) {
+        recordCompletion(event.companyName(), event.lineId(), event.timestamp(), event.quality(),
+                event.onTime(), event.firstTimePass(), event.cycleTime());
+    }
+
+    public void recordCompletion(String companyName, Long lineId, LocalDateTime timestamp, String quality,
+                                 boolean onTime, boolean firstTimePass, Double cycleTime) {
+        Long companyId = resolveCompanyId(companyName);
+        if (companyId == null) {
+            return;
+        }
+        long line = lineIdOrFactory(lineId);
+        asyncPersistenceService.submit("생산 롤업 - " + companyName + "/" + line, () -> {
+            for (RollupGranularity granularity : GRANULARITIES) {
+                productionRollupRepository.upsert(companyId, line, granularity.name(), granularity.bucketStart(timestamp),
+                        "PASS".equals(quality) ? 1 : 0, onTime ? 1 : 0, firstTimePass ? 1 : 0,
+                        cycleTime != null ? 1 : 0, cycleTime != null ? cycleTime : 0.0);
+            }
+        });
+    }
+
+    // 환경 센서 롤업 반영
+    public void recordEnvironment(Long companyId, Long lineId, LocalDateTime timestamp,
+                                  Double temperature, Double humidity, Integer airQuality) {
+        if (companyId == null || temperature == null || humidity == null || airQuality == null) {
+            return;
+        }
+        long line = lineIdOrFactory(lineId);
+        asyncPersistenceService.submit("환경 롤업 - " + companyId + "/" + line, () -> {
+            for (RollupGranularity granularity : GRANULARITIES) {
+                environmentRollupRepository.upsert(companyId, line, granularity.name(), granularity.bucketStart(timestamp),
+                        temperature, humidity, airQuality);
+            }
+        });
+    }
+
+    // ==================== 롤업 조회 ====================
+
+    // 오늘 생산 누적 (라인별 DAY 버킷)
+    public Optional<ProductionRollup> getTodayProduction(Long lineId) {
+        return productionRollupRepository.findByLineIdAndGranularityAndBucketStart(
+                lineIdOrFactory(lineId), RollupGranularity.DAY, LocalDate.now().atStartOfDay());
+    }
+
+    // 최근 1시간 완료 수량 (라인별 MINUTE 버킷 60개 합계)
+    public long countCompletedInLastHour(Long lineId) {
+        LocalDateTime now = LocalDateTime.now();
+        Long count = productionRollupRepository.sumCompletedByLineId(lineIdOrFactory(lineId), RollupGranularity.MINUTE,
+                RollupGranularity.MINUTE.bucketStart(now).minusMinutes(59), now.plusMinutes(1));
+        return count != null ? count : 0L;
+    }
+
+    // 시간별 KPI 트렌드 (차트용, % 단위)
+    public List<Map<String, Object>> getHourlyKPITrends(String companyName, LocalDate date) {
+        Long companyId = resolveCompanyId(companyName);
+        if (companyId == null) {
+            return List.of();
+        }
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] row : kpiRollupRepository.getHourlyKPITrends(companyId, date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("hour", row[0]);
+            point.put("oee", toDouble(row[1]) * 100);
+            point.put("fty", toDouble(row[2]) * 100);
+            point.put("otd", toDouble(row[3]) * 100);
+            result.add(point);
+        }
+        return result;
+    }
+
+    // 시간별 환경 데이터 평균 (차트용)
+    public List<Map<String, Object>> getHourlyEnvironmentAverages(String companyName, LocalDate date) {
+        Long companyId = resolveCompanyId(companyName);
+        if (companyId == null) {
+            return List.of();
+        }
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Object[] row : environmentRollupRepository.getHourlyEnvironmentAverages(companyId, date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("hour", row[0]);
+            point.put("temperature", toDouble(row[1]));
+            point.put("humidity", toDouble(row[2]));
+            point.put("air_quality", toDouble(row[3]));
+            result.add(point);
+        }
+        return result;
+    }
+
+    // ==================== 헬퍼 ====================
+
+    private Long resolveCompanyId(String companyName) {
+        if (companyName == null) {
+            return null;
+        }
+        Long cached = companyIdCache.get(companyName);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<Company> company = companyRepository.findByCompanyName(companyName);
+        if (company.isEmpty()) {
+            log.warn("롤업 대상 회사를 찾을 수 없습니다: {}", companyName);
+            return null;
+        }
+        companyIdCache.put(companyName, company.get().getCompanyId());
+        return company.get().getCompanyId();
+    }
+
+    private long lineIdOrFactory(Long lineId) {
+        return lineId != null ? lineId : FACTORY_WIDE_LINE_ID;
+    }
+
+    private double nullToZero(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    private long nullToZero(Integer value) {
+        return value != null ? value : 0L;
+    }
+
+    private double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0.0;
+    }
+}
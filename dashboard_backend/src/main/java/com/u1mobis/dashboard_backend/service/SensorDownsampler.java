@@ -0,0 +1,495 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.u1mobis.dashboard_backend.dto.SensorReading;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * IOT-sensor 다운샘플링 (스테이션별 1분/1시간 집계)
+ * - 기록 경로에서 숫자 필드(sensor_*, production_*, quality_*)를 분/시간 창에 바로 누적
+ * - 창이 닫히면 <필드>_min/_max/_mean/_count/_last 로 IOT-sensor_1m / IOT-sensor_1h 에 기록 (시각 = 창 시작)
+ * - 닫힌 창은 late-retention 동안 메모리에 두고 늦게 들어온 포인트를 합쳐 같은 시각으로 다시 기록
+ * - 그보다 늦은 포인트와 기동 전에 시작된 창은 이미 기록된 집계 행을 읽어 합침 (scheduled catch-up, 논블로킹)
+ *   원본은 압축(SeriesCompressor)으로 솎아졌을 수 있으므로 다시 읽지 않는다
+ *   조회가 재시도 한도만큼 실패하면 합치지 못한 값만으로 기록하고 경고 (메모리에 계속 두지 않음)
+ * - 종료 시 열린 창도 기록하므로 재시작 전후 값이 이어짐 (비정상 종료 시 기동 전 구간은 빠짐)
+ * 조회는 범위와 포인트 예산을 만족하는 가장 거친 해상도로 보낸다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SensorDownsampler {
+
+    private static final String[] FIELD_PREFIXES = {"sensor_", "production_", "quality_"};
+
+    private final InfluxDB3Service influxDB3Service;
+    private final InfluxBatchWriter influxBatchWriter;
+    private final InfluxRangeCache influxRangeCache;
+
+    // 창 끝 이후 이 시간이 지나야 닫음 (배치 기록/수집 지연 고려)
+    @Value("${downsample.close-delay-ms:10000}")
+    private long closeDelayMillis;
+
+    // 닫힌 창을 메모리에 두는 시간 (창 끝 기준, 이 안의 늦은 포인트는 조회 없이 합침)
+    @Value("${downsample.late-retention-ms:3600000}")
+    private long lateRetentionMillis;
+
+    // 기록된 집계 행을 읽기 전 대기 (배치 기록이 InfluxDB 에 반영될 때까지)
+    @Value("${downsample.catch-up-delay-ms:30000}")
+    private long catchUpDelayMillis;
+
+    // 한 번에 합칠 최대 창 수
+    @Value("${downsample.catch-up-batch:20}")
+    private int catchUpBatch;
+
+    // 기록된 집계 행 조회 최대 시도 횟수 (넘으면 합치지 않고 기록)
+    @Value("${downsample.catch-up-max-attempts:5}")
+    private int catchUpMaxAttempts;
+
+    // Key: 해상도 + 스테이션 + 창 시작 (열린 창)
+    private final Map<WindowKey, Window> windows = new ConcurrentHashMap<>();
+
+    // 닫힌 창 (보관 중이거나 기록된 집계 행과 합칠 창), 값은 closed.compute 잠금 안에서만 갱신
+    private final Map<WindowKey, Window> closed = new ConcurrentHashMap<>();
+
+    // 이전 catch-up 조회가 끝나기 전에는 새로 시작하지 않음
+    private final AtomicBoolean catchUpRunning = new AtomicBoolean();
+
+    private long startedAt;
+
+    private final AtomicLong aggregatesWritten = new AtomicLong();
+    private final AtomicLong latePoints = new AtomicLong();
+    private final AtomicLong catchUpsDone = new AtomicLong();
+    private final AtomicLong catchUpsFailed = new AtomicLong();
+    private final AtomicLong catchUpsAbandoned = new AtomicLong();
+
+    @PostConstruct
+    public void initialize() {
+        startedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 기록된 포인트를 분/시간 창에 누적
+     */
+    public void accept(String stationId, Map<String, Object> fields, Instant timestamp) {
+        if (stationId == null || fields == null || timestamp == null) {
+            return;
+        }
+        long time = timestamp.toEpochMilli();
+        for (Resolution resolution : Resolution.AGGREGATES) {
+            WindowKey key = new WindowKey(resolution, stationId, resolution.align(time));
+            windows.compute(key, (k, window) -> {
+                // 시각은 잠금 안에서 읽어야 flush 와 같은 기준으로 닫힘을 판단한다
+                long now = System.currentTimeMillis();
+                if (window == null && isClosed(k, now)) {
+                    addLate(k, fields, time, now);
+                    return null;
+                }
+                Window target = window != null ? window : new Window(k.start() < startedAt);
+                target.add(fields, time);
+                return target;
+            });
+        }
+    }
+
+    /**
+     * 조회 범위와 포인트 예산에 맞는 해상도
+     * 목표 간격(범위 / 예산) 이하인 집계 중 가장 거친 것, 분 단위보다 촘촘해야 하면 원본
+     */
+    public Resolution chooseResolution(Instant start, Instant end, int maxPoints) {
+        long targetStep = Duration.between(start, end).toMillis() / Math.max(maxPoints, 1);
+        Resolution chosen = Resolution.RAW;
+        for (Resolution resolution : Resolution.AGGREGATES) {
+            if (resolution.stepMillis <= targetStep) {
+                chosen = resolution;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * 해상도별 시계열 조회 (원본은 범위 캐시 경유)
+     */
+    public Flux<SensorReading> getSeries(String stationId, Instant start, Instant end, Resolution resolution) {
+        if (resolution == Resolution.RAW) {
+            return influxRangeCache.getSensorRange(stationId, start, end);
+        }
+        // 창 시각은 시작 기준이므로 start 가 걸친 창도 포함
+        Instant alignedStart = Instant.ofEpochMilli(resolution.align(start.toEpochMilli()));
+        return influxDB3Service.getSensorDataByTimeRange(resolution.measurement, stationId, alignedStart, end);
+    }
+
+    // 닫힌 창 기록 (기동 전에 시작된 창은 기록된 집계 행과 합친 뒤 기록), 늦은 포인트가 더해진 창은 다시 기록
+    @Scheduled(fixedDelayString = "${downsample.flush-interval-ms:5000}")
+    public void flushClosedWindows() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<WindowKey, Window>> it = windows.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<WindowKey, Window> entry = it.next();
+            WindowKey key = entry.getKey();
+            if (!isClosed(key, now) || !windows.remove(key, entry.getValue())) {
+                continue;
+            }
+            Window window = entry.getValue();
+            closed.compute(key, (k, late) -> {
+                // 열린 창을 옮기는 사이에 늦은 포인트로 만들어진 창이 있으면 합침
+                if (late != null) {
+                    window.merge(late);
+                }
+                window.retainUntil = k.end() + lateRetentionMillis;
+                if (window.partial) {
+                    window.needsStored = true;
+                    window.dueAt = now;
+                } else {
+                    write(k, window);
+                }
+                return window;
+            });
+        }
+        for (WindowKey key : closed.keySet()) {
+            closed.computeIfPresent(key, (k, window) -> {
+                if (window.needsStored) {
+                    return window;
+                }
+                if (window.dirty) {
+                    write(k, window);
+                    window.dirty = false;
+                }
+                return window.retainUntil > now ? window : null;
+            });
+        }
+    }
+
+    // 기록된 집계 행과 합칠 창을 조회 (스케줄러 스레드는 구독만 하고 바로 반환)
+    @Scheduled(fixedDelayString = "${downsample.catch-up-interval-ms:10000}")
+    public void catchUp() {
+        if (!catchUpRunning.compareAndSet(false, true)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<WindowKey> due = new ArrayList<>();
+        for (WindowKey key : closed.keySet()) {
+            if (due.size() >= catchUpBatch) {
+                break;
+            }
+            closed.computeIfPresent(key, (k, window) -> {
+                if (window.needsStored && !window.loading && window.dueAt <= now) {
+                    window.loading = true;
+                    due.add(k);
+                }
+                return window;
+            });
+        }
+        if (due.isEmpty()) {
+            catchUpRunning.set(false);
+            return;
+        }
+        Flux.fromIterable(due)
+                .concatMap(this::mergeStored)
+                .doFinally(signal -> catchUpRunning.set(false))
+                .subscribe();
+    }
+
+    // 종료 전 열린 창과 다시 기록할 창을 내보냄 (기록된 행과 합치지 못한 창은 버림)
+    @PreDestroy
+    public void flushOnShutdown() {
+        int skipped = 0;
+        for (Map.Entry<WindowKey, Window> entry : windows.entrySet()) {
+            if (windows.remove(entry.getKey(), entry.getValue())) {
+                skipped += flushForShutdown(entry.getKey(), entry.getValue()) ? 0 : 1;
+            }
+        }
+        for (Map.Entry<WindowKey, Window> entry : closed.entrySet()) {
+            if (closed.remove(entry.getKey(), entry.getValue())) {
+                skipped += flushForShutdown(entry.getKey(), entry.getValue()) ? 0 : 1;
+            }
+        }
+        if (skipped > 0) {
+            log.warn("다운샘플 종료 - 기록된 집계와 합치지 못한 창 {}개는 기록하지 않음", skipped);
+        }
+    }
+
+    private boolean flushForShutdown(WindowKey key, Window window) {
+        if (window.partial || window.needsStored) {
+            return false; // 그대로 쓰면 기존 집계 행을 덮어씀
+        }
+        if (window.dirty || !window.written) {
+            write(key, window);
+        }
+        return true;
+    }
+
+    // 기록된 집계 행을 읽어 창에 합친 뒤 다시 기록 (조회 중 들어온 늦은 포인트도 같은 창에 누적되어 있음)
+    private Mono<Void> mergeStored(WindowKey key) {
+        Instant start = Instant.ofEpochMilli(key.start());
+        return influxDB3Service.getSensorDataByTimeRange(key.resolution().measurement, key.stationId(),
+                        start, start.plusMillis(1))
+                .next()
+                .map(SensorReading::fields)
+                .defaultIfEmpty(Map.of())
+                .timeout(Duration.ofSeconds(30))
+                .doOnNext(stored -> {
+                    closed.computeIfPresent(key, (k, window) -> {
+                        window.mergeStored(stored);
+                        window.needsStored = false;
+                        window.loading = false;
+                        window.partial = false;
+                        window.retainUntil = Math.max(window.retainUntil, System.currentTimeMillis() + lateRetentionMillis);
+                        write(k, window);
+                        window.dirty = false;
+                        return window;
+                    });
+                    catchUpsDone.incrementAndGet();
+                })
+                .onErrorResume(e -> {
+                    catchUpsFailed.incrementAndGet();
+                    log.warn("다운샘플 집계 병합 실패 - {} {} {}: {}", key.resolution(), key.stationId(), start,
+                            e.getMessage());
+                    closed.computeIfPresent(key, (k, window) -> {
+                        long now = System.currentTimeMillis();
+                        window.loading = false;
+                        if (++window.catchUpAttempts < catchUpMaxAttempts) {
+                            window.dueAt = now + catchUpDelayMillis;
+                            return window;
+                        }
+                        // 재시도 한도 초과: 지금까지 모은 값만으로 기록 (기존 집계 행이 있으면 덮어씀)
+                        log.warn("다운샘플 집계 병합 포기 - {} {} {}: {}회 실패, 부분 집계로 기록", k.resolution(),
+                                k.stationId(), start, window.catchUpAttempts);
+                        catchUpsAbandoned.incrementAndGet();
+                        window.needsStored = false;
+                        window.partial = false;
+                        write(k, window);
+                        window.dirty = false;
+                        return window.retainUntil > now ? window : null;
+                    });
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    // 닫힌 창에 늦게 들어온 포인트 (보관 중인 창이면 합쳐서 다시 기록, 아니면 기록된 집계 행과 합칠 창에 누적)
+    private void addLate(WindowKey key, Map<String, Object> fields, long time, long now) {
+        latePoints.incrementAndGet();
+        closed.compute(key, (k, window) -> {
+            Window target = window;
+            if (target == null) {
+                target = new Window(false);
+                target.needsStored = true;
+                target.dueAt = now + catchUpDelayMillis;
+                target.retainUntil = now + lateRetentionMillis;
+            }
+            target.add(fields, time);
+            if (!target.needsStored) {
+                target.dirty = true;
+            }
+            return target;
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("openWindows", windows.size());
+        stats.put("retainedWindows", closed.size());
+        stats.put("aggregatesWritten", aggregatesWritten.get());
+        stats.put("latePoints", latePoints.get());
+        stats.put("pendingCatchUps", closed.values().stream().filter(window -> window.needsStored).count());
+        stats.put("catchUpsDone", catchUpsDone.get());
+        stats.put("catchUpsFailed", catchUpsFailed.get());
+        stats.put("catchUpsAbandoned", catchUpsAbandoned.get());
+        return stats;
+    }
+
+    private void write(WindowKey key, Window window) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        window.fields.forEach((name, agg) -> {
+            if (agg.count == 0) {
+                return;
+            }
+            fields.put(name + "_min", agg.min);
+            fields.put(name + "_max", agg.max);
+            fields.put(name + "_mean", agg.sum / agg.count);
+            fields.put(name + "_count", agg.count);
+            fields.put(name + "_last", agg.last);
+        });
+        if (fields.isEmpty()) {
+            return;
+        }
+        // 같은 시각으로 다시 기록하면 InfluxDB 에서 기존 행을 덮어씀
+        influxBatchWriter.write(key.resolution().measurement, Map.of("station_id", key.stationId()), fields,
+                Instant.ofEpochMilli(key.start()));
+        window.written = true;
+        aggregatesWritten.incrementAndGet();
+    }
+
+    private boolean isClosed(WindowKey key, long now) {
+        return key.end() + closeDelayMillis <= now;
+    }
+
+    private static boolean isAggregated(String field, Object value) {
+        if (!(value instanceof Number) || field == null) {
+            return false;
+        }
+        for (String prefix : FIELD_PREFIXES) {
+            if (field.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 조회 해상도 (집계 필드는 _count 만 정수, _min/_max/_mean/_last 는 실수로 기록해 창마다 타입이 바뀌지 않게 한다)
+     */
+    public enum Resolution {
+        RAW(0, InfluxDB3Service.SENSOR_MEASUREMENT),
+        MINUTE(60_000L, InfluxDB3Service.SENSOR_MEASUREMENT + "_1m"),
+        HOUR(3_600_000L, InfluxDB3Service.SENSOR_MEASUREMENT + "_1h");
+
+        static final Resolution[] AGGREGATES = {MINUTE, HOUR};
+
+        private final long stepMillis;
+        private final String measurement;
+
+        Resolution(long stepMillis, String measurement) {
+            this.stepMillis = stepMillis;
+            this.measurement = measurement;
+        }
+
+        public String getMeasurement() {
+            return measurement;
+        }
+
+        long align(long epochMillis) {
+            return Math.floorDiv(epochMillis, stepMillis) * stepMillis;
+        }
+    }
+
+    private record WindowKey(Resolution resolution, String stationId, long start) {
+
+        long end() {
+            return start + resolution.stepMillis;
+        }
+    }
+
+    // 한 창의 필드별 누적값 (windows.compute / closed.compute 잠금 안에서만 갱신)
+    private static final class Window {
+
+        final Map<String, FieldAggregate> fields = new HashMap<>();
+        // 기동 전에 시작된 창 (앞부분은 이전 실행이 기록한 집계 행에 있음)
+        boolean partial;
+        // 기록된 집계 행과 합쳐야 함, loading 이면 조회 중
+        boolean needsStored;
+        boolean loading;
+        int catchUpAttempts;
+        // 늦은 포인트가 더해져 다시 기록해야 함
+        boolean dirty;
+        boolean written;
+        long dueAt;
+        long retainUntil;
+
+        Window(boolean partial) {
+            this.partial = partial;
+        }
+
+        void merge(Window other) {
+            other.fields.forEach((name, agg) -> fields.computeIfAbsent(name, n -> new FieldAggregate()).merge(agg));
+        }
+
+        // 기록된 <필드>_min/_max/_mean/_count/_last 를 합침
+        // 기동 전 창이면 지금 값이 더 나중이므로 _last 는 지금 값 유지, 늦은 포인트만 모은 창이면 기록된 _last 유지
+        void mergeStored(Map<String, Object> stored) {
+            Map<String, FieldAggregate> storedFields = new HashMap<>();
+            stored.forEach((column, value) -> {
+                int split = column.lastIndexOf('_');
+                if (split <= 0 || !(value instanceof Number number) || !isAggregated(column, value)) {
+                    return;
+                }
+                FieldAggregate agg = storedFields.computeIfAbsent(column.substring(0, split), n -> new FieldAggregate());
+                double v = number.doubleValue();
+                switch (column.substring(split + 1)) {
+                    case "min" -> agg.min = v;
+                    case "max" -> agg.max = v;
+                    case "mean" -> agg.sum = v; // 개수를 알아야 합계가 되므로 아래에서 곱함
+                    case "count" -> agg.count = number.longValue();
+                    case "last" -> agg.last = v;
+                    default -> { }
+                }
+            });
+            storedFields.forEach((name, agg) -> {
+                if (agg.count <= 0) {
+                    return;
+                }
+                agg.sum *= agg.count;
+                agg.lastTime = partial ? Long.MIN_VALUE : Long.MAX_VALUE;
+                fields.computeIfAbsent(name, n -> new FieldAggregate()).merge(agg);
+            });
+        }
+
+        void add(Map<String, Object> values, long time) {
+            values.forEach((name, value) -> {
+                if (isAggregated(name, value)) {
+                    fields.computeIfAbsent(name, n -> new FieldAggregate()).add(((Number) value).doubleValue(), time);
+                }
+            });
+        }
+    }
+
+    private static final class FieldAggregate {
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum;
+        long count;
+        double last;
+        long lastTime = Long.MIN_VALUE;
+
+        void add(double value, long time) {
+            if (!Double.isFinite(value)) {
+                return;
+            }
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            count++;
+            if (time >= lastTime) {
+                last = value;
+                lastTime = time;
+            }
+        }
+
+        void merge(FieldAggregate other) {
+            if (other.count == 0) {
+                return;
+            }
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            sum += other.sum;
+            count += other.count;
+            if (other.lastTime >= lastTime) {
+                last = other.last;
+                lastTime = other.lastTime;
+            }
+        }
+    }
+}
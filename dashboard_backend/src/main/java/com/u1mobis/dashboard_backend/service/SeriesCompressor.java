@@ -0,0 +1,270 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 저장 전 시계열 압축 (시리즈별 deadband / swinging-door)
+ * - DEADBAND: 마지막 저장값과의 차이가 tolerance 를 넘는 값만 저장
+ * - SWINGING_DOOR: 마지막 저장점에서 건너뛴 값마다 ±tolerance 문을 좁혀 가다가, 저장점→현재 값 직선이 문을 벗어나면
+ *   직전 값을 저장 (저장점 사이를 직선으로 이으면 모든 원본 값과 tolerance 이내)
+ * - 시간 창(window-ms)마다 첫 값과 마지막 값은 항상 저장 (마지막 값은 다음 창의 첫 값이 오거나 flushIdle 때)
+ * - 보류 값 없이 idle-evict-windows 개 창 동안 값이 없던 시리즈는 flushIdle 때 상태를 지움
+ * 저장 여부가 다음 값이 와야 정해지므로 판정 결과는 "직전 값 저장" / "현재 값 저장" 두 가지다.
+ * 손실 압축이므로 기본은 OFF, 켜면 저장되지 않은 값의 오차는 tolerance 이내
+ * (DEADBAND 는 직전 저장값 기준, SWINGING_DOOR 는 저장점 사이 직선 보간 기준).
+ * 시리즈 키는 "<계열>:<식별자>" 형태이며 압축률은 계열별로 집계한다.
+ */
+@Component
+@Slf4j
+public class SeriesCompressor {
+
+    public enum Mode {
+        OFF, DEADBAND, SWINGING_DOOR
+    }
+
+    @Value("${compression.mode:OFF}")
+    private Mode mode;
+
+    // 기본 허용 오차 (절대값, 값 범위가 다른 시리즈는 setTolerance 로 따로 지정)
+    @Value("${compression.tolerance:0.1}")
+    private double defaultTolerance;
+
+    @Value("${compression.window-ms:60000}")
+    private long windowMillis;
+
+    // 이 창 수만큼 값이 없던 시리즈 상태 제거 (다음 값은 어차피 새 창의 첫 값이라 판정 결과는 같음)
+    @Value("${compression.idle-evict-windows:3}")
+    private int idleEvictWindows;
+
+    private final Map<String, Double> tolerances = new ConcurrentHashMap<>();
+
+    // Key: 시리즈 키
+    private final Map<String, SeriesState> states = new ConcurrentHashMap<>();
+
+    // Key: 계열, Value: {입력 수, 저장 수}
+    private final Map<String, AtomicLong[]> counters = new ConcurrentHashMap<>();
+
+    private final AtomicLong evictedSeries = new AtomicLong();
+
+    /**
+     * 한 값에 대한 저장 판정
+     * @param previous 지금 저장해야 하는 직전 값 (없으면 null)
+     * @param keepCurrent 현재 값을 바로 저장해야 하는지
+     */
+    public record Decision(Sample previous, boolean keepCurrent) {
+
+        static final Decision CURRENT = new Decision(null, true);
+        static final Decision NONE = new Decision(null, false);
+    }
+
+    /**
+     * 보류 중인 값 (original 은 입력 그대로의 값, 정수 필드 타입 유지용)
+     */
+    public record Sample(long time, double value, Object original) {
+    }
+
+    public boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+
+    /**
+     * 시리즈별 허용 오차 지정 (키 또는 계열 단위, 없으면 compression.tolerance)
+     */
+    public void setTolerance(String seriesOrFamily, double tolerance) {
+        tolerances.put(seriesOrFamily, tolerance);
+    }
+
+    /**
+     * 값 하나를 넣고 저장 판정을 받음
+     */
+    public Decision offer(String series, long time, double value, Object original) {
+        String family = familyOf(series);
+        AtomicLong[] counter = counters.computeIfAbsent(family, f -> new AtomicLong[] {new AtomicLong(), new AtomicLong()});
+        counter[0].incrementAndGet();
+        if (mode == Mode.OFF || !Double.isFinite(value)) {
+            counter[1].incrementAndGet();
+            return Decision.CURRENT;
+        }
+        double tolerance = toleranceOf(series, family);
+        Sample sample = new Sample(time, value, original);
+        Decision[] decision = new Decision[1];
+        states.compute(series, (key, state) -> {
+            if (state == null) {
+                state = new SeriesState();
+            }
+            decision[0] = state.offer(sample, tolerance);
+            return state;
+        });
+        Decision result = decision[0];
+        counter[1].addAndGet((result.previous() != null ? 1 : 0) + (result.keepCurrent() ? 1 : 0));
+        return result;
+    }
+
+    /**
+     * 창이 끝났는데 다음 값이 오지 않은 시리즈의 마지막 값을 꺼냄 (계열 단위)
+     * grace 는 창 끝 이후 늦게 오는 값을 기다리는 시간, 오래 값이 없던 시리즈는 여기서 제거
+     */
+    public void flushIdle(String family, long now, long graceMillis, BiConsumer<String, Sample> sink) {
+        String prefix = family + ":";
+        AtomicLong[] counter = counters.get(family);
+        long cutoff = now - graceMillis;
+        states.forEach((series, current) -> {
+            if (!series.startsWith(prefix)) {
+                return;
+            }
+            Sample[] flushed = new Sample[1];
+            states.computeIfPresent(series, (key, state) -> {
+                flushed[0] = state.takeIdle(cutoff);
+                if (flushed[0] == null && state.isIdle(cutoff - idleEvictWindows * windowMillis)) {
+                    evictedSeries.incrementAndGet();
+                    return null;
+                }
+                return state;
+            });
+            if (flushed[0] != null) {
+                if (counter != null) {
+                    counter[1].incrementAndGet();
+                }
+                sink.accept(series, flushed[0]);
+            }
+        });
+    }
+
+    /**
+     * 계열의 현재 시리즈 키 (보류 값 기록에 필요한 부가 정보 정리용)
+     */
+    public void forEachSeries(String family, Consumer<String> action) {
+        String prefix = family + ":";
+        for (String series : states.keySet()) {
+            if (series.startsWith(prefix)) {
+                action.accept(series);
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", mode.name());
+        stats.put("tolerance", defaultTolerance);
+        stats.put("windowMs", windowMillis);
+        stats.put("series", states.size());
+        stats.put("evictedSeries", evictedSeries.get());
+        counters.forEach((family, counter) -> {
+            long offered = counter[0].get();
+            long kept = counter[1].get();
+            Map<String, Object> familyStats = new LinkedHashMap<>();
+            familyStats.put("offered", offered);
+            familyStats.put("kept", kept);
+            familyStats.put("ratio", kept > 0 ? Math.round(offered * 10.0 / kept) / 10.0 : 0.0);
+            stats.put(family, familyStats);
+        });
+        return stats;
+    }
+
+    private double toleranceOf(String series, String family) {
+        Double tolerance = tolerances.get(series);
+        if (tolerance == null) {
+            tolerance = tolerances.get(family);
+        }
+        return tolerance != null ? tolerance : defaultTolerance;
+    }
+
+    private static String familyOf(String series) {
+        int colon = series.indexOf(':');
+        return colon > 0 ? series.substring(0, colon) : series;
+    }
+
+    // 시리즈 한 개의 압축 상태 (states.compute 잠금 안에서만 갱신)
+    private final class SeriesState {
+
+        Sample archived;   // 마지막으로 저장한 값
+        Sample held;       // 받았지만 아직 저장하지 않은 마지막 값
+        double minUpper;   // 문 위쪽 기울기의 최소
+        double maxLower;   // 문 아래쪽 기울기의 최대
+
+        Decision offer(Sample sample, double tolerance) {
+            Sample last = held != null ? held : archived;
+            if (last == null || windowOf(sample.time()) != windowOf(last.time())) {
+                // 새 창: 직전 창의 마지막 값과 새 창의 첫 값을 저장
+                Sample previous = held;
+                archive(sample);
+                return new Decision(previous, true);
+            }
+            if (mode == Mode.DEADBAND) {
+                if (Math.abs(sample.value() - archived.value()) > tolerance) {
+                    archive(sample);
+                    return Decision.CURRENT;
+                }
+                held = sample;
+                return Decision.NONE;
+            }
+
+            long dt = sample.time() - archived.time();
+            if (dt <= 0) {
+                // 같은 시각/역순 값은 기울기를 정할 수 없으므로 차이가 클 때만 저장
+                if (Math.abs(sample.value() - archived.value()) > tolerance) {
+                    Sample previous = held;
+                    archive(sample);
+                    return new Decision(previous, true);
+                }
+                return Decision.NONE;
+            }
+            double slope = (sample.value() - archived.value()) / dt;
+            if (held == null || (slope >= maxLower && slope <= minUpper)) {
+                // 저장점→현재 값 직선이 건너뛴 값들을 모두 tolerance 안에서 지나감, 현재 값도 문에 반영
+                double upper = (sample.value() + tolerance - archived.value()) / dt;
+                double lower = (sample.value() - tolerance - archived.value()) / dt;
+                minUpper = held == null ? upper : Math.min(minUpper, upper);
+                maxLower = held == null ? lower : Math.max(maxLower, lower);
+                held = sample;
+                return Decision.NONE;
+            }
+            // 직선이 문을 벗어남: 직전 값을 저장하고 거기서 문을 다시 염
+            Sample previous = held;
+            archive(previous);
+            long restart = sample.time() - previous.time();
+            if (restart <= 0) {
+                archive(sample);
+                return new Decision(previous, true);
+            }
+            minUpper = (sample.value() + tolerance - previous.value()) / restart;
+            maxLower = (sample.value() - tolerance - previous.value()) / restart;
+            held = sample;
+            return new Decision(previous, false);
+        }
+
+        // 보류 값이 있고 그 창이 cutoff 전에 끝났으면 저장 대상으로 꺼냄
+        Sample takeIdle(long cutoff) {
+            if (held == null || (windowOf(held.time()) + 1) * windowMillis > cutoff) {
+                return null;
+            }
+            Sample idle = held;
+            archive(idle);
+            return idle;
+        }
+
+        // 보류 값이 없고 마지막 저장값의 창이 cutoff 전에 끝남
+        boolean isIdle(long cutoff) {
+            return held == null && archived != null && (windowOf(archived.time()) + 1) * windowMillis <= cutoff;
+        }
+
+        private void archive(Sample sample) {
+            archived = sample;
+            held = null;
+        }
+
+        private long windowOf(long time) {
+            return Math.floorDiv(time, windowMillis);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 시계열 테이블 월 파티션 관리
+ * - 앞으로 사용할 월 파티션을 미리 생성 (DEFAULT 파티션에 이미 들어간 그 월 행은 생성 시 옮김)
+ * - DEFAULT 파티션에 남은 행 수를 점검마다 확인 (미리 만든 범위 밖 시각의 행)
+ * - 보관 기간이 지난 파티션은 분리(detach) 후 보관 스키마로 이동하거나 삭제
+ * (파티션 구조는 db/migration/V1__partition_telemetry_tables.sql 참고)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TelemetryPartitionService {
+
+    // 월 파티션으로 관리하는 테이블
+    public static final List<String> PARTITIONED_TABLES = List.of(
+            "kpi_data", "environment_sensor", "production_completed",
+            "quality_records", "conveyor_status", "alerts");
+
+    // DEFAULT 파티션 행 수 확인 상한 (전체를 세지 않음)
+    private static final int DEFAULT_ROWS_LIMIT = 10_000;
+
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 미리 만들어 둘 파티션 개월 수 (이번 달 포함 이후 N개월)
+    @Value("${partition.premake-months:3}")
+    private int premakeMonths;
+
+    // 보관 개월 수 (이번 달 기준 이전 N개월까지 유지, 0 이하이면 만료 처리 안 함)
+    @Value("${partition.retention-months:12}")
+    private int retentionMonths;
+
+    // 만료 파티션 처리 방식: archive(분리 후 보관 스키마로 이동) / detach(분리만) / drop(삭제)
+    @Value("${partition.retention-action:archive}")
+    private String retentionAction;
+
+    @Value("${partition.archive-schema:telemetry_archive}")
+    private String archiveSchema;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintainPartitions();
+    }
+
+    // 매일 00:10 파티션 점검
+    @Scheduled(cron = "${partition.maintenance-cron:0 10 0 * * *}")
+    public void maintainPartitions() {
+        YearMonth currentMonth = YearMonth.now();
+        for (String table : PARTITIONED_TABLES) {
+            try {
+                createUpcomingPartitions(table, currentMonth);
+                checkDefaultPartition(table);
+                if (retentionMonths > 0) {
+                    expirePartitions(table, currentMonth.minusMonths(retentionMonths));
+                }
+            } catch (Exception e) {
+                log.error("파티션 관리 실패 - 테이블: {}, 오류: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    // 이번 달부터 premakeMonths 개월 후까지 파티션 생성
+    private void createUpcomingPartitions(String table, YearMonth currentMonth) {
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            String partition = jdbcTemplate.queryForObject("SELECT telemetry_create_month_partition(?, ?)",
+                    String.class, table, Date.valueOf(month.atDay(1)));
+            log.debug("파티션 확인 - {}", partition);
+        }
+    }
+
+    // DEFAULT 파티션에 행이 있으면 경고 (월 파티션 범위를 벗어난 시각, 쌓이면 조회가 DEFAULT 까지 스캔함)
+    private void checkDefaultPartition(String table) {
+        String defaultPartition = table + "_default";
+        Long rows = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM (SELECT 1 FROM " + quote(defaultPartition) + " LIMIT " + DEFAULT_ROWS_LIMIT + ") t",
+                Long.class);
+        if (rows != null && rows > 0) {
+            log.warn("DEFAULT 파티션에 행 {}{}개 - {} (timestamp 범위 확인 필요)", rows,
+                    rows >= DEFAULT_ROWS_LIMIT ? "+" : "", defaultPartition);
+        }
+    }
+
+    // cutoff 월보다 이전 파티션 만료 처리
+    private void expirePartitions(String table, YearMonth cutoff) {
+        Pattern partitionPattern = Pattern.compile("^" + Pattern.quote(table) + "_(\\d{6})$");
+        for (String partition : listPartitions(table)) {
+            Matcher matcher = partitionPattern.matcher(partition);
+            if (!matcher.matches()) {
+                continue; // DEFAULT 파티션 등
+            }
+            YearMonth month = YearMonth.parse(matcher.group(1), SUFFIX_FORMAT);
+            if (!month.isBefore(cutoff)) {
+                continue;
+            }
+
+            switch (retentionAction) {
+                case "drop" -> {
+                    jdbcTemplate.execute("DROP TABLE " + quote(partition));
+                    log.info("만료 파티션 삭제 - {}", partition);
+                }
+                case "detach" -> {
+                    detach(table, partition);
+                    log.info("만료 파티션 분리 - {}", partition);
+                }
+                default -> {
+                    // 설정된 보관 스키마 (바뀐 경우에도 여기서 만듦)
+                    jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + quote(archiveSchema));
+                    detach(table, partition);
+                    jdbcTemplate.execute("ALTER TABLE " + quote(partition) + " SET SCHEMA " + quote(archiveSchema));
+                    log.info("만료 파티션 보관 - {} -> {}", partition, archiveSchema);
+                }
+            }
+        }
+    }
+
+    private void detach(String table, String partition) {
+        jdbcTemplate.execute("ALTER TABLE " + quote(table) + " DETACH PARTITION " + quote(partition));
+    }
+
+    // 부모 테이블에 연결된 파티션 목록
+    private List<String> listPartitions(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "JOIN pg_namespace n ON n.oid = p.relnamespace " +
+                "WHERE p.relname = ? AND n.nspname = current_schema() ORDER BY c.relname",
+                String.class, table);
+    }
+
+    private String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,9 @@
+package com.u1mobis.dashboard_backend.service;
+
+/**
+ * 임계값 규칙 변경 이벤트 (등록/수정/삭제 커밋 후 규칙 재컴파일)
+ * @param companyId 회사 ID
+ * @param ruleId    변경된 규칙 ID
+ */
+public record ThresholdRuleChangedEvent(Long companyId, Long ruleId) {
+}
@@ -0,0 +1,432 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.u1mobis.dashboard_backend.entity.Company;
+import com.u1mobis.dashboard_backend.entity.EnvironmentSensor;
+import com.u1mobis.dashboard_backend.entity.ThresholdRule;
+import com.u1mobis.dashboard_backend.entity.ThresholdRule.Comparator;
+import com.u1mobis.dashboard_backend.entity.ThresholdRule.Metric;
+import com.u1mobis.dashboard_backend.entity.ThresholdRule.RuleWindow;
+import com.u1mobis.dashboard_backend.repository.CompanyRepository;
+import com.u1mobis.dashboard_backend.repository.ThresholdRuleRepository;
+import com.u1mobis.dashboard_backend.service.AlertStateEngine.AlertRule;
+import com.u1mobis.dashboard_backend.service.AlertStateEngine.AlertState;
+import com.u1mobis.dashboard_backend.service.AlertStateEngine.Decision;
+import com.u1mobis.dashboard_backend.service.AlertStateEngine.Direction;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 임계값 규칙 평가기
+ * - DB 규칙을 회사/라인별 평면 배열로 컴파일해 이벤트마다 단순 반복문으로 평가
+ * - 규칙 변경 시 새 스냅샷으로 통째로 교체 (재시작 불필요)
+ * - 회사/라인 규칙이 없는 지표는 기본 규칙(기존 하드코딩 기준값) 사용 (지표 단위로 대체)
+ * - 삭제/수정되었거나 더 이상 적용되지 않는 규칙의 발생 상태는 해제 알림을 보내고 정리
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ThresholdRuleEngine {
+
+    private static final Metric[] METRICS = Metric.values();
+    private static final RuleWindow[] WINDOWS = RuleWindow.values();
+    private static final int WINDOW_COUNT = WINDOWS.length;
+    private static final int VALUE_SLOTS = METRICS.length * WINDOW_COUNT;
+
+    // 기본 규칙 (기존 KPICalculationService / AlertService 기준값과 동일, 해제 기준만 추가)
+    public static final List<ThresholdRule> DEFAULT_RULES = List.of(
+            defaultRule(-1L, "OEE_LOW", Metric.OEE, Comparator.LT, 70.0, 72.0, "danger", "OEE 성능 저하: {value}% (기준: {threshold}%)"),
+            defaultRule(-2L, "FTY_LOW", Metric.FTY, Comparator.LT, 85.0, 87.0, "danger", "FTY 품질 저하: {value}% (기준: {threshold}%)"),
+            defaultRule(-3L, "OTD_LOW", Metric.OTD, Comparator.LT, 90.0, 92.0, "danger", "OTD 납기 지연: {value}% (기준: {threshold}%)"),
+            defaultRule(-4L, "OEE_EXCELLENT", Metric.OEE, Comparator.GTE, 95.0, 93.0, "success", "우수 OEE 성능: {value}% - 축하합니다!"),
+            defaultRule(-5L, "TEMPERATURE", Metric.TEMPERATURE, Comparator.GT, 35.0, 33.0, "danger", "고온 경보: {value}°C"),
+            defaultRule(-6L, "HUMIDITY", Metric.HUMIDITY, Comparator.GT, 80.0, 75.0, "danger", "고습도 경보: {value}%"),
+            defaultRule(-7L, "AIR_QUALITY", Metric.AIR_QUALITY, Comparator.GT, 300.0, 250.0, "danger", "공기질 경보: {value}"));
+
+    private final ThresholdRuleRepository thresholdRuleRepository;
+    private final AlertStateEngine alertStateEngine;
+    private final AlertService alertService;
+    private final KPIStreamAggregator kpiStreamAggregator;
+    private final CompanyRepository companyRepository;
+
+    // 해제 기준이 없는 규칙의 기본 히스테리시스 폭 (기준값 대비 비율)
+    @Value("${alert.rules.default-hysteresis-ratio:0.03}")
+    private double defaultHysteresisRatio;
+
+    private final CompanyRules defaultRules = new CompanyRules(compile(DEFAULT_RULES, 0.0), Map.of());
+
+    // 컴파일된 규칙 스냅샷 (Key: companyId) - 교체만 하고 수정하지 않음
+    private volatile Map<Long, CompanyRules> rulesByCompany = Map.of();
+    private volatile LocalDateTime loadedUpdatedAt;
+    private volatile long loadedCount = -1;
+    // 마지막으로 컴파일한 규칙별 수정 시각 (Key: ruleId) - 수정된 규칙의 상태 정리용
+    private volatile Map<Long, LocalDateTime> loadedVersions = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    // 규칙 등록/수정/삭제가 커밋된 뒤 재컴파일 (트랜잭션 밖에서 호출되면 바로 실행)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRuleChanged(ThresholdRuleChangedEvent event) {
+        reload();
+    }
+
+    // 다른 인스턴스에서 바뀐 규칙 반영 (마지막 수정 시각/건수 비교)
+    @Scheduled(fixedDelayString = "${alert.rules.reload-check-ms:30000}")
+    public void reloadIfChanged() {
+        try {
+            LocalDateTime lastUpdatedAt = thresholdRuleRepository.findLastUpdatedAt();
+            long count = thresholdRuleRepository.count();
+            if (count != loadedCount || !Objects.equals(lastUpdatedAt, loadedUpdatedAt)) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.error("임계값 규칙 변경 확인 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 활성 규칙 전체를 다시 컴파일해 교체
+     */
+    public synchronized void reload() {
+        LocalDateTime lastUpdatedAt = thresholdRuleRepository.findLastUpdatedAt();
+        long count = thresholdRuleRepository.count();
+        List<ThresholdRule> rules = thresholdRuleRepository.findByEnabledTrue();
+
+        // 회사별 → 라인별(null = 회사 전체) 분류
+        Map<Long, Map<Long, List<ThresholdRule>>> grouped = new HashMap<>();
+        Map<Long, LocalDateTime> versions = new HashMap<>();
+        for (ThresholdRule rule : rules) {
+            grouped.computeIfAbsent(rule.getCompanyId(), k -> new HashMap<>())
+                   .computeIfAbsent(rule.getLineId(), k -> new ArrayList<>())
+                   .add(rule);
+            versions.put(rule.getRuleId(), rule.getUpdatedAt());
+        }
+
+        Map<Long, CompanyRules> compiled = new HashMap<>();
+        grouped.forEach((companyId, byLine) -> {
+            List<ThresholdRule> companyWide = byLine.getOrDefault(null, List.of());
+            Map<Long, CompiledRules> lineRules = new HashMap<>();
+            byLine.forEach((lineId, lineSpecific) -> {
+                if (lineId != null) {
+                    // 라인 규칙 = 회사 전체 규칙 + 해당 라인 규칙 + 둘 다 없는 지표의 기본 규칙
+                    List<ThresholdRule> merged = new ArrayList<>(companyWide);
+                    merged.addAll(lineSpecific);
+                    lineRules.put(lineId, compile(withDefaults(merged), defaultHysteresisRatio));
+                }
+            });
+            compiled.put(companyId, new CompanyRules(compile(withDefaults(companyWide), defaultHysteresisRatio),
+                    lineRules));
+        });
+
+        // 수정된 규칙 (같은 ID, 수정 시각 변경) - 이전 정의로 잡힌 발생 상태는 새 기준으로 다시 평가
+        Map<Long, LocalDateTime> previousVersions = loadedVersions;
+        Set<Long> modified = new HashSet<>();
+        versions.forEach((ruleId, updatedAt) -> {
+            if (previousVersions.containsKey(ruleId) && !Objects.equals(previousVersions.get(ruleId), updatedAt)) {
+                modified.add(ruleId);
+            }
+        });
+
+        rulesByCompany = Map.copyOf(compiled);
+        loadedVersions = versions;
+        loadedUpdatedAt = lastUpdatedAt;
+        loadedCount = count;
+        releaseStates(state -> modified.contains(state.ruleId)
+                || !rulesFor(state.companyId, state.lineId).contains(state.ruleId));
+        log.info("임계값 규칙 컴파일 완료 - 회사: {}개, 규칙: {}개", compiled.size(), rules.size());
+    }
+
+    // 적용 중인 규칙에서 빠진 상태 정리, 알림이 나간 발생 상태는 해제 알림 전송
+    private void releaseStates(Predicate<AlertState> stale) {
+        for (AlertState state : alertStateEngine.releaseStates(stale)) {
+            try {
+                companyRepository.findById(state.companyId).ifPresent(company ->
+                        alertService.publishThresholdAlert(company, state.lineId, state.alertType,
+                                "[해제] 규칙 변경으로 알림 해제: " + state.alertType, "success", state.lastValue,
+                                Decision.CLEAR));
+            } catch (Exception e) {
+                log.error("규칙 변경 해제 알림 실패 - 회사: {}, 타입: {}, 오류: {}", state.companyId, state.alertType,
+                        e.getMessage());
+            }
+        }
+    }
+
+    // ==================== 평가 ====================
+
+    /**
+     * KPI 샘플 평가 (값은 % 단위)
+     */
+    public void evaluateKpi(Company company, Long lineId, double oee, double availability, double performance,
+                            double quality, double fty, double otd) {
+        CompiledRules rules = rulesFor(company.getCompanyId(), lineId);
+        if (rules.kpi.size == 0) {
+            return;
+        }
+        double[] values = emptyValues();
+        setValue(values, Metric.OEE, RuleWindow.SAMPLE, oee);
+        setValue(values, Metric.AVAILABILITY, RuleWindow.SAMPLE, availability);
+        setValue(values, Metric.PERFORMANCE, RuleWindow.SAMPLE, performance);
+        setValue(values, Metric.QUALITY, RuleWindow.SAMPLE, quality);
+        setValue(values, Metric.FTY, RuleWindow.SAMPLE, fty);
+        setValue(values, Metric.OTD, RuleWindow.SAMPLE, otd);
+
+        // 규칙이 참조하는 집계 윈도우만 조회 (재시작 직후 채워지지 않은 윈도우는 평가 제외)
+        for (RuleWindow window : rules.kpi.windows) {
+            KPIStreamAggregator.Window aggregatorWindow = toAggregatorWindow(window);
+            if (!kpiStreamAggregator.isWarm(company.getCompanyName(), lineId, aggregatorWindow)) {
+                continue;
+            }
+            kpiStreamAggregator.getWindow(company.getCompanyName(), lineId, aggregatorWindow).ifPresent(stats -> {
+                setValue(values, Metric.OEE, window, stats.oee());
+                setValue(values, Metric.AVAILABILITY, window, stats.availability());
+                setValue(values, Metric.PERFORMANCE, window, stats.performance());
+                setValue(values, Metric.QUALITY, window, stats.quality());
+                setValue(values, Metric.FTY, window, stats.fty());
+                setValue(values, Metric.OTD, window, stats.otd());
+            });
+        }
+        evaluate(company, lineId, rules.kpi, values);
+    }
+
+    /**
+     * 환경 센서 샘플 평가
+     */
+    public void evaluateEnvironment(Company company, EnvironmentSensor sensor) {
+        Long lineId = sensor.getLineId() != null ? sensor.getLineId() : RollupService.FACTORY_WIDE_LINE_ID;
+        CompiledRules rules = rulesFor(company.getCompanyId(), lineId);
+        if (rules.environment.size == 0) {
+            return;
+        }
+        double[] values = emptyValues();
+        if (sensor.getTemperature() != null) {
+            setValue(values, Metric.TEMPERATURE, RuleWindow.SAMPLE, sensor.getTemperature());
+        }
+        if (sensor.getHumidity() != null) {
+            setValue(values, Metric.HUMIDITY, RuleWindow.SAMPLE, sensor.getHumidity());
+        }
+        if (sensor.getAirQuality() != null) {
+            setValue(values, Metric.AIR_QUALITY, RuleWindow.SAMPLE, sensor.getAirQuality());
+        }
+        evaluate(company, lineId, rules.environment, values);
+    }
+
+    // 평면 배열 평가 루프 - 값이 없는 규칙(NaN)은 건너뜀
+    private void evaluate(Company company, Long lineId, FlatRules rules, double[] values) {
+        AlertState[] states = rules.statesFor(alertStateEngine, company.getCompanyId(), lineId);
+        for (int i = 0; i < rules.size; i++) {
+            double value = values[rules.valueIndex[i]];
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            Decision decision = alertStateEngine.evaluate(states[i], rules.alertRules[i], value);
+            if (decision == Decision.RAISE || decision == Decision.RENOTIFY || decision == Decision.CLEAR) {
+                // 문구 생성과 저장/전송은 상태가 바뀐 드문 경우에만 수행
+                String message = rules.formatMessage(i, value);
+                alertService.publishThresholdAlert(company, lineId, rules.alertRules[i].alertType(),
+                        decision == Decision.CLEAR ? "[해제] " + message : message,
+                        decision == Decision.CLEAR ? "success" : rules.severity[i],
+                        rules.metric[i] == Metric.AIR_QUALITY ? (Object) Math.round(value) : value, decision);
+            }
+        }
+    }
+
+    // ==================== 조회 ====================
+
+    // 회사에 적용 중인 규칙이 없으면 기본 규칙
+    public boolean usesDefaultRules(Long companyId) {
+        return !rulesByCompany.containsKey(companyId);
+    }
+
+    private CompiledRules rulesFor(Long companyId, Long lineId) {
+        CompanyRules companyRules = companyId != null ? rulesByCompany.getOrDefault(companyId, defaultRules)
+                : defaultRules;
+        CompiledRules lineRules = companyRules.byLine.get(lineId);
+        return lineRules != null ? lineRules : companyRules.companyWide;
+    }
+
+    // ==================== 컴파일 ====================
+
+    // 규칙이 하나도 없는 지표만 기본 규칙 추가 (규칙 하나가 다른 지표의 기본 규칙까지 끄지 않도록)
+    private static List<ThresholdRule> withDefaults(List<ThresholdRule> rules) {
+        Set<Metric> covered = EnumSet.noneOf(Metric.class);
+        for (ThresholdRule rule : rules) {
+            covered.add(rule.getMetric());
+        }
+        List<ThresholdRule> merged = new ArrayList<>(rules);
+        for (ThresholdRule rule : DEFAULT_RULES) {
+            if (!covered.contains(rule.getMetric())) {
+                merged.add(rule);
+            }
+        }
+        return merged;
+    }
+
+    private static CompiledRules compile(List<ThresholdRule> rules, double hysteresisRatio) {
+        List<ThresholdRule> kpi = new ArrayList<>();
+        List<ThresholdRule> environment = new ArrayList<>();
+        for (ThresholdRule rule : rules) {
+            (rule.getMetric().isKpi() ? kpi : environment).add(rule);
+        }
+        return new CompiledRules(new FlatRules(kpi, hysteresisRatio), new FlatRules(environment, hysteresisRatio));
+    }
+
+    private static double[] emptyValues() {
+        double[] values = new double[VALUE_SLOTS];
+        Arrays.fill(values, Double.NaN);
+        return values;
+    }
+
+    private static void setValue(double[] values, Metric metric, RuleWindow window, double value) {
+        values[metric.ordinal() * WINDOW_COUNT + window.ordinal()] = value;
+    }
+
+    private static KPIStreamAggregator.Window toAggregatorWindow(RuleWindow window) {
+        return switch (window) {
+            case MINUTE_1 -> KPIStreamAggregator.Window.MINUTE_1;
+            case MINUTE_15 -> KPIStreamAggregator.Window.MINUTE_15;
+            case HOUR_1 -> KPIStreamAggregator.Window.HOUR_1;
+            case SHIFT -> KPIStreamAggregator.Window.SHIFT;
+            case DAY -> KPIStreamAggregator.Window.DAY;
+            case SAMPLE -> throw new IllegalArgumentException("SAMPLE 은 집계 윈도우가 아닙니다");
+        };
+    }
+
+    private static ThresholdRule defaultRule(Long ruleId, String alertType, Metric metric, Comparator comparator,
+                                             double threshold, double clearThreshold, String severity, String message) {
+        return ThresholdRule.builder()
+                .ruleId(ruleId)
+                .alertType(alertType)
+                .metric(metric)
+                .comparator(comparator)
+                .threshold(threshold)
+                .clearThreshold(clearThreshold)
+                .window(RuleWindow.SAMPLE)
+                .severity(severity)
+                .message(message)
+                .enabled(true)
+                .build();
+    }
+
+    // 회사 규칙 (라인 전용 규칙이 없으면 회사 전체 규칙 사용)
+    private record CompanyRules(CompiledRules companyWide, Map<Long, CompiledRules> byLine) {
+    }
+
+    // 이벤트 종류별 평면 규칙
+    private record CompiledRules(FlatRules kpi, FlatRules environment) {
+
+        boolean contains(long ruleId) {
+            return kpi.contains(ruleId) || environment.contains(ruleId);
+        }
+    }
+
+    /**
+     * 규칙 배열 (인덱스 i = 규칙 i)
+     * - valueIndex: 값 배열 위치 (지표 × 윈도우)
+     * - alertRules: 방향/발생/해제 기준이 미리 계산된 상태 머신 규칙
+     */
+    private static final class FlatRules {
+        final int size;
+        final int[] valueIndex;
+        final AlertRule[] alertRules;
+        final Metric[] metric;
+        final String[] severity;
+        final String[] messageTemplate;
+        final RuleWindow[] windows;      // 참조하는 집계 윈도우 (SAMPLE 제외, 중복 없음)
+        // Key: "companyId_lineId" → 규칙별 상태 (한 번 조회 후 재사용)
+        final Map<String, AlertState[]> statesByLine = new ConcurrentHashMap<>();
+
+        FlatRules(List<ThresholdRule> rules, double hysteresisRatio) {
+            size = rules.size();
+            valueIndex = new int[size];
+            alertRules = new AlertRule[size];
+            metric = new Metric[size];
+            severity = new String[size];
+            messageTemplate = new String[size];
+            Set<RuleWindow> usedWindows = new HashSet<>();
+
+            for (int i = 0; i < size; i++) {
+                ThresholdRule rule = rules.get(i);
+                RuleWindow window = rule.getWindow() != null ? rule.getWindow() : RuleWindow.SAMPLE;
+                if (!rule.getMetric().isKpi()) {
+                    window = RuleWindow.SAMPLE; // 환경 지표는 샘플 값만 지원
+                }
+                if (window != RuleWindow.SAMPLE) {
+                    usedWindows.add(window);
+                }
+
+                boolean below = rule.getComparator() == Comparator.LT || rule.getComparator() == Comparator.LTE;
+                boolean inclusive = rule.getComparator() == Comparator.LTE || rule.getComparator() == Comparator.GTE;
+                double threshold = rule.getThreshold();
+                double band = Math.abs(threshold) * hysteresisRatio;
+                double clearThreshold = rule.getClearThreshold() != null ? rule.getClearThreshold()
+                        : below ? threshold + band : threshold - band;
+
+                valueIndex[i] = rule.getMetric().ordinal() * WINDOW_COUNT + window.ordinal();
+                alertRules[i] = new AlertRule(rule.getRuleId(), rule.getAlertType(),
+                        below ? Direction.BELOW : Direction.ABOVE, threshold, clearThreshold, inclusive);
+                metric[i] = rule.getMetric();
+                severity[i] = rule.getSeverity() != null ? rule.getSeverity() : "danger";
+                messageTemplate[i] = rule.getMessage() != null && !rule.getMessage().isBlank()
+                        ? rule.getMessage()
+                        : rule.getMetric() + " " + rule.getComparator() + " {threshold} (현재: {value}, 윈도우: " + window + ")";
+            }
+            windows = usedWindows.toArray(new RuleWindow[0]);
+        }
+
+        AlertState[] statesFor(AlertStateEngine engine, Long companyId, Long lineId) {
+            return statesByLine.computeIfAbsent(companyId + "_" + lineId, k -> {
+                AlertState[] states = new AlertState[size];
+                for (int i = 0; i < size; i++) {
+                    states[i] = engine.stateFor(companyId, lineId, alertRules[i]);
+                }
+                return states;
+            });
+        }
+
+        boolean contains(long ruleId) {
+            for (AlertRule rule : alertRules) {
+                if (rule.ruleId() == ruleId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        String formatMessage(int i, double value) {
+            String formattedValue = metric[i] == Metric.AIR_QUALITY
+                    ? String.valueOf(Math.round(value))
+                    : String.format("%.1f", value);
+            double threshold = alertRules[i].raiseThreshold();
+            // 기준값은 정수면 소수점 없이 표시 (예: 기준: 70%)
+            String formattedThreshold = threshold == Math.rint(threshold)
+                    ? String.valueOf((long) threshold)
+                    : String.valueOf(threshold);
+            return messageTemplate[i]
+                    .replace("{value}", formattedValue)
+                    .replace("{threshold}", formattedThreshold);
+        }
+    }
+}
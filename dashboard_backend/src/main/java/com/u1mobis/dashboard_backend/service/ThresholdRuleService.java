@@ -0,0 +1,120 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.util.List;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.u1mobis.dashboard_backend.entity.Company;
+import com.u1mobis.dashboard_backend.entity.ThresholdRule;
+import com.u1mobis.dashboard_backend.entity.ThresholdRule.Comparator;
+import com.u1mobis.dashboard_backend.repository.CompanyRepository;
+import com.u1mobis.dashboard_backend.repository.ThresholdRuleRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 회사별 임계값 규칙 관리
+ * 저장/수정/삭제가 커밋되면 규칙을 다시 컴파일해 바로 적용한다 (ThresholdRuleChangedEvent).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ThresholdRuleService {
+
+    private final ThresholdRuleRepository thresholdRuleRepository;
+    private final CompanyRepository companyRepository;
+    private final ThresholdRuleEngine thresholdRuleEngine;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 회사 규칙 목록 (등록된 규칙이 없으면 기본 규칙이 적용 중)
+    public List<ThresholdRule> getRules(String companyName) {
+        return thresholdRuleRepository.findByCompanyIdOrderByLineIdAscRuleIdAsc(getCompany(companyName).getCompanyId());
+    }
+
+    public boolean usesDefaultRules(String companyName) {
+        return thresholdRuleEngine.usesDefaultRules(getCompany(companyName).getCompanyId());
+    }
+
+    @Transactional
+    public ThresholdRule createRule(String companyName, ThresholdRule request) {
+        Company company = getCompany(companyName);
+        validate(request);
+        request.setRuleId(null);
+        request.setCompanyId(company.getCompanyId());
+        if (request.getSeverity() == null) {
+            request.setSeverity("danger");
+        }
+        ThresholdRule saved = thresholdRuleRepository.save(request);
+        eventPublisher.publishEvent(new ThresholdRuleChangedEvent(company.getCompanyId(), saved.getRuleId()));
+        log.info("임계값 규칙 등록 - 회사: {}, 규칙: {} ({} {} {})", companyName, saved.getRuleId(),
+                saved.getMetric(), saved.getComparator(), saved.getThreshold());
+        return saved;
+    }
+
+    @Transactional
+    public ThresholdRule updateRule(String companyName, Long ruleId, ThresholdRule request) {
+        ThresholdRule rule = getRule(companyName, ruleId);
+        validate(request);
+        rule.setLineId(request.getLineId());
+        rule.setAlertType(request.getAlertType());
+        rule.setMetric(request.getMetric());
+        rule.setComparator(request.getComparator());
+        rule.setThreshold(request.getThreshold());
+        rule.setClearThreshold(request.getClearThreshold());
+        if (request.getWindow() != null) {
+            rule.setWindow(request.getWindow());
+        }
+        if (request.getSeverity() != null) {
+            rule.setSeverity(request.getSeverity());
+        }
+        rule.setMessage(request.getMessage());
+        if (request.getEnabled() != null) {
+            rule.setEnabled(request.getEnabled());
+        }
+        ThresholdRule saved = thresholdRuleRepository.saveAndFlush(rule);
+        eventPublisher.publishEvent(new ThresholdRuleChangedEvent(rule.getCompanyId(), ruleId));
+        log.info("임계값 규칙 수정 - 회사: {}, 규칙: {}", companyName, ruleId);
+        return saved;
+    }
+
+    @Transactional
+    public void deleteRule(String companyName, Long ruleId) {
+        ThresholdRule rule = getRule(companyName, ruleId);
+        thresholdRuleRepository.delete(rule);
+        eventPublisher.publishEvent(new ThresholdRuleChangedEvent(rule.getCompanyId(), ruleId));
+        log.info("임계값 규칙 삭제 - 회사: {}, 규칙: {}", companyName, ruleId);
+    }
+
+    private ThresholdRule getRule(String companyName, Long ruleId) {
+        return thresholdRuleRepository.findByRuleIdAndCompanyId(ruleId, getCompany(companyName).getCompanyId())
+                .orElseThrow(() -> new RuntimeException("규칙을 찾을 수 없습니다: " + ruleId));
+    }
+
+    private Company getCompany(String companyName) {
+        return companyRepository.findByCompanyName(companyName)
+                .orElseThrow(() -> new RuntimeException("회사를 찾을 수 없습니다: " + companyName));
+    }
+
+    // 필수 값 및 해제 기준 방향 검사
+    private void validate(ThresholdRule rule) {
+        if (rule.getAlertType() == null || rule.getAlertType().isBlank()) {
+            throw new RuntimeException("알림 타입은 필수입니다");
+        }
+        if (rule.getMetric() == null || rule.getComparator() == null || rule.getThreshold() == null) {
+            throw new RuntimeException("지표, 비교 연산자, 기준값은 필수입니다");
+        }
+        if (rule.getWindow() != null && rule.getWindow() != ThresholdRule.RuleWindow.SAMPLE
+                && !rule.getMetric().isKpi()) {
+            throw new RuntimeException("환경 지표는 SAMPLE 윈도우만 지원합니다: " + rule.getMetric());
+        }
+        if (rule.getClearThreshold() != null) {
+            boolean below = rule.getComparator() == Comparator.LT || rule.getComparator() == Comparator.LTE;
+            if (below ? rule.getClearThreshold() < rule.getThreshold() : rule.getClearThreshold() > rule.getThreshold()) {
+                throw new RuntimeException("해제 기준이 발생 기준의 반대 방향이어야 합니다: " + rule.getClearThreshold());
+            }
+        }
+    }
+}
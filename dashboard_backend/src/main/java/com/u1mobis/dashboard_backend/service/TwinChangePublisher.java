@@ -0,0 +1,89 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 디지털 트윈 변경분 전송 (/topic/twin/{companyName})
+ * - twin_delta: 엔티티 단위 변경분 (fromSeq 다음부터 seq 까지 연속)
+ * - twin_keyframe: 주기적으로 보내는 전체 상태 (seq 기준점 재설정)
+ * 클라이언트는 seq 가 끊기면 /unity/changes?since= 로 누락분을 받는다.
+ * 모든 메시지에 서버 기동 ID(epoch)를 붙인다 - 재기동하면 seq 가 0 부터 다시 시작하므로 epoch 가 바뀌면 seq 를 초기화해야 한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TwinChangePublisher {
+
+    public static final String TOPIC_PREFIX = "/topic/twin/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    // 서버 기동 ID (seq 기준 구분)
+    private final String epoch = UUID.randomUUID().toString();
+
+    private final AtomicLong publishedDeltas = new AtomicLong();
+    private final AtomicLong publishedKeyframes = new AtomicLong();
+    private final AtomicLong publishedBytes = new AtomicLong();
+
+    public void publishDeltas(String companyName, List<TwinDelta> changes) {
+        ObjectNode message = objectMapper.createObjectNode();
+        message.put("type", "twin_delta");
+        message.put("companyName", companyName);
+        message.put("epoch", epoch);
+        message.put("fromSeq", changes.get(0).seq() - 1);
+        message.put("seq", changes.get(changes.size() - 1).seq());
+        message.set("changes", objectMapper.valueToTree(changes));
+        if (send(companyName, message)) {
+            publishedDeltas.addAndGet(changes.size());
+        }
+    }
+
+    public void publishKeyframe(String companyName, Map<String, Object> state) {
+        ObjectNode message = objectMapper.createObjectNode();
+        message.put("type", "twin_keyframe");
+        message.put("companyName", companyName);
+        message.put("epoch", epoch);
+        message.set("seq", objectMapper.valueToTree(state.get("version")));
+        message.set("state", objectMapper.valueToTree(state));
+        if (send(companyName, message)) {
+            publishedKeyframes.incrementAndGet();
+        }
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "epoch", epoch,
+                "publishedDeltas", publishedDeltas.get(),
+                "publishedKeyframes", publishedKeyframes.get(),
+                "publishedBytes", publishedBytes.get());
+    }
+
+    private boolean send(String companyName, ObjectNode message) {
+        try {
+            String payload = objectMapper.writeValueAsString(message);
+            messagingTemplate.convertAndSend(TOPIC_PREFIX + companyName, payload);
+            publishedBytes.addAndGet(payload.length());
+            return true;
+        } catch (Exception e) {
+            log.error("트윈 변경분 전송 실패 - 회사: {}, 오류: {}", companyName, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.util.Map;
+
+/**
+ * 디지털 트윈 엔티티 단위 변경분
+ * @param seq    회사별 변경 순번 (트윈 상태 버전과 같은 값)
+ * @param id     엔티티 ID (제품은 Unity 차량 ID)
+ * @param data   변경 후 엔티티 전체 값 (REMOVED 는 null)
+ */
+public record TwinDelta(long seq, Op op, Entity entity, String id, Long lineId,
+                        Map<String, Object> data, long timestamp) {
+
+    public enum Op {
+        ADDED,
+        MOVED,
+        STATUS,
+        REMOVED
+    }
+
+    public enum Entity {
+        PRODUCT,
+        STATION,
+        ROBOT,
+        CONVEYOR
+    }
+
+    static TwinDelta of(Op op, Entity entity, String id, Long lineId, Map<String, Object> data) {
+        return new TwinDelta(0, op, entity, id, lineId, data, System.currentTimeMillis());
+    }
+
+    TwinDelta withSeq(long seq) {
+        return new TwinDelta(seq, op, entity, id, lineId, data, timestamp);
+    }
+}
@@ -0,0 +1,285 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 디지털 트윈 바이너리 프레임 인코더 (Unity WebGL 용, little-endian)
+ *
+ * <pre>
+ * [헤더 32B]  "TWF1" | u16 포맷버전 | u16 예약 | i64 seq | i64 timestamp | u32 테이블 오프셋 | u32 예약
+ * [섹션 ×4]   제품 → 스테이션 → 로봇 → 컨베이어, 각 섹션은 u32 개수 + 고정 길이 레코드
+ *             제품/로봇은 레코드 뒤에 float32[개수×3] 위치 배열 (4바이트 정렬)
+ *   제품 16B      u16 id | u16 line | u16 station | u16 color | u16 doorColor | u8 status | u8 progress | u8 rework | u8 flags | u16 -
+ *   스테이션 12B  u16 id | u16 line | u16 currentProduct | u8 status | u8 equipmentStatus | f32 efficiency
+ *   로봇 12B      u16 id | u16 line | u8 status | u8 action | u8 battery | u8 flags | u16 productionCount | u16 -
+ *   컨베이어 12B  u16 id | u16 line | u8 command | u8 flags | u16 - | f32 speed
+ * [테이블]    상태 코드표(u16 개수 + 문자열) → 문자열 사전(u16 개수 + 문자열), 문자열 = u16 길이 + UTF-8
+ * </pre>
+ * 문자열 사전 인덱스/라인 없음은 0xFFFF, 상태 코드 없음은 0xFF.
+ */
+@Component
+@Slf4j
+public class TwinFrameEncoder {
+
+    public static final int FORMAT_VERSION = 1;
+    static final int NONE_U16 = 0xFFFF;
+    static final int NONE_U8 = 0xFF;
+
+    private static final int HEADER_BYTES = 32;
+
+    private final BlockingQueue<ByteBuffer> pool;
+    private final int initialCapacity;
+
+    private final AtomicLong encodedFrames = new AtomicLong();
+    private final AtomicLong encodedBytes = new AtomicLong();
+    private final AtomicLong encodeNanos = new AtomicLong();
+
+    public TwinFrameEncoder(@Value("${twin.frame.pool-size:4}") int poolSize,
+                            @Value("${twin.frame.initial-capacity:65536}") int initialCapacity) {
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+        this.initialCapacity = Math.max(initialCapacity, HEADER_BYTES);
+    }
+
+    /**
+     * 프레임 작성 시작 (풀에서 버퍼를 빌리고 finish/close 시 반납)
+     */
+    public FrameWriter begin(long seq) {
+        ByteBuffer buffer = pool.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(initialCapacity);
+        }
+        buffer.clear();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return new FrameWriter(buffer, seq, System.nanoTime());
+    }
+
+    public Map<String, Object> getStats() {
+        long frames = encodedFrames.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("encodedFrames", frames);
+        stats.put("avgFrameBytes", frames > 0 ? encodedBytes.get() / frames : 0);
+        stats.put("avgEncodeMicros", frames > 0 ? encodeNanos.get() / frames / 1000 : 0);
+        stats.put("pooledBuffers", pool.size());
+        return stats;
+    }
+
+    private void release(ByteBuffer buffer) {
+        pool.offer(buffer);
+    }
+
+    /**
+     * 한 프레임 작성기 (한 스레드에서만 사용)
+     * 섹션마다 beginSection → 레코드 → endSection 순서로 호출
+     */
+    public final class FrameWriter implements AutoCloseable {
+
+        private ByteBuffer buffer;
+        private final long startedAt;
+        private final Map<String, Integer> strings = new LinkedHashMap<>();
+        private final Map<String, Integer> codes = new LinkedHashMap<>();
+        private float[] positions = new float[96];
+        private int positionCount;
+        private boolean released;
+
+        private FrameWriter(ByteBuffer buffer, long seq, long startedAt) {
+            this.buffer = buffer;
+            this.startedAt = startedAt;
+            ensure(HEADER_BYTES);
+            buffer.put((byte) 'T').put((byte) 'W').put((byte) 'F').put((byte) '1');
+            buffer.putShort((short) FORMAT_VERSION);
+            buffer.putShort((short) 0);
+            buffer.putLong(seq);
+            buffer.putLong(System.currentTimeMillis());
+            buffer.putInt(0); // 테이블 오프셋 (finish 에서 기록)
+            buffer.putInt(0);
+        }
+
+        public void beginSection(int count) {
+            ensure(4);
+            buffer.putInt(count);
+            positionCount = 0;
+        }
+
+        public void product(String id, Long lineId, String station, String status, String color, String doorColor,
+                            int workProgress, int reworkCount, boolean hasDetail, double x, double y, double z) {
+            ensure(16);
+            buffer.putShort(string(id));
+            buffer.putShort(line(lineId));
+            buffer.putShort(string(station));
+            buffer.putShort(string(color));
+            buffer.putShort(string(doorColor));
+            buffer.put(code(status));
+            buffer.put((byte) clamp(workProgress, 0, 100));
+            buffer.put((byte) clamp(reworkCount, 0, 255));
+            buffer.put((byte) (hasDetail ? 1 : 0));
+            buffer.putShort((short) 0);
+            position(x, y, z);
+        }
+
+        public void station(String id, Long lineId, String currentProduct, String status, String equipmentStatus,
+                            Double efficiency) {
+            ensure(12);
+            buffer.putShort(string(id));
+            buffer.putShort(line(lineId));
+            buffer.putShort(string(currentProduct));
+            buffer.put(code(status));
+            buffer.put(code(equipmentStatus));
+            buffer.putFloat(efficiency != null ? efficiency.floatValue() : Float.NaN);
+        }
+
+        public void robot(String id, Long lineId, String status, String action, Integer batteryLevel,
+                          boolean hasPosition, boolean active, Integer productionCount, double x, double y, double z) {
+            ensure(12);
+            buffer.putShort(string(id));
+            buffer.putShort(line(lineId));
+            buffer.put(code(status));
+            buffer.put(code(action));
+            buffer.put((byte) (batteryLevel != null ? clamp(batteryLevel, 0, 100) : NONE_U8));
+            buffer.put((byte) ((hasPosition ? 1 : 0) | (active ? 2 : 0)));
+            buffer.putShort((short) (productionCount != null ? clamp(productionCount, 0, NONE_U16 - 1) : 0));
+            buffer.putShort((short) 0);
+            position(x, y, z);
+        }
+
+        public void conveyor(String id, Long lineId, String command, Double speed,
+                             boolean sensorDetected, boolean emergency, boolean maintenanceMode) {
+            ensure(12);
+            buffer.putShort(string(id));
+            buffer.putShort(line(lineId));
+            buffer.put(code(command));
+            buffer.put((byte) ((sensorDetected ? 1 : 0) | (emergency ? 2 : 0) | (maintenanceMode ? 4 : 0)));
+            buffer.putShort((short) 0);
+            buffer.putFloat(speed != null ? speed.floatValue() : Float.NaN);
+        }
+
+        // 레코드 뒤에 모아 둔 위치 배열 기록 (없으면 정렬만)
+        public void endSection() {
+            pad4();
+            ensure(positionCount * 4);
+            for (int i = 0; i < positionCount; i++) {
+                buffer.putFloat(positions[i]);
+            }
+            positionCount = 0;
+        }
+
+        /**
+         * 코드표/사전을 붙이고 바이트 배열 반환 (버퍼는 풀로 반납)
+         */
+        public byte[] finish() {
+            int tableOffset = buffer.position();
+            writeTable(codes);
+            writeTable(strings);
+            buffer.putInt(24, tableOffset);
+
+            byte[] frame = Arrays.copyOf(buffer.array(), buffer.position());
+            encodedFrames.incrementAndGet();
+            encodedBytes.addAndGet(frame.length);
+            encodeNanos.addAndGet(System.nanoTime() - startedAt);
+            close();
+            return frame;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(buffer);
+            }
+        }
+
+        private void writeTable(Map<String, Integer> table) {
+            ensure(2);
+            buffer.putShort((short) table.size());
+            for (String value : table.keySet()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                int length = Math.min(bytes.length, NONE_U16);
+                ensure(2 + length);
+                buffer.putShort((short) length);
+                buffer.put(bytes, 0, length);
+            }
+        }
+
+        private short string(String value) {
+            if (value == null) {
+                return (short) NONE_U16;
+            }
+            Integer index = strings.get(value);
+            if (index == null) {
+                index = strings.size();
+                if (index >= NONE_U16) {
+                    throw new RuntimeException("트윈 프레임 문자열 사전 한도 초과: " + index);
+                }
+                strings.put(value, index);
+            }
+            return index.shortValue();
+        }
+
+        private byte code(String value) {
+            if (value == null) {
+                return (byte) NONE_U8;
+            }
+            Integer index = codes.get(value);
+            if (index == null) {
+                index = codes.size();
+                if (index >= NONE_U8) {
+                    throw new RuntimeException("트윈 프레임 상태 코드 한도 초과: " + index);
+                }
+                codes.put(value, index);
+            }
+            return index.byteValue();
+        }
+
+        private short line(Long lineId) {
+            return (short) (lineId != null && lineId >= 0 && lineId < NONE_U16 ? lineId : NONE_U16);
+        }
+
+        private void position(double x, double y, double z) {
+            if (positionCount + 3 > positions.length) {
+                positions = Arrays.copyOf(positions, positions.length * 2);
+            }
+            positions[positionCount++] = (float) x;
+            positions[positionCount++] = (float) y;
+            positions[positionCount++] = (float) z;
+        }
+
+        private void pad4() {
+            int padding = (4 - (buffer.position() & 3)) & 3;
+            ensure(padding);
+            for (int i = 0; i < padding; i++) {
+                buffer.put((byte) 0);
+            }
+        }
+
+        // 용량이 부족하면 두 배 크기 버퍼로 교체 (작은 버퍼는 버림)
+        private void ensure(int bytes) {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            int capacity = buffer.capacity();
+            while (capacity - buffer.position() < bytes) {
+                capacity *= 2;
+            }
+            ByteBuffer grown = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+
+        private int clamp(int value, int min, int max) {
+            return Math.max(min, Math.min(max, value));
+        }
+    }
+}
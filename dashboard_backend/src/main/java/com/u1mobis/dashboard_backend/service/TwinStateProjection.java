@@ -0,0 +1,1080 @@
+package com.u1mobis.dashboard_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.u1mobis.dashboard_backend.entity.Company;
+import com.u1mobis.dashboard_backend.entity.ConveyorControl;
+import com.u1mobis.dashboard_backend.entity.CurrentProduction;
+import com.u1mobis.dashboard_backend.entity.ProductDetail;
+import com.u1mobis.dashboard_backend.entity.ProductionLine;
+import com.u1mobis.dashboard_backend.entity.Robot;
+import com.u1mobis.dashboard_backend.entity.RobotPosition;
+import com.u1mobis.dashboard_backend.entity.StationStatus;
+import com.u1mobis.dashboard_backend.repository.CompanyRepository;
+import com.u1mobis.dashboard_backend.repository.ConveyorControlRepository;
+import com.u1mobis.dashboard_backend.repository.CurrentProductionRepository;
+import com.u1mobis.dashboard_backend.repository.ProductDetailRepository;
+import com.u1mobis.dashboard_backend.repository.ProductionLineRepository;
+import com.u1mobis.dashboard_backend.repository.RobotPositionRepository;
+import com.u1mobis.dashboard_backend.repository.RobotRepository;
+import com.u1mobis.dashboard_backend.repository.StationStatusRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 디지털 트윈 상태 (회사별 메모리 보관)
+ * - 제품/스테이션/로봇/컨베이어 상태를 회사 단위로 보관하고 MQTT 이벤트와 시뮬레이터 전이 시점에 갱신
+ * - 회사별 최초 조회 시 한 번만 DB에서 적재하고, 이후 Unity 조회는 DB 접근 없이 메모리에서 응답
+ * - 갱신은 호출한 트랜잭션이 커밋된 뒤 적용/전송 (롤백된 변경은 반영하지 않음, 트랜잭션 밖이면 바로 적용)
+ * - 아직 적재되지 않은 회사에 대한 갱신은 무시 (최초 조회 시 DB 값으로 적재됨), 적재 중 들어온 갱신은 적재 후 재적용
+ * - 주기적으로 DB 에서 다시 적재해 놓친 갱신을 보정하고 차이만 변경분으로 전송
+ * - 변경분은 회사별 seq 와 함께 /topic/twin/{companyName} 으로 전송하고 최근 변경분은 링 버퍼에 보관
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TwinStateProjection {
+
+    private final CompanyRepository companyRepository;
+    private final ProductionLineRepository productionLineRepository;
+    private final CurrentProductionRepository currentProductionRepository;
+    private final ProductDetailRepository productDetailRepository;
+    private final StationStatusRepository stationStatusRepository;
+    private final RobotRepository robotRepository;
+    private final RobotPositionRepository robotPositionRepository;
+    private final ConveyorControlRepository conveyorControlRepository;
+    private final TwinChangePublisher twinChangePublisher;
+    private final TwinFrameEncoder twinFrameEncoder;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 회사별로 보관하는 최근 변경분 수 (since 조회 가능 범위)
+    @Value("${twin.feed.buffer-size:1024}")
+    private int bufferSize;
+
+    // Key: companyName
+    private final Map<String, CompanyTwin> twins = new ConcurrentHashMap<>();
+    // Key: companyName → 적재 중 들어온 갱신 (적재가 끝나면 순서대로 재적용)
+    private final Map<String, List<TwinMutation>> loading = new ConcurrentHashMap<>();
+    // 같은 회사 최초 적재를 한 번만 하기 위한 락 (회사명 해시로 분산)
+    private final Object[] loadLocks = new Object[16];
+
+    {
+        for (int i = 0; i < loadLocks.length; i++) {
+            loadLocks[i] = new Object();
+        }
+    }
+    // Key: companyId → companyName (companyId 만 알고 있는 갱신용)
+    private final Map<Long, String> companyNames = new ConcurrentHashMap<>();
+
+    // ==================== 조회 ====================
+
+    /**
+     * Unity 실시간 데이터 (제품/스테이션/로봇/컨베이어)
+     * @param lineId null 이면 회사 전체 라인
+     */
+    public Map<String, Object> getRealtimeView(String companyName, Long lineId) {
+        CompanyTwin twin = twin(companyName);
+        synchronized (twin) {
+            Long viewKey = lineId != null ? lineId : -1L;
+            CachedView cached = twin.views.get(viewKey);
+            if (cached != null && cached.version == twin.version) {
+                return cached.view;
+            }
+
+            Map<String, Object> products = new LinkedHashMap<>();
+            twin.products.values().stream()
+                    .filter(p -> lineId == null || lineId.equals(p.lineId))
+                    .forEach(p -> products.put(p.unityId, p.toMap()));
+
+            Map<String, Object> stations = new LinkedHashMap<>();
+            twin.stations.values().stream()
+                    .filter(s -> lineId == null || lineId.equals(s.lineId))
+                    .forEach(s -> stations.put(s.stationId, s.toMap()));
+
+            Map<String, Object> robots = new LinkedHashMap<>();
+            twin.robots.values().stream()
+                    .filter(r -> lineId == null || lineId.equals(r.lineId))
+                    .forEach(r -> robots.put(r.robotId, r.toMap(twin.robotPositions.get(r.robotId))));
+
+            Map<String, Object> conveyors = new LinkedHashMap<>();
+            twin.conveyors.values().stream()
+                    .filter(c -> lineId == null || lineId.equals(c.lineId))
+                    .forEach(c -> conveyors.put(c.conveyorId, c.toMap()));
+
+            Map<String, Object> view = new LinkedHashMap<>();
+            view.put("products", products);
+            view.put("stations", stations);
+            view.put("robots", robots);
+            view.put("conveyors", conveyors);
+            view.put("version", twin.version);
+            view.put("epoch", twinChangePublisher.getEpoch());
+            twin.views.put(viewKey, new CachedView(twin.version, view));
+            return view;
+        }
+    }
+
+    /**
+     * Unity 실시간 데이터 바이너리 프레임 (형식은 TwinFrameEncoder 참고)
+     * 같은 버전/라인 조회는 인코딩된 바이트를 재사용
+     */
+    public byte[] getRealtimeFrame(String companyName, Long lineId) {
+        CompanyTwin twin = twin(companyName);
+        synchronized (twin) {
+            Long frameKey = lineId != null ? lineId : -1L;
+            CachedFrame cached = twin.frames.get(frameKey);
+            if (cached != null && cached.version == twin.version) {
+                return cached.frame;
+            }
+            byte[] frame = encodeFrame(twin, lineId);
+            twin.frames.put(frameKey, new CachedFrame(twin.version, frame));
+            return frame;
+        }
+    }
+
+    /**
+     * 같은 상태를 JSON / 바이너리 프레임으로 직렬화했을 때 크기와 소요 시간 비교 (캐시 미사용)
+     */
+    public Map<String, Object> compareFrameEncoding(String companyName, Long lineId) {
+        CompanyTwin twin = twin(companyName);
+        synchronized (twin) {
+            Map<String, Object> view = getRealtimeView(companyName, lineId);
+            long started = System.nanoTime();
+            byte[] json;
+            try {
+                json = objectMapper.writeValueAsBytes(view);
+            } catch (Exception e) {
+                throw new RuntimeException("트윈 상태 JSON 직렬화 실패: " + e.getMessage());
+            }
+            long jsonNanos = System.nanoTime() - started;
+
+            started = System.nanoTime();
+            byte[] frame = encodeFrame(twin, lineId);
+            long frameNanos = System.nanoTime() - started;
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("seq", twin.version);
+            result.put("jsonBytes", json.length);
+            result.put("jsonEncodeMicros", jsonNanos / 1000);
+            result.put("frameBytes", frame.length);
+            result.put("frameEncodeMicros", frameNanos / 1000);
+            result.put("sizeRatio", json.length > 0 ? Math.round(frame.length * 1000.0 / json.length) / 1000.0 : 0);
+            result.put("encoder", twinFrameEncoder.getStats());
+            return result;
+        }
+    }
+
+    // 공정 코드에 해당하는 작업 중 제품 (Unity 차량 ID)
+    public String findProductAtStation(String companyName, Long lineId, String stationKeyword) {
+        CompanyTwin twin = twin(companyName);
+        synchronized (twin) {
+            return twin.products.values().stream()
+                    .filter(p -> lineId == null || lineId.equals(p.lineId))
+                    .filter(p -> p.currentStation != null && p.currentStation.contains(stationKeyword))
+                    .map(p -> p.unityId)
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    /**
+     * since 이후 변경분 조회 (재접속/누락 복구용)
+     * 버퍼에 남아 있지 않은 구간이거나 다른 서버 기동(epoch)의 seq 면 전체 상태(keyframe)를 대신 반환
+     * @param epoch 클라이언트가 마지막으로 받은 epoch (null 이면 seq 만으로 판단)
+     */
+    public Map<String, Object> getChangesSince(String companyName, long since, String epoch) {
+        CompanyTwin twin = twin(companyName);
+        synchronized (twin) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("companyName", companyName);
+            result.put("epoch", twinChangePublisher.getEpoch());
+            TwinDelta oldest = twin.recent.peekFirst();
+            // since 가 현재 seq 보다 크면 재기동 전 seq 이므로 전체 상태로 대체
+            boolean sameEpoch = epoch == null || epoch.equals(twinChangePublisher.getEpoch());
+            boolean covered = sameEpoch && (since == twin.version
+                    || (since >= 0 && since < twin.version && oldest != null && oldest.seq() <= since + 1));
+            if (!covered) {
+                Map<String, Object> view = getRealtimeView(companyName, null);
+                result.put("type", "twin_keyframe");
+                result.put("seq", view.get("version"));
+                result.put("state", view);
+                return result;
+            }
+            List<TwinDelta> changes = new ArrayList<>();
+            for (TwinDelta delta : twin.recent) {
+                if (delta.seq() > since) {
+                    changes.add(delta);
+                }
+            }
+            result.put("type", "twin_delta");
+            result.put("fromSeq", since);
+            result.put("seq", twin.version);
+            result.put("changes", changes);
+            return result;
+        }
+    }
+
+    // 마지막 keyframe 이후 변경된 회사만 전체 상태 전송 (변경분을 놓친 클라이언트 보정)
+    @Scheduled(fixedDelayString = "${twin.feed.keyframe-interval-ms:30000}")
+    public void publishKeyframes() {
+        twins.forEach((companyName, twin) -> {
+            Map<String, Object> view;
+            synchronized (twin) {
+                if (twin.version == twin.keyframeVersion) {
+                    return;
+                }
+                twin.keyframeVersion = twin.version;
+                view = getRealtimeView(companyName, null);
+            }
+            twinChangePublisher.publishKeyframe(companyName, view);
+        });
+    }
+
+    // DB 기준으로 다시 적재해 놓친 갱신 보정 (다른 인스턴스/직접 수정된 데이터 포함)
+    @Scheduled(fixedDelayString = "${twin.reconcile-interval-ms:300000}",
+               initialDelayString = "${twin.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        for (String companyName : twins.keySet()) {
+            try {
+                reconcile(companyName);
+            } catch (Exception e) {
+                log.error("트윈 상태 보정 실패 - 회사: {}, 오류: {}", companyName, e.getMessage());
+            }
+        }
+    }
+
+    // ==================== 갱신 (제품) ====================
+
+    // 생산 시작 / 시뮬레이터 제품 생성
+    public void upsertProduct(String companyName, CurrentProduction production, ProductDetail detail) {
+        update(companyName, (twin, changes) -> {
+            ProductTwin product = twin.products.get(production.getProductId());
+            boolean added = product == null;
+            if (added) {
+                product = new ProductTwin(production.getProductId());
+                twin.products.put(product.productId, product);
+            }
+            boolean changed = product.apply(production);
+            if (detail != null) {
+                changed |= product.apply(detail);
+            }
+            if (added || changed) {
+                changes.add(TwinDelta.of(added ? TwinDelta.Op.ADDED : TwinDelta.Op.STATUS,
+                        TwinDelta.Entity.PRODUCT, product.unityId, product.lineId, product.toMap()));
+            }
+        });
+    }
+
+    // 제품 위치/공정 이동 (MQTT product/moved, product/arrived, 시뮬레이터 도착)
+    public void moveProduct(String companyName, String productId, String currentStation, Double x, Double y) {
+        update(companyName, (twin, changes) -> {
+            ProductTwin product = twin.products.get(productId);
+            if (product == null) {
+                return;
+            }
+            boolean changed = false;
+            if (currentStation != null && !currentStation.equals(product.currentStation)) {
+                product.currentStation = currentStation;
+                changed = true;
+            }
+            if (x != null && y != null) {
+                changed |= product.setPosition(x, y, product.z);
+            }
+            if (changed) {
+                changes.add(TwinDelta.of(TwinDelta.Op.MOVED, TwinDelta.Entity.PRODUCT,
+                        product.unityId, product.lineId, product.toMap()));
+            }
+        });
+    }
+
+    public void updateProductProgress(String companyName, String productId, int workProgress) {
+        update(companyName, (twin, changes) -> {
+            ProductTwin product = twin.products.get(productId);
+            if (product == null || product.workProgress == workProgress) {
+                return;
+            }
+            product.workProgress = workProgress;
+            changes.add(TwinDelta.of(TwinDelta.Op.STATUS, TwinDelta.Entity.PRODUCT,
+                    product.unityId, product.lineId, product.toMap()));
+        });
+    }
+
+    // 재작업 (회사 정보 없이 호출되므로 적재된 회사 전체에서 탐색)
+    // DB 에 반영된 횟수를 그대로 설정 → 적재 결과에 이미 포함된 갱신을 재적용해도 두 번 세지 않음
+    public void updateRework(String productId, int reworkCount) {
+        for (String companyName : twins.keySet()) {
+            update(companyName, (twin, changes) -> {
+                ProductTwin product = twin.products.get(productId);
+                // 커밋 순서와 적용 순서가 어긋나도 줄어들지 않도록 큰 값 유지
+                if (product == null || product.reworkCount >= reworkCount) {
+                    return;
+                }
+                product.reworkCount = reworkCount;
+                changes.add(TwinDelta.of(TwinDelta.Op.STATUS, TwinDelta.Entity.PRODUCT,
+                        product.unityId, product.lineId, product.toMap()));
+            });
+        }
+    }
+
+    // 생산 완료 (진행 중 목록에서 제거)
+    public void removeProduct(String companyName, String productId) {
+        update(companyName, (twin, changes) -> {
+            ProductTwin product = twin.products.remove(productId);
+            if (product != null) {
+                changes.add(TwinDelta.of(TwinDelta.Op.REMOVED, TwinDelta.Entity.PRODUCT,
+                        product.unityId, product.lineId, null));
+            }
+        });
+    }
+
+    // ==================== 갱신 (스테이션/로봇/컨베이어) ====================
+
+    public void upsertStation(String companyName, StationStatus station) {
+        update(companyName, (twin, changes) -> {
+            StationTwin twinStation = twin.stations.get(station.getStationId());
+            boolean added = twinStation == null;
+            if (added) {
+                twinStation = new StationTwin(station.getStationId());
+                twin.stations.put(twinStation.stationId, twinStation);
+            }
+            if (twinStation.apply(station) || added) {
+                changes.add(TwinDelta.of(added ? TwinDelta.Op.ADDED : TwinDelta.Op.STATUS,
+                        TwinDelta.Entity.STATION, twinStation.stationId, twinStation.lineId, twinStation.toMap()));
+            }
+        });
+    }
+
+    // 로봇 텔레메트리 (MQTT, 생산량 증가)
+    public void updateRobot(Robot robot) {
+        String companyName = robot.getCompanyId() != null ? companyNames.get(robot.getCompanyId()) : null;
+        if (companyName == null) {
+            return;
+        }
+        update(companyName, (twin, changes) -> {
+            RobotTwin twinRobot = twin.robots.get(robot.getRobotId());
+            boolean added = twinRobot == null;
+            if (added) {
+                twinRobot = new RobotTwin(robot.getRobotId());
+                twin.robots.put(twinRobot.robotId, twinRobot);
+            }
+            if (twinRobot.apply(robot) || added) {
+                changes.add(TwinDelta.of(added ? TwinDelta.Op.ADDED : TwinDelta.Op.STATUS, TwinDelta.Entity.ROBOT,
+                        twinRobot.robotId, twinRobot.lineId, twinRobot.toMap(twin.robotPositions.get(twinRobot.robotId))));
+            }
+        });
+    }
+
+    public void updateRobotPosition(String companyName, RobotPosition position) {
+        update(companyName, (twin, changes) -> {
+            RobotPositionTwin twinPosition = twin.robotPositions
+                    .computeIfAbsent(position.getRobotId(), k -> new RobotPositionTwin());
+            double x = twinPosition.x;
+            double y = twinPosition.y;
+            double z = twinPosition.z;
+            if (!twinPosition.apply(position)) {
+                return;
+            }
+            boolean moved = x != twinPosition.x || y != twinPosition.y || z != twinPosition.z;
+            RobotTwin robot = twin.robots.get(position.getRobotId());
+            changes.add(TwinDelta.of(moved ? TwinDelta.Op.MOVED : TwinDelta.Op.STATUS, TwinDelta.Entity.ROBOT,
+                    position.getRobotId(), position.getLineId(),
+                    robot != null ? robot.toMap(twinPosition) : twinPosition.toMap()));
+        });
+    }
+
+    public void upsertConveyor(String companyName, ConveyorControl conveyor) {
+        update(companyName, (twin, changes) -> {
+            ConveyorTwin twinConveyor = twin.conveyors.get(conveyor.getConveyorId());
+            boolean added = twinConveyor == null;
+            if (added) {
+                twinConveyor = new ConveyorTwin(conveyor.getConveyorId());
+                twin.conveyors.put(twinConveyor.conveyorId, twinConveyor);
+            }
+            if (twinConveyor.apply(conveyor) || added) {
+                changes.add(TwinDelta.of(added ? TwinDelta.Op.ADDED : TwinDelta.Op.STATUS, TwinDelta.Entity.CONVEYOR,
+                        twinConveyor.conveyorId, twinConveyor.lineId, twinConveyor.toMap()));
+            }
+        });
+    }
+
+    // 라인 컨베이어 명령 (MQTT conveyor)
+    public void updateConveyorCommand(String companyName, Long lineId, String command, String reason) {
+        update(companyName, (twin, changes) -> {
+            for (ConveyorTwin conveyor : twin.conveyors.values()) {
+                if (lineId.equals(conveyor.lineId) && !Objects.equals(conveyor.command, command)) {
+                    conveyor.command = command;
+                    conveyor.reason = reason;
+                    conveyor.emergency = "EMERGENCY_STOP".equals(command);
+                    changes.add(TwinDelta.of(TwinDelta.Op.STATUS, TwinDelta.Entity.CONVEYOR,
+                            conveyor.conveyorId, conveyor.lineId, conveyor.toMap()));
+                }
+            }
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("companies", twins.size());
+        stats.put("bufferSize", bufferSize);
+        stats.put("feed", twinChangePublisher.getStats());
+        stats.put("frame", twinFrameEncoder.getStats());
+        return stats;
+    }
+
+    // ==================== 내부 ====================
+
+    // 변경 내용을 changes 에 담는 갱신 함수 (값이 실제로 바뀐 엔티티만 추가)
+    @FunctionalInterface
+    private interface TwinMutation {
+        void apply(CompanyTwin twin, List<TwinDelta> changes);
+    }
+
+    // 트윈 상태에서 바로 프레임 작성 (호출 측에서 락 보유)
+    private byte[] encodeFrame(CompanyTwin twin, Long lineId) {
+        try (TwinFrameEncoder.FrameWriter writer = twinFrameEncoder.begin(twin.version)) {
+            List<ProductTwin> products = filterByLine(twin.products.values(), p -> p.lineId, lineId);
+            writer.beginSection(products.size());
+            for (ProductTwin p : products) {
+                writer.product(p.unityId, p.lineId, p.currentStation, p.status, p.productColor, p.doorColor,
+                        p.workProgress, p.reworkCount, p.hasDetail, p.x, p.y, p.z);
+            }
+            writer.endSection();
+
+            List<StationTwin> stations = filterByLine(twin.stations.values(), s -> s.lineId, lineId);
+            writer.beginSection(stations.size());
+            for (StationTwin s : stations) {
+                writer.station(s.stationId, s.lineId, s.currentProduct != null ? toUnityCarId(s.currentProduct) : null,
+                        s.status, s.equipmentStatus, s.efficiency);
+            }
+            writer.endSection();
+
+            List<RobotTwin> robots = filterByLine(twin.robots.values(), r -> r.lineId, lineId);
+            writer.beginSection(robots.size());
+            for (RobotTwin r : robots) {
+                RobotPositionTwin position = twin.robotPositions.get(r.robotId);
+                if (position != null) {
+                    writer.robot(r.robotId, r.lineId, r.statusText, position.currentAction, position.batteryLevel,
+                            true, Boolean.TRUE.equals(position.isActive), r.productionCount,
+                            position.x, position.y, position.z);
+                } else {
+                    writer.robot(r.robotId, r.lineId, r.statusText, null, null,
+                            false, false, r.productionCount, 0, 0, 0);
+                }
+            }
+            writer.endSection();
+
+            List<ConveyorTwin> conveyors = filterByLine(twin.conveyors.values(), c -> c.lineId, lineId);
+            writer.beginSection(conveyors.size());
+            for (ConveyorTwin c : conveyors) {
+                writer.conveyor(c.conveyorId, c.lineId, c.command, c.speed, Boolean.TRUE.equals(c.sensorStatus),
+                        Boolean.TRUE.equals(c.emergency), Boolean.TRUE.equals(c.maintenanceMode));
+            }
+            writer.endSection();
+
+            return writer.finish();
+        }
+    }
+
+    private static <T> List<T> filterByLine(Collection<T> values, Function<T, Long> lineOf, Long lineId) {
+        if (lineId == null) {
+            return new ArrayList<>(values);
+        }
+        List<T> filtered = new ArrayList<>();
+        for (T value : values) {
+            if (lineId.equals(lineOf.apply(value))) {
+                filtered.add(value);
+            }
+        }
+        return filtered;
+    }
+
+    // 갱신 예약 - 호출 측 트랜잭션이 커밋된 뒤 적용 (onTwinMutation)
+    private void update(String companyName, TwinMutation mutation) {
+        if (companyName == null) {
+            return;
+        }
+        eventPublisher.publishEvent(new TwinMutationEvent(companyName, mutation));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTwinMutation(TwinMutationEvent event) {
+        apply(event.companyName(), event.mutation());
+    }
+
+    // 적재된 회사만 갱신, 변경분마다 seq(=버전)를 하나씩 올리고 버퍼 보관 후 전송
+    private void apply(String companyName, TwinMutation mutation) {
+        CompanyTwin twin = twins.get(companyName);
+        if (twin == null) {
+            List<TwinMutation> pending = loading.get(companyName);
+            if (pending == null) {
+                return;
+            }
+            synchronized (pending) {
+                twin = twins.get(companyName);
+                if (twin == null) {
+                    pending.add(mutation);
+                    return;
+                }
+            }
+        }
+        synchronized (twin) {
+            try {
+                if (twin.replay != null) {
+                    twin.replay.add(mutation);
+                }
+                List<TwinDelta> changes = new ArrayList<>(1);
+                mutation.apply(twin, changes);
+                publish(companyName, twin, changes);
+            } catch (Exception e) {
+                log.error("트윈 상태 갱신 실패 - 회사: {}, 오류: {}", companyName, e.getMessage());
+            }
+        }
+    }
+
+    // seq 부여 후 버퍼 보관 및 전송 (호출 측에서 락 보유)
+    private void publish(String companyName, CompanyTwin twin, List<TwinDelta> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<TwinDelta> sequenced = new ArrayList<>(changes.size());
+        for (TwinDelta change : changes) {
+            TwinDelta delta = change.withSeq(++twin.version);
+            twin.recent.addLast(delta);
+            if (twin.recent.size() > bufferSize) {
+                twin.recent.removeFirst();
+            }
+            sequenced.add(delta);
+        }
+        // 같은 회사의 전송 순서가 seq 순서와 같도록 락 안에서 전송
+        twinChangePublisher.publishDeltas(companyName, sequenced);
+    }
+
+    // 적재된 트윈 조회, 없으면 DB 에서 적재 (DB 조회는 맵 연산 밖에서 수행)
+    private CompanyTwin twin(String companyName) {
+        CompanyTwin twin = twins.get(companyName);
+        if (twin != null) {
+            return twin;
+        }
+        synchronized (loadLocks[Math.floorMod(companyName.hashCode(), loadLocks.length)]) {
+            twin = twins.get(companyName);
+            if (twin != null) {
+                return twin;
+            }
+            List<TwinMutation> pending = new ArrayList<>();
+            loading.put(companyName, pending);
+            try {
+                CompanyTwin loaded = load(companyName);
+                synchronized (pending) {
+                    // 적재 중 커밋된 갱신 재적용 (갱신은 모두 절대값이라 적재 결과에 이미 포함된 경우 변화 없음)
+                    replay(companyName, loaded, pending);
+                    twins.put(companyName, loaded);
+                }
+                log.info("트윈 상태 적재 - 회사: {}, 제품: {}, 스테이션: {}, 로봇: {}, 컨베이어: {}", companyName,
+                        loaded.products.size(), loaded.stations.size(), loaded.robots.size(), loaded.conveyors.size());
+                return loaded;
+            } finally {
+                loading.remove(companyName);
+            }
+        }
+    }
+
+    // DB 에서 새로 적재한 상태와 비교해 다른 엔티티만 변경분으로 전송 후 교체
+    private void reconcile(String companyName) {
+        CompanyTwin current = twins.get(companyName);
+        if (current == null) {
+            return;
+        }
+        synchronized (current) {
+            current.replay = new ArrayList<>();
+        }
+        CompanyTwin fresh;
+        try {
+            fresh = load(companyName);
+        } catch (RuntimeException e) {
+            synchronized (current) {
+                current.replay = null;
+            }
+            throw e;
+        }
+        synchronized (current) {
+            replay(companyName, fresh, current.replay);
+            current.replay = null;
+
+            List<TwinDelta> changes = new ArrayList<>();
+            diff(current.products, p -> p.toMap(), fresh.products, p -> p.toMap(),
+                    TwinDelta.Entity.PRODUCT, p -> p.unityId, p -> p.lineId, changes);
+            diff(current.stations, StationTwin::toMap, fresh.stations, StationTwin::toMap,
+                    TwinDelta.Entity.STATION, s -> s.stationId, s -> s.lineId, changes);
+            diff(current.robots, r -> r.toMap(current.robotPositions.get(r.robotId)),
+                    fresh.robots, r -> r.toMap(fresh.robotPositions.get(r.robotId)),
+                    TwinDelta.Entity.ROBOT, r -> r.robotId, r -> r.lineId, changes);
+            diff(current.conveyors, ConveyorTwin::toMap, fresh.conveyors, ConveyorTwin::toMap,
+                    TwinDelta.Entity.CONVEYOR, c -> c.conveyorId, c -> c.lineId, changes);
+
+            replaceAll(current.products, fresh.products);
+            replaceAll(current.stations, fresh.stations);
+            replaceAll(current.robots, fresh.robots);
+            replaceAll(current.robotPositions, fresh.robotPositions);
+            replaceAll(current.conveyors, fresh.conveyors);
+            if (!changes.isEmpty()) {
+                log.info("트윈 상태 보정 - 회사: {}, 변경: {}건", companyName, changes.size());
+            }
+            publish(companyName, current, changes);
+        }
+    }
+
+    // 보류된 갱신을 새 상태에 적용 (변경분은 전송하지 않음)
+    private void replay(String companyName, CompanyTwin twin, List<TwinMutation> mutations) {
+        for (TwinMutation mutation : mutations) {
+            try {
+                mutation.apply(twin, new ArrayList<>());
+            } catch (Exception e) {
+                log.error("트윈 상태 재적용 실패 - 회사: {}, 오류: {}", companyName, e.getMessage());
+            }
+        }
+    }
+
+    private static <T> void diff(Map<String, T> current, Function<T, Map<String, Object>> currentView,
+                                 Map<String, T> fresh, Function<T, Map<String, Object>> freshView,
+                                 TwinDelta.Entity entity, Function<T, String> idOf, Function<T, Long> lineOf,
+                                 List<TwinDelta> changes) {
+        fresh.forEach((key, value) -> {
+            T existing = current.get(key);
+            Map<String, Object> view = freshView.apply(value);
+            if (existing == null) {
+                changes.add(TwinDelta.of(TwinDelta.Op.ADDED, entity, idOf.apply(value), lineOf.apply(value), view));
+            } else if (!view.equals(currentView.apply(existing))) {
+                changes.add(TwinDelta.of(TwinDelta.Op.STATUS, entity, idOf.apply(value), lineOf.apply(value), view));
+            }
+        });
+        current.forEach((key, value) -> {
+            if (!fresh.containsKey(key)) {
+                changes.add(TwinDelta.of(TwinDelta.Op.REMOVED, entity, idOf.apply(value), lineOf.apply(value), null));
+            }
+        });
+    }
+
+    private static <T> void replaceAll(Map<String, T> target, Map<String, T> source) {
+        target.clear();
+        target.putAll(source);
+    }
+
+    // 회사 트윈 적재 (회사 라인 범위로만 조회)
+    private CompanyTwin load(String companyName) {
+        Company company = companyRepository.findByCompanyName(companyName)
+                .orElseThrow(() -> new RuntimeException("회사를 찾을 수 없습니다: " + companyName));
+        Long companyId = company.getCompanyId();
+        List<Long> lineIds = productionLineRepository.findByCompanyCompanyId(companyId).stream()
+                .map(ProductionLine::getLineId)
+                .collect(Collectors.toList());
+
+        CompanyTwin twin = new CompanyTwin();
+        List<CurrentProduction> processing = lineIds.isEmpty() ? List.of()
+                : currentProductionRepository.findByStatusAndLineIdIn("PROCESSING", lineIds);
+        Map<String, ProductDetail> details = new HashMap<>();
+        productDetailRepository.findAllById(processing.stream().map(CurrentProduction::getProductId).toList())
+                .forEach(detail -> details.put(detail.getProductId(), detail));
+        for (CurrentProduction production : processing) {
+            ProductTwin product = new ProductTwin(production.getProductId());
+            product.apply(production);
+            ProductDetail detail = details.get(production.getProductId());
+            if (detail != null) {
+                product.apply(detail);
+            }
+            twin.products.put(product.productId, product);
+        }
+
+        stationStatusRepository.findByCompanyId(companyId)
+                .forEach(station -> twin.stations.computeIfAbsent(station.getStationId(), StationTwin::new).apply(station));
+        robotRepository.findByCompanyId(companyId)
+                .forEach(robot -> twin.robots.computeIfAbsent(robot.getRobotId(), RobotTwin::new).apply(robot));
+        robotPositionRepository.findByCompanyId(companyId)
+                .forEach(position -> twin.robotPositions.computeIfAbsent(position.getRobotId(),
+                        k -> new RobotPositionTwin()).apply(position));
+        conveyorControlRepository.findByCompanyId(companyId)
+                .forEach(conveyor -> twin.conveyors.computeIfAbsent(conveyor.getConveyorId(),
+                        ConveyorTwin::new).apply(conveyor));
+
+        companyNames.put(companyId, companyName);
+        return twin;
+    }
+
+    // "A01_PROD_001" -> "CAR_001", 시뮬레이터 ID("CAR_Line1_001")는 그대로 사용
+    static String toUnityCarId(String productId) {
+        if (productId == null) {
+            return null;
+        }
+        if (productId.contains("PROD_")) {
+            return "CAR_" + productId.substring(productId.lastIndexOf("_") + 1);
+        }
+        return productId.startsWith("CAR_") ? productId : "CAR_001";
+    }
+
+    private static Map<String, Object> position(double x, double y, double z) {
+        Map<String, Object> position = new LinkedHashMap<>();
+        position.put("x", x);
+        position.put("y", y);
+        position.put("z", z);
+        return position;
+    }
+
+    private static double orZero(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    // 회사 트윈 (모든 접근은 인스턴스 락으로 보호)
+    private static final class CompanyTwin {
+        final Map<String, ProductTwin> products = new LinkedHashMap<>();
+        final Map<String, StationTwin> stations = new LinkedHashMap<>();
+        final Map<String, RobotTwin> robots = new LinkedHashMap<>();
+        final Map<String, RobotPositionTwin> robotPositions = new HashMap<>();
+        final Map<String, ConveyorTwin> conveyors = new LinkedHashMap<>();
+        final Map<Long, CachedView> views = new HashMap<>();
+        final Map<Long, CachedFrame> frames = new HashMap<>();
+        final ArrayDeque<TwinDelta> recent = new ArrayDeque<>();
+        long version;
+        long keyframeVersion;
+        List<TwinMutation> replay;     // 보정용 재적재 중 적용된 갱신 (재적재 결과에 다시 적용)
+    }
+
+    // 커밋 후 적용할 트윈 갱신
+    private record TwinMutationEvent(String companyName, TwinMutation mutation) {
+    }
+
+    private record CachedView(long version, Map<String, Object> view) {
+    }
+
+    private record CachedFrame(long version, byte[] frame) {
+    }
+
+    private static final class ProductTwin {
+        final String productId;
+        final String unityId;
+        Long lineId;
+        String currentStation;
+        String status;
+        String productColor;
+        int reworkCount;
+        LocalDateTime startTime;
+        LocalDateTime dueDate;
+        boolean hasDetail;
+        String doorColor;
+        int workProgress;
+        double x;
+        double y;
+        double z;
+        LocalDateTime estimatedCompletion;
+
+        ProductTwin(String productId) {
+            this.productId = productId;
+            this.unityId = toUnityCarId(productId);
+        }
+
+        boolean apply(CurrentProduction production) {
+            boolean changed = !Objects.equals(lineId, production.getLineId())
+                    || !Objects.equals(currentStation, production.getCurrentStation())
+                    || !Objects.equals(status, production.getStatus())
+                    || !Objects.equals(productColor, production.getProductColor())
+                    || reworkCount != (production.getReworkCount() != null ? production.getReworkCount() : 0);
+            lineId = production.getLineId();
+            currentStation = production.getCurrentStation();
+            status = production.getStatus();
+            productColor = production.getProductColor();
+            reworkCount = production.getReworkCount() != null ? production.getReworkCount() : 0;
+            startTime = production.getStartTime();
+            dueDate = production.getDueDate();
+            return changed;
+        }
+
+        boolean apply(ProductDetail detail) {
+            boolean changed = !hasDetail
+                    || !Objects.equals(doorColor, detail.getDoorColor())
+                    || workProgress != (detail.getWorkProgress() != null ? detail.getWorkProgress() : 0);
+            hasDetail = true;
+            doorColor = detail.getDoorColor();
+            workProgress = detail.getWorkProgress() != null ? detail.getWorkProgress() : 0;
+            estimatedCompletion = detail.getEstimatedCompletion();
+            return setPosition(orZero(detail.getPositionX()), orZero(detail.getPositionY()),
+                    orZero(detail.getPositionZ())) || changed;
+        }
+
+        boolean setPosition(double newX, double newY, double newZ) {
+            if (x == newX && y == newY && z == newZ) {
+                return false;
+            }
+            x = newX;
+            y = newY;
+            z = newZ;
+            return true;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("productId", productId);
+            map.put("currentStation", currentStation);
+            map.put("status", status);
+            map.put("reworkCount", reworkCount);
+            map.put("productColor", productColor != null ? productColor : "WHITE");
+            map.put("lineId", lineId);
+            map.put("startTime", startTime);
+            map.put("dueDate", dueDate);
+            if (hasDetail) {
+                map.put("doorColor", doorColor);
+                map.put("workProgress", workProgress);
+                map.put("position", position(x, y, z));
+                map.put("estimatedCompletion", estimatedCompletion);
+            } else {
+                // 상세 정보가 없는 제품 기본값
+                map.put("doorColor", "BLACK");
+                map.put("workProgress", 50);
+                map.put("position", position(0.0, 0.0, 0.0));
+            }
+            return map;
+        }
+    }
+
+    private static final class StationTwin {
+        final String stationId;
+        String stationName;
+        Long lineId;
+        String status;
+        Double temperature;
+        Double pressure;
+        Double efficiency;
+        String equipmentStatus;
+        String currentProduct;
+        Integer cycleTime;
+
+        StationTwin(String stationId) {
+            this.stationId = stationId;
+        }
+
+        boolean apply(StationStatus station) {
+            boolean changed = !Objects.equals(status, station.getStatus())
+                    || !Objects.equals(equipmentStatus, station.getEquipmentStatus())
+                    || !Objects.equals(currentProduct, station.getCurrentProduct())
+                    || !Objects.equals(efficiency, station.getEfficiency())
+                    || !Objects.equals(temperature, station.getTemperature())
+                    || !Objects.equals(pressure, station.getPressure());
+            stationName = station.getStationName();
+            lineId = station.getLineId();
+            status = station.getStatus();
+            temperature = station.getTemperature();
+            pressure = station.getPressure();
+            efficiency = station.getEfficiency();
+            equipmentStatus = station.getEquipmentStatus();
+            currentProduct = station.getCurrentProduct();
+            cycleTime = station.getCycleTime();
+            return changed;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("stationId", stationId);
+            map.put("stationName", stationName);
+            map.put("lineId", lineId);
+            map.put("status", status);
+            map.put("temperature", temperature);
+            map.put("pressure", pressure);
+            map.put("efficiency", efficiency);
+            map.put("equipmentStatus", equipmentStatus);
+            map.put("currentProduct", currentProduct != null ? toUnityCarId(currentProduct) : null);
+            map.put("cycleTime", cycleTime);
+            return map;
+        }
+    }
+
+    private static final class RobotTwin {
+        final String robotId;
+        String robotName;
+        Long companyId;
+        Long lineId;
+        String robotType;
+        String statusText;
+        Integer motorStatus;
+        Integer ledStatus;
+        Integer cycleTime;
+        Integer productionCount;
+        Double quality;
+        Double temperature;
+        Double powerConsumption;
+
+        RobotTwin(String robotId) {
+            this.robotId = robotId;
+        }
+
+        boolean apply(Robot robot) {
+            Long newLineId = robot.getProductionLine() != null ? robot.getProductionLine().getLineId() : null;
+            boolean changed = !Objects.equals(statusText, robot.getStatusText())
+                    || !Objects.equals(motorStatus, robot.getMotorStatus())
+                    || !Objects.equals(ledStatus, robot.getLedStatus())
+                    || !Objects.equals(cycleTime, robot.getCycleTime())
+                    || !Objects.equals(productionCount, robot.getProductionCount())
+                    || !Objects.equals(quality, robot.getQuality())
+                    || !Objects.equals(temperature, robot.getTemperature())
+                    || !Objects.equals(powerConsumption, robot.getPowerConsumption())
+                    || !Objects.equals(lineId, newLineId);
+            robotName = robot.getRobotName();
+            companyId = robot.getCompanyId();
+            lineId = newLineId;
+            robotType = robot.getRobotType();
+            statusText = robot.getStatusText();
+            motorStatus = robot.getMotorStatus();
+            ledStatus = robot.getLedStatus();
+            cycleTime = robot.getCycleTime();
+            productionCount = robot.getProductionCount();
+            quality = robot.getQuality();
+            temperature = robot.getTemperature();
+            powerConsumption = robot.getPowerConsumption();
+            return changed;
+        }
+
+        Map<String, Object> toMap(RobotPositionTwin position) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("robotId", robotId);
+            map.put("robotName", robotName);
+            map.put("companyId", companyId);
+            map.put("lineId", lineId);
+            map.put("robotType", robotType);
+            map.put("statusText", statusText);
+            map.put("motorStatus", motorStatus);
+            map.put("ledStatus", ledStatus);
+            map.put("cycleTime", cycleTime);
+            map.put("productionCount", productionCount);
+            map.put("quality", quality);
+            map.put("temperature", temperature);
+            map.put("powerConsumption", powerConsumption);
+            if (position != null) {
+                map.put("position", position(position.x, position.y, position.z));
+                map.put("batteryLevel", position.batteryLevel);
+                map.put("currentAction", position.currentAction);
+                map.put("movementSpeed", position.movementSpeed);
+                map.put("isActive", position.isActive);
+                if (position.targetX != null) {
+                    map.put("target", position(position.targetX, orZero(position.targetY), orZero(position.targetZ)));
+                }
+            } else {
+                map.put("batteryLevel", 95);
+                map.put("currentAction", "IDLE");
+                map.put("position", position(0.0, 0.0, 0.0));
+            }
+            return map;
+        }
+    }
+
+    private static final class RobotPositionTwin {
+        double x;
+        double y;
+        double z;
+        Integer batteryLevel;
+        String currentAction;
+        Double movementSpeed;
+        Boolean isActive;
+        Double targetX;
+        Double targetY;
+        Double targetZ;
+
+        boolean apply(RobotPosition position) {
+            double newX = orZero(position.getPositionX());
+            double newY = orZero(position.getPositionY());
+            double newZ = orZero(position.getPositionZ());
+            boolean changed = x != newX || y != newY || z != newZ
+                    || !Objects.equals(batteryLevel, position.getBatteryLevel())
+                    || !Objects.equals(currentAction, position.getCurrentAction())
+                    || !Objects.equals(isActive, position.getIsActive())
+                    || !Objects.equals(targetX, position.getTargetX());
+            x = newX;
+            y = newY;
+            z = newZ;
+            batteryLevel = position.getBatteryLevel();
+            currentAction = position.getCurrentAction();
+            movementSpeed = position.getMovementSpeed();
+            isActive = position.getIsActive();
+            targetX = position.getTargetX();
+            targetY = position.getTargetY();
+            targetZ = position.getTargetZ();
+            return changed;
+        }
+
+        // 로봇 정보 없이 위치만 있는 경우
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("position", position(x, y, z));
+            map.put("batteryLevel", batteryLevel);
+            map.put("currentAction", currentAction);
+            map.put("movementSpeed", movementSpeed);
+            map.put("isActive", isActive);
+            return map;
+        }
+    }
+
+    private static final class ConveyorTwin {
+        final String conveyorId;
+        String conveyorName;
+        Long lineId;
+        String command;
+        Double speed;
+        String direction;
+        Boolean sensorStatus;
+        String reason;
+        Boolean emergency;
+        Boolean maintenanceMode;
+
+        ConveyorTwin(String conveyorId) {
+            this.conveyorId = conveyorId;
+        }
+
+        boolean apply(ConveyorControl conveyor) {
+            boolean changed = !Objects.equals(command, conveyor.getCommand())
+                    || !Objects.equals(speed, conveyor.getSpeed())
+                    || !Objects.equals(direction, conveyor.getDirection())
+                    || !Objects.equals(sensorStatus, conveyor.getSensorStatus())
+                    || !Objects.equals(emergency, conveyor.getIsEmergency())
+                    || !Objects.equals(maintenanceMode, conveyor.getMaintenanceMode());
+            conveyorName = conveyor.getConveyorName();
+            lineId = conveyor.getLineId();
+            command = conveyor.getCommand();
+            speed = conveyor.getSpeed();
+            direction = conveyor.getDirection();
+            sensorStatus = conveyor.getSensorStatus();
+            reason = conveyor.getReason();
+            emergency = conveyor.getIsEmergency();
+            maintenanceMode = conveyor.getMaintenanceMode();
+            return changed;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("conveyorId", conveyorId);
+            map.put("conveyorName", conveyorName);
+            map.put("lineId", lineId);
+            map.put("command", command);
+            map.put("speed", speed);
+            map.put("direction", direction);
+            map.put("sensorDetected", sensorStatus);
+            map.put("emergency", emergency);
+            map.put("maintenanceMode", maintenanceMode);
+            map.put("reason", reason);
+            return map;
+        }
+    }
+}
@@ -126,7 +126,12 @@ public class UserService {
     public JwtResponse refreshToken(RefreshTokenRequest request) {
         try {
             String refreshToken = request.getRefreshToken();
-            String username = jwtUtil.getUsernameFromToken(refreshToken);
+            // 서명/만료 검증, 액세스 토큰으로는 갱신 불가
+            JwtUtil.VerifiedToken verified = jwtUtil.verify(refreshToken);
+            if (!verified.isRefreshToken()) {
+                return new JwtResponse(false, "유효하지 않은 리프레시 토큰입니다.");
+            }
+            String username = verified.username();
             
             User user = userRepository.findByUserName(username);
             if (user == null) {
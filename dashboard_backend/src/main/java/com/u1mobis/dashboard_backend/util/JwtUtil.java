@@ -2,13 +2,18 @@ package com.u1mobis.dashboard_backend.util;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 @Component
@@ -24,8 +29,87 @@ public class JwtUtil {
     @Value("${jwt.refresh-expiration:604800}") // 7일 (초 단위)
     private int refreshExpiration;
     
+    // 검증 완료 토큰 캐시 최대 개수 (만료 시각까지 재검증 생략)
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+    
+    // 서명 키/파서는 기동 시 한 번만 생성
+    private SecretKey signingKey;
+    private JwtParser parser;
+    
+    // Key: 토큰 원문 (서명만으로 키를 잡으면 다른 페이로드에 서명을 붙인 토큰이 통과할 수 있음)
+    // 접근 순서 LRU, this 로 보호 (가득 차면 가장 오래 안 쓴 토큰부터 제거)
+    private final LinkedHashMap<String, VerifiedToken> verifiedTokens = new LinkedHashMap<>(256, 0.75f, true);
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
+    }
+    
+    /**
+     * 토큰 검증 후 클레임 반환 (검증된 토큰은 만료 전까지 캐시에서 바로 반환)
+     * @throws JwtException 서명 불일치, 만료, 형식 오류
+     */
+    public VerifiedToken verify(String token) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            VerifiedToken cached = verifiedTokens.get(token);
+            if (cached != null) {
+                if (cached.expiresAt() > now) {
+                    cacheHits.incrementAndGet();
+                    return cached;
+                }
+                verifiedTokens.remove(token);
+            }
+        }
+        cacheMisses.incrementAndGet();
+        
+        Claims claims = getAllClaimsFromToken(token);
+        @SuppressWarnings("unchecked")
+        List<String> roles = claims.get("roles", List.class);
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(),
+                claims.get("userId", Long.class), claims.get("companyId", Long.class),
+                claims.get("type", String.class), roles,
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : now);
+        if (claims.getExpiration() != null) {
+            synchronized (this) {
+                verifiedTokens.put(token, verified);
+                evictOverflow();
+            }
+        }
+        return verified;
+    }
+    
+    public Map<String, Object> getCacheStats() {
+        int entries;
+        synchronized (this) {
+            entries = verifiedTokens.size();
+        }
+        return Map.of(
+                "entries", entries,
+                "hits", cacheHits.get(),
+                "misses", cacheMisses.get(),
+                "evictions", evictions.get());
+    }
+    
+    // 한도를 넘으면 오래 안 쓴 순서로 제거 (만료된 항목은 조회 시점에 제거)
+    private void evictOverflow() {
+        Iterator<VerifiedToken> it = verifiedTokens.values().iterator();
+        while (it.hasNext() && verifiedTokens.size() > cacheMaxSize) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
     }
     
     // 토큰에서 사용자명 추출
@@ -43,19 +127,9 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
     
-    // 토큰의 모든 클레임 정보 가져오기
+    // 토큰의 모든 클레임 정보 가져오기 (만료된 토큰은 파서가 ExpiredJwtException)
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-    
-    // 토큰 만료 확인
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+        return parser.parseClaimsJws(token).getBody();
     }
     
     // 사용자 정보로 토큰 생성
@@ -63,6 +137,7 @@ public class JwtUtil {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("companyId", companyId);
+        claims.put("roles", List.of("ROLE_USER"));
         return createToken(claims, username);
     }
     
@@ -95,11 +170,10 @@ public class JwtUtil {
                 .compact();
     }
     
-    // 토큰 유효성 검증
+    // 토큰 유효성 검증 (서명/만료는 파싱 시 확인)
     public Boolean validateToken(String token, String username) {
         try {
-            final String tokenUsername = getUsernameFromToken(token);
-            return (tokenUsername.equals(username) && !isTokenExpired(token));
+            return verify(token).username().equals(username);
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
@@ -107,13 +181,24 @@ public class JwtUtil {
     
     // 토큰에서 userId 추출
     public Long getUserIdFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return claims.get("userId", Long.class);
+        return verify(token).userId();
     }
     
     // 토큰에서 companyId 추출
     public Long getCompanyIdFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return claims.get("companyId", Long.class);
+        return verify(token).companyId();
+    }
+    
+    /**
+     * 검증된 토큰 클레임
+     * @param type      "refresh" 이면 리프레시 토큰 (액세스 토큰은 null)
+     * @param expiresAt 만료 시각 (epoch ms)
+     */
+    public record VerifiedToken(String username, Long userId, Long companyId, String type, List<String> roles,
+                                long expiresAt) {
+        
+        public boolean isRefreshToken() {
+            return "refresh".equals(type);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,169 @@
+-- ===================================
+-- 시계열 테이블 월 단위 파티셔닝
+-- kpi_data, environment_sensor, production_completed, quality_records, conveyor_status, alerts
+-- - "timestamp" 기준 RANGE 파티션 (월 단위) + DEFAULT 파티션
+-- - 기존 테이블이 있으면 *_legacy 로 이름 변경 후 데이터 복사, 없으면 새로 생성
+-- - 파티션 키가 PK에 포함되어야 하므로 PK는 (id, "timestamp")
+-- ===================================
+
+-- 월 파티션 생성 (이미 있으면 무시) - TelemetryPartitionService 에서도 사용
+CREATE OR REPLACE FUNCTION telemetry_create_month_partition(parent_table text, month_start date)
+RETURNS text AS $$
+DECLARE
+    partition_name text := parent_table || '_' || to_char(month_start, 'YYYYMM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, parent_table, month_start, (month_start + interval '1 month')::date);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 일반 테이블을 월 파티션 테이블로 전환
+CREATE OR REPLACE FUNCTION telemetry_partition_table(parent_table text, id_column text, column_ddl text)
+RETURNS void AS $$
+DECLARE
+    legacy_table text := parent_table || '_legacy';
+    seq_name text := parent_table || '_' || id_column || '_seq_part';
+    rel_kind "char";
+    first_month date := date_trunc('month', now())::date;
+    last_month date := (date_trunc('month', now()) + interval '3 month')::date;
+    oldest_month date;
+    month_cursor date;
+    column_list text;
+    max_id bigint;
+BEGIN
+    SELECT c.relkind INTO rel_kind
+    FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+    WHERE c.relname = parent_table AND n.nspname = current_schema();
+
+    IF rel_kind = 'p' THEN
+        RETURN; -- 이미 파티션 테이블
+    END IF;
+
+    IF rel_kind IS NOT NULL THEN
+        EXECUTE format('ALTER TABLE %I RENAME TO %I', parent_table, legacy_table);
+        -- 테이블 이름을 바꿔도 PK 인덱스 이름은 그대로이므로 새 테이블 PK와 겹치지 않게 변경
+        EXECUTE format('ALTER INDEX IF EXISTS %I RENAME TO %I', parent_table || '_pkey', legacy_table || '_pkey');
+        EXECUTE format('SELECT date_trunc(''month'', min("timestamp"))::date FROM %I', legacy_table) INTO oldest_month;
+        IF oldest_month IS NOT NULL AND oldest_month < first_month THEN
+            first_month := oldest_month;
+        END IF;
+    END IF;
+
+    EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I', seq_name);
+    EXECUTE format('CREATE TABLE %I (%I bigint NOT NULL DEFAULT nextval(%L), %s, PRIMARY KEY (%I, "timestamp")) '
+                   'PARTITION BY RANGE ("timestamp")',
+                   parent_table, id_column, seq_name, column_ddl, id_column);
+    EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.%I', seq_name, parent_table, id_column);
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I DEFAULT', parent_table || '_default', parent_table);
+
+    month_cursor := first_month;
+    WHILE month_cursor <= last_month LOOP
+        PERFORM telemetry_create_month_partition(parent_table, month_cursor);
+        month_cursor := (month_cursor + interval '1 month')::date;
+    END LOOP;
+
+    IF rel_kind IS NOT NULL THEN
+        -- 양쪽 테이블에 모두 있는 컬럼만 복사 (Hibernate 가 만든 컬럼 순서와 무관)
+        SELECT string_agg(quote_ident(n.column_name), ', ' ORDER BY n.ordinal_position) INTO column_list
+        FROM information_schema.columns n
+        JOIN information_schema.columns o
+          ON o.table_schema = n.table_schema AND o.table_name = legacy_table AND o.column_name = n.column_name
+        WHERE n.table_schema = current_schema() AND n.table_name = parent_table;
+
+        EXECUTE format('INSERT INTO %I (%s) SELECT %s FROM %I', parent_table, column_list, column_list, legacy_table);
+        -- CASCADE 없이 삭제: 기존 테이블에 걸린 뷰/외래키/함수가 있으면 조용히 지우지 않고 마이그레이션을 실패시킴
+        EXECUTE format('DROP TABLE %I', legacy_table);
+    END IF;
+
+    EXECUTE format('SELECT COALESCE(max(%I), 0) FROM %I', id_column, parent_table) INTO max_id;
+    PERFORM setval(seq_name, max_id + 1, false);
+END;
+$$ LANGUAGE plpgsql;
+
+-- ===================================
+-- 테이블 전환
+-- ===================================
+SELECT telemetry_partition_table('kpi_data', 'kpi_id',
+    '"timestamp" timestamp(6) NOT NULL,
+     planned_time integer,
+     downtime integer,
+     target_cycle_time double precision,
+     good_count integer,
+     total_count integer,
+     first_time_pass_count integer,
+     on_time_delivery_count integer,
+     calculated_oee double precision,
+     calculated_fty double precision,
+     calculated_otd double precision,
+     company_id bigint,
+     line_id bigint NOT NULL,
+     oee double precision');
+
+SELECT telemetry_partition_table('environment_sensor', 'id',
+    '"timestamp" timestamp(6) NOT NULL,
+     temperature double precision,
+     humidity double precision,
+     air_quality integer,
+     line_id bigint,
+     sensor_location varchar(255)');
+
+SELECT telemetry_partition_table('production_completed', 'id',
+    'product_id varchar(255) NOT NULL,
+     "timestamp" timestamp(6) NOT NULL,
+     cycle_time double precision,
+     quality varchar(255) NOT NULL,
+     due_date timestamp(6),
+     is_on_time boolean,
+     is_first_time_pass boolean,
+     line_id bigint NOT NULL');
+
+SELECT telemetry_partition_table('quality_records', 'id',
+    'product_id varchar(255) NOT NULL,
+     robot_id varchar(255) NOT NULL,
+     "timestamp" timestamp(6) NOT NULL,
+     result varchar(255) NOT NULL,
+     defect_reason varchar(255),
+     torque_value double precision,
+     line_id bigint NOT NULL');
+
+SELECT telemetry_partition_table('conveyor_status', 'id',
+    '"timestamp" timestamp(6) NOT NULL,
+     command varchar(255) NOT NULL,
+     reason varchar(255),
+     line_id bigint NOT NULL');
+
+SELECT telemetry_partition_table('alerts', 'alert_id',
+    'alert_type varchar(255) NOT NULL,
+     message varchar(1000) NOT NULL,
+     type varchar(255),
+     value varchar(255),
+     product_id varchar(255),
+     "timestamp" timestamp(6) NOT NULL,
+     company_id bigint NOT NULL,
+     user_id varchar(255),
+     is_read boolean NOT NULL');
+
+-- ===================================
+-- 인덱스 (부모 테이블에 만들면 모든 파티션에 전파)
+-- - B-tree: 회사/라인별 최근 구간 조회
+-- - BRIN: 시간순 적재 데이터의 범위 스캔 (크기가 매우 작음)
+-- ===================================
+CREATE INDEX IF NOT EXISTS idx_kpi_data_company_line_ts ON kpi_data (company_id, line_id, "timestamp");
+CREATE INDEX IF NOT EXISTS brin_kpi_data_ts ON kpi_data USING brin ("timestamp");
+
+-- environment_sensor / production_completed / quality_records / conveyor_status 에는 company_id 컬럼이 없으므로 라인 기준
+CREATE INDEX IF NOT EXISTS idx_environment_sensor_line_ts ON environment_sensor (line_id, "timestamp");
+CREATE INDEX IF NOT EXISTS brin_environment_sensor_ts ON environment_sensor USING brin ("timestamp");
+
+CREATE INDEX IF NOT EXISTS idx_production_completed_line_ts ON production_completed (line_id, "timestamp");
+CREATE INDEX IF NOT EXISTS brin_production_completed_ts ON production_completed USING brin ("timestamp");
+
+CREATE INDEX IF NOT EXISTS idx_quality_records_line_ts ON quality_records (line_id, "timestamp");
+CREATE INDEX IF NOT EXISTS brin_quality_records_ts ON quality_records USING brin ("timestamp");
+
+CREATE INDEX IF NOT EXISTS idx_conveyor_status_line_ts ON conveyor_status (line_id, "timestamp");
+CREATE INDEX IF NOT EXISTS brin_conveyor_status_ts ON conveyor_status USING brin ("timestamp");
+
+CREATE INDEX IF NOT EXISTS idx_alerts_company_ts ON alerts (company_id, "timestamp");
+CREATE INDEX IF NOT EXISTS brin_alerts_ts ON alerts USING brin ("timestamp");
@@ -0,0 +1,20 @@
+-- ===================================
+-- environment_sensor 회사 구분
+-- - company_id 컬럼 추가 (기존 행은 line_id 로 회사를 알 수 있으면 채움, 나머지는 NULL)
+-- - 회사별 기간 조회 인덱스 (company_id, "timestamp") - 부모 테이블에 만들면 모든 월 파티션에 생성됨
+-- ===================================
+
+ALTER TABLE environment_sensor ADD COLUMN IF NOT EXISTS company_id bigint;
+
+-- production_lines 는 JPA 가 만들므로 새 DB 에서는 아직 없을 수 있음
+DO $$
+BEGIN
+    IF to_regclass('production_lines') IS NOT NULL THEN
+        UPDATE environment_sensor es
+        SET company_id = pl.company_id
+        FROM production_lines pl
+        WHERE es.company_id IS NULL AND es.line_id = pl.line_id;
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_environment_sensor_company_ts ON environment_sensor (company_id, "timestamp");
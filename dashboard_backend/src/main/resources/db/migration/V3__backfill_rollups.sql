@@ -0,0 +1,118 @@
+-- ===================================
+-- 롤업 테이블 생성 및 원본 데이터로 채우기
+-- kpi_rollup, production_rollup, environment_rollup
+-- - 롤업은 배포 이후 이벤트부터 누적되므로, 그 전 기록을 원본 테이블에서 분/시간/일 버킷으로 집계해 넣는다
+-- - Flyway 가 JPA 보다 먼저 실행되므로 테이블은 엔티티와 같은 정의로 여기서 만든다
+-- - 이미 있는 버킷은 원본 집계의 건수가 더 많을 때만 교체 (배포 당일처럼 롤업이 일부만 채운 버킷)
+-- - g (granularity, unit): RollupGranularity 이름과 date_trunc 단위 (bucketStart 와 같은 기준), line_id 가 없으면 0 (공장 전체)
+-- ===================================
+
+CREATE TABLE IF NOT EXISTS kpi_rollup (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    company_id bigint NOT NULL,
+    line_id bigint NOT NULL,
+    granularity varchar(10) NOT NULL,
+    bucket_start timestamp(6) NOT NULL,
+    sample_count bigint NOT NULL,
+    oee_sum double precision NOT NULL,
+    fty_sum double precision NOT NULL,
+    otd_sum double precision NOT NULL,
+    planned_time bigint NOT NULL,
+    downtime bigint NOT NULL,
+    total_count bigint NOT NULL,
+    good_count bigint NOT NULL,
+    first_time_pass_count bigint NOT NULL,
+    on_time_delivery_count bigint NOT NULL,
+    CONSTRAINT uk_kpi_rollup_bucket UNIQUE (company_id, line_id, granularity, bucket_start)
+);
+CREATE INDEX IF NOT EXISTS idx_kpi_rollup_lookup ON kpi_rollup (company_id, granularity, bucket_start);
+
+CREATE TABLE IF NOT EXISTS production_rollup (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    company_id bigint NOT NULL,
+    line_id bigint NOT NULL,
+    granularity varchar(10) NOT NULL,
+    bucket_start timestamp(6) NOT NULL,
+    completed_count bigint NOT NULL,
+    good_count bigint NOT NULL,
+    on_time_count bigint NOT NULL,
+    first_time_pass_count bigint NOT NULL,
+    cycle_time_count bigint NOT NULL,
+    cycle_time_sum double precision NOT NULL,
+    CONSTRAINT uk_production_rollup_bucket UNIQUE (company_id, line_id, granularity, bucket_start)
+);
+CREATE INDEX IF NOT EXISTS idx_production_rollup_line ON production_rollup (line_id, granularity, bucket_start);
+
+CREATE TABLE IF NOT EXISTS environment_rollup (
+    id bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    company_id bigint NOT NULL,
+    line_id bigint NOT NULL,
+    granularity varchar(10) NOT NULL,
+    bucket_start timestamp(6) NOT NULL,
+    sample_count bigint NOT NULL,
+    temperature_sum double precision NOT NULL,
+    humidity_sum double precision NOT NULL,
+    air_quality_sum bigint NOT NULL,
+    temperature_max double precision,
+    humidity_max double precision,
+    air_quality_max integer,
+    CONSTRAINT uk_environment_rollup_bucket UNIQUE (company_id, line_id, granularity, bucket_start)
+);
+CREATE INDEX IF NOT EXISTS idx_environment_rollup_lookup ON environment_rollup (company_id, granularity, bucket_start);
+
+-- KPI (RollupService.recordKpi 와 같은 값: OEE/FTY/OTD 는 비율 합계, null 은 0)
+INSERT INTO kpi_rollup (company_id, line_id, granularity, bucket_start, sample_count, oee_sum, fty_sum, otd_sum,
+                        planned_time, downtime, total_count, good_count, first_time_pass_count, on_time_delivery_count)
+SELECT k.company_id, k.line_id, g.granularity, date_trunc(g.unit, k."timestamp"), count(*),
+       sum(COALESCE(k.calculated_oee, 0)), sum(COALESCE(k.calculated_fty, 0)), sum(COALESCE(k.calculated_otd, 0)),
+       sum(COALESCE(k.planned_time, 0)), sum(COALESCE(k.downtime, 0)), sum(COALESCE(k.total_count, 0)),
+       sum(COALESCE(k.good_count, 0)), sum(COALESCE(k.first_time_pass_count, 0)),
+       sum(COALESCE(k.on_time_delivery_count, 0))
+FROM kpi_data k CROSS JOIN (VALUES ('MINUTE', 'minute'), ('HOUR', 'hour'), ('DAY', 'day')) AS g (granularity, unit)
+WHERE k.company_id IS NOT NULL
+GROUP BY k.company_id, k.line_id, g.granularity, date_trunc(g.unit, k."timestamp")
+ON CONFLICT (company_id, line_id, granularity, bucket_start) DO UPDATE SET
+    sample_count = EXCLUDED.sample_count, oee_sum = EXCLUDED.oee_sum, fty_sum = EXCLUDED.fty_sum,
+    otd_sum = EXCLUDED.otd_sum, planned_time = EXCLUDED.planned_time, downtime = EXCLUDED.downtime,
+    total_count = EXCLUDED.total_count, good_count = EXCLUDED.good_count,
+    first_time_pass_count = EXCLUDED.first_time_pass_count, on_time_delivery_count = EXCLUDED.on_time_delivery_count
+WHERE kpi_rollup.sample_count < EXCLUDED.sample_count;
+
+-- 환경 (company_id 는 V2 에서 추가, 회사를 모르는 행은 제외)
+INSERT INTO environment_rollup (company_id, line_id, granularity, bucket_start, sample_count, temperature_sum,
+                                humidity_sum, air_quality_sum, temperature_max, humidity_max, air_quality_max)
+SELECT e.company_id, COALESCE(e.line_id, 0), g.granularity, date_trunc(g.unit, e."timestamp"), count(*),
+       sum(e.temperature), sum(e.humidity), sum(e.air_quality), max(e.temperature), max(e.humidity), max(e.air_quality)
+FROM environment_sensor e CROSS JOIN (VALUES ('MINUTE', 'minute'), ('HOUR', 'hour'), ('DAY', 'day')) AS g (granularity, unit)
+WHERE e.company_id IS NOT NULL
+  AND e.temperature IS NOT NULL AND e.humidity IS NOT NULL AND e.air_quality IS NOT NULL
+GROUP BY e.company_id, COALESCE(e.line_id, 0), g.granularity, date_trunc(g.unit, e."timestamp")
+ON CONFLICT (company_id, line_id, granularity, bucket_start) DO UPDATE SET
+    sample_count = EXCLUDED.sample_count, temperature_sum = EXCLUDED.temperature_sum,
+    humidity_sum = EXCLUDED.humidity_sum, air_quality_sum = EXCLUDED.air_quality_sum,
+    temperature_max = EXCLUDED.temperature_max, humidity_max = EXCLUDED.humidity_max,
+    air_quality_max = EXCLUDED.air_quality_max
+WHERE environment_rollup.sample_count < EXCLUDED.sample_count;
+
+-- 생산 완료 (회사는 라인으로 찾음, production_lines 는 JPA 가 만들므로 새 DB 에서는 아직 없을 수 있음)
+DO $$
+BEGIN
+    IF to_regclass('production_lines') IS NOT NULL THEN
+        INSERT INTO production_rollup (company_id, line_id, granularity, bucket_start, completed_count, good_count,
+                                       on_time_count, first_time_pass_count, cycle_time_count, cycle_time_sum)
+        SELECT pl.company_id, pc.line_id, g.granularity, date_trunc(g.unit, pc."timestamp"), count(*),
+               count(*) FILTER (WHERE pc.quality = 'PASS'),
+               count(*) FILTER (WHERE pc.is_on_time),
+               count(*) FILTER (WHERE pc.is_first_time_pass),
+               count(pc.cycle_time), COALESCE(sum(pc.cycle_time), 0)
+        FROM production_completed pc
+        JOIN production_lines pl ON pl.line_id = pc.line_id
+        CROSS JOIN (VALUES ('MINUTE', 'minute'), ('HOUR', 'hour'), ('DAY', 'day')) AS g (granularity, unit)
+        GROUP BY pl.company_id, pc.line_id, g.granularity, date_trunc(g.unit, pc."timestamp")
+        ON CONFLICT (company_id, line_id, granularity, bucket_start) DO UPDATE SET
+            completed_count = EXCLUDED.completed_count, good_count = EXCLUDED.good_count,
+            on_time_count = EXCLUDED.on_time_count, first_time_pass_count = EXCLUDED.first_time_pass_count,
+            cycle_time_count = EXCLUDED.cycle_time_count, cycle_time_sum = EXCLUDED.cycle_time_sum
+        WHERE production_rollup.completed_count < EXCLUDED.completed_count;
+    END IF;
+END $$;
@@ -0,0 +1,39 @@
+-- ===================================
+-- 월 파티션 생성 시 DEFAULT 파티션 행 이동
+-- - DEFAULT 파티션에 해당 월 행이 있으면 CREATE TABLE ... PARTITION OF ... FOR VALUES 가 실패하므로
+--   빈 테이블을 만들어 DEFAULT 에서 그 월 행을 옮긴 뒤 파티션으로 연결(ATTACH)
+-- - 인덱스/PK 는 ATTACH 시 부모 테이블 정의대로 만들어짐
+-- - DEFAULT 파티션 행 수는 TelemetryPartitionService 가 점검 때마다 확인
+-- ===================================
+
+CREATE OR REPLACE FUNCTION telemetry_create_month_partition(parent_table text, month_start date)
+RETURNS text AS $$
+DECLARE
+    partition_name text := parent_table || '_' || to_char(month_start, 'YYYYMM');
+    default_name text := parent_table || '_default';
+    month_end date := (month_start + interval '1 month')::date;
+    moved bigint := 0;
+BEGIN
+    IF to_regclass(quote_ident(partition_name)) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                   partition_name, parent_table);
+
+    IF to_regclass(quote_ident(default_name)) IS NOT NULL THEN
+        -- DEFAULT 파티션은 부모와 컬럼 순서가 같으므로 SELECT * 로 옮김
+        EXECUTE format('WITH moved AS (DELETE FROM %I WHERE "timestamp" >= %L AND "timestamp" < %L RETURNING *) '
+                       'INSERT INTO %I SELECT * FROM moved',
+                       default_name, month_start, month_end, partition_name);
+        GET DIAGNOSTICS moved = ROW_COUNT;
+    END IF;
+
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent_table, partition_name, month_start, month_end);
+    IF moved > 0 THEN
+        RAISE NOTICE '% - DEFAULT 파티션에서 % 행 이동', partition_name, moved;
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,103 @@
+package com.u1mobis.dashboard_backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+class AlertPrioritySessionDecoratorTest {
+
+	private static final int SEND_TIME_LIMIT = 10_000;
+	private static final int BUFFER_SIZE_LIMIT = 2048;
+	private static final int ALERT_HEADROOM = 4096;
+
+	private final TextMessage twinFrame = new TextMessage(frame("/topic/twin/u1mobis", "{\"seq\":1}"));
+	private final TextMessage alertFrame = new TextMessage(frame("/topic/alerts/u1mobis", "{\"type\":\"danger\"}"));
+
+	@Test
+	void detectsAlertDestinationInHeadersOnly() {
+		assertTrue(AlertPrioritySessionDecorator.isAlert(alertFrame));
+		assertFalse(AlertPrioritySessionDecorator.isAlert(twinFrame));
+		// 본문에 같은 문자열이 있어도 헤더가 아니면 알림이 아님
+		assertFalse(AlertPrioritySessionDecorator.isAlert(new TextMessage(
+				frame("/topic/twin/u1mobis", "{\"note\":\"\ndestination:/topic/alerts/x\"}"))));
+		assertFalse(AlertPrioritySessionDecorator.isAlert(new BinaryMessage(ByteBuffer.wrap(new byte[] {1, 2}))));
+	}
+
+	@Test
+	void stalledClientDropsFramesButKeepsAlerts() throws Exception {
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+		WebSocketSession socket = mock(WebSocketSession.class);
+		doAnswer(invocation -> {
+			WebSocketMessage<?> message = invocation.getArgument(0);
+			if (delivered.isEmpty()) {
+				// 첫 송신에서 멈춘 클라이언트
+				entered.countDown();
+				release.await(5, TimeUnit.SECONDS);
+			}
+			delivered.add((String) message.getPayload());
+			return null;
+		}).when(socket).sendMessage(any());
+
+		AlertPrioritySessionDecorator session = new AlertPrioritySessionDecorator(socket, SEND_TIME_LIMIT,
+				BUFFER_SIZE_LIMIT, ALERT_HEADROOM);
+		Thread sender = new Thread(() -> send(session, twinFrame));
+		sender.start();
+		assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+		long droppedBefore = AlertPrioritySessionDecorator.getDroppedMessages();
+		int frames = 100;
+		for (int i = 0; i < frames; i++) {
+			session.sendMessage(twinFrame);
+		}
+		// 공유 버퍼 한도까지만 쌓이고 나머지 프레임은 버림
+		assertTrue(session.getBufferSize() <= BUFFER_SIZE_LIMIT, "buffer " + session.getBufferSize());
+		int buffered = session.getBufferSize() / twinFrame.getPayloadLength();
+		assertEquals(frames - buffered, AlertPrioritySessionDecorator.getDroppedMessages() - droppedBefore);
+
+		// 알림은 한도를 넘어 예비 공간에 쌓임
+		int alerts = 5;
+		for (int i = 0; i < alerts; i++) {
+			session.sendMessage(alertFrame);
+		}
+		assertTrue(session.getBufferSize() > BUFFER_SIZE_LIMIT);
+		assertEquals(frames - buffered, AlertPrioritySessionDecorator.getDroppedMessages() - droppedBefore);
+
+		release.countDown();
+		sender.join(5000);
+		assertEquals(1 + buffered + alerts, delivered.size());
+		assertEquals(alerts, delivered.stream().filter(payload -> payload.contains("/topic/alerts/")).count());
+		assertEquals(0, session.getBufferSize());
+	}
+
+	private static void send(AlertPrioritySessionDecorator session, TextMessage message) {
+		try {
+			session.sendMessage(message);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	// StompEncoder 가 만드는 MESSAGE 프레임과 같은 형태
+	private static String frame(String destination, String body) {
+		return "MESSAGE\ndestination:" + destination + "\ncontent-type:application/json\nsubscription:sub-0\n" +
+				"message-id:test-1\ncontent-length:" + body.length() + "\n\n" + body + "\0";
+	}
+}
@@ -0,0 +1,60 @@
+package com.u1mobis.dashboard_backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.u1mobis.dashboard_backend.dto.ClickInfo;
+import com.u1mobis.dashboard_backend.dto.RealTimeKpiResponse;
+import com.u1mobis.dashboard_backend.dto.UnityLegacyRealtimeResponse;
+import com.u1mobis.dashboard_backend.service.KPIStreamAggregator;
+
+class WebConfigTest {
+
+	private final ObjectMapper mapper = new WebConfig().objectMapper();
+
+	@Test
+	void blackbirdIsRegistered() {
+		assertTrue(mapper.getRegisteredModuleIds().stream().anyMatch(id -> id.toString().contains("Blackbird")));
+	}
+
+	@Test
+	void blackbirdDoesNotChangeSerializedResponses() throws Exception {
+		// Blackbird 만 빠진 같은 설정
+		ObjectMapper reflective = new ObjectMapper();
+		reflective.registerModule(new JavaTimeModule());
+		reflective.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+		Map<String, KPIStreamAggregator.WindowStats> windows = new LinkedHashMap<>();
+		windows.put("1m", new KPIStreamAggregator.WindowStats("1m", 120, 0.82, 0.9, 0.95, 0.96, 0.91, 0.97,
+				240, 230, 60, 58, 41.5, 35.0, 52.0, null));
+		Map<String, UnityLegacyRealtimeResponse.Product> products = new LinkedHashMap<>();
+		products.put("Car_Line1_001", new UnityLegacyRealtimeResponse.Product("P001", "DoorStation", "PROCESSING",
+				"RED", 1L, new UnityLegacyRealtimeResponse.Position(10.0, 0.0, 5.0)));
+		Map<String, UnityLegacyRealtimeResponse.Station> stations = new LinkedHashMap<>();
+		stations.put("DoorStation_Line1", new UnityLegacyRealtimeResponse.Station("operating", null, 85.5));
+		Map<String, UnityLegacyRealtimeResponse.Robot> robots = new LinkedHashMap<>();
+		robots.put("Robot_FrontRight_Line2", new UnityLegacyRealtimeResponse.Robot("active", "working", 75));
+
+		List<Object> responses = List.of(
+				new RealTimeKpiResponse(82.0, 91.0, 97.0, "2025-01-01T09:00:00", "u1mobis", 1L, windows, null, null, null),
+				UnityLegacyRealtimeResponse.of("u1mobis", products, stations, robots),
+				new ClickInfo.Robot("ROBOT_001", "도어 장착 로봇", 1L, "u1mobis", "정상", "ON", "작동중", null, null, null)
+						.clicked("robot", "ROBOT_001"),
+				Map.of("timestamp", LocalDateTime.of(2025, 1, 1, 9, 0)));
+
+		for (Object response : responses) {
+			assertEquals(reflective.writeValueAsString(response), mapper.writeValueAsString(response),
+					response.getClass().getSimpleName());
+		}
+	}
+}
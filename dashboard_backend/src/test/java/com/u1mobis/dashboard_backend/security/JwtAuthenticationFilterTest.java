@@ -0,0 +1,109 @@
+package com.u1mobis.dashboard_backend.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.u1mobis.dashboard_backend.security.CustomUserDetailsService.CustomUserPrincipal;
+import com.u1mobis.dashboard_backend.util.JwtUtil;
+
+import io.jsonwebtoken.JwtException;
+
+class JwtAuthenticationFilterTest {
+
+	private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+
+	private JwtUtil jwtUtil;
+	private JwtAuthenticationFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "secret", "test-secret-key-that-is-long-enough-for-hs256-signing");
+		ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 3600);
+		ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 7200);
+		ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 2);
+		jwtUtil.init();
+		filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService);
+	}
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void accessTokenAuthenticatesFromClaimsWithoutDbLookup() throws Exception {
+		Authentication authentication = authenticate(jwtUtil.generateToken("kim", 7L, 3L));
+
+		CustomUserPrincipal principal = (CustomUserPrincipal) authentication.getPrincipal();
+		assertEquals("kim", principal.getUsername());
+		assertEquals(7L, principal.getUserId());
+		assertEquals(3L, principal.getCompanyId());
+		assertEquals(List.of("ROLE_USER"),
+				principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+		verify(userDetailsService, never()).loadUserByUsername(anyString());
+	}
+
+	@Test
+	void refreshOrTamperedTokenIsNotAuthenticated() throws Exception {
+		assertNull(authenticate(jwtUtil.generateRefreshToken("kim")));
+
+		String token = jwtUtil.generateToken("kim", 7L, 3L);
+		String[] parts = token.split("\\.");
+		// 다른 사용자의 페이로드에 원래 서명을 붙인 토큰
+		String forged = parts[0] + "." + jwtUtil.generateToken("lee", 8L, 4L).split("\\.")[1] + "." + parts[2];
+		assertNull(authenticate(forged));
+		assertNull(authenticate("not-a-jwt"));
+	}
+
+	@Test
+	void verifiedTokensAreCachedAsLru() {
+		String first = jwtUtil.generateToken("a", 1L, 1L);
+		String second = jwtUtil.generateToken("b", 2L, 1L);
+		String third = jwtUtil.generateToken("c", 3L, 1L);
+
+		jwtUtil.verify(first);
+		jwtUtil.verify(second);
+		jwtUtil.verify(first); // first 를 최근 사용으로
+		jwtUtil.verify(third); // 한도 2 → second 제거
+
+		assertEquals(1L, jwtUtil.getCacheStats().get("hits"));
+		assertEquals(1L, jwtUtil.getCacheStats().get("evictions"));
+		jwtUtil.verify(first);
+		assertEquals(2L, jwtUtil.getCacheStats().get("hits"));
+		jwtUtil.verify(second);
+		assertEquals(4L, jwtUtil.getCacheStats().get("misses"));
+		// 캐시에 없는 위조 토큰은 매번 서명 검증
+		int signature = first.lastIndexOf('.') + 1;
+		String tampered = first.substring(0, signature) + (first.charAt(signature) == 'A' ? 'B' : 'A')
+				+ first.substring(signature + 1);
+		assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+	}
+
+	private Authentication authenticate(String token) throws Exception {
+		SecurityContextHolder.clearContext();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/u1mobis/kpi/realtime");
+		request.addHeader("Authorization", "Bearer " + token);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+}
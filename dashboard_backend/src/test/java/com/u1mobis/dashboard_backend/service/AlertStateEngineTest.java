@@ -0,0 +1,119 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.u1mobis.dashboard_backend.service.AlertStateEngine.AlertRule;
+import com.u1mobis.dashboard_backend.service.AlertStateEngine.Decision;
+import com.u1mobis.dashboard_backend.service.AlertStateEngine.Direction;
+
+class AlertStateEngineTest {
+
+	private static final Long COMPANY = 1L;
+	private static final Long LINE = 10L;
+
+	// OEE 85 미만이면 발생, 88 이상이면 해제
+	private static final AlertRule LOW_OEE = new AlertRule(-1, "OEE_LOW", Direction.BELOW, 85.0, 88.0, false);
+
+	@Test
+	void raisesOnceAndSuppressesWhileRaised() {
+		AlertStateEngine engine = engine(600_000, 10, 20);
+
+		assertEquals(Decision.NONE, engine.evaluate(COMPANY, LINE, LOW_OEE, 90.0));
+		assertEquals(Decision.RAISE, engine.evaluate(COMPANY, LINE, LOW_OEE, 80.0));
+		assertEquals(Decision.SUPPRESSED, engine.evaluate(COMPANY, LINE, LOW_OEE, 79.0));
+		assertEquals(Decision.SUPPRESSED, engine.evaluate(COMPANY, LINE, LOW_OEE, 78.0));
+
+		Map<String, Object> stats = engine.getStats(COMPANY);
+		assertEquals(4L, stats.get("evaluated"));
+		assertEquals(1L, stats.get("raised"));
+		assertEquals(2L, stats.get("suppressed_duplicate"));
+		assertEquals(1, ((List<?>) stats.get("active")).size());
+	}
+
+	@Test
+	void hysteresisKeepsAlertRaisedBetweenThresholds() {
+		AlertStateEngine engine = engine(600_000, 10, 20);
+
+		assertEquals(Decision.RAISE, engine.evaluate(COMPANY, LINE, LOW_OEE, 84.0));
+		// 발생 기준은 넘었지만 해제 기준(88) 미만이면 발생 유지
+		assertEquals(Decision.SUPPRESSED, engine.evaluate(COMPANY, LINE, LOW_OEE, 86.0));
+		assertEquals(Decision.SUPPRESSED, engine.evaluate(COMPANY, LINE, LOW_OEE, 84.5));
+		assertEquals(Decision.CLEAR, engine.evaluate(COMPANY, LINE, LOW_OEE, 88.0));
+		assertEquals(Decision.NONE, engine.evaluate(COMPANY, LINE, LOW_OEE, 86.0));
+		assertEquals(Decision.RAISE, engine.evaluate(COMPANY, LINE, LOW_OEE, 84.0));
+
+		Map<String, Object> stats = engine.getStats(COMPANY);
+		assertEquals(2L, stats.get("raised"));
+		assertEquals(1L, stats.get("cleared"));
+	}
+
+	@Test
+	void renotifiesAfterInterval() {
+		AlertStateEngine engine = engine(0, 10, 20);
+
+		assertEquals(Decision.RAISE, engine.evaluate(COMPANY, LINE, LOW_OEE, 80.0));
+		assertEquals(Decision.RENOTIFY, engine.evaluate(COMPANY, LINE, LOW_OEE, 80.0));
+		assertEquals(Decision.CLEAR, engine.evaluate(COMPANY, LINE, LOW_OEE, 95.0));
+		assertEquals(1L, engine.getStats(COMPANY).get("renotified"));
+	}
+
+	@Test
+	void inclusiveAboveRuleRaisesAtThreshold() {
+		AlertStateEngine engine = engine(600_000, 10, 20);
+		AlertRule highTemperature = new AlertRule(-2, "TEMP_HIGH", Direction.ABOVE, 35.0, 33.0, true);
+
+		assertEquals(Decision.RAISE, engine.evaluate(COMPANY, LINE, highTemperature, 35.0));
+		assertEquals(Decision.SUPPRESSED, engine.evaluate(COMPANY, LINE, highTemperature, 34.0));
+		assertEquals(Decision.CLEAR, engine.evaluate(COMPANY, LINE, highTemperature, 33.0));
+	}
+
+	@Test
+	void burstLimitIsPerCompanyAndSkipsClearOfSuppressedRaise() {
+		AlertStateEngine engine = engine(600_000, 2, 0);
+
+		assertEquals(Decision.RAISE, engine.evaluate(COMPANY, 1L, LOW_OEE, 80.0));
+		assertEquals(Decision.RAISE, engine.evaluate(COMPANY, 2L, LOW_OEE, 80.0));
+		assertEquals(Decision.SUPPRESSED, engine.evaluate(COMPANY, 3L, LOW_OEE, 80.0));
+		// 다른 회사는 별도 버킷
+		assertEquals(Decision.RAISE, engine.evaluate(2L, 3L, LOW_OEE, 80.0));
+
+		// 발생 알림이 억제된 라인은 해제 알림도 보내지 않고, 이미 알린 라인은 한도와 무관하게 해제
+		assertEquals(Decision.SUPPRESSED, engine.evaluate(COMPANY, 3L, LOW_OEE, 90.0));
+		assertEquals(Decision.CLEAR, engine.evaluate(COMPANY, 1L, LOW_OEE, 90.0));
+
+		Map<String, Object> stats = engine.getStats(COMPANY);
+		assertEquals(1L, stats.get("suppressed_burst"));
+		assertEquals(2L, stats.get("raised"));
+	}
+
+	@Test
+	void releaseStatesReturnsOnlyNotifiedRaisedStates() {
+		AlertStateEngine engine = engine(600_000, 10, 20);
+		AlertRule other = new AlertRule(7, "OEE_LOW", Direction.BELOW, 85.0, 88.0, false);
+		engine.evaluate(COMPANY, LINE, LOW_OEE, 80.0);
+		engine.evaluate(COMPANY, LINE, other, 90.0);
+
+		List<AlertStateEngine.AlertState> cleared = engine.releaseStates(state -> true);
+
+		assertEquals(1, cleared.size());
+		assertEquals(LOW_OEE.ruleId(), cleared.get(0).ruleId);
+		assertTrue(((List<?>) engine.getStats(COMPANY).get("active")).isEmpty());
+		// 정리된 뒤에는 새 상태로 다시 평가
+		assertEquals(Decision.RAISE, engine.evaluate(COMPANY, LINE, LOW_OEE, 80.0));
+	}
+
+	private static AlertStateEngine engine(long renotifyIntervalMillis, int burstCapacity, int refillPerMinute) {
+		AlertStateEngine engine = new AlertStateEngine();
+		ReflectionTestUtils.setField(engine, "renotifyIntervalMillis", renotifyIntervalMillis);
+		ReflectionTestUtils.setField(engine, "burstCapacity", burstCapacity);
+		ReflectionTestUtils.setField(engine, "burstRefillPerMinute", refillPerMinute);
+		return engine;
+	}
+}
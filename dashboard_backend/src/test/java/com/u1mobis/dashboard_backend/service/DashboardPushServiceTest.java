@@ -0,0 +1,85 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+class DashboardPushServiceTest {
+
+	private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final DashboardPushService pushService = new DashboardPushService(messagingTemplate, objectMapper);
+
+	@Test
+	void subscriptionsAreCountedPerLine() {
+		pushService.onSubscribe(subscribe("s1", "sub-1", "/topic/dashboard/u1mobis/1"));
+		pushService.onSubscribe(subscribe("s2", "sub-1", "/topic/dashboard/u1mobis/1"));
+		// 대시보드 토픽이 아니면 무시
+		pushService.onSubscribe(subscribe("s2", "sub-2", "/topic/alerts/u1mobis"));
+
+		assertTrue(pushService.hasSubscribers("u1mobis", 1L));
+		assertFalse(pushService.hasSubscribers("u1mobis", 2L));
+
+		pushService.onUnsubscribe(new SessionUnsubscribeEvent(this, message(StompCommand.UNSUBSCRIBE, "s1", "sub-1", null)));
+		assertTrue(pushService.hasSubscribers("u1mobis", 1L));
+
+		pushService.onDisconnect(new SessionDisconnectEvent(this, message(StompCommand.DISCONNECT, "s2", null, null),
+				"s2", CloseStatus.NORMAL));
+		assertFalse(pushService.hasSubscribers("u1mobis", 1L));
+		assertEquals(0, pushService.getStats().get("subscribedLines"));
+	}
+
+	@Test
+	void deltaIsSentToLineTopicWithSeq() throws Exception {
+		ObjectNode changes = objectMapper.createObjectNode();
+		changes.putObject("environment").put("temperature", 25.0);
+
+		pushService.publishDelta("u1mobis", 1L, 7L, 42L, changes);
+
+		ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+		verify(messagingTemplate).convertAndSend(eq("/topic/dashboard/u1mobis/1"), payload.capture());
+		JsonNode message = objectMapper.readTree((String) payload.getValue());
+		assertEquals("dashboard_delta", message.get("type").asText());
+		assertEquals(7L, message.get("seq").asLong());
+		assertEquals(42L, message.get("version").asLong());
+		assertEquals(25.0, message.at("/changes/environment/temperature").asDouble());
+		assertEquals(1L, pushService.getStats().get("publishedDeltas"));
+	}
+
+	private static SessionSubscribeEvent subscribe(String sessionId, String subscriptionId, String destination) {
+		return new SessionSubscribeEvent(DashboardPushServiceTest.class,
+				message(StompCommand.SUBSCRIBE, sessionId, subscriptionId, destination));
+	}
+
+	private static Message<byte[]> message(StompCommand command, String sessionId, String subscriptionId,
+			String destination) {
+		StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+		accessor.setSessionId(sessionId);
+		if (subscriptionId != null) {
+			accessor.setSubscriptionId(subscriptionId);
+		}
+		if (destination != null) {
+			accessor.setDestination(destination);
+		}
+		return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+	}
+}
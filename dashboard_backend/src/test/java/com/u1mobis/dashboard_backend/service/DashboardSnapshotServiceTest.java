@@ -0,0 +1,190 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.u1mobis.dashboard_backend.controller.DashboardController;
+import com.u1mobis.dashboard_backend.entity.Company;
+import com.u1mobis.dashboard_backend.entity.ProductionLine;
+import com.u1mobis.dashboard_backend.repository.CompanyRepository;
+import com.u1mobis.dashboard_backend.repository.ProductionLineRepository;
+
+class DashboardSnapshotServiceTest {
+
+	private final ProductionService productionService = mock(ProductionService.class);
+	private final KPICalculationService kpiCalculationService = mock(KPICalculationService.class);
+	private final EnvironmentService environmentService = mock(EnvironmentService.class);
+	private final DashboardPushService dashboardPushService = mock(DashboardPushService.class);
+	private final CompanyRepository companyRepository = mock(CompanyRepository.class);
+	private final ProductionLineRepository productionLineRepository = mock(ProductionLineRepository.class);
+
+	// 재계산 작업은 모아 두었다가 테스트에서 실행
+	private final List<Runnable> queuedRebuilds = new ArrayList<>();
+
+	private DashboardSnapshotService snapshotService;
+
+	@BeforeEach
+	void setUp() {
+		snapshotService = new DashboardSnapshotService(productionService, kpiCalculationService, environmentService,
+				dashboardPushService, new ObjectMapper(), companyRepository, productionLineRepository);
+		ReflectionTestUtils.setField(snapshotService, "maxAgeMillis", 60_000L);
+		ReflectionTestUtils.setField(snapshotService, "idleEvictMillis", 600_000L);
+		ReflectionTestUtils.setField(snapshotService, "maxEntries", 1000);
+		ReflectionTestUtils.setField(snapshotService, "rebuildExecutor", (Executor) queuedRebuilds::add);
+
+		Company u1mobis = company(1L, "u1mobis");
+		Company other = company(2L, "other");
+		when(companyRepository.findByCompanyName("u1mobis")).thenReturn(Optional.of(u1mobis));
+		when(companyRepository.findByCompanyName("other")).thenReturn(Optional.of(other));
+		when(productionLineRepository.findById(1L)).thenReturn(Optional.of(line(1L, u1mobis)));
+		when(productionLineRepository.findById(2L)).thenReturn(Optional.of(line(2L, other)));
+		when(productionService.getCurrentProductionStatus(anyString(), anyLong())).thenReturn(Map.of("completed", 1));
+		when(environmentService.getCurrentEnvironment(anyString())).thenReturn(Map.of("temperature", 20.0));
+	}
+
+	@Test
+	void unknownCompanyOrForeignLineIsRejected() {
+		assertTrue(snapshotService.getSnapshot("nobody", 1L).isEmpty());
+		// 다른 회사 라인
+		assertTrue(snapshotService.getSnapshot("u1mobis", 2L).isEmpty());
+
+		verify(productionService, never()).getCurrentProductionStatus(anyString(), anyLong());
+		assertEquals(0, snapshotService.getStats("u1mobis").get("snapshots"));
+	}
+
+	@Test
+	void unchangedRebuildKeepsVersionAndEtag() {
+		DashboardSnapshotService.Snapshot first = snapshotService.getSnapshot("u1mobis", 1L).orElseThrow();
+		assertEquals(1, first.seq());
+
+		snapshotService.onDashboardUpdate(environmentEvent("u1mobis"));
+		runQueuedRebuilds();
+
+		DashboardSnapshotService.Snapshot second = snapshotService.getSnapshot("u1mobis", 1L).orElseThrow();
+		assertEquals(first.etag(), second.etag());
+		verify(dashboardPushService, never()).publishDelta(anyString(), anyLong(), anyLong(), anyLong(), any());
+	}
+
+	@Test
+	void eventRebuildsOnlyThatCompanyOffThePublisherThread() {
+		snapshotService.getSnapshot("u1mobis", 1L);
+		snapshotService.getSnapshot("other", 2L);
+		when(environmentService.getCurrentEnvironment("u1mobis")).thenReturn(Map.of("temperature", 25.0));
+
+		// 연속 이벤트는 대기 작업 하나로 합쳐지고, 발행 시점에는 재계산하지 않음
+		snapshotService.onDashboardUpdate(environmentEvent("u1mobis"));
+		snapshotService.onDashboardUpdate(environmentEvent("u1mobis"));
+		assertEquals(1, queuedRebuilds.size());
+		verify(environmentService, times(1)).getCurrentEnvironment("u1mobis");
+
+		runQueuedRebuilds();
+
+		verify(environmentService, times(2)).getCurrentEnvironment("u1mobis");
+		verify(environmentService, times(1)).getCurrentEnvironment("other");
+		verify(dashboardPushService).publishDelta(eq("u1mobis"), eq(1L), eq(2L), anyLong(), any());
+		assertEquals(2L, snapshotService.getSnapshot("u1mobis", 1L).orElseThrow().seq());
+	}
+
+	@Test
+	void deltaContainsOnlyChangedFields() {
+		when(environmentService.getCurrentEnvironment("u1mobis")).thenReturn(Map.of("temperature", 20.0, "humidity", 40.0));
+		snapshotService.getSnapshot("u1mobis", 1L);
+		when(environmentService.getCurrentEnvironment("u1mobis")).thenReturn(Map.of("temperature", 21.0));
+
+		snapshotService.onDashboardUpdate(environmentEvent("u1mobis"));
+		runQueuedRebuilds();
+
+		ArgumentCaptor<ObjectNode> changes = ArgumentCaptor.forClass(ObjectNode.class);
+		verify(dashboardPushService).publishDelta(eq("u1mobis"), eq(1L), eq(2L), anyLong(), changes.capture());
+		// 바뀐 영역의 바뀐 필드만, 없어진 필드는 null
+		assertEquals(1, changes.getValue().size());
+		assertEquals(21.0, changes.getValue().at("/environment/temperature").asDouble());
+		assertTrue(changes.getValue().at("/environment/humidity").isNull());
+	}
+
+	@Test
+	void snapshotCountIsCapped() {
+		ReflectionTestUtils.setField(snapshotService, "maxEntries", 1);
+
+		snapshotService.getSnapshot("u1mobis", 1L);
+		snapshotService.getSnapshot("other", 2L);
+
+		// 구독자 없는 오래된 스냅샷이 밀려남
+		assertEquals(0, snapshotService.getStats("u1mobis").get("snapshots"));
+		assertEquals(1, snapshotService.getStats("other").get("snapshots"));
+	}
+
+	@Test
+	void pollingWithCurrentEtagGetsNotModified() throws Exception {
+		MockMvc mockMvc = MockMvcBuilders
+				.standaloneSetup(new DashboardController(kpiCalculationService, snapshotService))
+				.build();
+
+		String etag = mockMvc.perform(get("/api/u1mobis/dashboard/line/1"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+
+		mockMvc.perform(get("/api/u1mobis/dashboard/line/1").header("If-None-Match", etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string("ETag", etag));
+
+		// 내용이 바뀌면 새 ETag
+		when(environmentService.getCurrentEnvironment("u1mobis")).thenReturn(Map.of("temperature", 30.0));
+		snapshotService.onDashboardUpdate(environmentEvent("u1mobis"));
+		runQueuedRebuilds();
+		String changed = mockMvc.perform(get("/api/u1mobis/dashboard/line/1").header("If-None-Match", etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+		assertNotEquals(etag, changed);
+
+		mockMvc.perform(get("/api/nobody/dashboard/line/1")).andExpect(status().isNotFound());
+	}
+
+	private void runQueuedRebuilds() {
+		List<Runnable> tasks = new ArrayList<>(queuedRebuilds);
+		queuedRebuilds.clear();
+		tasks.forEach(Runnable::run);
+	}
+
+	private static DashboardUpdateEvent environmentEvent(String companyName) {
+		return new DashboardUpdateEvent(companyName, null, DashboardUpdateEvent.Section.ENVIRONMENT);
+	}
+
+	private static Company company(Long id, String name) {
+		return Company.builder().companyId(id).companyName(name).build();
+	}
+
+	private static ProductionLine line(Long id, Company company) {
+		ProductionLine line = new ProductionLine(company, "Line " + id, "L" + id, null);
+		line.setLineId(id);
+		return line;
+	}
+}
@@ -0,0 +1,146 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.u1mobis.dashboard_backend.dto.SensorReading;
+import com.u1mobis.dashboard_backend.repository.KPIDataRepository;
+import com.u1mobis.dashboard_backend.repository.ProductionCompletedRepository;
+import com.u1mobis.dashboard_backend.repository.StationStatusRepository;
+
+import reactor.core.publisher.Flux;
+
+class HistoryServiceTest {
+
+	private static final Long COMPANY_ID = 1L;
+	private static final String STATION = "DoorStation";
+	private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+	private static final Instant END = START.plus(Duration.ofHours(1));
+
+	private final KPIDataRepository kpiDataRepository = mock(KPIDataRepository.class);
+	private final ProductionCompletedRepository productionCompletedRepository = mock(ProductionCompletedRepository.class);
+	private final StationStatusRepository stationStatusRepository = mock(StationStatusRepository.class);
+	private final IoTDataService iotDataService = mock(IoTDataService.class);
+
+	private HistoryService historyService;
+
+	@BeforeEach
+	void setUp() {
+		historyService = new HistoryService(kpiDataRepository, productionCompletedRepository, stationStatusRepository,
+				iotDataService, mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(historyService, "jdbcThreads", 2);
+		ReflectionTestUtils.setField(historyService, "maxBuckets", 2000);
+		historyService.initialize();
+		when(kpiDataRepository.streamCompanyHistory(any(), any(), any(), any())).thenAnswer(invocation -> Stream.empty());
+		when(productionCompletedRepository.streamCompanyHistory(any(), any(), any(), any()))
+				.thenAnswer(invocation -> Stream.empty());
+	}
+
+	@AfterEach
+	void tearDown() {
+		historyService.shutdown();
+	}
+
+	@Test
+	void queriesOnlyCallersCompany() {
+		when(kpiDataRepository.streamCompanyHistory(eq(COMPANY_ID), eq(2L), any(), any()))
+				.thenAnswer(invocation -> Stream.<Object[]>of(new Object[] {local(START.plusSeconds(60)), 80.0, 90.0, null}));
+		when(productionCompletedRepository.streamCompanyHistory(eq(COMPANY_ID), eq(2L), any(), any()))
+				.thenAnswer(invocation -> Stream.<Object[]>of(
+						new Object[] {local(START.plusSeconds(120)), "PASS", true, true, 30.0},
+						new Object[] {local(START.plusSeconds(180)), "FAIL", false, false, null}));
+
+		List<Map<String, Object>> rows = history(null, 2L);
+
+		verify(kpiDataRepository).streamCompanyHistory(COMPANY_ID, 2L, local(START), local(END));
+		verify(productionCompletedRepository).streamCompanyHistory(COMPANY_ID, 2L, local(START), local(END));
+		// 스테이션을 지정하지 않으면 센서는 조회하지 않음
+		verify(stationStatusRepository, never()).existsInCompany(anyString(), any());
+		verify(iotDataService, never()).getSensorSeries(anyString(), any(), any(), any());
+
+		assertEquals(4, rows.size());
+		assertEquals(START, rows.get(0).get("time"));
+		Map<?, ?> kpi = (Map<?, ?>) rows.get(0).get("kpi");
+		assertEquals(80.0, kpi.get("oee"));
+		assertEquals(null, kpi.get("otd"));
+		Map<?, ?> production = (Map<?, ?>) rows.get(0).get("production");
+		assertEquals(2, production.get("completed"));
+		assertEquals(1, production.get("good"));
+		assertEquals(30.0, production.get("avgCycleTime"));
+		assertFalse(rows.get(1).containsKey("kpi"));
+	}
+
+	@Test
+	void rejectsStationOfAnotherCompany() {
+		when(stationStatusRepository.existsInCompany(STATION, COMPANY_ID)).thenReturn(false);
+
+		assertThrows(AccessDeniedException.class, () -> history(STATION, null));
+		verify(iotDataService, never()).getSensorSeries(anyString(), any(), any(), any());
+	}
+
+	@Test
+	void includesSensorsForOwnStation() {
+		when(stationStatusRepository.existsInCompany(STATION, COMPANY_ID)).thenReturn(true);
+		when(iotDataService.chooseResolution(any(), any(), anyInt())).thenReturn(SensorDownsampler.Resolution.MINUTE);
+		// 분 집계 행은 _mean 을 _count 로 가중해 평균
+		when(iotDataService.getSensorSeries(eq(STATION), eq(START), eq(END), eq(SensorDownsampler.Resolution.MINUTE)))
+				.thenReturn(Flux.just(
+						reading(START, Map.of("sensor_temperature_mean", 20.0, "sensor_temperature_count", 3L)),
+						reading(START.plusSeconds(60), Map.of("sensor_temperature_mean", 30.0, "sensor_temperature_count", 1L))));
+
+		List<Map<String, Object>> rows = history(STATION, null);
+
+		verify(kpiDataRepository).streamCompanyHistory(eq(COMPANY_ID), isNull(), any(), any());
+		Map<?, ?> sensors = (Map<?, ?>) rows.get(0).get("sensors");
+		assertEquals(22.5, sensors.get("sensor_temperature"));
+	}
+
+	@Test
+	void widensBucketToStayUnderLimit() {
+		ReflectionTestUtils.setField(historyService, "maxBuckets", 10);
+
+		List<Map<String, Object>> rows = historyService.getHistory(COMPANY_ID, START, END, Duration.ofSeconds(1), null,
+				null).collectList().block();
+
+		assertEquals(10, rows.size());
+		assertEquals(START.plus(Duration.ofMinutes(6)), rows.get(1).get("time"));
+	}
+
+	private List<Map<String, Object>> history(String stationId, Long lineId) {
+		return historyService.getHistory(COMPANY_ID, START, END, Duration.ofMinutes(15), stationId, lineId)
+				.collectList().block();
+	}
+
+	private static LocalDateTime local(Instant time) {
+		return LocalDateTime.ofInstant(time, ZoneId.systemDefault());
+	}
+
+	private static SensorReading reading(Instant time, Map<String, Object> fields) {
+		return new SensorReading(time, STATION, null, null, fields);
+	}
+}
@@ -0,0 +1,86 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.u1mobis.dashboard_backend.config.InfluxDB3Config;
+
+import reactor.core.publisher.Mono;
+
+class InfluxBatchWriterTest {
+
+	private final InfluxDB3Service influxDB3Service = mock(InfluxDB3Service.class);
+	private final InfluxDB3Config config = mock(InfluxDB3Config.class);
+
+	@TempDir
+	Path spillDir;
+
+	private InfluxBatchWriter writer;
+
+	@BeforeEach
+	void setUp() {
+		when(config.isBatchEnabled()).thenReturn(false);
+		when(config.getBatchSize()).thenReturn(2);
+		when(config.getBatchMaxRetries()).thenReturn(0);
+		writer = new InfluxBatchWriter(influxDB3Service, config, new LineProtocolEncoder(1000),
+				mock(InfluxRangeCache.class));
+		ReflectionTestUtils.setField(writer, "spillDir", spillDir.toString());
+		ReflectionTestUtils.setField(writer, "spillMaxBytes", 1L << 20);
+		ReflectionTestUtils.setField(writer, "maxBatchBytes", 1 << 20);
+		ReflectionTestUtils.setField(writer, "retryBackoffMillis", 1L);
+		writer.start();
+		// 전송 스레드 없이 재전송 경로만 사용
+		ReflectionTestUtils.setField(writer, "running", true);
+	}
+
+	@Test
+	void failedReplayKeepsSpilledCountInLineWithWhatWasKept() throws Exception {
+		spill(3);
+		assertEquals(3L, stat("spilledPoints"));
+
+		// 재전송 실패 → 첫 배치(2줄)는 다시 보관, 다음 배치(1줄)는 보관 한도에 걸려 버림
+		when(influxDB3Service.writeBatchBody(any(), anyBoolean())).thenReturn(Mono.error(new IllegalStateException("down")));
+		ReflectionTestUtils.setField(writer, "spillMaxBytes", 1L);
+		ReflectionTestUtils.invokeMethod(writer, "replaySpill");
+
+		assertEquals(3L, stat("spilledPoints"));
+		assertEquals(1L, stat("droppedPoints"));
+		assertEquals(List.of("m v=1i 1", "m v=1i 2"), Files.readAllLines(spillDir.resolve("pending.lp")));
+
+		// 복구 후 남은 보관분 재전송 (보관 수는 누적값이라 그대로)
+		when(influxDB3Service.writeBatchBody(any(), anyBoolean())).thenReturn(Mono.empty());
+		ReflectionTestUtils.invokeMethod(writer, "replaySpill");
+
+		assertEquals(2L, stat("replayedPoints"));
+		assertEquals(3L, stat("spilledPoints"));
+		assertEquals(0L, stat("spillBytes"));
+	}
+
+	private void spill(int count) {
+		List<byte[]> lines = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			lines.add(("m v=1i " + (i + 1)).getBytes(StandardCharsets.UTF_8));
+		}
+		ReflectionTestUtils.invokeMethod(writer, "spill", lines);
+	}
+
+	private long stat(String name) {
+		Map<String, Object> stats = writer.getStats();
+		return ((Number) stats.get(name)).longValue();
+	}
+}
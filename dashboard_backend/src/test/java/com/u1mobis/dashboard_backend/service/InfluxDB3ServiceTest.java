@@ -0,0 +1,58 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.u1mobis.dashboard_backend.config.InfluxDB3Config;
+
+import reactor.core.publisher.Mono;
+
+class InfluxDB3ServiceTest {
+
+	private final InfluxDB3Config config = mock(InfluxDB3Config.class);
+
+	private InfluxDB3Service influxDB3Service;
+
+	@BeforeEach
+	void setUp() {
+		when(config.getSqlApiUrl()).thenReturn("http://influx/api/v3/query_sql");
+		when(config.getWriteApiUrl()).thenReturn("http://influx/api/v2/write?bucket=iot");
+		when(config.getHealthApiUrl()).thenReturn("http://influx/health");
+		when(config.getDatabase()).thenReturn("iot");
+		when(config.getQueryTimeout()).thenReturn(1000);
+		when(config.getWriteTimeout()).thenReturn(1000);
+		// 모든 요청에 503 응답
+		WebClient unavailable = WebClient.builder()
+				.exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build()))
+				.build();
+		influxDB3Service = new InfluxDB3Service(unavailable, unavailable, config, new LineProtocolEncoder(1000));
+	}
+
+	@Test
+	void queryFailureIsNotReportedAsEmptyResult() {
+		WebClientResponseException error = assertThrows(WebClientResponseException.class,
+				() -> influxDB3Service.queryBySql("SELECT 1").block());
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, error.getStatusCode());
+		assertThrows(WebClientResponseException.class, () -> influxDB3Service.getTables().block());
+	}
+
+	@Test
+	void writeAndHealthFailuresArePropagated() {
+		assertThrows(WebClientResponseException.class,
+				() -> influxDB3Service.writeLineProtocol("m v=1i 1").block());
+		assertThrows(WebClientResponseException.class,
+				() -> influxDB3Service.writeBatchData(List.of("m v=1i 1", "m v=2i 2")).block());
+		assertThrows(WebClientResponseException.class, () -> influxDB3Service.checkConnection().block());
+	}
+}
@@ -0,0 +1,154 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.u1mobis.dashboard_backend.dto.SensorReading;
+
+import reactor.core.publisher.Flux;
+
+class InfluxRangeCacheTest {
+
+	private static final String STATION = "DoorStation";
+	private static final long BUCKET = 60_000L;
+
+	private final InfluxDB3Service influxDB3Service = mock(InfluxDB3Service.class);
+	// InfluxDB 에 기록된 행 (조회 시 범위로 거름)
+	private final List<SensorReading> stored = new CopyOnWriteArrayList<>();
+
+	private InfluxRangeCache cache;
+	private long base;
+
+	@BeforeEach
+	void setUp() {
+		cache = new InfluxRangeCache(influxDB3Service);
+		ReflectionTestUtils.setField(cache, "bucketMillis", BUCKET);
+		ReflectionTestUtils.setField(cache, "closeDelayMillis", 10_000L);
+		ReflectionTestUtils.setField(cache, "maxRows", 500_000L);
+		ReflectionTestUtils.setField(cache, "lateWriteHoldMillis", 30_000L);
+		ReflectionTestUtils.setField(cache, "maxBucketsPerQuery", 60);
+		when(influxDB3Service.getSensorDataByTimeRange(anyString(), any(Instant.class), any(Instant.class)))
+				.thenAnswer(invocation -> {
+					String stationId = invocation.getArgument(0);
+					long from = invocation.<Instant>getArgument(1).toEpochMilli();
+					long to = invocation.<Instant>getArgument(2).toEpochMilli();
+					return Flux.fromIterable(stored).filter(row -> row.stationId().equals(stationId)
+							&& row.time().toEpochMilli() >= from && row.time().toEpochMilli() < to);
+				});
+
+		// 한 시간 전부터 10개 버킷 (모두 닫힌 버킷), 버킷마다 10초 간격 6행
+		long now = System.currentTimeMillis();
+		base = now - now % BUCKET - 60 * BUCKET;
+		for (int i = 0; i < 60; i++) {
+			stored.add(row(STATION, base + i * 10_000L, i));
+		}
+	}
+
+	@Test
+	void servesClosedBucketsFromCacheAfterFirstQuery() {
+		List<SensorReading> first = query(base, base + 10 * BUCKET);
+		List<SensorReading> second = query(base + 15_000L, base + 10 * BUCKET);
+
+		assertEquals(60, first.size());
+		assertEquals(58, second.size());
+		assertEquals(base + 20_000L, second.get(0).time().toEpochMilli());
+		// 빠진 닫힌 버킷은 한 번에 조회, 두 번째는 캐시에서만 응답
+		verify(influxDB3Service, times(1)).getSensorDataByTimeRange(anyString(), any(Instant.class), any(Instant.class));
+		Map<String, Object> stats = cache.getStats();
+		assertEquals(10L, stats.get("hits"));
+		assertEquals(10, stats.get("buckets"));
+		assertEquals(60L, stats.get("cachedRows"));
+	}
+
+	@Test
+	void lateWriteReopensOnlyItsBucket() {
+		query(base, base + 10 * BUCKET);
+
+		SensorReading late = row(STATION, base + 3 * BUCKET + 5_000L, 999);
+		stored.add(late);
+		cache.onPointWritten(STATION, late.time());
+
+		// 3번 버킷부터는 캐시 없이 InfluxDB 에서 바로 (늦은 행 포함)
+		List<SensorReading> rows = query(base, base + 10 * BUCKET);
+		assertEquals(61, rows.size());
+		verify(influxDB3Service).getSensorDataByTimeRange(eq(STATION), eq(Instant.ofEpochMilli(base + 3 * BUCKET)),
+				eq(Instant.ofEpochMilli(base + 10 * BUCKET)));
+		assertEquals(1L, cache.getStats().get("lateWrites"));
+		assertEquals(9, cache.getStats().get("buckets"));
+	}
+
+	@Test
+	void reopenedBucketIsCachedAgainAfterHold() {
+		ReflectionTestUtils.setField(cache, "lateWriteHoldMillis", 0L);
+		query(base, base + 10 * BUCKET);
+
+		SensorReading late = row(STATION, base + 3 * BUCKET + 5_000L, 999);
+		stored.add(late);
+		cache.onPointWritten(STATION, late.time());
+
+		assertEquals(61, query(base, base + 10 * BUCKET).size());
+		assertEquals(61, query(base, base + 10 * BUCKET).size());
+		// 처음 전체 조회 + 무효화된 버킷 하나만 다시 조회
+		verify(influxDB3Service).getSensorDataByTimeRange(eq(STATION), eq(Instant.ofEpochMilli(base + 3 * BUCKET)),
+				eq(Instant.ofEpochMilli(base + 4 * BUCKET)));
+		verify(influxDB3Service, times(2)).getSensorDataByTimeRange(anyString(), any(Instant.class), any(Instant.class));
+	}
+
+	@Test
+	void ignoresWritesToOpenBucketsAndOtherStations() {
+		query(base, base + 10 * BUCKET);
+
+		cache.onPointWritten(STATION, Instant.now());
+		cache.onPointWritten("PaintStation", Instant.ofEpochMilli(base + 3 * BUCKET));
+
+		assertEquals(60, query(base, base + 10 * BUCKET).size());
+		verify(influxDB3Service, times(1)).getSensorDataByTimeRange(anyString(), any(Instant.class), any(Instant.class));
+		assertEquals(1L, cache.getStats().get("lateWrites"));
+	}
+
+	@Test
+	void openBucketsAreAlwaysFetched() {
+		long now = System.currentTimeMillis();
+		long end = now + BUCKET;
+		query(base, end);
+		query(base, end);
+
+		// 닫힌 구간 한 번 + 열린 구간 매번
+		assertEquals(2L, cache.getStats().get("liveFetches"));
+		verify(influxDB3Service, times(3)).getSensorDataByTimeRange(anyString(), any(Instant.class), any(Instant.class));
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedBucketsOverRowLimit() {
+		ReflectionTestUtils.setField(cache, "maxRows", 30L);
+		query(base, base + 10 * BUCKET);
+
+		Map<String, Object> stats = cache.getStats();
+		assertEquals(5, stats.get("buckets"));
+		assertEquals(30L, stats.get("cachedRows"));
+		assertEquals(5L, stats.get("evictions"));
+	}
+
+	private List<SensorReading> query(long from, long to) {
+		return cache.getSensorRange(STATION, Instant.ofEpochMilli(from), Instant.ofEpochMilli(to)).collectList().block();
+	}
+
+	private static SensorReading row(String stationId, long time, double value) {
+		return new SensorReading(Instant.ofEpochMilli(time), stationId, null, null, Map.of("sensor_temperature", value));
+	}
+}
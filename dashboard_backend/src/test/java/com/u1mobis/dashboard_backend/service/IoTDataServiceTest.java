@@ -0,0 +1,157 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.u1mobis.dashboard_backend.controller.IoTDataController;
+import com.u1mobis.dashboard_backend.dto.BulkIngestResult;
+
+class IoTDataServiceTest {
+
+	private final InfluxBatchWriter influxBatchWriter = mock(InfluxBatchWriter.class);
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private IoTDataService iotDataService;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		iotDataService = new IoTDataService(influxBatchWriter, mock(InfluxRangeCache.class),
+				mock(SensorDownsampler.class), mock(RecentSeriesStore.class), mock(SeriesCompressor.class), objectMapper);
+		ReflectionTestUtils.setField(iotDataService, "bulkMaxErrors", 100);
+		mockMvc = MockMvcBuilders.standaloneSetup(new IoTDataController(iotDataService)).build();
+	}
+
+	@Test
+	void malformedTimestampIsRejectedPerRecord() {
+		String body = String.join("\n",
+				"{\"stationId\":\"DoorStation\",\"timestamp\":1735689600000,\"sensors\":{\"temperature\":21.5}}",
+				"{\"stationId\":\"DoorStation\",\"sensors\":{\"temperature\":21.6}}",
+				"{\"stationId\":\"DoorStation\",\"timestamp\":\"yesterday\",\"sensors\":{\"temperature\":21.7}}",
+				"{\"stationId\":\"DoorStation\",\"timestamp\":true,\"sensors\":{\"temperature\":21.8}}",
+				"{\"stationId\":\"DoorStation\",\"timestamp\":\"2025-01-01T09:00:00\",\"sensors\":{\"temperature\":21.9}}");
+
+		BulkIngestResult result = iotDataService.ingestBulk(stream(body.getBytes(StandardCharsets.UTF_8)));
+
+		// 시각이 없는 레코드만 수집 시각으로 받고, 형식이 틀린 시각은 거부
+		assertEquals(3, result.accepted());
+		assertEquals(2, result.rejected());
+		assertEquals(List.of(2, 3), result.errors().stream().map(BulkIngestResult.RecordError::index).toList());
+		assertTrue(result.errors().get(0).error().startsWith("timestamp"));
+		assertNull(result.aborted());
+		verify(influxBatchWriter).write(eq(InfluxDB3Service.SENSOR_MEASUREMENT), anyMap(), anyMap(),
+				eq(Instant.ofEpochMilli(1735689600000L)));
+		verify(influxBatchWriter, times(3)).write(eq(InfluxDB3Service.SENSOR_MEASUREMENT), anyMap(), anyMap(),
+				any(Instant.class));
+	}
+
+	@Test
+	void gzipBulkBodyIsIngested() throws Exception {
+		mockMvc.perform(post("/api/iot-data/bulk")
+						.contentType(MediaType.APPLICATION_NDJSON)
+						.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+						.content(gzip(records(3))))
+				.andExpect(status().isOk());
+
+		verify(influxBatchWriter, times(3)).write(eq(InfluxDB3Service.SENSOR_MEASUREMENT), anyMap(), anyMap(),
+				any(Instant.class));
+	}
+
+	@Test
+	void truncatedGzipReturnsBadRequestWithPartialResult() throws Exception {
+		byte[] compressed = gzip(records(5000));
+		byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+
+		String response = mockMvc.perform(post("/api/iot-data/bulk")
+						.contentType(MediaType.APPLICATION_NDJSON)
+						.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+						.content(truncated))
+				.andExpect(status().isBadRequest())
+				.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+		// 끊기기 전까지 읽은 레코드는 이미 수락됨
+		BulkIngestResult result = objectMapper.readValue(response, BulkIngestResult.class);
+		assertTrue(result.accepted() > 0 && result.accepted() < 5000, String.valueOf(result.accepted()));
+		assertTrue(result.aborted().startsWith("본문 읽기 실패"), result.aborted());
+	}
+
+	@Test
+	void invalidGzipHeaderIsBadRequest() throws Exception {
+		mockMvc.perform(post("/api/iot-data/bulk")
+						.contentType(MediaType.APPLICATION_NDJSON)
+						.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+						.content(records(1)))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void stationTagsAreDroppedWithIdleCompressionState() {
+		SeriesCompressor compressor = new SeriesCompressor();
+		ReflectionTestUtils.setField(compressor, "mode", SeriesCompressor.Mode.DEADBAND);
+		ReflectionTestUtils.setField(compressor, "windowMillis", 60_000L);
+		ReflectionTestUtils.setField(compressor, "idleEvictWindows", 1);
+		IoTDataService service = new IoTDataService(influxBatchWriter, mock(InfluxRangeCache.class),
+				mock(SensorDownsampler.class), mock(RecentSeriesStore.class), compressor, objectMapper);
+		String body = "{\"stationId\":\"DoorStation\",\"timestamp\":1735689600000,\"processType\":\"DOOR\","
+				+ "\"sensors\":{\"temperature\":21.5}}";
+		service.ingestBulk(stream(body.getBytes(StandardCharsets.UTF_8)));
+		Map<?, ?> lastTags = (Map<?, ?>) ReflectionTestUtils.getField(service, "lastTags");
+		assertEquals(1, lastTags.size());
+
+		// 오래전 시각의 시리즈라 첫 확인에서 상태와 태그가 함께 정리됨
+		service.flushIdleSeries();
+
+		assertTrue(lastTags.isEmpty());
+		assertEquals(0, compressor.getStats().get("series"));
+	}
+
+	private static byte[] records(int count) {
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			body.append("{\"stationId\":\"DoorStation\",\"timestamp\":").append(1735689600000L + i * 1000L)
+					.append(",\"sensors\":{\"temperature\":").append(20 + i % 7).append(".5,\"vibration\":")
+					.append(i % 13).append("}}\n");
+		}
+		return body.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] gzip(byte[] data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(data);
+		}
+		return out.toByteArray();
+	}
+
+	private static ByteArrayInputStream stream(byte[] data) {
+		return new ByteArrayInputStream(data);
+	}
+}
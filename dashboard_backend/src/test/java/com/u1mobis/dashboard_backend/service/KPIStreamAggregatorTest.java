@@ -0,0 +1,105 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.u1mobis.dashboard_backend.service.KPIStreamAggregator.Window;
+import com.u1mobis.dashboard_backend.service.KPIStreamAggregator.WindowStats;
+
+class KPIStreamAggregatorTest {
+
+	private static final String COMPANY = "u1mobis";
+	private static final Long LINE = 1L;
+
+	private final KPIStreamAggregator aggregator = new KPIStreamAggregator();
+
+	@Test
+	void computesOeeFromOperations() {
+		long now = System.currentTimeMillis();
+		// 계획 480분, 정지 48분, 목표 사이클 60초 x 400개, 양품 380, 직행 390, 정시 360
+		aggregator.recordOperations(COMPANY, LINE, 480, 48, 60.0, 380, 400, 390, 360, now);
+
+		WindowStats stats = aggregator.getWindow(COMPANY, LINE, Window.MINUTE_1).orElseThrow();
+		double availability = 432.0 / 480.0;
+		double performance = 400 * 60.0 / (432 * 60.0);
+		double quality = 380.0 / 400.0;
+		assertEquals(1, stats.samples());
+		assertEquals(availability * 100, stats.availability(), 1e-9);
+		assertEquals(performance * 100, stats.performance(), 1e-9);
+		assertEquals(quality * 100, stats.quality(), 1e-9);
+		assertEquals(availability * performance * quality * 100, stats.oee(), 1e-9);
+		assertEquals(97.5, stats.fty(), 1e-9);
+		assertEquals(90.0, stats.otd(), 1e-9);
+	}
+
+	@Test
+	void aggregatesCompletionCycleTimes() {
+		long now = System.currentTimeMillis();
+		aggregator.recordCompletion(COMPANY, LINE, 10.0, "PASS", true, true, now);
+		aggregator.recordCompletion(COMPANY, LINE, 20.0, "FAIL", false, false, now);
+		aggregator.recordCompletion(COMPANY, LINE, 30.0, "PASS", true, false, now);
+		aggregator.recordCompletion(COMPANY, LINE, null, "PASS", true, true, now);
+
+		WindowStats stats = aggregator.getWindow(COMPANY, LINE, Window.MINUTE_15).orElseThrow();
+		assertEquals(4, stats.completedCount());
+		assertEquals(3, stats.completedGoodCount());
+		assertEquals(20.0, stats.avgCycleTime(), 1e-9);
+		assertEquals(10.0, stats.minCycleTime(), 0.0);
+		assertEquals(30.0, stats.maxCycleTime(), 0.0);
+		assertEquals(Math.sqrt(200.0 / 3), stats.cycleTimeStdDev(), 1e-9);
+	}
+
+	@Test
+	void slidingWindowsDropExpiredSamples() {
+		long now = System.currentTimeMillis();
+		aggregator.recordCompletion(COMPANY, LINE, 10.0, "PASS", true, true, now - 120_000L);
+		aggregator.recordCompletion(COMPANY, LINE, 50.0, "PASS", true, true, now);
+
+		// 2분 전 완료는 1분 윈도우에서 빠지고 15분 윈도우에는 남음
+		WindowStats minute = aggregator.getWindow(COMPANY, LINE, Window.MINUTE_1).orElseThrow();
+		assertEquals(1, minute.completedCount());
+		assertEquals(50.0, minute.minCycleTime(), 0.0);
+
+		WindowStats quarter = aggregator.getWindow(COMPANY, LINE, Window.MINUTE_15).orElseThrow();
+		assertEquals(2, quarter.completedCount());
+		assertEquals(10.0, quarter.minCycleTime(), 0.0);
+		assertEquals(50.0, quarter.maxCycleTime(), 0.0);
+	}
+
+	@Test
+	void seedReplacesTumblingCountersWithoutStdDev() {
+		long now = System.currentTimeMillis();
+		aggregator.recordCompletion(COMPANY, LINE, 10.0, "PASS", true, true, now);
+		assertFalse(aggregator.isWarm(COMPANY, LINE, Window.MINUTE_15));
+
+		aggregator.seedCompletions(COMPANY, LINE, Window.DAY, 120, 110, 42.0);
+
+		assertTrue(aggregator.isWarm(COMPANY, LINE, Window.DAY));
+		WindowStats day = aggregator.getWindow(COMPANY, LINE, Window.DAY).orElseThrow();
+		assertEquals(120, day.completedCount());
+		assertEquals(110, day.completedGoodCount());
+		assertEquals(42.0, day.avgCycleTime(), 1e-9);
+		assertNull(day.cycleTimeStdDev());
+		assertThrows(IllegalArgumentException.class,
+				() -> aggregator.seedCompletions(COMPANY, LINE, Window.HOUR_1, 1, 1, null));
+	}
+
+	@Test
+	void latestSnapshotIsScopedToCompany() {
+		long now = System.currentTimeMillis();
+		aggregator.recordOperations(COMPANY, 1L, 60, 0, 1.0, 10, 10, 10, 10, now - 5000);
+		aggregator.recordOperations(COMPANY, 2L, 60, 0, 1.0, 10, 10, 10, 10, now - 1000);
+		aggregator.recordOperations("other", 3L, 60, 0, 1.0, 10, 10, 10, 10, now);
+
+		KPIStreamAggregator.LineSnapshot snapshot = aggregator.getLatestSnapshotByCompany(COMPANY).orElseThrow();
+		assertEquals(2L, snapshot.lineId());
+		assertEquals(Window.values().length, snapshot.windowsByLabel().size());
+		assertTrue(aggregator.getLineSnapshot(COMPANY, 9L).isEmpty());
+		assertTrue(aggregator.getWindow("none", LINE, Window.DAY).isEmpty());
+	}
+}
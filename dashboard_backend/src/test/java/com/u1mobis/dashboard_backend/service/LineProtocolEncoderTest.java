@@ -0,0 +1,173 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+class LineProtocolEncoderTest {
+
+	// 이스케이프 대상 문자와 멀티바이트 문자를 섞은 입력 문자 집합
+	private static final String ALPHABET = "abcXYZ019_-., =\"\\'가나다é😀";
+
+	private final LineProtocolEncoder encoder = new LineProtocolEncoder(100);
+
+	@Test
+	void matchesPreviousEscapingForRandomPoints() {
+		Random random = new Random(42);
+		LineProtocolEncoder.LineBuffer reused = new LineProtocolEncoder.LineBuffer(16);
+		for (int i = 0; i < 20_000; i++) {
+			// 이전 구현은 measurement 의 '=' 도 이스케이프했으므로 '=' 는 빼고 비교
+			String measurement = randomString(random, 1, 12).replace("=", "");
+			if (measurement.isEmpty()) {
+				measurement = "m";
+			}
+			Map<String, String> tags = new TreeMap<>();
+			int tagCount = random.nextInt(4);
+			for (int t = 0; t < tagCount; t++) {
+				tags.put(randomString(random, 1, 8), randomString(random, 1, 8));
+			}
+			Map<String, Object> fields = new LinkedHashMap<>();
+			int fieldCount = 1 + random.nextInt(4);
+			for (int f = 0; f < fieldCount; f++) {
+				fields.put(randomString(random, 1, 8), randomValue(random));
+			}
+			Instant timestamp = Instant.ofEpochMilli(random.nextLong(0, 4_102_444_800_000L));
+
+			String expected = legacyLineProtocol(measurement, tags, fields, timestamp);
+			assertEquals(expected, encoder.encodeToString(measurement, tags, fields, timestamp));
+
+			reused.reset();
+			encoder.encode(reused, measurement, tags, fields, timestamp);
+			assertEquals(expected, new String(reused.array(), 0, reused.size(), StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	void writesTypedFields() {
+		Map<String, Object> fields = new LinkedHashMap<>();
+		fields.put("i", 42);
+		fields.put("l", -7L);
+		fields.put("d", 1.5);
+		fields.put("whole", 3.0);
+		fields.put("big", 1.0e20);
+		fields.put("f", 0.1f);
+		fields.put("b", true);
+		fields.put("s", "say \"hi\" \\ bye");
+
+		assertEquals("m,a=1,b=2 i=42i,l=-7i,d=1.5,whole=3.0,big=1.0E20,f=0.1,b=true,s=\"say \\\"hi\\\" \\\\ bye\" 1000000",
+				encoder.encodeToString("m", Map.of("b", "2", "a", "1"), fields, Instant.ofEpochMilli(1)));
+	}
+
+	@Test
+	void skipsValuesInfluxCannotStore() {
+		Map<String, Object> fields = new LinkedHashMap<>();
+		fields.put("missing", null);
+		fields.put("nan", Double.NaN);
+		fields.put("inf", Float.POSITIVE_INFINITY);
+		fields.put("ok", 1);
+		Map<String, String> tags = new LinkedHashMap<>();
+		tags.put("empty", "");
+		tags.put("none", null);
+		tags.put("station", "A 1");
+
+		assertEquals("m,station=A\\ 1 ok=1i", encoder.encodeToString("m", tags, fields, null));
+
+		Map<String, Object> nothing = new LinkedHashMap<>();
+		nothing.put("nan", Double.NaN);
+		assertNull(encoder.encodeToBytes("m", tags, nothing, null));
+		LineProtocolEncoder.LineBuffer buffer = new LineProtocolEncoder.LineBuffer(16);
+		assertFalse(encoder.encode(buffer, "m", tags, nothing, null));
+		assertEquals(0, buffer.size());
+	}
+
+	@Test
+	void replacesNewlines() {
+		assertEquals("m,t=a\\ b s=\"x y\"",
+				encoder.encodeToString("m", Map.of("t", "a\nb"), Map.of("s", "x\r\ny".replace("\r\n", "\n")), null));
+	}
+
+	@Test
+	void reusesEscapedTagSets() {
+		for (int i = 0; i < 10; i++) {
+			encoder.encodeToBytes("m", Map.of("station_id", "S1", "line", "L1"), Map.of("v", i), null);
+		}
+		assertEquals(1, encoder.getTagCacheEntries());
+	}
+
+	private static String randomString(Random random, int min, int max) {
+		int length = min + random.nextInt(max - min + 1);
+		StringBuilder sb = new StringBuilder();
+		int[] codePoints = ALPHABET.codePoints().toArray();
+		for (int i = 0; i < length; i++) {
+			sb.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+		}
+		return sb.toString();
+	}
+
+	private static Object randomValue(Random random) {
+		return switch (random.nextInt(6)) {
+			case 0 -> random.nextInt();
+			case 1 -> random.nextLong();
+			case 2 -> (double) random.nextInt(-1000, 1000);
+			case 3 -> {
+				double value;
+				do {
+					value = Double.longBitsToDouble(random.nextLong()) % 1e12;
+				} while (!Double.isFinite(value));
+				yield value;
+			}
+			case 4 -> random.nextBoolean();
+			default -> randomString(random, 0, 10);
+		};
+	}
+
+	/**
+	 * 이전 InfluxDB3Service.buildLineProtocol 구현 (비교 기준)
+	 */
+	private static String legacyLineProtocol(String measurement, Map<String, String> tags,
+											 Map<String, Object> fields, Instant timestamp) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(legacyEscape(measurement));
+		if (tags != null && !tags.isEmpty()) {
+			for (Map.Entry<String, String> tag : tags.entrySet()) {
+				sb.append(",").append(legacyEscape(tag.getKey())).append("=").append(legacyEscape(tag.getValue()));
+			}
+		}
+		sb.append(" ");
+		List<String> fieldStrings = new ArrayList<>();
+		for (Map.Entry<String, Object> field : fields.entrySet()) {
+			fieldStrings.add(legacyEscape(field.getKey()) + "=" + legacyFieldValue(field.getValue()));
+		}
+		sb.append(String.join(",", fieldStrings));
+		if (timestamp != null) {
+			sb.append(" ").append(timestamp.toEpochMilli() * 1_000_000L);
+		}
+		return sb.toString();
+	}
+
+	private static String legacyFieldValue(Object value) {
+		if (value instanceof String) {
+			return "\"" + ((String) value).replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+		} else if (value instanceof Boolean) {
+			return value.toString();
+		} else if (value instanceof Integer || value instanceof Long) {
+			return value + "i";
+		}
+		return String.valueOf(value);
+	}
+
+	private static String legacyEscape(String value) {
+		return value.replace(" ", "\\ ").replace(",", "\\,").replace("=", "\\=");
+	}
+}
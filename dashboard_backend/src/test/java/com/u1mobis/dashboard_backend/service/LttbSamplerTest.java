@@ -0,0 +1,98 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class LttbSamplerTest {
+
+	private static final long FROM = 1_700_000_000_000L;
+
+	@Test
+	void keepsEveryPointWhenFewerThanTarget() {
+		LttbSampler sampler = new LttbSampler(FROM, FROM + 10_000, 100);
+		for (int i = 0; i < 10; i++) {
+			sampler.add(FROM + i * 1000L, i * 1.5);
+		}
+		List<LttbSampler.Point> points = sampler.finish();
+
+		assertEquals(10, points.size());
+		for (int i = 0; i < 10; i++) {
+			assertEquals(FROM + i * 1000L, points.get(i).time());
+			assertEquals(i * 1.5, points.get(i).value(), 0.0);
+		}
+	}
+
+	@Test
+	void targetThreeKeepsFirstPeakAndLast() {
+		// 버킷 1개: 첫 점, 가운데 중 삼각형이 가장 큰 점, 마지막 점
+		LttbSampler sampler = new LttbSampler(FROM, FROM + 100_000, 3);
+		for (int i = 0; i < 100; i++) {
+			sampler.add(FROM + i * 1000L, i == 37 ? 50.0 : 10.0);
+		}
+		List<LttbSampler.Point> points = sampler.finish();
+
+		assertEquals(3, points.size());
+		assertEquals(FROM, points.get(0).time());
+		assertEquals(FROM + 37_000L, points.get(1).time());
+		assertEquals(50.0, points.get(1).value(), 0.0);
+		assertEquals(FROM + 99_000L, points.get(2).time());
+	}
+
+	@Test
+	void targetThreeWithTwoPointsKeepsBoth() {
+		LttbSampler sampler = new LttbSampler(FROM, FROM + 10_000, 3);
+		sampler.add(FROM, 1.0);
+		sampler.add(FROM + 5000, 2.0);
+		List<LttbSampler.Point> points = sampler.finish();
+
+		assertEquals(2, points.size());
+		assertEquals(1.0, points.get(0).value(), 0.0);
+		assertEquals(2.0, points.get(1).value(), 0.0);
+	}
+
+	@Test
+	void downsamplesToTargetKeepingSpikesAndOrder() {
+		int target = 50;
+		LttbSampler sampler = new LttbSampler(FROM, FROM + 10_000_000L, target);
+		for (int i = 0; i < 10_000; i++) {
+			double value = i == 5_123 ? 500.0 : Math.sin(i / 300.0);
+			sampler.add(FROM + i * 1000L, value);
+		}
+		List<LttbSampler.Point> points = sampler.finish();
+
+		assertEquals(target, points.size());
+		assertEquals(10_000, sampler.getReceived());
+		assertEquals(FROM, points.get(0).time());
+		assertEquals(FROM + 9_999_000L, points.get(points.size() - 1).time());
+		for (int i = 1; i < points.size(); i++) {
+			assertTrue(points.get(i).time() > points.get(i - 1).time(), "시간순");
+		}
+		// 한 점짜리 급등 값은 버려지지 않음
+		assertTrue(points.stream().anyMatch(point -> point.value() == 500.0));
+	}
+
+	@Test
+	void ignoresNullAndNonFiniteValues() {
+		LttbSampler sampler = new LttbSampler(FROM, FROM + 10_000, 10);
+		sampler.add(FROM, 1.0);
+		sampler.add(FROM + 1000, null);
+		sampler.add(FROM + 2000, Double.NaN);
+		sampler.add(FROM + 3000, Double.POSITIVE_INFINITY);
+		sampler.add(FROM + 4000, 2.0);
+		List<LttbSampler.Point> points = sampler.finish();
+
+		assertEquals(2, sampler.getReceived());
+		assertEquals(2, points.size());
+		assertEquals(FROM + 4000, points.get(1).time());
+	}
+
+	@Test
+	void emptyInputReturnsNoPoints() {
+		LttbSampler sampler = new LttbSampler(FROM, FROM + 10_000, 3);
+		assertTrue(sampler.finish().isEmpty());
+	}
+}
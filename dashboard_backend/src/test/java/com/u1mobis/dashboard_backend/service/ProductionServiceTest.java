@@ -0,0 +1,132 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.u1mobis.dashboard_backend.repository.CurrentProductionRepository;
+import com.u1mobis.dashboard_backend.repository.CurrentProductionRepository.LineProductionSummary;
+import com.u1mobis.dashboard_backend.repository.ProductionCompletedRepository;
+import com.u1mobis.dashboard_backend.repository.QualityRecordRepository;
+
+class ProductionServiceTest {
+
+	private final CurrentProductionRepository currentProductionRepository = mock(CurrentProductionRepository.class);
+	private final KPIStreamAggregator kpiStreamAggregator = mock(KPIStreamAggregator.class);
+
+	private ProductionService productionService;
+
+	@BeforeEach
+	void setUp() {
+		productionService = new ProductionService(currentProductionRepository, mock(ProductionCompletedRepository.class),
+				mock(QualityRecordRepository.class), kpiStreamAggregator, event -> { }, new RequestCoalescer(0),
+				mock(TwinStateProjection.class));
+		when(currentProductionRepository.findProcessingProductsByLineId(any())).thenReturn(List.of());
+	}
+
+	@Test
+	void aggregateRowIsMappedToStatusFields() {
+		when(currentProductionRepository.getLineProductionSummary(eq(2L), eq(2L), any(), any(), any(), any()))
+				.thenReturn(new Summary(3L, 120L, 85L, 82L, 80L, 3320.0, 11L));
+
+		Map<String, Object> status = productionService.getCurrentProductionStatus(null, 2L);
+
+		assertEquals(3L, status.get("processing_count"));
+		assertEquals(85L, status.get("today_completed"));
+		assertEquals(82L, status.get("today_good"));
+		assertEquals(120, status.get("production_target"));
+		assertEquals(11.0, status.get("hourly_rate"));
+		// 사이클 타임 평균 = 합계 / 건수
+		assertEquals(41.5, status.get("cycle_time"));
+	}
+
+	@Test
+	void queryRangesCoverTodayAndSixtyMinuteBuckets() {
+		when(currentProductionRepository.getLineProductionSummary(any(), any(), any(), any(), any(), any()))
+				.thenReturn(new Summary(0L, 0L, 0L, 0L, 0L, null, 0L));
+
+		Map<String, Object> status = productionService.getCurrentProductionStatus(null, null);
+
+		ArgumentCaptor<LocalDateTime> dayStart = ArgumentCaptor.forClass(LocalDateTime.class);
+		ArgumentCaptor<LocalDateTime> dayEnd = ArgumentCaptor.forClass(LocalDateTime.class);
+		ArgumentCaptor<LocalDateTime> hourFrom = ArgumentCaptor.forClass(LocalDateTime.class);
+		ArgumentCaptor<LocalDateTime> hourTo = ArgumentCaptor.forClass(LocalDateTime.class);
+		// 라인이 없으면 롤업은 공장 전체 버킷
+		verify(currentProductionRepository).getLineProductionSummary(eq(null), eq(RollupService.FACTORY_WIDE_LINE_ID),
+				dayStart.capture(), dayEnd.capture(), hourFrom.capture(), hourTo.capture());
+		assertEquals(LocalDate.now().atStartOfDay(), dayStart.getValue());
+		assertEquals(dayStart.getValue().plusDays(1), dayEnd.getValue());
+		assertEquals(0, hourFrom.getValue().getSecond());
+		assertEquals(60, Duration.between(hourFrom.getValue(), hourTo.getValue()).toMinutes());
+		// 사이클 타임 건수가 0 이면 0.0
+		assertEquals(0.0, status.get("cycle_time"));
+	}
+
+	@Test
+	void coldStreamWindowIsSeededFromAggregate() {
+		when(currentProductionRepository.getLineProductionSummary(any(), any(), any(), any(), any(), any()))
+				.thenReturn(new Summary(3L, 120L, 85L, 82L, 80L, 3320.0, 11L));
+		when(kpiStreamAggregator.getWindow("u1mobis", 2L, KPIStreamAggregator.Window.DAY)).thenReturn(Optional.of(
+				new KPIStreamAggregator.WindowStats("day", 0, 0, 0, 0, 0, 0, 0, 0, 0, 85, 82, 41.5, null, null, null)));
+
+		Map<String, Object> status = productionService.getCurrentProductionStatus("u1mobis", 2L);
+
+		verify(kpiStreamAggregator).seedCompletions("u1mobis", 2L, KPIStreamAggregator.Window.DAY, 85L, 82L, 41.5);
+		// 1시간 윈도우가 아직 차지 않았으면 집계 쿼리 값 사용
+		assertEquals(11.0, status.get("hourly_rate"));
+		assertEquals(85L, status.get("today_completed"));
+	}
+
+	private record Summary(Long processingCount, Long productionTarget, Long todayCompleted, Long todayGood,
+			Long cycleTimeCount, Double cycleTimeSum, Long lastHourCompleted) implements LineProductionSummary {
+
+		@Override
+		public Long getProcessingCount() {
+			return processingCount;
+		}
+
+		@Override
+		public Long getProductionTarget() {
+			return productionTarget;
+		}
+
+		@Override
+		public Long getTodayCompleted() {
+			return todayCompleted;
+		}
+
+		@Override
+		public Long getTodayGood() {
+			return todayGood;
+		}
+
+		@Override
+		public Long getCycleTimeCount() {
+			return cycleTimeCount;
+		}
+
+		@Override
+		public Double getCycleTimeSum() {
+			return cycleTimeSum;
+		}
+
+		@Override
+		public Long getLastHourCompleted() {
+			return lastHourCompleted;
+		}
+	}
+}
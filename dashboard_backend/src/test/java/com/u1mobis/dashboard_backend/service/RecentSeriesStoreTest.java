@@ -0,0 +1,222 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.u1mobis.dashboard_backend.dto.SensorReading;
+
+import reactor.core.publisher.Flux;
+
+class RecentSeriesStoreTest {
+
+	private static final String STATION = "DoorStation";
+	private static final long START = 1_700_000_000_000L;
+
+	private final InfluxBatchWriter influxBatchWriter = mock(InfluxBatchWriter.class);
+	private final InfluxRangeCache influxRangeCache = mock(InfluxRangeCache.class);
+
+	@Test
+	void roundTripsIrregularPointsExactly() {
+		RecentSeriesStore store = store(4 * 1024 * 1024, 256);
+		Random random = new Random(11);
+		List<Long> times = new ArrayList<>();
+		List<Map<String, Object>> written = new ArrayList<>();
+		long time = START;
+		double temperature = 24.0;
+		for (int i = 0; i < 5000; i++) {
+			// 시각 간격: 일정 / 작은 흔들림 / 큰 흔들림 / 긴 공백 (delta-of-delta 인코딩 구간 전체)
+			time += switch (i % 7) {
+				case 0, 1, 2 -> 1000;
+				case 3 -> 1000 + random.nextInt(101) - 50;
+				case 4 -> 1000 + random.nextInt(1801) - 900;
+				case 5 -> 1 + random.nextInt(10);
+				default -> random.nextInt(100) == 0 ? 86_400_000L : 1000;
+			};
+			if (i % 3 != 0) {
+				temperature += (random.nextDouble() - 0.5) * 0.2;
+			}
+			Map<String, Object> fields = new LinkedHashMap<>();
+			fields.put("sensor_temperature", i % 11 == 0 ? random.nextGaussian() * 1e6 : temperature);
+			fields.put("production_count", (long) i / 10);
+			fields.put("sensor_running", i % 50 < 45);
+			fields.put("status_text", "NORMAL");
+			store.append(STATION, Map.of("process_type", "DOOR", "location", "L1"), fields, Instant.ofEpochMilli(time));
+			fields.remove("status_text");
+			times.add(time);
+			written.add(fields);
+		}
+
+		List<SensorReading> rows = read(store, START, time + 1);
+
+		assertEquals(times.size(), rows.size());
+		for (int i = 0; i < rows.size(); i++) {
+			SensorReading row = rows.get(i);
+			assertEquals(times.get(i), row.time().toEpochMilli());
+			assertEquals("DOOR", row.processType());
+			assertEquals("L1", row.location());
+			assertEquals(written.get(i), row.fields(), "row " + i);
+		}
+		// 문자열 필드는 저장하지 않음
+		assertEquals(5000L, store.getStats().get("skippedValues"));
+		assertEquals(0L, store.getStats().get("droppedValues"));
+	}
+
+	@Test
+	void rangeIsHalfOpenAndPerStation() {
+		RecentSeriesStore store = store(1024 * 1024, 4096);
+		for (int i = 0; i < 10; i++) {
+			store.append(STATION, null, Map.of("sensor_temperature", 20.0 + i), Instant.ofEpochMilli(START + i * 1000L));
+			store.append("PaintStation", null, Map.of("sensor_temperature", 30.0 + i), Instant.ofEpochMilli(START + i * 1000L));
+		}
+
+		List<SensorReading> rows = read(store, START + 2000, START + 5000);
+		assertEquals(3, rows.size());
+		assertEquals(START + 2000, rows.get(0).time().toEpochMilli());
+		assertEquals(24.0, rows.get(2).fields().get("sensor_temperature"));
+		assertTrue(read(store, START + 5000, START + 5000).isEmpty());
+		assertTrue(read("Unknown", store, START, START + 10_000).isEmpty());
+	}
+
+	@Test
+	void fullArenaReusesOldestBlocks() {
+		// 64 byte 블록 8개: 오래된 봉인 블록부터 반납하고 최근 구간은 연속으로 남음
+		RecentSeriesStore store = store(512, 64);
+		int points = 2000;
+		for (int i = 0; i < points; i++) {
+			store.append(STATION, null, Map.of("sensor_temperature", Math.sin(i / 10.0)),
+					Instant.ofEpochMilli(START + i * 1000L));
+		}
+
+		List<SensorReading> rows = read(store, START, START + points * 1000L);
+		assertTrue(rows.size() > 0 && rows.size() < points, "rows " + rows.size());
+		long first = rows.get(0).time().toEpochMilli();
+		for (int i = 0; i < rows.size(); i++) {
+			assertEquals(first + i * 1000L, rows.get(i).time().toEpochMilli());
+		}
+		assertEquals(START + (points - 1) * 1000L, rows.get(rows.size() - 1).time().toEpochMilli());
+		assertTrue((long) store.getStats().get("evictedBlocks") > 0);
+		assertEquals(0L, store.getStats().get("droppedValues"));
+	}
+
+	@Test
+	void rejectsNewSeriesOverLimitWhileOthersAreActive() {
+		RecentSeriesStore store = store(1024 * 1024, 4096);
+		ReflectionTestUtils.setField(store, "maxStations", 1);
+		ReflectionTestUtils.setField(store, "maxFieldsPerStation", 2);
+
+		store.append(STATION, null, Map.of("a", 1.0, "b", 2.0, "c", 3.0), Instant.ofEpochMilli(START));
+		store.append("PaintStation", null, Map.of("a", 1.0), Instant.ofEpochMilli(START));
+
+		assertEquals(2L, store.getStats().get("rejectedSeries"));
+		assertEquals(1, store.getStats().get("stations"));
+		assertEquals(2, store.getStats().get("series"));
+	}
+
+	@Test
+	void evictsIdleSeriesToAcceptNewOnes() {
+		RecentSeriesStore store = store(1024 * 1024, 4096);
+		ReflectionTestUtils.setField(store, "maxStations", 1);
+		ReflectionTestUtils.setField(store, "seriesIdleMillis", 0L);
+
+		store.append(STATION, null, Map.of("a", 1.0), Instant.ofEpochMilli(START));
+		store.append("PaintStation", null, Map.of("a", 2.0), Instant.ofEpochMilli(START));
+
+		assertTrue(read(store, START, START + 1).isEmpty());
+		assertEquals(1, read("PaintStation", store, START, START + 1).size());
+		assertEquals(1L, store.getStats().get("evictedSeries"));
+	}
+
+	@Test
+	void fallbackResumesAfterLastPrimaryRow() {
+		RecentSeriesStore store = store(1024 * 1024, 4096);
+		for (int i = 0; i < 5; i++) {
+			store.append(STATION, null, Map.of("sensor_temperature", (double) i), Instant.ofEpochMilli(START + i * 1000L));
+		}
+		when(influxBatchWriter.isHealthy()).thenReturn(true);
+		SensorReading primaryRow = new SensorReading(Instant.ofEpochMilli(START + 1000), STATION, null, null,
+				Map.of("sensor_temperature", 1.0));
+		Flux<SensorReading> primary = Flux.just(primaryRow).concatWith(Flux.error(new IllegalStateException("influx down")));
+
+		List<SensorReading> rows = store.withFallback(primary, STATION, Instant.ofEpochMilli(START),
+				Instant.ofEpochMilli(START + 5000)).collectList().block();
+
+		assertEquals(4, rows.size());
+		assertEquals(primaryRow, rows.get(0));
+		assertEquals(START + 2000, rows.get(1).time().toEpochMilli());
+		assertEquals(1L, store.getStats().get("fallbacks"));
+	}
+
+	@Test
+	void backfillRewritesOnlyLostRange() {
+		RecentSeriesStore store = store(1024 * 1024, 4096);
+		for (int i = 0; i < 10; i++) {
+			store.append(STATION, Map.of("process_type", "DOOR"), Map.of("sensor_temperature", (double) i),
+					Instant.ofEpochMilli(START + i * 1000L));
+		}
+		when(influxBatchWriter.takeLostRanges()).thenReturn(Map.of(STATION, new long[] {START + 3000, START + 5000}));
+
+		store.backfill();
+
+		verify(influxBatchWriter, times(3)).write(eq(InfluxDB3Service.SENSOR_MEASUREMENT),
+				eq(Map.of("station_id", STATION, "process_type", "DOOR")), anyMap(), any(Instant.class));
+		verify(influxRangeCache).onPointWritten(STATION, Instant.ofEpochMilli(START + 4000));
+		assertEquals(3L, store.getStats().get("backfilledPoints"));
+	}
+
+	@Test
+	void integerFieldWidensToFloatOnFractionalValue() {
+		RecentSeriesStore store = store(1024 * 1024, 4096);
+		store.append(STATION, null, Map.of("sensor_vibration", 3), Instant.ofEpochMilli(START));
+		store.append(STATION, null, Map.of("sensor_vibration", 3.75), Instant.ofEpochMilli(START + 1000));
+		store.append(STATION, null, Map.of("sensor_vibration", 4L), Instant.ofEpochMilli(START + 2000));
+
+		// 소수점이 잘리지 않고, 같은 필드는 한 타입으로 복원
+		List<Object> values = read(store, START, START + 3000).stream()
+				.map(row -> row.fields().get("sensor_vibration")).toList();
+		assertEquals(List.of(3.0, 3.75, 4.0), values);
+
+		// 재기록도 같은 값
+		when(influxBatchWriter.takeLostRanges()).thenReturn(Map.of(STATION, new long[] {START + 1000, START + 1000}));
+		store.backfill();
+		verify(influxBatchWriter).write(eq(InfluxDB3Service.SENSOR_MEASUREMENT), anyMap(),
+				eq(Map.of("sensor_vibration", 3.75)), eq(Instant.ofEpochMilli(START + 1000)));
+	}
+
+	private RecentSeriesStore store(int maxBytes, int blockBytes) {
+		RecentSeriesStore store = new RecentSeriesStore(influxBatchWriter, influxRangeCache);
+		ReflectionTestUtils.setField(store, "enabled", true);
+		ReflectionTestUtils.setField(store, "maxBytes", maxBytes);
+		ReflectionTestUtils.setField(store, "blockBytes", blockBytes);
+		ReflectionTestUtils.setField(store, "retentionHours", 6L);
+		ReflectionTestUtils.setField(store, "maxStations", 1000);
+		ReflectionTestUtils.setField(store, "maxFieldsPerStation", 64);
+		ReflectionTestUtils.setField(store, "seriesIdleMillis", 600_000L);
+		store.initialize();
+		return store;
+	}
+
+	private static List<SensorReading> read(RecentSeriesStore store, long from, long to) {
+		return read(STATION, store, from, to);
+	}
+
+	private static List<SensorReading> read(String stationId, RecentSeriesStore store, long from, long to) {
+		return store.getSensorRange(stationId, Instant.ofEpochMilli(from), Instant.ofEpochMilli(to)).collectList().block();
+	}
+}
@@ -0,0 +1,131 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class RequestCoalescerTest {
+
+	private static final String KEY = RequestCoalescer.key(DashboardUpdateEvent.Section.KPI, "u1mobis", 1L);
+
+	@Test
+	void concurrentRequestsShareOneComputation() throws Exception {
+		RequestCoalescer coalescer = new RequestCoalescer(0);
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Object result = new Object();
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Object>> futures = new ArrayList<>();
+			futures.add(executor.submit(() -> coalescer.load(KEY, () -> {
+				calls.incrementAndGet();
+				started.countDown();
+				await(release);
+				return result;
+			})));
+			started.await(5, TimeUnit.SECONDS);
+			for (int i = 0; i < 7; i++) {
+				futures.add(executor.submit(() -> coalescer.load(KEY, () -> {
+					calls.incrementAndGet();
+					return new Object();
+				})));
+			}
+			// 합류한 요청이 모두 대기에 들어갈 때까지
+			long deadline = System.currentTimeMillis() + 5000;
+			while ((long) coalescer.getStats().get("joinedInFlight") < 7 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(5);
+			}
+			release.countDown();
+			for (Future<Object> future : futures) {
+				assertSame(result, future.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(1, calls.get());
+		assertEquals(8L, coalescer.getStats().get("requests"));
+		assertEquals(1L, coalescer.getStats().get("computations"));
+		// freshness 0 이면 끝난 결과는 남기지 않음
+		assertEquals(0, coalescer.getStats().get("entries"));
+	}
+
+	@Test
+	void reusesFinishedResultWithinFreshness() {
+		RequestCoalescer coalescer = new RequestCoalescer(60_000);
+		AtomicInteger calls = new AtomicInteger();
+
+		Integer first = coalescer.load(KEY, calls::incrementAndGet);
+		Integer second = coalescer.load(KEY, calls::incrementAndGet);
+
+		assertEquals(1, first);
+		assertEquals(1, second);
+		assertEquals(1L, coalescer.getStats().get("freshHits"));
+	}
+
+	@Test
+	void failedComputationIsNotCached() {
+		RequestCoalescer coalescer = new RequestCoalescer(60_000);
+		IllegalStateException failure = new IllegalStateException("db down");
+
+		IllegalStateException thrown = assertThrows(IllegalStateException.class,
+				() -> coalescer.load(KEY, () -> {
+					throw failure;
+				}));
+		assertSame(failure, thrown);
+
+		assertEquals("ok", coalescer.load(KEY, () -> "ok"));
+		assertEquals(2L, coalescer.getStats().get("computations"));
+	}
+
+	@Test
+	void dashboardUpdateDropsOnlyThatCompanysKeys() {
+		RequestCoalescer coalescer = new RequestCoalescer(60_000);
+		String otherCompany = RequestCoalescer.key(DashboardUpdateEvent.Section.KPI, "other", 1L);
+		String otherSection = RequestCoalescer.key(DashboardUpdateEvent.Section.PRODUCTION, "u1mobis", 1L);
+		AtomicInteger calls = new AtomicInteger();
+		coalescer.load(KEY, calls::incrementAndGet);
+		coalescer.load(otherCompany, calls::incrementAndGet);
+		coalescer.load(otherSection, calls::incrementAndGet);
+
+		coalescer.onDashboardUpdate(new DashboardUpdateEvent("u1mobis", 1L, DashboardUpdateEvent.Section.KPI));
+
+		assertEquals(4, coalescer.load(KEY, calls::incrementAndGet));
+		assertEquals(2, coalescer.load(otherCompany, calls::incrementAndGet));
+		assertEquals(3, coalescer.load(otherSection, calls::incrementAndGet));
+	}
+
+	@Test
+	void sectionWideUpdateDropsAllCompanies() {
+		RequestCoalescer coalescer = new RequestCoalescer(60_000);
+		String otherCompany = RequestCoalescer.key(DashboardUpdateEvent.Section.KPI, "other", 1L);
+		AtomicInteger calls = new AtomicInteger();
+		coalescer.load(KEY, calls::incrementAndGet);
+		coalescer.load(otherCompany, calls::incrementAndGet);
+
+		coalescer.onDashboardUpdate(new DashboardUpdateEvent(null, null, DashboardUpdateEvent.Section.KPI));
+
+		assertEquals(0, coalescer.getStats().get("entries"));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.u1mobis.dashboard_backend.entity.Company;
+import com.u1mobis.dashboard_backend.entity.KPIData;
+import com.u1mobis.dashboard_backend.entity.RollupGranularity;
+import com.u1mobis.dashboard_backend.repository.CompanyRepository;
+import com.u1mobis.dashboard_backend.repository.EnvironmentRollupRepository;
+import com.u1mobis.dashboard_backend.repository.KPIRollupRepository;
+import com.u1mobis.dashboard_backend.repository.ProductionRollupRepository;
+
+class RollupServiceTest {
+
+	private static final LocalDateTime TIME = LocalDateTime.of(2025, 1, 1, 9, 42, 17);
+
+	private final KPIRollupRepository kpiRollupRepository = mock(KPIRollupRepository.class);
+	private final ProductionRollupRepository productionRollupRepository = mock(ProductionRollupRepository.class);
+	private final EnvironmentRollupRepository environmentRollupRepository = mock(EnvironmentRollupRepository.class);
+	private final CompanyRepository companyRepository = mock(CompanyRepository.class);
+	private final AsyncPersistenceService asyncPersistenceService = mock(AsyncPersistenceService.class);
+
+	private RollupService rollupService;
+
+	@BeforeEach
+	void setUp() {
+		rollupService = new RollupService(kpiRollupRepository, productionRollupRepository, environmentRollupRepository,
+				companyRepository, asyncPersistenceService);
+		// 비동기 저장 실행기 대신 바로 실행
+		doAnswer(invocation -> {
+			invocation.<Runnable>getArgument(1).run();
+			return null;
+		}).when(asyncPersistenceService).submit(anyString(), any(Runnable.class));
+		when(companyRepository.findByCompanyName("u1mobis"))
+				.thenReturn(Optional.of(Company.builder().companyId(1L).companyName("u1mobis").build()));
+	}
+
+	@Test
+	void kpiIsAddedToEveryGranularityBucket() {
+		KPIData kpi = KPIData.builder()
+				.timestamp(TIME)
+				.calculatedOEE(0.8)
+				.calculatedFTY(0.9)
+				.plannedTime(60)
+				.totalCount(10)
+				.goodCount(9)
+				.build();
+
+		rollupService.recordKpi(1L, 2L, kpi);
+
+		verify(kpiRollupRepository).upsert(1L, 2L, "MINUTE", LocalDateTime.of(2025, 1, 1, 9, 42), 0.8, 0.9, 0.0,
+				60L, 0L, 10L, 9L, 0L, 0L);
+		verify(kpiRollupRepository).upsert(1L, 2L, "HOUR", LocalDateTime.of(2025, 1, 1, 9, 0), 0.8, 0.9, 0.0,
+				60L, 0L, 10L, 9L, 0L, 0L);
+		verify(kpiRollupRepository).upsert(1L, 2L, "DAY", LocalDateTime.of(2025, 1, 1, 0, 0), 0.8, 0.9, 0.0,
+				60L, 0L, 10L, 9L, 0L, 0L);
+	}
+
+	@Test
+	void completionWithoutLineGoesToFactoryWideBucket() {
+		rollupService.recordCompletion("u1mobis", null, TIME, "FAIL", true, false, null);
+		rollupService.recordCompletion("u1mobis", null, TIME, "PASS", false, true, 42.0);
+
+		verify(productionRollupRepository).upsert(1L, RollupService.FACTORY_WIDE_LINE_ID, "MINUTE",
+				LocalDateTime.of(2025, 1, 1, 9, 42), 0L, 1L, 0L, 0L, 0.0);
+		verify(productionRollupRepository).upsert(1L, RollupService.FACTORY_WIDE_LINE_ID, "DAY",
+				LocalDateTime.of(2025, 1, 1, 0, 0), 1L, 0L, 1L, 1L, 42.0);
+		// 회사 ID 는 한 번만 조회
+		verify(companyRepository, times(1)).findByCompanyName("u1mobis");
+	}
+
+	@Test
+	void unknownCompanyIsNotRolledUp() {
+		when(companyRepository.findByCompanyName("unknown")).thenReturn(Optional.empty());
+
+		rollupService.recordCompletion("unknown", 1L, TIME, "PASS", true, true, 10.0);
+
+		verify(productionRollupRepository, never()).upsert(any(), anyLong(), anyString(), any(), anyLong(), anyLong(),
+				anyLong(), anyLong(), anyDouble());
+		assertTrue(rollupService.getHourlyKPITrends("unknown", LocalDate.of(2025, 1, 1)).isEmpty());
+	}
+
+	@Test
+	void lastHourSumsSixtyMinuteBuckets() {
+		when(productionRollupRepository.sumCompletedByLineId(eq(2L), eq(RollupGranularity.MINUTE), any(), any()))
+				.thenReturn(null);
+
+		assertEquals(0L, rollupService.countCompletedInLastHour(2L));
+		verify(productionRollupRepository).sumCompletedByLineId(eq(2L), eq(RollupGranularity.MINUTE),
+				argThat(from -> from.getSecond() == 0
+						&& from.isAfter(LocalDateTime.now().minusMinutes(61))),
+				any());
+	}
+
+	@Test
+	void hourlyTrendsAreReturnedAsPercent() {
+		LocalDate date = LocalDate.of(2025, 1, 1);
+		when(kpiRollupRepository.getHourlyKPITrends(1L, date.atStartOfDay(), date.plusDays(1).atStartOfDay()))
+				.thenReturn(List.<Object[]>of(new Object[] {9, 0.8, 0.95, null}));
+
+		List<Map<String, Object>> trends = rollupService.getHourlyKPITrends("u1mobis", date);
+
+		assertEquals(1, trends.size());
+		assertEquals(9, trends.get(0).get("hour"));
+		assertEquals(80.0, (Double) trends.get(0).get("oee"), 1e-9);
+		assertEquals(95.0, (Double) trends.get(0).get("fty"), 1e-9);
+		assertEquals(0.0, trends.get(0).get("otd"));
+	}
+}
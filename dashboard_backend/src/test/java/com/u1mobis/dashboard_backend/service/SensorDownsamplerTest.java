@@ -0,0 +1,234 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.u1mobis.dashboard_backend.dto.SensorReading;
+import com.u1mobis.dashboard_backend.service.SensorDownsampler.Resolution;
+
+import reactor.core.publisher.Flux;
+
+class SensorDownsamplerTest {
+
+	private static final String STATION = "DoorStation";
+	private static final long MINUTE = 60_000L;
+	private static final long HOUR = 3_600_000L;
+	// 창이 닫히지 않게 할 때 쓰는 지연 (창 끝에 더해도 넘치지 않는 값)
+	private static final long NEVER = Long.MAX_VALUE / 4;
+
+	private final InfluxDB3Service influxDB3Service = mock(InfluxDB3Service.class);
+	private final InfluxBatchWriter influxBatchWriter = mock(InfluxBatchWriter.class);
+
+	private SensorDownsampler downsampler;
+	private long base;
+
+	@BeforeEach
+	void setUp() {
+		downsampler = new SensorDownsampler(influxDB3Service, influxBatchWriter, mock(InfluxRangeCache.class));
+		ReflectionTestUtils.setField(downsampler, "closeDelayMillis", 10_000L);
+		ReflectionTestUtils.setField(downsampler, "lateRetentionMillis", 3_600_000L);
+		ReflectionTestUtils.setField(downsampler, "catchUpDelayMillis", 0L);
+		ReflectionTestUtils.setField(downsampler, "catchUpBatch", 20);
+		ReflectionTestUtils.setField(downsampler, "catchUpMaxAttempts", 5);
+		downsampler.initialize();
+		// 기본은 기동 후에 시작된 창으로 취급
+		ReflectionTestUtils.setField(downsampler, "startedAt", 0L);
+
+		// 세 시간 전 정시 (분/시간 창 모두 닫힌 구간)
+		long now = System.currentTimeMillis();
+		base = now - now % HOUR - 3 * HOUR;
+	}
+
+	@Test
+	void writesMinuteAndHourAggregatesWhenWindowsClose() {
+		ReflectionTestUtils.setField(downsampler, "closeDelayMillis", NEVER);
+		accept(base, 10.0);
+		accept(base + 20_000L, 30.0);
+		accept(base + 40_000L, 20.0);
+		accept(base + MINUTE + 5_000L, 40.0);
+
+		downsampler.flushClosedWindows();
+		verify(influxBatchWriter, never()).write(anyString(), anyMap(), anyMap(), any(Instant.class));
+
+		ReflectionTestUtils.setField(downsampler, "closeDelayMillis", 10_000L);
+		downsampler.flushClosedWindows();
+
+		// 숫자가 아니거나 접두사가 다른 필드는 집계하지 않음, 시각은 창 시작
+		verifyWritten(Resolution.MINUTE, base, aggregate(10.0, 30.0, 20.0, 3L, 20.0));
+		verifyWritten(Resolution.MINUTE, base + MINUTE, aggregate(40.0, 40.0, 40.0, 1L, 40.0));
+		verifyWritten(Resolution.HOUR, base, aggregate(10.0, 40.0, 25.0, 4L, 40.0));
+		assertEquals(3L, downsampler.getStats().get("aggregatesWritten"));
+		assertEquals(0, downsampler.getStats().get("openWindows"));
+	}
+
+	@Test
+	void latePointInRetainedWindowRewritesSameTimestamp() {
+		// 세 시간 전 창도 보관 중이도록
+		ReflectionTestUtils.setField(downsampler, "lateRetentionMillis", 24 * HOUR);
+		ReflectionTestUtils.setField(downsampler, "closeDelayMillis", NEVER);
+		accept(base, 10.0);
+		accept(base + 20_000L, 30.0);
+		ReflectionTestUtils.setField(downsampler, "closeDelayMillis", 10_000L);
+		downsampler.flushClosedWindows();
+
+		accept(base + 50_000L, 50.0);
+		downsampler.flushClosedWindows();
+		downsampler.flushClosedWindows();
+
+		// 보관 중인 창에 합쳐 같은 시각으로 한 번만 다시 기록 (기록된 행 조회 없음)
+		verifyWritten(Resolution.MINUTE, base, aggregate(10.0, 30.0, 20.0, 2L, 30.0));
+		verifyWritten(Resolution.MINUTE, base, aggregate(10.0, 50.0, 30.0, 3L, 50.0));
+		verifyWritten(Resolution.HOUR, base, aggregate(10.0, 50.0, 30.0, 3L, 50.0));
+		verify(influxDB3Service, never()).getSensorDataByTimeRange(anyString(), anyString(), any(Instant.class),
+				any(Instant.class));
+		assertEquals(2L, downsampler.getStats().get("latePoints"));
+	}
+
+	@Test
+	void latePointForEvictedWindowMergesStoredAggregate() {
+		stubStored(Resolution.MINUTE, base, Flux.just(stored(base, 10.0, 30.0, 20.0, 3L, 20.0)));
+		stubStored(Resolution.HOUR, base, Flux.empty());
+
+		accept(base + 5_000L, 50.0);
+		// 기록된 행과 합치기 전에는 기록하지 않음
+		downsampler.flushClosedWindows();
+		verify(influxBatchWriter, never()).write(anyString(), anyMap(), anyMap(), any(Instant.class));
+		assertEquals(2L, downsampler.getStats().get("pendingCatchUps"));
+
+		downsampler.catchUp();
+
+		// 늦은 포인트만 모은 창이므로 _last 는 기록된 값 유지
+		verifyWritten(Resolution.MINUTE, base, aggregate(10.0, 50.0, 27.5, 4L, 20.0));
+		// 기록된 행이 없으면 늦은 포인트만으로 기록
+		verifyWritten(Resolution.HOUR, base, aggregate(50.0, 50.0, 50.0, 1L, 50.0));
+		assertEquals(2L, downsampler.getStats().get("catchUpsDone"));
+		assertEquals(0L, downsampler.getStats().get("pendingCatchUps"));
+	}
+
+	@Test
+	void failedCatchUpIsRetried() {
+		when(influxDB3Service.getSensorDataByTimeRange(eq(Resolution.MINUTE.getMeasurement()), eq(STATION),
+				any(Instant.class), any(Instant.class)))
+				.thenReturn(Flux.error(new IllegalStateException("influx down")))
+				.thenReturn(Flux.just(stored(base, 10.0, 30.0, 20.0, 3L, 20.0)));
+		stubStored(Resolution.HOUR, base, Flux.empty());
+
+		accept(base + 5_000L, 50.0);
+		downsampler.catchUp();
+
+		assertEquals(1L, downsampler.getStats().get("catchUpsFailed"));
+		assertEquals(1L, downsampler.getStats().get("pendingCatchUps"));
+		verify(influxBatchWriter, never()).write(eq(Resolution.MINUTE.getMeasurement()), anyMap(), anyMap(),
+				any(Instant.class));
+
+		downsampler.catchUp();
+
+		verifyWritten(Resolution.MINUTE, base, aggregate(10.0, 50.0, 27.5, 4L, 20.0));
+		assertEquals(0L, downsampler.getStats().get("pendingCatchUps"));
+	}
+
+	@Test
+	void catchUpGivesUpAfterMaxAttemptsAndWritesPartialAggregate() {
+		ReflectionTestUtils.setField(downsampler, "catchUpMaxAttempts", 2);
+		ReflectionTestUtils.setField(downsampler, "lateRetentionMillis", 0L);
+		when(influxDB3Service.getSensorDataByTimeRange(anyString(), eq(STATION), any(Instant.class), any(Instant.class)))
+				.thenReturn(Flux.error(new IllegalStateException("table not found")));
+
+		accept(base + 5_000L, 50.0);
+		downsampler.catchUp();
+		verify(influxBatchWriter, never()).write(anyString(), anyMap(), anyMap(), any(Instant.class));
+		assertEquals(2L, downsampler.getStats().get("pendingCatchUps"));
+
+		downsampler.catchUp();
+
+		// 한도에 닿으면 늦은 포인트만으로 기록하고 메모리에서 내림
+		verifyWritten(Resolution.MINUTE, base, aggregate(50.0, 50.0, 50.0, 1L, 50.0));
+		verifyWritten(Resolution.HOUR, base, aggregate(50.0, 50.0, 50.0, 1L, 50.0));
+		assertEquals(2L, downsampler.getStats().get("catchUpsAbandoned"));
+		assertEquals(0L, downsampler.getStats().get("pendingCatchUps"));
+		assertEquals(0, downsampler.getStats().get("retainedWindows"));
+	}
+
+	@Test
+	void windowStartedBeforeBootMergesStoredAggregateFirst() {
+		ReflectionTestUtils.setField(downsampler, "startedAt", base + 30_000L);
+		stubStored(Resolution.MINUTE, base, Flux.just(stored(base, 10.0, 30.0, 20.0, 3L, 20.0)));
+		stubStored(Resolution.HOUR, base, Flux.just(stored(base, 10.0, 30.0, 20.0, 3L, 20.0)));
+		ReflectionTestUtils.setField(downsampler, "closeDelayMillis", NEVER);
+		accept(base + 40_000L, 50.0);
+
+		ReflectionTestUtils.setField(downsampler, "closeDelayMillis", 10_000L);
+		downsampler.flushClosedWindows();
+		verify(influxBatchWriter, never()).write(anyString(), anyMap(), anyMap(), any(Instant.class));
+
+		downsampler.catchUp();
+
+		// 이전 실행의 집계 행에 이어 붙이므로 _last 는 지금 값
+		verifyWritten(Resolution.MINUTE, base, aggregate(10.0, 50.0, 27.5, 4L, 50.0));
+		verifyWritten(Resolution.HOUR, base, aggregate(10.0, 50.0, 27.5, 4L, 50.0));
+	}
+
+	@Test
+	void shutdownFlushSkipsWindowsStartedBeforeBoot() {
+		ReflectionTestUtils.setField(downsampler, "startedAt", base + 30 * MINUTE);
+		ReflectionTestUtils.setField(downsampler, "closeDelayMillis", NEVER);
+		accept(base + 5_000L, 10.0);
+		accept(base + 40 * MINUTE, 20.0);
+
+		downsampler.flushOnShutdown();
+
+		// 기동 후 시작된 분 창만 기록, 기동 전에 시작된 창은 기존 집계 행을 덮어쓰지 않게 버림
+		verifyWritten(Resolution.MINUTE, base + 40 * MINUTE, aggregate(20.0, 20.0, 20.0, 1L, 20.0));
+		verify(influxBatchWriter, times(1)).write(anyString(), anyMap(), anyMap(), any(Instant.class));
+	}
+
+	@Test
+	void choosesCoarsestResolutionWithinPointBudget() {
+		Instant end = Instant.ofEpochMilli(base);
+
+		assertEquals(Resolution.RAW, downsampler.chooseResolution(end.minus(Duration.ofMinutes(10)), end, 500));
+		assertEquals(Resolution.MINUTE, downsampler.chooseResolution(end.minus(Duration.ofDays(1)), end, 500));
+		assertEquals(Resolution.HOUR, downsampler.chooseResolution(end.minus(Duration.ofDays(30)), end, 500));
+	}
+
+	private void accept(long time, double temperature) {
+		downsampler.accept(STATION, Map.of("sensor_temperature", temperature, "status", "RUN", "robot_id", 7),
+				Instant.ofEpochMilli(time));
+	}
+
+	private void stubStored(Resolution resolution, long start, Flux<SensorReading> rows) {
+		when(influxDB3Service.getSensorDataByTimeRange(resolution.getMeasurement(), STATION, Instant.ofEpochMilli(start),
+				Instant.ofEpochMilli(start + 1))).thenReturn(rows);
+	}
+
+	private void verifyWritten(Resolution resolution, long start, Map<String, Object> fields) {
+		verify(influxBatchWriter).write(eq(resolution.getMeasurement()), eq(Map.of("station_id", STATION)), eq(fields),
+				eq(Instant.ofEpochMilli(start)));
+	}
+
+	private static SensorReading stored(long start, double min, double max, double mean, long count, double last) {
+		return new SensorReading(Instant.ofEpochMilli(start), STATION, null, null,
+				aggregate(min, max, mean, count, last));
+	}
+
+	private static Map<String, Object> aggregate(double min, double max, double mean, long count, double last) {
+		return Map.of("sensor_temperature_min", min, "sensor_temperature_max", max, "sensor_temperature_mean", mean,
+				"sensor_temperature_count", count, "sensor_temperature_last", last);
+	}
+}
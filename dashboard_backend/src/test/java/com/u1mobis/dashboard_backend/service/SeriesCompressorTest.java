@@ -0,0 +1,163 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class SeriesCompressorTest {
+
+	private static final String SERIES = "test:1";
+	private static final double TOLERANCE = 0.1;
+	private static final long START = 1_700_000_000_000L;
+
+	@Test
+	void offByDefaultKeepsEverySample() {
+		SeriesCompressor compressor = compressor(SeriesCompressor.Mode.OFF);
+		assertFalse(compressor.isEnabled());
+		for (int i = 0; i < 100; i++) {
+			SeriesCompressor.Decision decision = compressor.offer(SERIES, START + i * 1000L, 25.0, 25.0);
+			assertTrue(decision.keepCurrent());
+		}
+	}
+
+	@Test
+	void swingingDoorCompressesSlowSignalWithinTolerance() {
+		SeriesCompressor compressor = compressor(SeriesCompressor.Mode.SWINGING_DOOR);
+		long[] times = new long[3600];
+		double[] values = signal(times);
+		List<SeriesCompressor.Sample> kept = compress(compressor, times, values);
+
+		// 1 Hz, 1시간, 창(60초)마다 첫/끝 값은 반드시 남으므로 최대 30:1
+		double ratio = (double) times.length / kept.size();
+		assertTrue(ratio >= 25, "압축률 " + ratio);
+
+		// 저장점 사이를 직선으로 이으면 모든 원본 값과 tolerance 이내
+		for (int i = 0; i < times.length; i++) {
+			double restored = interpolate(kept, times[i]);
+			assertTrue(Math.abs(restored - values[i]) <= TOLERANCE + 1e-9,
+					"t=" + i + " 원본 " + values[i] + " 복원 " + restored);
+		}
+	}
+
+	@Test
+	void deadbandKeepsSkippedValuesWithinToleranceOfLastStored() {
+		SeriesCompressor compressor = compressor(SeriesCompressor.Mode.DEADBAND);
+		long[] times = new long[3600];
+		double[] values = signal(times);
+		List<SeriesCompressor.Sample> kept = compress(compressor, times, values);
+
+		assertTrue(kept.size() < times.length / 2, "저장 " + kept.size());
+		int k = 0;
+		for (int i = 0; i < times.length; i++) {
+			while (k + 1 < kept.size() && kept.get(k + 1).time() <= times[i]) {
+				k++;
+			}
+			assertTrue(Math.abs(kept.get(k).value() - values[i]) <= TOLERANCE + 1e-9,
+					"t=" + i + " 원본 " + values[i] + " 저장값 " + kept.get(k).value());
+		}
+	}
+
+	@Test
+	void keepsFirstAndLastSampleOfEachWindow() {
+		SeriesCompressor compressor = compressor(SeriesCompressor.Mode.SWINGING_DOOR);
+		long[] times = new long[180];
+		double[] values = new double[times.length];
+		for (int i = 0; i < times.length; i++) {
+			times[i] = START - START % 60_000L + i * 1000L;
+			values[i] = 25.0;
+		}
+		List<SeriesCompressor.Sample> kept = compress(compressor, times, values);
+
+		// 상수 신호는 창마다 첫 값과 마지막 값만 남음
+		assertEquals(6, kept.size());
+		for (int w = 0; w < 3; w++) {
+			assertEquals(times[w * 60], kept.get(w * 2).time());
+			assertEquals(times[w * 60 + 59], kept.get(w * 2 + 1).time());
+		}
+	}
+
+	@Test
+	void idleSeriesIsEvictedAfterFlush() {
+		SeriesCompressor compressor = compressor(SeriesCompressor.Mode.DEADBAND);
+		long window = START - START % 60_000L;
+		compressor.offer("test:a", window, 25.0, 25.0);
+		compressor.offer("test:a", window + 1000L, 25.0, 25.0);
+		compressor.offer("test:b", window + 5 * 60_000L, 25.0, 25.0);
+		compressor.offer("other:a", window, 25.0, 25.0);
+
+		// 보류 값은 먼저 기록되고, 값 없이 3개 창이 지난 다음 확인 때 제거
+		List<SeriesCompressor.Sample> flushed = new ArrayList<>();
+		compressor.flushIdle("test", window + 2 * 60_000L, 0, (series, sample) -> flushed.add(sample));
+		assertEquals(1, flushed.size());
+		assertEquals(3, compressor.getStats().get("series"));
+
+		compressor.flushIdle("test", window + 4 * 60_000L, 0, (series, sample) -> flushed.add(sample));
+		List<String> remaining = new ArrayList<>();
+		compressor.forEachSeries("test", remaining::add);
+		assertEquals(List.of("test:b"), remaining);
+		assertEquals(1L, compressor.getStats().get("evictedSeries"));
+
+		// 제거된 시리즈의 다음 값은 새 창의 첫 값으로 저장
+		assertTrue(compressor.offer("test:a", window + 10 * 60_000L, 25.0, 25.0).keepCurrent());
+	}
+
+	private static SeriesCompressor compressor(SeriesCompressor.Mode mode) {
+		SeriesCompressor compressor = new SeriesCompressor();
+		ReflectionTestUtils.setField(compressor, "mode", mode);
+		ReflectionTestUtils.setField(compressor, "defaultTolerance", TOLERANCE);
+		ReflectionTestUtils.setField(compressor, "windowMillis", 60_000L);
+		ReflectionTestUtils.setField(compressor, "idleEvictWindows", 3);
+		return compressor;
+	}
+
+	// 1 Hz 센서 값: 30분 주기 진폭 2 의 느린 변화 + ±0.02 잡음
+	private static double[] signal(long[] times) {
+		Random random = new Random(7);
+		double[] values = new double[times.length];
+		for (int i = 0; i < times.length; i++) {
+			times[i] = START + i * 1000L;
+			values[i] = 25.0 + 2.0 * Math.sin(2 * Math.PI * i / 1800.0) + (random.nextDouble() - 0.5) * 0.04;
+		}
+		return values;
+	}
+
+	// 판정대로 저장한 값 (마지막 보류 값은 flushIdle 로 꺼냄), 시각순
+	private static List<SeriesCompressor.Sample> compress(SeriesCompressor compressor, long[] times, double[] values) {
+		List<SeriesCompressor.Sample> kept = new ArrayList<>();
+		for (int i = 0; i < times.length; i++) {
+			SeriesCompressor.Decision decision = compressor.offer(SERIES, times[i], values[i], values[i]);
+			if (decision.previous() != null) {
+				kept.add(decision.previous());
+			}
+			if (decision.keepCurrent()) {
+				kept.add(new SeriesCompressor.Sample(times[i], values[i], values[i]));
+			}
+		}
+		compressor.flushIdle("test", Long.MAX_VALUE, 0, (series, sample) -> kept.add(sample));
+		for (int i = 1; i < kept.size(); i++) {
+			assertTrue(kept.get(i).time() > kept.get(i - 1).time(), "저장 순서");
+		}
+		return kept;
+	}
+
+	private static double interpolate(List<SeriesCompressor.Sample> kept, long time) {
+		for (int i = 1; i < kept.size(); i++) {
+			SeriesCompressor.Sample right = kept.get(i);
+			if (right.time() >= time) {
+				SeriesCompressor.Sample left = kept.get(i - 1);
+				if (left.time() >= time) {
+					return left.value();
+				}
+				return left.value() + (right.value() - left.value()) * (time - left.time()) / (right.time() - left.time());
+			}
+		}
+		return kept.get(kept.size() - 1).value();
+	}
+}
@@ -0,0 +1,99 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// 빈 PostgreSQL 에 마이그레이션을 적용해 파티션 구조와 월 파티션 생성을 확인
+@Testcontainers(disabledWithoutDocker = true)
+class TelemetryPartitionMigrationTest {
+
+	@Container
+	private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	private static JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	static void migrate() {
+		Flyway.configure()
+				.dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+				.load()
+				.migrate();
+		jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+				POSTGRES.getPassword()));
+	}
+
+	@Test
+	void telemetryTablesArePartitionedWithDefault() {
+		for (String table : TelemetryPartitionService.PARTITIONED_TABLES) {
+			assertEquals("p", relkind(table), table);
+			assertEquals("r", relkind(table + "_default"), table);
+			assertEquals("r", relkind(table + "_" + YearMonth.now().format(DateTimeFormatter.ofPattern("yyyyMM"))), table);
+		}
+	}
+
+	@Test
+	void creatingMonthPartitionMovesRowsOutOfDefault() {
+		// 미리 만든 범위 밖 (DEFAULT 파티션으로 들어감)
+		YearMonth month = YearMonth.now().plusMonths(24);
+		Timestamp time = Timestamp.valueOf(month.atDay(15).atTime(9, 0));
+		jdbcTemplate.update("INSERT INTO conveyor_status (\"timestamp\", command, line_id) VALUES (?, 'START', 1)", time);
+		assertEquals(1, count("conveyor_status_default"));
+
+		String partition = jdbcTemplate.queryForObject("SELECT telemetry_create_month_partition(?, ?)", String.class,
+				"conveyor_status", Date.valueOf(month.atDay(1)));
+
+		assertEquals("conveyor_status_" + month.format(DateTimeFormatter.ofPattern("yyyyMM")), partition);
+		assertEquals(1, count(partition));
+		assertEquals(0, count("conveyor_status_default"));
+		assertEquals(1, count("conveyor_status"));
+		// 이미 있으면 그대로 반환
+		assertEquals(partition, jdbcTemplate.queryForObject("SELECT telemetry_create_month_partition(?, ?)",
+				String.class, "conveyor_status", Date.valueOf(month.atDay(1))));
+	}
+
+	@Test
+	void expiredPartitionsAreArchived() {
+		YearMonth expired = YearMonth.now().minusMonths(14);
+		String partition = jdbcTemplate.queryForObject("SELECT telemetry_create_month_partition(?, ?)", String.class,
+				"alerts", Date.valueOf(expired.atDay(1)));
+
+		TelemetryPartitionService service = new TelemetryPartitionService(jdbcTemplate);
+		ReflectionTestUtils.setField(service, "premakeMonths", 3);
+		ReflectionTestUtils.setField(service, "retentionMonths", 12);
+		ReflectionTestUtils.setField(service, "retentionAction", "archive");
+		ReflectionTestUtils.setField(service, "archiveSchema", "telemetry_archive");
+		service.maintainPartitions();
+
+		assertNull(jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class, partition));
+		assertEquals("telemetry_archive." + partition, jdbcTemplate.queryForObject("SELECT to_regclass(?)::text",
+				String.class, "telemetry_archive." + partition));
+		assertEquals("r", relkind(table(YearMonth.now().plusMonths(3))));
+	}
+
+	private static String table(YearMonth month) {
+		return "alerts_" + month.format(DateTimeFormatter.ofPattern("yyyyMM"));
+	}
+
+	private static String relkind(String table) {
+		return jdbcTemplate.queryForObject("SELECT relkind::text FROM pg_class WHERE relname = ?", String.class, table);
+	}
+
+	private static int count(String table) {
+		return jdbcTemplate.queryForObject("SELECT count(*) FROM \"" + table + "\"", Integer.class);
+	}
+}
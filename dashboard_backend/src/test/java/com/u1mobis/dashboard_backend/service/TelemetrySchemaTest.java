@@ -0,0 +1,162 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.mapping.Column;
+import org.hibernate.mapping.Table;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import jakarta.persistence.Entity;
+
+// 마이그레이션에서 직접 만드는 테이블의 컬럼 정의가 JPA 엔티티와 같은지 확인 (DB 없이 Hibernate 매핑과 비교)
+class TelemetrySchemaTest {
+
+	private static final Pattern PARTITION_TABLE = Pattern.compile(
+			"SELECT telemetry_partition_table\\('(\\w+)',\\s*'(\\w+)',\\s*'(.*?)'\\);", Pattern.DOTALL);
+	private static final Pattern CREATE_TABLE = Pattern.compile(
+			"CREATE TABLE IF NOT EXISTS (\\w+) \\((.*?)\\n\\);", Pattern.DOTALL);
+	private static final Pattern ADD_COLUMN = Pattern.compile(
+			"ALTER TABLE (\\w+) ADD COLUMN IF NOT EXISTS (\\w+) ([^;]*);");
+
+	private static StandardServiceRegistry registry;
+	private static Metadata metadata;
+
+	@BeforeAll
+	static void buildMetadata() {
+		// Spring Boot 기본 명명 규칙과 같게
+		registry = new StandardServiceRegistryBuilder()
+				.applySetting(AvailableSettings.DIALECT, PostgreSQLDialect.class.getName())
+				.applySetting("hibernate.boot.allow_jdbc_metadata_access", false)
+				.applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+				.applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY, SpringImplicitNamingStrategy.class.getName())
+				.build();
+		MetadataSources sources = new MetadataSources(registry);
+		ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+		scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+		scanner.findCandidateComponents("com.u1mobis.dashboard_backend.entity")
+				.forEach(candidate -> sources.addAnnotatedClassName(candidate.getBeanClassName()));
+		metadata = sources.buildMetadata();
+	}
+
+	@AfterAll
+	static void closeRegistry() {
+		StandardServiceRegistryBuilder.destroy(registry);
+	}
+
+	@Test
+	void partitionedTablesCoverEveryManagedTable() throws IOException {
+		Map<String, Map<String, Boolean>> migrated = migratedTables();
+
+		for (String table : TelemetryPartitionService.PARTITIONED_TABLES) {
+			assertTrue(migrated.containsKey(table), "마이그레이션에 없는 파티션 테이블: " + table);
+		}
+	}
+
+	@Test
+	void migrationColumnsMatchEntities() throws IOException {
+		Map<String, Map<String, Boolean>> migrated = migratedTables();
+
+		for (Map.Entry<String, Map<String, Boolean>> entry : migrated.entrySet()) {
+			Table table = entityTable(entry.getKey());
+			assertNotNull(table, "엔티티가 없는 테이블: " + entry.getKey());
+			// 컬럼 이름 → NOT NULL 여부
+			Map<String, Boolean> mapped = new TreeMap<>();
+			for (Column column : table.getColumns()) {
+				mapped.put(column.getName(), !column.isNullable());
+			}
+			assertEquals(mapped, new TreeMap<>(entry.getValue()), "컬럼 정의 불일치: " + entry.getKey());
+		}
+	}
+
+	private static Table entityTable(String name) {
+		for (Table table : metadata.collectTableMappings()) {
+			if (table.getName().equals(name)) {
+				return table;
+			}
+		}
+		return null;
+	}
+
+	// V*.sql 을 버전 순으로 읽어 테이블별 컬럼 (이름 → NOT NULL) 을 모음
+	private static Map<String, Map<String, Boolean>> migratedTables() throws IOException {
+		Resource[] scripts = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*.sql");
+		List<Resource> ordered = new ArrayList<>(Arrays.asList(scripts));
+		ordered.sort(Comparator.comparingInt(script -> Integer.parseInt(script.getFilename().replaceAll("^V(\\d+)__.*", "$1"))));
+
+		Map<String, Map<String, Boolean>> tables = new TreeMap<>();
+		for (Resource script : ordered) {
+			String sql = script.getContentAsString(StandardCharsets.UTF_8);
+			Matcher partitioned = PARTITION_TABLE.matcher(sql);
+			while (partitioned.find()) {
+				Map<String, Boolean> columns = parseColumns(partitioned.group(3));
+				columns.put(partitioned.group(2), true);
+				tables.put(partitioned.group(1), columns);
+			}
+			Matcher created = CREATE_TABLE.matcher(sql);
+			while (created.find()) {
+				tables.put(created.group(1), parseColumns(created.group(2)));
+			}
+			Matcher added = ADD_COLUMN.matcher(sql);
+			while (added.find()) {
+				tables.get(added.group(1)).put(added.group(2), isNotNull(added.group(3)));
+			}
+		}
+		return tables;
+	}
+
+	// 최상위 쉼표로 나눈 컬럼 정의 (제약 조건 줄은 제외)
+	private static Map<String, Boolean> parseColumns(String ddl) {
+		Map<String, Boolean> columns = new TreeMap<>();
+		int depth = 0;
+		int start = 0;
+		for (int i = 0; i <= ddl.length(); i++) {
+			char c = i < ddl.length() ? ddl.charAt(i) : ',';
+			if (c == '(') {
+				depth++;
+			} else if (c == ')') {
+				depth--;
+			} else if (c == ',' && depth == 0) {
+				String definition = ddl.substring(start, i).trim();
+				start = i + 1;
+				if (definition.isEmpty() || definition.startsWith("CONSTRAINT") || definition.startsWith("PRIMARY KEY")
+						|| definition.startsWith("UNIQUE")) {
+					continue;
+				}
+				String name = definition.split("\\s+")[0].replace("\"", "");
+				columns.put(name, isNotNull(definition));
+			}
+		}
+		return columns;
+	}
+
+	private static boolean isNotNull(String definition) {
+		return definition.contains("NOT NULL") || definition.contains("PRIMARY KEY");
+	}
+}
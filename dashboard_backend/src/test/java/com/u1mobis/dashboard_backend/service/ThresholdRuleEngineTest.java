@@ -0,0 +1,162 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.u1mobis.dashboard_backend.entity.Company;
+import com.u1mobis.dashboard_backend.entity.EnvironmentSensor;
+import com.u1mobis.dashboard_backend.entity.ThresholdRule;
+import com.u1mobis.dashboard_backend.entity.ThresholdRule.Comparator;
+import com.u1mobis.dashboard_backend.entity.ThresholdRule.Metric;
+import com.u1mobis.dashboard_backend.entity.ThresholdRule.RuleWindow;
+import com.u1mobis.dashboard_backend.repository.CompanyRepository;
+import com.u1mobis.dashboard_backend.repository.ThresholdRuleRepository;
+import com.u1mobis.dashboard_backend.service.AlertStateEngine.Decision;
+
+class ThresholdRuleEngineTest {
+
+	private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+	private final ThresholdRuleRepository ruleRepository = mock(ThresholdRuleRepository.class);
+	private final AlertService alertService = mock(AlertService.class);
+	private final CompanyRepository companyRepository = mock(CompanyRepository.class);
+	private final Company company = Company.builder().companyId(1L).companyName("u1mobis").companyCode("U1MOBIS1").build();
+
+	private ThresholdRuleEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		AlertStateEngine alertStateEngine = new AlertStateEngine();
+		ReflectionTestUtils.setField(alertStateEngine, "renotifyIntervalMillis", 600_000L);
+		ReflectionTestUtils.setField(alertStateEngine, "burstCapacity", 100);
+		ReflectionTestUtils.setField(alertStateEngine, "burstRefillPerMinute", 100);
+		engine = new ThresholdRuleEngine(ruleRepository, alertStateEngine, alertService, new KPIStreamAggregator(),
+				companyRepository);
+		ReflectionTestUtils.setField(engine, "defaultHysteresisRatio", 0.03);
+		when(companyRepository.findById(1L)).thenReturn(Optional.of(company));
+	}
+
+	@Test
+	void usesDefaultRulesWithoutCompanyRules() {
+		loadRules();
+
+		assertTrue(engine.usesDefaultRules(1L));
+		engine.evaluateKpi(company, 1L, 65.0, 90.0, 90.0, 90.0, 95.0, 95.0);
+
+		verify(alertService).publishThresholdAlert(eq(company), eq(1L), eq("OEE_LOW"), anyString(), eq("danger"),
+				eq(65.0), eq(Decision.RAISE));
+		verify(alertService, times(1)).publishThresholdAlert(any(), any(), anyString(), anyString(), anyString(), any(), any());
+	}
+
+	@Test
+	void companyRuleReplacesDefaultsOnlyForItsMetric() {
+		loadRules(rule(10L, null, "CUSTOM_OEE", Metric.OEE, Comparator.LT, 80.0));
+
+		assertFalse(engine.usesDefaultRules(1L));
+		// OEE 는 회사 규칙만, FTY 는 기본 규칙 그대로
+		engine.evaluateKpi(company, 1L, 65.0, 90.0, 90.0, 90.0, 80.0, 95.0);
+
+		verify(alertService).publishThresholdAlert(eq(company), eq(1L), eq("CUSTOM_OEE"), anyString(), eq("danger"),
+				eq(65.0), eq(Decision.RAISE));
+		verify(alertService).publishThresholdAlert(eq(company), eq(1L), eq("FTY_LOW"), anyString(), eq("danger"),
+				eq(80.0), eq(Decision.RAISE));
+		verify(alertService, never()).publishThresholdAlert(any(), any(), eq("OEE_LOW"), anyString(), anyString(), any(), any());
+	}
+
+	@Test
+	void defaultHysteresisAppliesWhenClearThresholdMissing() {
+		loadRules(rule(10L, null, "CUSTOM_OEE", Metric.OEE, Comparator.LT, 80.0));
+
+		engine.evaluateKpi(company, 1L, 79.0, 90.0, 90.0, 90.0, 95.0, 95.0);
+		// 해제 기준 = 80 + 80 * 0.03 = 82.4
+		engine.evaluateKpi(company, 1L, 82.0, 90.0, 90.0, 90.0, 95.0, 95.0);
+		verify(alertService, never()).publishThresholdAlert(any(), any(), anyString(), anyString(), anyString(), any(),
+				eq(Decision.CLEAR));
+
+		engine.evaluateKpi(company, 1L, 82.5, 90.0, 90.0, 90.0, 95.0, 95.0);
+		verify(alertService).publishThresholdAlert(eq(company), eq(1L), eq("CUSTOM_OEE"), anyString(), eq("success"),
+				eq(82.5), eq(Decision.CLEAR));
+	}
+
+	@Test
+	void lineRuleAppliesOnlyToItsLine() {
+		loadRules(rule(20L, 2L, "LINE2_TEMP", Metric.TEMPERATURE, Comparator.GT, 30.0));
+
+		engine.evaluateEnvironment(company, EnvironmentSensor.builder().lineId(2L).temperature(31.0).build());
+		engine.evaluateEnvironment(company, EnvironmentSensor.builder().lineId(3L).temperature(31.0).build());
+
+		verify(alertService).publishThresholdAlert(eq(company), eq(2L), eq("LINE2_TEMP"), anyString(), eq("danger"),
+				eq(31.0), eq(Decision.RAISE));
+		// 3번 라인은 기본 기준(35도) 적용
+		verify(alertService, never()).publishThresholdAlert(any(), eq(3L), anyString(), anyString(), anyString(), any(), any());
+	}
+
+	@Test
+	void deletedRuleClearsRaisedAlert() {
+		loadRules(rule(10L, null, "CUSTOM_OEE", Metric.OEE, Comparator.LT, 80.0));
+		engine.evaluateKpi(company, 1L, 75.0, 90.0, 90.0, 90.0, 95.0, 95.0);
+
+		loadRules();
+
+		verify(alertService).publishThresholdAlert(eq(company), eq(1L), eq("CUSTOM_OEE"), anyString(), eq("success"),
+				eq(75.0), eq(Decision.CLEAR));
+		assertTrue(engine.usesDefaultRules(1L));
+	}
+
+	@Test
+	void modifiedRuleIsReevaluatedFromScratch() {
+		loadRules(rule(10L, null, "CUSTOM_OEE", Metric.OEE, Comparator.LT, 80.0));
+		engine.evaluateKpi(company, 1L, 75.0, 90.0, 90.0, 90.0, 95.0, 95.0);
+
+		ThresholdRule modified = rule(10L, null, "CUSTOM_OEE", Metric.OEE, Comparator.LT, 78.0);
+		modified.setUpdatedAt(UPDATED_AT.plusMinutes(1));
+		loadRules(modified);
+		engine.evaluateKpi(company, 1L, 75.0, 90.0, 90.0, 90.0, 95.0, 95.0);
+
+		// 이전 정의로 잡힌 발생 상태는 해제 후 새 기준으로 다시 발생
+		verify(alertService).publishThresholdAlert(any(), any(), eq("CUSTOM_OEE"), anyString(), anyString(), any(),
+				eq(Decision.CLEAR));
+		verify(alertService, times(2)).publishThresholdAlert(any(), any(), eq("CUSTOM_OEE"), anyString(), anyString(),
+				any(), eq(Decision.RAISE));
+	}
+
+	private void loadRules(ThresholdRule... rules) {
+		when(ruleRepository.findByEnabledTrue()).thenReturn(List.of(rules));
+		when(ruleRepository.count()).thenReturn((long) rules.length);
+		when(ruleRepository.findLastUpdatedAt()).thenReturn(rules.length > 0 ? rules[0].getUpdatedAt() : null);
+		engine.reload();
+	}
+
+	private static ThresholdRule rule(Long ruleId, Long lineId, String alertType, Metric metric, Comparator comparator,
+									  double threshold) {
+		return ThresholdRule.builder()
+				.ruleId(ruleId)
+				.companyId(1L)
+				.lineId(lineId)
+				.alertType(alertType)
+				.metric(metric)
+				.comparator(comparator)
+				.threshold(threshold)
+				.window(RuleWindow.SAMPLE)
+				.severity("danger")
+				.enabled(true)
+				.updatedAt(UPDATED_AT)
+				.build();
+	}
+}
@@ -0,0 +1,117 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TwinFrameEncoderTest {
+
+	@Test
+	void frameRoundTripsHeaderRecordsAndTables() {
+		TwinFrameEncoder encoder = new TwinFrameEncoder(4, 65536);
+
+		ByteBuffer frame = ByteBuffer.wrap(encode(encoder, 42L)).order(ByteOrder.LITTLE_ENDIAN);
+
+		// 헤더
+		assertEquals("TWF1", new String(frame.array(), 0, 4, StandardCharsets.US_ASCII));
+		assertEquals(TwinFrameEncoder.FORMAT_VERSION, frame.getShort(4));
+		assertEquals(42L, frame.getLong(8));
+		int tableOffset = frame.getInt(24);
+
+		// 제품 섹션: 1건 + 위치 배열
+		frame.position(32);
+		assertEquals(1, frame.getInt());
+		int productId = frame.getShort() & 0xFFFF;
+		assertEquals(1, frame.getShort());
+		int station = frame.getShort() & 0xFFFF;
+		frame.getShort();
+		assertEquals(TwinFrameEncoder.NONE_U16, frame.getShort() & 0xFFFF); // doorColor 없음
+		int status = frame.get() & 0xFF;
+		assertEquals(50, frame.get());
+		assertEquals(2, frame.get());
+		assertEquals(1, frame.get());
+		frame.getShort();
+		assertEquals(1.5f, frame.getFloat());
+		assertEquals(2.5f, frame.getFloat());
+		assertEquals(-3.0f, frame.getFloat());
+
+		// 빈 스테이션/로봇 섹션과 컨베이어 1건
+		assertEquals(0, frame.getInt());
+		assertEquals(0, frame.getInt());
+		assertEquals(1, frame.getInt());
+		frame.getShort();
+		assertEquals(TwinFrameEncoder.NONE_U16, frame.getShort() & 0xFFFF); // 라인 없음
+		int command = frame.get() & 0xFF;
+		assertEquals(2 | 4, frame.get());
+		frame.getShort();
+		assertEquals(0.75f, frame.getFloat());
+		assertEquals(tableOffset, frame.position());
+
+		// 상태 코드표 → 문자열 사전
+		List<String> codes = readTable(frame);
+		List<String> strings = readTable(frame);
+		assertEquals(List.of("PROCESSING", "STOP"), codes);
+		assertEquals("PROCESSING", codes.get(status));
+		assertEquals("STOP", codes.get(command));
+		assertEquals("CAR_001", strings.get(productId));
+		assertEquals("DoorStation", strings.get(station));
+		assertEquals(frame.limit(), frame.position());
+	}
+
+	@Test
+	void pooledBufferIsReusedAndGrowsWithoutCorruptingFrames() {
+		// 헤더만 들어가는 크기로 시작해 작성 중 버퍼 교체
+		TwinFrameEncoder encoder = new TwinFrameEncoder(1, 32);
+
+		byte[] first = encode(encoder, 1L);
+		assertEquals(1, encoder.getStats().get("pooledBuffers"));
+		byte[] second = encode(encoder, 1L);
+
+		// 반납된 버퍼를 다시 써도 타임스탬프 외에는 같은 프레임
+		assertEquals(first.length, second.length);
+		assertArrayEquals(withoutTimestamp(first), withoutTimestamp(second));
+		assertEquals(1, encoder.getStats().get("pooledBuffers"));
+		assertEquals(2L, encoder.getStats().get("encodedFrames"));
+	}
+
+	private static byte[] encode(TwinFrameEncoder encoder, long seq) {
+		try (TwinFrameEncoder.FrameWriter writer = encoder.begin(seq)) {
+			writer.beginSection(1);
+			writer.product("CAR_001", 1L, "DoorStation", "PROCESSING", "WHITE", null, 50, 2, true, 1.5, 2.5, -3.0);
+			writer.endSection();
+			writer.beginSection(0);
+			writer.endSection();
+			writer.beginSection(0);
+			writer.endSection();
+			writer.beginSection(1);
+			writer.conveyor("CONV_01", null, "STOP", 0.75, false, true, true);
+			writer.endSection();
+			return writer.finish();
+		}
+	}
+
+	private static List<String> readTable(ByteBuffer frame) {
+		int count = frame.getShort() & 0xFFFF;
+		List<String> values = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			byte[] bytes = new byte[frame.getShort() & 0xFFFF];
+			frame.get(bytes);
+			values.add(new String(bytes, StandardCharsets.UTF_8));
+		}
+		return values;
+	}
+
+	private static byte[] withoutTimestamp(byte[] frame) {
+		byte[] copy = Arrays.copyOf(frame, frame.length);
+		Arrays.fill(copy, 16, 24, (byte) 0);
+		return copy;
+	}
+}
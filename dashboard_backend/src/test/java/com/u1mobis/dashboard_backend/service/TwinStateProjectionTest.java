@@ -0,0 +1,211 @@
+package com.u1mobis.dashboard_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.u1mobis.dashboard_backend.entity.Company;
+import com.u1mobis.dashboard_backend.entity.CurrentProduction;
+import com.u1mobis.dashboard_backend.entity.ProductionLine;
+import com.u1mobis.dashboard_backend.entity.StationStatus;
+import com.u1mobis.dashboard_backend.repository.CompanyRepository;
+import com.u1mobis.dashboard_backend.repository.ConveyorControlRepository;
+import com.u1mobis.dashboard_backend.repository.CurrentProductionRepository;
+import com.u1mobis.dashboard_backend.repository.ProductDetailRepository;
+import com.u1mobis.dashboard_backend.repository.ProductionLineRepository;
+import com.u1mobis.dashboard_backend.repository.RobotPositionRepository;
+import com.u1mobis.dashboard_backend.repository.RobotRepository;
+import com.u1mobis.dashboard_backend.repository.StationStatusRepository;
+
+class TwinStateProjectionTest {
+
+	private static final String COMPANY = "u1mobis";
+	private static final String EPOCH = "epoch-1";
+	private static final String PRODUCT = "A01_PROD_001";
+
+	private final CompanyRepository companyRepository = mock(CompanyRepository.class);
+	private final StationStatusRepository stationStatusRepository = mock(StationStatusRepository.class);
+	private final ProductionLineRepository productionLineRepository = mock(ProductionLineRepository.class);
+	private final CurrentProductionRepository currentProductionRepository = mock(CurrentProductionRepository.class);
+	private final TwinChangePublisher publisher = mock(TwinChangePublisher.class);
+
+	private TwinStateProjection projection;
+
+	@BeforeEach
+	void setUp() {
+		// 트랜잭션 밖 이벤트처럼 바로 적용
+		projection = new TwinStateProjection(companyRepository, productionLineRepository,
+				currentProductionRepository, mock(ProductDetailRepository.class), stationStatusRepository,
+				mock(RobotRepository.class), mock(RobotPositionRepository.class), mock(ConveyorControlRepository.class),
+				publisher, mock(TwinFrameEncoder.class), new ObjectMapper(),
+				event -> ReflectionTestUtils.invokeMethod(projection, "onTwinMutation", event));
+		ReflectionTestUtils.setField(projection, "bufferSize", 1024);
+		when(publisher.getEpoch()).thenReturn(EPOCH);
+		when(companyRepository.findByCompanyName(COMPANY))
+				.thenReturn(Optional.of(Company.builder().companyId(1L).companyName(COMPANY).build()));
+	}
+
+	@Test
+	void publishesChangedEntitiesWithConsecutiveSeq() {
+		projection.getRealtimeView(COMPANY, null);
+
+		projection.upsertStation(COMPANY, station("DoorStation", "IDLE"));
+		projection.upsertStation(COMPANY, station("DoorStation", "OPERATING"));
+		// 값이 같으면 변경분 없음
+		projection.upsertStation(COMPANY, station("DoorStation", "OPERATING"));
+
+		List<Long> seqs = publishedSeqs();
+		assertEquals(List.of(1L, 2L), seqs);
+		assertEquals(2L, projection.getRealtimeView(COMPANY, null).get("version"));
+	}
+
+	@Test
+	void changesSinceReturnsOnlyNewerDeltas() {
+		projection.getRealtimeView(COMPANY, null);
+		projection.upsertStation(COMPANY, station("DoorStation", "IDLE"));
+		projection.upsertStation(COMPANY, station("DoorStation", "OPERATING"));
+		projection.upsertStation(COMPANY, station("DoorStation", "ERROR"));
+
+		Map<String, Object> changes = projection.getChangesSince(COMPANY, 1, EPOCH);
+		assertEquals("twin_delta", changes.get("type"));
+		assertEquals(1L, changes.get("fromSeq"));
+		assertEquals(3L, changes.get("seq"));
+		List<?> deltas = (List<?>) changes.get("changes");
+		assertEquals(2, deltas.size());
+		assertEquals(2L, ((TwinDelta) deltas.get(0)).seq());
+
+		Map<String, Object> upToDate = projection.getChangesSince(COMPANY, 3, EPOCH);
+		assertEquals("twin_delta", upToDate.get("type"));
+		assertTrue(((List<?>) upToDate.get("changes")).isEmpty());
+	}
+
+	@Test
+	void fallsBackToKeyframeWhenBufferNoLongerCoversSince() {
+		ReflectionTestUtils.setField(projection, "bufferSize", 2);
+		projection.getRealtimeView(COMPANY, null);
+		for (String status : List.of("IDLE", "OPERATING", "ERROR", "MAINTENANCE")) {
+			projection.upsertStation(COMPANY, station("DoorStation", status));
+		}
+
+		// 버퍼에는 seq 3, 4 만 남음
+		Map<String, Object> stale = projection.getChangesSince(COMPANY, 1, EPOCH);
+		assertEquals("twin_keyframe", stale.get("type"));
+		assertEquals(4L, stale.get("seq"));
+
+		Map<String, Object> covered = projection.getChangesSince(COMPANY, 2, EPOCH);
+		assertEquals("twin_delta", covered.get("type"));
+		assertEquals(2, ((List<?>) covered.get("changes")).size());
+	}
+
+	@Test
+	void fallsBackToKeyframeForOtherEpochOrFutureSeq() {
+		projection.getRealtimeView(COMPANY, null);
+		projection.upsertStation(COMPANY, station("DoorStation", "IDLE"));
+
+		// 재기동 전 서버의 seq 는 같은 숫자여도 이어받을 수 없음
+		assertEquals("twin_keyframe", projection.getChangesSince(COMPANY, 0, "epoch-0").get("type"));
+		assertEquals("twin_keyframe", projection.getChangesSince(COMPANY, 5, EPOCH).get("type"));
+		assertEquals("twin_delta", projection.getChangesSince(COMPANY, 0, null).get("type"));
+	}
+
+	@Test
+	void ignoresUpdatesForCompaniesNotLoaded() {
+		projection.upsertStation(COMPANY, station("DoorStation", "IDLE"));
+
+		verify(publisher, never()).publishDeltas(any(), anyList());
+		// 최초 조회 시 DB 값으로 적재 (DB 에는 스테이션 없음)
+		Map<?, ?> stations = (Map<?, ?>) projection.getRealtimeView(COMPANY, null).get("stations");
+		assertTrue(stations.isEmpty());
+	}
+
+	@Test
+	void publishesKeyframeOnlyAfterChanges() {
+		projection.getRealtimeView(COMPANY, null);
+		projection.publishKeyframes();
+		verify(publisher, never()).publishKeyframe(eq(COMPANY), any());
+
+		projection.upsertStation(COMPANY, station("DoorStation", "IDLE"));
+		projection.publishKeyframes();
+		projection.publishKeyframes();
+		verify(publisher, times(1)).publishKeyframe(eq(COMPANY), any());
+	}
+
+	@Test
+	void reworkCommittedDuringReloadIsNotCountedTwice() {
+		when(productionLineRepository.findByCompanyCompanyId(1L)).thenReturn(List.of(line(1L)));
+		when(currentProductionRepository.findByStatusAndLineIdIn(eq("PROCESSING"), anyList()))
+				.thenReturn(List.of(product(0)))
+				// 보정 재적재 중 재작업이 커밋되고, 재적재 결과에도 이미 반영됨
+				.thenAnswer(invocation -> {
+					projection.updateRework(PRODUCT, 1);
+					return List.of(product(1));
+				});
+		projection.getRealtimeView(COMPANY, null);
+
+		projection.reconcile();
+
+		assertEquals(1, reworkCount());
+		// 늦게 도착한 이전 횟수로 줄어들지 않음
+		projection.updateRework(PRODUCT, 2);
+		projection.updateRework(PRODUCT, 1);
+		assertEquals(2, reworkCount());
+	}
+
+	private int reworkCount() {
+		Map<?, ?> products = (Map<?, ?>) projection.getRealtimeView(COMPANY, null).get("products");
+		return (Integer) ((Map<?, ?>) products.get(TwinStateProjection.toUnityCarId(PRODUCT))).get("reworkCount");
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Long> publishedSeqs() {
+		ArgumentCaptor<List<TwinDelta>> captor = ArgumentCaptor.forClass(List.class);
+		verify(publisher, times(2)).publishDeltas(eq(COMPANY), captor.capture());
+		List<Long> seqs = new ArrayList<>();
+		for (List<TwinDelta> deltas : captor.getAllValues()) {
+			deltas.forEach(delta -> seqs.add(delta.seq()));
+		}
+		return seqs;
+	}
+
+	private static ProductionLine line(Long lineId) {
+		ProductionLine line = new ProductionLine(Company.builder().companyId(1L).build(), "Line " + lineId, "L" + lineId, null);
+		line.setLineId(lineId);
+		return line;
+	}
+
+	private static CurrentProduction product(int reworkCount) {
+		return CurrentProduction.builder()
+				.productId(PRODUCT)
+				.lineId(1L)
+				.status("PROCESSING")
+				.reworkCount(reworkCount)
+				.build();
+	}
+
+	private static StationStatus station(String stationId, String status) {
+		return StationStatus.builder()
+				.stationId(stationId)
+				.stationName(stationId)
+				.lineId(1L)
+				.status(status)
+				.build();
+	}
+}
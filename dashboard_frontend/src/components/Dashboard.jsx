@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import ProductionStatus from './KPI/ProductionStatus';
 import OTDStatus from './KPI/OTDStatus';
 import FTYStatus from './KPI/FTYStatus';
@@ -17,6 +17,8 @@ const Dashboard = () => {
   const [loading, setLoading] = useState(true);
   const [lastUpdated, setLastUpdated] = useState(new Date());
   const [connectionStatus, setConnectionStatus] = useState('connecting');
+  // 마지막으로 반영한 대시보드 변경 순번 (WebSocket 변경분 연속성 확인용)
+  const lastSeqRef = useRef(null);
 
   // 사용자 정보 가져오기 (localStorage에서)
   const [userInfo, setUserInfo] = useState(null);
@@ -111,6 +113,57 @@ const Dashboard = () => {
     return () => window.removeEventListener('realtimeDataUpdate', handleRealtimeData);
   }, []);
 
+  // 대시보드 변경분 적용 (seq 가 끊기면 전체 스냅샷 재동기화)
+  useEffect(() => {
+    const companyName = companyInfo?.companyName;
+
+    const resync = async () => {
+      try {
+        const snapshot = await apiService.dashboard.resync(companyName, 1);
+        lastSeqRef.current = snapshot.seq;
+        setDashboardData(prev => ({ ...prev, ...snapshot }));
+        setLastUpdated(new Date());
+      } catch (error) {
+        console.error('대시보드 재동기화 실패:', error);
+      }
+    };
+
+    const handleDashboardDelta = (event) => {
+      const delta = event.detail;
+      if (lastSeqRef.current === null || delta.seq <= lastSeqRef.current) {
+        return; // 아직 스냅샷을 받기 전이거나 이미 반영한 변경분
+      }
+      if (delta.seq !== lastSeqRef.current + 1) {
+        resync();
+        return;
+      }
+      lastSeqRef.current = delta.seq;
+      setDashboardData(prev => {
+        const next = { ...prev };
+        Object.entries(delta.changes || {}).forEach(([section, fields]) => {
+          if (fields === null || typeof fields !== 'object' || Array.isArray(fields)) {
+            next[section] = fields;
+            return;
+          }
+          const merged = { ...(prev?.[section] || {}) };
+          Object.entries(fields).forEach(([key, value]) => {
+            if (value === null) {
+              delete merged[key];
+            } else {
+              merged[key] = value;
+            }
+          });
+          next[section] = merged;
+        });
+        return next;
+      });
+      setLastUpdated(new Date());
+    };
+
+    window.addEventListener('dashboardDelta', handleDashboardDelta);
+    return () => window.removeEventListener('dashboardDelta', handleDashboardDelta);
+  }, [companyInfo]);
+
   useEffect(() => {
     let mounted = true;
     let pollingInterval;
@@ -123,19 +176,17 @@ const Dashboard = () => {
         setConnectionStatus('connecting');
         
         // 병렬로 모든 데이터 가져오기 (멀티테넌트 지원)
+        // 대시보드 스냅샷에 생산/KPI/환경이 모두 포함됨 (변경 없으면 서버가 304 응답)
         const companyName = companyInfo?.companyName;
-        const [dashboardData, kpiData, environmentData, conveyorData] = await Promise.all([
+        const [dashboardData, conveyorData] = await Promise.all([
           apiService.dashboard.getData(companyName),
-          apiService.dashboard.getRealTimeKPI(companyName),
-          apiService.environment.getCurrent(),
           apiService.production.getConveyorStatus()
         ]);
 
         if (mounted) {
+          lastSeqRef.current = dashboardData.seq ?? null;
           setDashboardData({
             ...dashboardData,
-            kpi: kpiData,
-            environment: environmentData,
             conveyor: conveyorData
           });
           setConnectionStatus('connected');
@@ -154,8 +205,8 @@ const Dashboard = () => {
     // 초기 데이터 로드
     fetchAllData();
 
-    // 3초마다 폴링
-    pollingInterval = setInterval(fetchAllData, 3000);
+    // 실시간 갱신은 WebSocket 변경분으로 처리하고, 폴링은 누락 대비용으로만 30초마다 수행
+    pollingInterval = setInterval(fetchAllData, 30000);
 
     // 초기 로딩 타이머
     const loadingTimer = setTimeout(() => {
@@ -33,6 +33,12 @@ const Factory3DTwin = () => {
   // 실시간 데이터 상태
   const [realtimeData, setRealtimeData] = useState(null);
   const realtimeIntervalRef = useRef(null);
+  // 트윈 변경분 적용 상태 (서버 기동 ID, 마지막 seq, 현재 전체 상태)
+  const twinEpochRef = useRef(null);
+  const twinSeqRef = useRef(-1);
+  const twinStateRef = useRef(null);
+  const twinCatchingUpRef = useRef(false);
+  const twinDeltaListenerRef = useRef(null);
 
   useEffect(() => {
     // Unity 통신 설정
@@ -286,6 +292,10 @@ const Factory3DTwin = () => {
         clearInterval(realtimeIntervalRef.current);
         realtimeIntervalRef.current = null;
       }
+      if (twinDeltaListenerRef.current) {
+        window.removeEventListener('twinDelta', twinDeltaListenerRef.current);
+        twinDeltaListenerRef.current = null;
+      }
 
       // Unity 인스턴스는 전역 상태에서 계속 유지
       // window.unityGlobalState에 저장되어 있어서 다른 페이지 갔다와도 계속 실행됨
@@ -658,41 +668,135 @@ const Factory3DTwin = () => {
     setHoverPosition({ x: 0, y: 0 });
   };
 
-  // 실시간 데이터 폴링 시작
-  const startRealtimeDataPolling = () => {
+  // 현재 로그인한 사용자의 회사명
+  const getCurrentCompanyName = () => {
+    const userData = localStorage.getItem('userData');
+    if (userData) {
+      try {
+        const user = JSON.parse(userData);
+        if (user.companyName) {
+          return user.companyName;
+        }
+      } catch (e) {
+        console.warn('사용자 데이터 파싱 실패, 기본 회사명 사용');
+      }
+    }
+    return 'u1mobis'; // 기본값
+  };
+
+  const TWIN_SECTIONS = {
+    PRODUCT: 'products',
+    STATION: 'stations',
+    ROBOT: 'robots',
+    CONVEYOR: 'conveyors'
+  };
+
+  // 전체 상태 교체 (최초 조회, keyframe)
+  const applyTwinState = (state, seq, epoch) => {
+    twinStateRef.current = state;
+    twinSeqRef.current = seq;
+    twinEpochRef.current = epoch || twinEpochRef.current;
+    setRealtimeData(state);
+    sendRealtimeDataToUnity(state);
+  };
+
+  // 변경분 적용 후 바뀐 엔티티만 Unity로 전송
+  const applyTwinChanges = (changes) => {
+    const state = twinStateRef.current;
+    if (!state) return;
+
+    const next = { ...state };
+    const changed = {};
+    changes.forEach((change) => {
+      if (change.seq <= twinSeqRef.current) return;
+      const section = TWIN_SECTIONS[change.entity];
+      if (!section) return;
+      next[section] = { ...(next[section] || {}) };
+      if (change.op === 'REMOVED') {
+        delete next[section][change.id];
+      } else {
+        next[section][change.id] = change.data;
+        changed[section] = { ...(changed[section] || {}), [change.id]: change.data };
+      }
+      twinSeqRef.current = change.seq;
+    });
+    next.version = twinSeqRef.current;
+
+    twinStateRef.current = next;
+    setRealtimeData(next);
+    if (Object.keys(changed).length > 0) {
+      sendRealtimeDataToUnity(changed);
+    }
+  };
+
+  // 누락 구간 복구 (버퍼 범위를 벗어나면 서버가 keyframe 으로 응답)
+  const catchUpTwin = async (companyName) => {
+    if (twinCatchingUpRef.current) return;
+    twinCatchingUpRef.current = true;
+    try {
+      const { apiService } = await import('../../service/apiService');
+      const result = await apiService.unity.getTwinChanges(companyName, twinSeqRef.current, twinEpochRef.current);
+      handleTwinMessage(result, companyName, true);
+    } catch (error) {
+      console.error('트윈 변경분 복구 실패:', error);
+    } finally {
+      twinCatchingUpRef.current = false;
+    }
+  };
+
+  // WebSocket/복구 응답 공통 처리 (seq 가 연속일 때만 적용)
+  // 서버가 재기동하면 epoch 가 바뀌고 seq 가 0 부터 다시 시작하므로 seq 를 초기화하고 전체 상태부터 다시 받는다
+  const handleTwinMessage = (message, companyName, isCatchUp = false) => {
+    if (!message || (message.companyName && message.companyName !== companyName)) return;
+    const epochChanged = Boolean(message.epoch && twinEpochRef.current && message.epoch !== twinEpochRef.current);
+
+    if (message.type === 'twin_keyframe') {
+      // 복구 응답의 keyframe 은 서버가 현재 상태로 판단한 것이므로 seq 와 관계없이 적용
+      if (isCatchUp || epochChanged || message.seq >= twinSeqRef.current || !twinStateRef.current) {
+        applyTwinState(message.state, message.seq, message.epoch);
+      }
+      return;
+    }
+    if (message.type !== 'twin_delta') return;
+    if (epochChanged) {
+      twinSeqRef.current = -1;
+      catchUpTwin(companyName);
+      return;
+    }
+    if (message.seq <= twinSeqRef.current) return;
+
+    if (message.fromSeq > twinSeqRef.current) {
+      catchUpTwin(companyName);
+      return;
+    }
+    applyTwinChanges(message.changes || []);
+  };
+
+  // 실시간 데이터 구독 시작 (최초 전체 상태 조회 후 변경분만 적용)
+  const startRealtimeDataPolling = async () => {
     // 기존 폴링이 있다면 정리
     if (realtimeIntervalRef.current) {
       clearInterval(realtimeIntervalRef.current);
     }
+    if (twinDeltaListenerRef.current) {
+      window.removeEventListener('twinDelta', twinDeltaListenerRef.current);
+    }
 
-    // 3초마다 실시간 데이터 조회 및 Unity 전송
-    realtimeIntervalRef.current = setInterval(async () => {
-      try {
-        // 현재 로그인한 사용자의 회사명 가져오기
-        const userData = localStorage.getItem('userData');
-        let companyName = 'u1mobis'; // 기본값
-        
-        if (userData) {
-          try {
-            const user = JSON.parse(userData);
-            if (user.companyName) {
-              companyName = user.companyName;
-            }
-          } catch (e) {
-            console.warn('사용자 데이터 파싱 실패, 기본 회사명 사용');
-          }
-        }
+    const companyName = getCurrentCompanyName();
 
-        // API 서비스를 통한 인증된 호출
-        const { apiService } = await import('../../service/apiService');
-        const data = await apiService.unity.getRealtimeData(companyName);
-        
-        setRealtimeData(data);
-        sendRealtimeDataToUnity(data);
-      } catch (error) {
-        console.error('실시간 데이터 조회 실패:', error);
-      }
-    }, 3000);
+    try {
+      const { apiService } = await import('../../service/apiService');
+      const data = await apiService.unity.getTwinState(companyName);
+      applyTwinState(data, data.version, data.epoch);
+    } catch (error) {
+      console.error('실시간 데이터 조회 실패:', error);
+    }
+
+    twinDeltaListenerRef.current = (event) => handleTwinMessage(event.detail, companyName);
+    window.addEventListener('twinDelta', twinDeltaListenerRef.current);
+
+    // WebSocket 끊김 대비 30초마다 누락분 확인
+    realtimeIntervalRef.current = setInterval(() => catchUpTwin(companyName), 30000);
   };
 
   // Unity로 실시간 데이터 전송
@@ -21,7 +21,7 @@ const loadWebSocketLibraries = async () => {
   }
 };
 
-const useWebSocket = (companyName, userId) => {
+const useWebSocket = (companyName, userId, dashboardLineId = 1) => {
   const stompClient = useRef(null);
   const [isConnected, setIsConnected] = useState(false);
   const [alerts, setAlerts] = useState([]);
@@ -114,6 +114,22 @@ const useWebSocket = (companyName, userId) => {
             }));
           });
 
+          // 대시보드 변경분 구독 (바뀐 필드만 seq 와 함께 수신)
+          const dashboardTopic = `/topic/dashboard/${companyName}/${dashboardLineId}`;
+          stompClient.current.subscribe(dashboardTopic, (message) => {
+            const delta = JSON.parse(message.body);
+            window.dispatchEvent(new CustomEvent('dashboardDelta', {
+              detail: delta
+            }));
+          });
+
+          // 디지털 트윈 변경분 구독 (엔티티 단위 변경 + 주기적 keyframe)
+          stompClient.current.subscribe(`/topic/twin/${companyName}`, (message) => {
+            window.dispatchEvent(new CustomEvent('twinDelta', {
+              detail: JSON.parse(message.body)
+            }));
+          });
+
           // 구독 메시지 전송
           stompClient.current.publish({
             destination: '/app/subscribe',
@@ -152,7 +168,7 @@ const useWebSocket = (companyName, userId) => {
         setIsConnected(false);
       }
     };
-  }, [companyName, userId]);
+  }, [companyName, userId, dashboardLineId]);
 
   const removeAlert = (alertId) => {
     setAlerts(prevAlerts => prevAlerts.filter(alert => alert.id !== alertId));
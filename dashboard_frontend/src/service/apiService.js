@@ -319,6 +319,8 @@ export const apiService = {
       const endpoint = lineId ? `/dashboard/line/${lineId}` : '/dashboard';
       return httpClient.get(endpoint, companyName);
     },
+    // 전체 스냅샷 재동기화 (WebSocket 변경분 seq 누락 시)
+    resync: (companyName = null, lineId = 1) => httpClient.get(`/dashboard/line/${lineId}/resync`, companyName),
     getRealTimeKPI: (companyName = null) => httpClient.get('/kpi/realtime', companyName),
     processKPIData: (kpiData, companyName = null) => httpClient.post('/kpi/process', kpiData, companyName)
   },
@@ -437,6 +439,14 @@ export const apiService = {
       return response.json();
     },
     
+    // 회사 트윈 전체 상태 조회 (version = 마지막 변경 seq)
+    getTwinState: (companyName, lineId = null) =>
+      httpClient.get(lineId ? `/unity/realtime-data?lineId=${lineId}` : '/unity/realtime-data', companyName),
+
+    // since 이후 트윈 변경분 조회 (범위를 벗어나거나 epoch 가 서버 기동 ID 와 다르면 전체 상태)
+    getTwinChanges: (companyName, since = -1, epoch = null) =>
+      httpClient.get(`/unity/changes?since=${since}${epoch ? `&epoch=${encodeURIComponent(epoch)}` : ''}`, companyName),
+    
     // 제품 위치 조회 (인증 헤더 포함)
     getProductPosition: (productId, companyName) => 
       httpClient.get(`/unity/product/${productId}/position`, companyName),